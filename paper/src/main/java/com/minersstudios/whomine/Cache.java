@@ -2,25 +2,33 @@ package com.minersstudios.whomine;
 
 import com.google.gson.JsonElement;
 import com.minersstudios.whomine.chat.ChatBuffer;
+import com.minersstudios.whomine.chat.LocalChatIndex;
 import com.minersstudios.whomine.collection.DiggingMap;
 import com.minersstudios.whomine.collection.StepMap;
 import com.minersstudios.whomine.custom.anomaly.Anomaly;
 import com.minersstudios.whomine.custom.anomaly.AnomalyAction;
+import com.minersstudios.whomine.custom.anomaly.AnomalyIndex;
 import com.minersstudios.whomine.custom.block.CustomBlockData;
+import com.minersstudios.whomine.custom.decor.CustomDecorIndex;
 import com.minersstudios.whomine.custom.item.renameable.RenameableItem;
 import com.minersstudios.whomine.discord.BotHandler;
 import com.minersstudios.whomine.discord.DiscordMap;
+import com.minersstudios.whomine.player.PlayerFileWriter;
 import com.minersstudios.whomine.player.PlayerInfo;
 import com.minersstudios.whomine.player.collection.IDMap;
 import com.minersstudios.whomine.player.collection.MuteMap;
 import com.minersstudios.whomine.player.collection.PlayerInfoMap;
+import com.minersstudios.whomine.player.collection.PlayerNameIndex;
 import com.minersstudios.whomine.api.status.StatusHandler;
+import com.minersstudios.whomine.scheduler.ExpiryScheduler;
+import com.minersstudios.whomine.scheduler.task.BanExpiryHandler;
+import com.minersstudios.whomine.scheduler.task.DiggingTask;
+import com.minersstudios.whomine.scheduler.task.SeatsTask;
 import com.minersstudios.whomine.world.WorldDark;
 import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
 import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 import org.bukkit.NamespacedKey;
-import org.bukkit.entity.ArmorStand;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.EquipmentSlot;
 import org.bukkit.inventory.Recipe;
@@ -31,6 +39,7 @@ import org.jetbrains.annotations.UnknownNullability;
 
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 
 public final class Cache {
@@ -42,17 +51,24 @@ public final class Cache {
     public List<Recipe> customBlockRecipes;
     private StepMap stepMap;
     private DiggingMap diggingMap;
+    private DiggingTask diggingTask;
     private Map<Player, EquipmentSlot> dosimeterPlayers;
     private List<RenameableItem> renameableMenuItems;
     private List<Map.Entry<CustomBlockData, JsonElement>> blockDataRecipes;
+    private PlayerFileWriter playerFileWriter;
     private PlayerInfoMap playerInfoMap;
     private MuteMap muteMap;
     private DiscordMap discordMap;
     private IDMap idMap;
-    private Map<Player, ArmorStand> seats;
+    private PlayerNameIndex playerNameIndex;
+    private ExpiryScheduler<UUID> banExpiryScheduler;
+    private SeatsTask seatsTask;
+    private CustomDecorIndex customDecorIndex;
     private Map<NamespacedKey, Anomaly> anomalies;
+    private AnomalyIndex anomalyIndex;
     private Map<Player, Map<AnomalyAction, Long>> playerAnomalyActionMap;
     private ChatBuffer chatBuffer;
+    private LocalChatIndex localChatIndex;
     private List<BukkitTask> bukkitTasks;
     private Long2ObjectMap<BotHandler> botHandlers;
     PlayerInfo consolePlayerInfo;
@@ -74,6 +90,10 @@ public final class Cache {
         return this.diggingMap;
     }
 
+    public @UnknownNullability DiggingTask getDiggingTask() {
+        return this.diggingTask;
+    }
+
     public @UnknownNullability Map<Player, EquipmentSlot> getDosimeterPlayers() {
         return this.dosimeterPlayers;
     }
@@ -87,6 +107,10 @@ public final class Cache {
         return this.blockDataRecipes;
     }
 
+    public @UnknownNullability PlayerFileWriter getPlayerFileWriter() {
+        return this.playerFileWriter;
+    }
+
     public @UnknownNullability PlayerInfoMap getPlayerInfoMap() {
         return this.playerInfoMap;
     }
@@ -103,14 +127,30 @@ public final class Cache {
         return this.idMap;
     }
 
-    public @UnknownNullability Map<Player, ArmorStand> getSeats() {
-        return this.seats;
+    public @UnknownNullability PlayerNameIndex getPlayerNameIndex() {
+        return this.playerNameIndex;
+    }
+
+    public @UnknownNullability ExpiryScheduler<UUID> getBanExpiryScheduler() {
+        return this.banExpiryScheduler;
+    }
+
+    public @UnknownNullability SeatsTask getSeatsTask() {
+        return this.seatsTask;
+    }
+
+    public @UnknownNullability CustomDecorIndex getCustomDecorIndex() {
+        return this.customDecorIndex;
     }
 
     public @UnknownNullability Map<NamespacedKey, Anomaly> getAnomalies() {
         return this.anomalies;
     }
 
+    public @UnknownNullability AnomalyIndex getAnomalyIndex() {
+        return this.anomalyIndex;
+    }
+
     public @UnknownNullability Map<Player, Map<AnomalyAction, Long>> getPlayerAnomalyActionMap() {
         return this.playerAnomalyActionMap;
     }
@@ -119,6 +159,10 @@ public final class Cache {
         return this.chatBuffer;
     }
 
+    public @UnknownNullability LocalChatIndex getLocalChatIndex() {
+        return this.localChatIndex;
+    }
+
     public @UnknownNullability List<BukkitTask> getBukkitTasks() {
         return this.bukkitTasks;
     }
@@ -159,17 +203,24 @@ public final class Cache {
         this.customBlockRecipes = new ObjectArrayList<>();
         this.stepMap = new StepMap();
         this.diggingMap = new DiggingMap();
+        this.diggingTask = new DiggingTask();
         this.dosimeterPlayers = new ConcurrentHashMap<>();
         this.renameableMenuItems = new ObjectArrayList<>();
         this.blockDataRecipes = new ObjectArrayList<>();
+        this.playerFileWriter = new PlayerFileWriter(this.plugin);
         this.playerInfoMap = new PlayerInfoMap(this.plugin);
         this.muteMap = new MuteMap(this.plugin);
         this.discordMap = new DiscordMap(this.plugin);
         this.idMap = new IDMap(this.plugin);
-        this.seats = new ConcurrentHashMap<>();
+        this.playerNameIndex = new PlayerNameIndex(this.plugin);
+        this.banExpiryScheduler = new ExpiryScheduler<>(this.plugin, new BanExpiryHandler(this.plugin));
+        this.seatsTask = new SeatsTask();
+        this.customDecorIndex = new CustomDecorIndex();
         this.anomalies = new ConcurrentHashMap<>();
+        this.anomalyIndex = new AnomalyIndex(this.plugin);
         this.playerAnomalyActionMap = new ConcurrentHashMap<>();
         this.chatBuffer = new ChatBuffer(this.plugin);
+        this.localChatIndex = new LocalChatIndex(this.plugin);
         this.bukkitTasks = new ObjectArrayList<>();
         this.botHandlers = new Long2ObjectOpenHashMap<>();
 
@@ -185,28 +236,46 @@ public final class Cache {
             return;
         }
 
-        this.isLoaded = false;
-
         for (final var task : this.bukkitTasks) {
             task.cancel();
         }
 
+        this.muteMap.getExpiryScheduler().clear();
+        this.banExpiryScheduler.clear();
+        this.playerFileWriter.shutdown();
+        this.muteMap.getJournal().shutdown();
+        this.discordMap.getJournal().shutdown();
+        this.idMap.shutdown();
+        this.seatsTask.clear();
+        this.customDecorIndex.clear();
+        this.chatBuffer.clear();
+        this.localChatIndex.clear();
+
+        this.isLoaded = false;
+
         this.customDecorRecipes = null;
         this.customItemRecipes = null;
         this.customBlockRecipes = null;
         this.stepMap = null;
         this.diggingMap = null;
+        this.diggingTask = null;
         this.dosimeterPlayers = null;
         this.renameableMenuItems = null;
         this.blockDataRecipes = null;
+        this.playerFileWriter = null;
         this.playerInfoMap = null;
         this.muteMap = null;
         this.discordMap = null;
         this.idMap = null;
-        this.seats = null;
+        this.playerNameIndex = null;
+        this.banExpiryScheduler = null;
+        this.seatsTask = null;
+        this.customDecorIndex = null;
         this.anomalies = null;
+        this.anomalyIndex = null;
         this.playerAnomalyActionMap = null;
         this.chatBuffer = null;
+        this.localChatIndex = null;
         this.bukkitTasks = null;
         this.botHandlers = null;
     }
@@ -13,6 +13,8 @@ import com.minersstudios.whomine.locale.TranslationRegistry;
 import com.minersstudios.whomine.menu.CraftsMenu;
 import com.minersstudios.whomine.menu.RenamesMenu;
 import com.minersstudios.whomine.player.PlayerInfo;
+import com.minersstudios.whomine.player.storage.PlayerFileStorage;
+import com.minersstudios.whomine.player.storage.YamlPlayerFileStorage;
 import com.minersstudios.whomine.resourcepack.ResourcePack;
 import com.minersstudios.whomine.resourcepack.throwable.FatalPackLoadException;
 import com.minersstudios.whomine.api.status.StatusHandler;
@@ -61,6 +63,10 @@ public final class Config {
     private String woodSoundStep;
     private String woodSoundHit;
     private boolean developerMode;
+    private boolean packetMetrics;
+    private PlayerFileStorage playerFileStorage;
+    private int playerCacheMaxSize;
+    private long playerCacheIdleTime;
     private long anomalyCheckRate;
     private long anomalyParticlesCheckRate;
     private long discordServerId;
@@ -120,9 +126,15 @@ public final class Config {
     public static final String KEY_HIT =                          "hit";
 
     public static final String KEY_DEVELOPER_MODE =               "developer-mode";
+    public static final String KEY_PACKET_METRICS =               "packet-metrics";
+    public static final String KEY_PLAYER_STORAGE =               "player-storage";
     public static final String KEY_ANOMALY_CHECK_RATE =           "anomaly-check-rate";
     public static final String KEY_ANOMALY_PARTICLES_CHECK_RATE = "anomaly-particles-check-rate";
 
+    public static final String KEY_PLAYER_CACHE_SECTION =         "player-cache";
+    public static final String KEY_MAX_SIZE =                     "max-size";
+    public static final String KEY_IDLE_TIME =                    "idle-time";
+
     public static final String KEY_SKIN_SECTION =                 "skin";
     public static final String KEY_MINE_SKIN_API_KEY =            "mine-skin-api-key";
 
@@ -155,6 +167,10 @@ public final class Config {
     public static final String DEFAULT_WOOD_SOUND_STEP =            "custom.block.wood.step";
     public static final String DEFAULT_WOOD_SOUND_HIT =             "custom.block.wood.hit";
     public static final boolean DEFAULT_DEVELOPER_MODE =            false;
+    public static final boolean DEFAULT_PACKET_METRICS =            false;
+    public static final String DEFAULT_PLAYER_STORAGE =             YamlPlayerFileStorage.NAME;
+    public static final int DEFAULT_PLAYER_CACHE_MAX_SIZE =         1000;
+    public static final long DEFAULT_PLAYER_CACHE_IDLE_TIME =       1800L;
     public static final long DEFAULT_ANOMALY_CHECK_RATE =           100L;
     public static final long DEFAULT_ANOMALY_PARTICLES_CHECK_RATE = 10L;
     public static final double DEFAULT_LOCAL_CHAT_RADIUS =          25.0d;
@@ -227,9 +243,24 @@ public final class Config {
         this.dateFormatter = DateTimeFormatter.ofPattern(this.dateFormat);
         this.dosimeterCheckRate = yaml.getLong(KEY_DOSIMETER_CHECK_RATE, DEFAULT_DOSIMETER_CHECK_RATE);
         this.developerMode = yaml.getBoolean(KEY_DEVELOPER_MODE);
+        this.packetMetrics = yaml.getBoolean(KEY_PACKET_METRICS, DEFAULT_PACKET_METRICS);
         this.anomalyCheckRate = yaml.getLong(KEY_ANOMALY_CHECK_RATE);
         this.anomalyParticlesCheckRate = yaml.getLong(KEY_ANOMALY_PARTICLES_CHECK_RATE);
 
+        final String playerStorageName = yaml.getString(KEY_PLAYER_STORAGE, DEFAULT_PLAYER_STORAGE);
+        this.playerFileStorage = PlayerFileStorage.fromName(playerStorageName);
+
+        if (this.playerFileStorage == null) {
+            MSLogger.warning("Unknown player storage : \"" + playerStorageName + "\", using " + DEFAULT_PLAYER_STORAGE);
+
+            this.playerFileStorage = PlayerFileStorage.YAML;
+        }
+
+        this.playerCacheMaxSize = yaml.getInt(KEY_PLAYER_CACHE_SECTION + '.' + KEY_MAX_SIZE, DEFAULT_PLAYER_CACHE_MAX_SIZE);
+        this.playerCacheIdleTime = yaml.getLong(KEY_PLAYER_CACHE_SECTION + '.' + KEY_IDLE_TIME, DEFAULT_PLAYER_CACHE_IDLE_TIME);
+
+        this.plugin.getListenerManager().getPacketMetrics().setEnabled(this.packetMetrics);
+
         final Cache cache = this.plugin.getCache();
 
         if (cache.isLoaded()) {
@@ -240,6 +271,7 @@ public final class Config {
             cache.getBukkitTasks().clear();
             cache.getPlayerAnomalyActionMap().clear();
             cache.getAnomalies().clear();
+            cache.getAnomalyIndex().clear();
         }
 
         this.plugin.getStatusHandler().addWatcher(
@@ -288,6 +320,10 @@ public final class Config {
         this.setIfNotExists(KEY_WOOD_SOUND_SECTION + '.' + KEY_HIT, DEFAULT_WOOD_SOUND_HIT);
 
         this.setIfNotExists(KEY_DEVELOPER_MODE, DEFAULT_DEVELOPER_MODE);
+        this.setIfNotExists(KEY_PACKET_METRICS, DEFAULT_PACKET_METRICS);
+        this.setIfNotExists(KEY_PLAYER_STORAGE, DEFAULT_PLAYER_STORAGE);
+        this.setIfNotExists(KEY_PLAYER_CACHE_SECTION + '.' + KEY_MAX_SIZE, DEFAULT_PLAYER_CACHE_MAX_SIZE);
+        this.setIfNotExists(KEY_PLAYER_CACHE_SECTION + '.' + KEY_IDLE_TIME, DEFAULT_PLAYER_CACHE_IDLE_TIME);
         this.setIfNotExists(KEY_ANOMALY_CHECK_RATE, DEFAULT_ANOMALY_CHECK_RATE);
         this.setIfNotExists(KEY_ANOMALY_PARTICLES_CHECK_RATE, DEFAULT_ANOMALY_PARTICLES_CHECK_RATE);
 
@@ -444,6 +480,31 @@ public final class Config {
         this.save();
     }
 
+    public boolean isPacketMetrics() {
+        return this.packetMetrics;
+    }
+
+    public void setPacketMetrics(final boolean packetMetrics) {
+        this.packetMetrics = packetMetrics;
+
+        this.plugin.getListenerManager().getPacketMetrics().setEnabled(packetMetrics);
+        this.getYaml().set(KEY_PACKET_METRICS, packetMetrics);
+
+        this.save();
+    }
+
+    public @UnknownNullability PlayerFileStorage getPlayerFileStorage() {
+        return this.playerFileStorage;
+    }
+
+    public int getPlayerCacheMaxSize() {
+        return this.playerCacheMaxSize;
+    }
+
+    public long getPlayerCacheIdleTime() {
+        return this.playerCacheIdleTime;
+    }
+
     public long getAnomalyCheckRate() {
         return this.anomalyCheckRate;
     }
@@ -848,6 +909,7 @@ public final class Config {
                 }
             });
 
+            cache.getAnomalyIndex().rebuild(cache.getAnomalies().values());
             statusHandler.assignStatus(WhoMine.LOADED_ANOMALIES);
         } catch (final IOException e) {
             statusHandler.assignStatus(WhoMine.FAILED_LOAD_ANOMALIES);
@@ -901,6 +963,7 @@ public final class Config {
             .map(path -> RenameableItem.fromFile(this.plugin, path.toFile()))
             .filter(Objects::nonNull)
             .forEach(RenameableItemRegistry::register);
+            RenameableItemRegistry.reindex();
 
             statusHandler.assignStatus(WhoMine.LOADED_RENAMEABLES);
             this.plugin.getComponentLogger().info(
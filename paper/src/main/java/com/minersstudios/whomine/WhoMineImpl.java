@@ -18,10 +18,9 @@ import com.minersstudios.whomine.menu.SkinsMenu;
 import com.minersstudios.whomine.packet.PacketRegistry;
 import com.minersstudios.whomine.packet.PacketType;
 import com.minersstudios.whomine.player.collection.PlayerInfoMap;
-import com.minersstudios.whomine.scheduler.task.BanListTask;
-import com.minersstudios.whomine.scheduler.task.MuteMapTask;
+import com.minersstudios.whomine.scheduler.task.BanExpiryHandler;
+import com.minersstudios.whomine.scheduler.task.PlayerInfoMapTask;
 import com.minersstudios.whomine.scheduler.task.PlayerListTask;
-import com.minersstudios.whomine.scheduler.task.SeatsTask;
 import com.minersstudios.whomine.api.status.StatusHandler;
 import com.minersstudios.whomine.api.status.StatusWatcher;
 import com.minersstudios.whomine.utility.*;
@@ -249,10 +248,17 @@ public final class WhoMineImpl extends JavaPlugin implements WhoMine {
         this.setupHideTags();
 
         this.runTask(() -> this.cache.worldDark = new WorldDark());
-        this.runTaskTimer(new SeatsTask(this), 0L, 1L);            // 0.05 seconds
-        this.runTaskTimer(new PlayerListTask(this), 6000L, 6000L); // 5 minutes
-        this.runTaskTimer(new MuteMapTask(this), 0L, 50L);         // 2.5 seconds
-        this.runTaskTimer(new BanListTask(this), 0L, 6000L);       // 5 minutes
+        this.runTaskAsync(() -> this.cache.getPlayerNameIndex().rebuild(this.getServer()));
+        this.runTaskTimer(this.cache.getSeatsTask(), 0L, 1L);              // 0.05 seconds
+        this.runTaskTimer(this.cache.getDiggingTask(), 0L, 1L);            // 0.05 seconds
+        this.runTaskTimer(this.cache.getChatBuffer()::tick, 0L, 1L);       // 0.05 seconds
+        this.runTaskTimer(this.cache.getLocalChatIndex()::update, 0L, 1L); // 0.05 seconds
+        this.runTaskTimer(new PlayerListTask(this), 6000L, 6000L);         // 5 minutes
+        this.runTaskTimer(new PlayerInfoMapTask(this), 1200L, 1200L);      // 1 minute
+        this.runTaskTimer(
+                () -> BanExpiryHandler.scheduleExpirations(this),
+                0L, BanExpiryHandler.RESYNC_INTERVAL
+        );
         this.runTaskTimerAsync(
                 () -> new DosimeterMechanic.DosimeterTask(this).run(),
                 0L, this.config.getDosimeterCheckRate()
@@ -279,6 +285,7 @@ public final class WhoMineImpl extends JavaPlugin implements WhoMine {
         this.statusHandler.assignStatus(DISABLING);
 
         this.kickAll();
+        this.listenerManager.getPacketExecutor().shutdown();
         this.sendServerDisableMessage();
         this.discordManager.unload();
         this.cache.unload();
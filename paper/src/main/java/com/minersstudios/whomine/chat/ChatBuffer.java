@@ -1,30 +1,40 @@
 package com.minersstudios.whomine.chat;
 
 import com.minersstudios.whomine.WhoMine;
-import com.minersstudios.whomine.utility.Font;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
-import net.kyori.adventure.text.Component;
-import net.kyori.adventure.text.format.NamedTextColor;
-import org.bukkit.Location;
-import org.bukkit.Particle;
-import org.bukkit.entity.AreaEffectCloud;
-import org.bukkit.entity.Entity;
+import org.bukkit.Server;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.UnmodifiableView;
 
 import java.util.*;
-
-import static net.kyori.adventure.text.Component.space;
-import static net.kyori.adventure.text.Component.text;
-
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Buffer of the local chat messages, shown as speech bubbles above the
+ * players.
+ * <br>
+ * The messages are queued per player and shown one by one as
+ * {@link SpeechBubble virtual speech bubbles}, which exist only on the
+ * clients of the players tracking the speaker. All bubbles are expired and
+ * the queues are advanced by a single {@link #tick()} task.
+ */
 public final class ChatBuffer {
+    private static final int MESSAGE_DELAY = 5;
+
     private final @NotNull WhoMine plugin;
     private final @NotNull Map<UUID, Queue<String>> chatQueue;
+    private final @NotNull Map<UUID, SpeechBubble> bubbles;
+    private final @NotNull Object2IntMap<UUID> nextMessageTicks;
 
     public ChatBuffer(final @NotNull WhoMine plugin) {
         this.plugin = plugin;
-        this.chatQueue = new Object2ObjectOpenHashMap<>();
+        this.chatQueue = new ConcurrentHashMap<>();
+        this.bubbles = new Object2ObjectOpenHashMap<>();
+        this.nextMessageTicks = new Object2IntOpenHashMap<>();
     }
 
     public @NotNull @UnmodifiableView Map<UUID, Queue<String>> getChatQueue() {
@@ -71,94 +81,141 @@ public final class ChatBuffer {
         }
     }
 
-    public static int spawnMessage(
-            final @NotNull Player player,
-            final @NotNull String message
-    ) {
-        final String[] chatLines = message.split("\n");
-        final Location spawnLocation = player.getLocation().add(0.0d, 1.0d, 0.0d);
-        final int duration = (message.length() + (17 * chatLines.length)) * 1200 / 800;
-        Entity vehicle = player;
-
-        for (int i = chatLines.length - 1; i >= 0; i--) {
-            vehicle = spawnNameTag(
-                    vehicle,
-                    chatLines[i],
-                    spawnLocation,
-                    duration,
-                    i == 0
-            );
+    /**
+     * Expires the speech bubbles and shows the next queued messages. Must be
+     * called on the main thread every tick.
+     */
+    public void tick() {
+        if (
+                this.chatQueue.isEmpty()
+                && this.bubbles.isEmpty()
+        ) {
+            return;
         }
 
-        return duration;
+        final Server server = this.plugin.getServer();
+        final int tick = server.getCurrentTick();
+        final var bubbleIterator = this.bubbles.values().iterator();
+
+        while (bubbleIterator.hasNext()) {
+            final SpeechBubble bubble = bubbleIterator.next();
+
+            if (
+                    tick >= bubble.getExpiryTick()
+                    || !bubble.getSpeaker().isOnline()
+            ) {
+                bubble.destroy();
+                bubbleIterator.remove();
+            }
+        }
+
+        for (final var entry : this.chatQueue.entrySet()) {
+            final UUID uuid = entry.getKey();
+            final Player player = server.getPlayer(uuid);
+
+            if (player == null) {
+                this.chatQueue.remove(uuid);
+                this.nextMessageTicks.removeInt(uuid);
+                continue;
+            }
+
+            if (
+                    this.bubbles.containsKey(uuid)
+                    || tick < this.nextMessageTicks.getOrDefault(uuid, tick)
+            ) {
+                continue;
+            }
+
+            final String message = entry.getValue().poll();
+
+            if (message == null) {
+                this.chatQueue.computeIfPresent(
+                        uuid,
+                        (key, queue) -> queue.isEmpty() ? null : queue
+                );
+                this.nextMessageTicks.removeInt(uuid);
+                continue;
+            }
+
+            final String[] chatLines = message.split("\n");
+            final int duration = getDuration(message, chatLines.length);
+
+            this.bubbles.put(uuid, SpeechBubble.spawn(player, chatLines, tick + duration));
+            this.nextMessageTicks.put(uuid, tick + duration + MESSAGE_DELAY);
+        }
     }
 
-    private void queueMessage(
-            final @NotNull Player player,
-            final @NotNull String message
+    /**
+     * Shows the speech bubble of the speaker to the viewer, if the speaker
+     * has one. Must be called on the main thread.
+     *
+     * @param viewer  The viewer, who started tracking the speaker
+     * @param speaker The speaker
+     */
+    public void showBubble(
+            final @NotNull Player viewer,
+            final @NotNull Player speaker
+    ) {
+        final SpeechBubble bubble = this.bubbles.get(speaker.getUniqueId());
+
+        if (bubble != null) {
+            bubble.show(viewer);
+        }
+    }
+
+    /**
+     * Hides the speech bubble of the speaker from the viewer, if the speaker
+     * has one. Must be called on the main thread.
+     *
+     * @param viewer  The viewer, who stopped tracking the speaker
+     * @param speaker The speaker
+     */
+    public void hideBubble(
+            final @NotNull Player viewer,
+            final @NotNull Player speaker
     ) {
-        final UUID uuid = player.getUniqueId();
+        final SpeechBubble bubble = this.bubbles.get(speaker.getUniqueId());
+
+        if (bubble != null) {
+            bubble.hide(viewer);
+        }
+    }
 
-        if (!this.chatQueue.containsKey(uuid)) {
-            this.chatQueue.put(uuid, new LinkedList<>());
-            scheduleMessageUpdate(player, uuid, 0);
+    /**
+     * Destroys all speech bubbles and clears the queued messages. Must be
+     * called on the main thread.
+     */
+    public void clear() {
+        for (final var bubble : this.bubbles.values()) {
+            bubble.destroy();
         }
 
-        this.chatQueue.get(uuid).add(message);
+        this.bubbles.clear();
+        this.chatQueue.clear();
+        this.nextMessageTicks.clear();
     }
 
-    private void scheduleMessageUpdate(
+    private void queueMessage(
             final @NotNull Player player,
-            final @NotNull UUID uuid,
-            final int delay
+            final @NotNull String message
     ) {
-        this.plugin.runTaskLater(() -> {
-            if (
-                    !player.isOnline()
-                    || this.chatQueue.get(uuid).isEmpty()
-            ) {
-                this.chatQueue.remove(uuid);
-            } else {
-                final String message = this.chatQueue.get(uuid).poll();
-
-                if (message != null) {
-                    this.scheduleMessageUpdate(
-                            player,
-                            uuid,
-                            spawnMessage(player, message) + 5
-                    );
+        this.chatQueue.compute(
+                player.getUniqueId(),
+                (uuid, queue) -> {
+                    final Queue<String> messages = queue == null
+                            ? new ConcurrentLinkedQueue<>()
+                            : queue;
+
+                    messages.add(message);
+                    return messages;
                 }
-            }
-        }, delay);
+        );
     }
 
-    private static @NotNull AreaEffectCloud spawnNameTag(
-            final @NotNull Entity vehicle,
-            final @NotNull String text,
-            final @NotNull Location spawnLocation,
-            final int duration,
-            final boolean firstLine
+    private static int getDuration(
+            final @NotNull String message,
+            final int lineCount
     ) {
-        return spawnLocation.getWorld().spawn(
-                spawnLocation,
-                AreaEffectCloud.class,
-                entity -> {
-                    entity.customName(
-                            (
-                                    firstLine
-                                    ? Font.Components.SPEECH
-                                    : Component.empty()
-                            )
-                            .append(text(text))
-                            .append(space())
-                            .color(NamedTextColor.WHITE)
-                    );
-                    entity.setParticle(Particle.TOWN_AURA);
-                    entity.setRadius(0);
-                    entity.setCustomNameVisible(true);
-                    entity.setWaitTime(0);
-                    entity.setDuration(duration);
-                    vehicle.addPassenger(entity);
-                });
+        return (message.length() + (17 * lineCount)) * 1200 / 800;
     }
 }
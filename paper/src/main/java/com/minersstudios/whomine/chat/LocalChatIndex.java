@@ -0,0 +1,281 @@
+package com.minersstudios.whomine.chat;
+
+import com.minersstudios.whomine.WhoMine;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.translation.GlobalTranslator;
+import net.minecraft.server.level.ServerPlayer;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.craftbukkit.v1_20_R3.entity.CraftPlayer;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Spatial index of the online players, used to deliver the local chat and
+ * role-play messages.
+ * <br>
+ * Every player is put into the cell of a per-world grid of
+ * {@link #CELL_SIZE} blocks, so finding the recipients of a local message
+ * only checks the players of the few cells covered by the chat radius
+ * instead of querying the world entities on the main thread.
+ * <br>
+ * {@link #update()} is called every tick on the main thread. It reads the
+ * coordinates of the players from their server entities and writes them into
+ * their entries in place, so an ordinary move allocates nothing. The grid is
+ * immutable and is replaced as a whole only when a player moves to another
+ * cell or world, joins or leaves. So the grid can be queried from any thread
+ * without locking.
+ * <br>
+ * The local messages are rendered once per locale of the recipients, not
+ * once per recipient.
+ */
+public final class LocalChatIndex {
+    private final WhoMine plugin;
+    private final Map<Player, Entry> entries;
+    private final Map<UUID, Long2ObjectMap<List<Entry>>> cells;
+    private volatile Map<UUID, Long2ObjectMap<Entry[]>> grids;
+    private long tick;
+
+    /** The size of the grid cells in blocks */
+    public static final int CELL_SIZE = 32;
+
+    private static final int CELL_SHIFT = 5;
+    private static final Entry[] EMPTY = new Entry[0];
+
+    public LocalChatIndex(final @NotNull WhoMine plugin) {
+        this.plugin = plugin;
+        this.entries = new Object2ObjectOpenHashMap<>();
+        this.cells = new Object2ObjectOpenHashMap<>();
+        this.grids = Collections.emptyMap();
+    }
+
+    /**
+     * Updates the positions and the locales of the online players, and
+     * replaces the grid, if any player has moved to another cell or world,
+     * joined or left. Must be called on the main thread.
+     */
+    public void update() {
+        final var onlinePlayers = this.plugin.getServer().getOnlinePlayers();
+        final long tick = ++this.tick;
+        boolean isChanged = false;
+
+        for (final var player : onlinePlayers) {
+            final ServerPlayer handle = ((CraftPlayer) player).getHandle();
+            final UUID world = handle.level().getWorld().getUID();
+            final double x = handle.getX();
+            final double z = handle.getZ();
+            final long cellKey = cellKey(toCell(x), toCell(z));
+            Entry entry = this.entries.get(player);
+
+            if (entry == null) {
+                entry = new Entry(player);
+
+                this.entries.put(player, entry);
+            }
+
+            entry.x = x;
+            entry.y = handle.getY();
+            entry.z = z;
+            entry.locale = player.locale();
+            entry.tick = tick;
+
+            if (
+                    entry.cellKey != cellKey
+                    || !world.equals(entry.world)
+            ) {
+                this.removeFromCell(entry);
+
+                entry.world = world;
+                entry.cellKey = cellKey;
+
+                this.cells
+                .computeIfAbsent(world, uuid -> new Long2ObjectOpenHashMap<>())
+                .computeIfAbsent(cellKey, key -> new ObjectArrayList<>())
+                .add(entry);
+
+                isChanged = true;
+            }
+        }
+
+        if (this.entries.size() != onlinePlayers.size()) {
+            final var iterator = this.entries.values().iterator();
+
+            while (iterator.hasNext()) {
+                final Entry entry = iterator.next();
+
+                if (entry.tick != tick) {
+                    this.removeFromCell(entry);
+                    iterator.remove();
+
+                    isChanged = true;
+                }
+            }
+        }
+
+        if (isChanged) {
+            this.publish();
+        }
+    }
+
+    /**
+     * Clears the index. Must be called on the main thread.
+     */
+    public void clear() {
+        this.entries.clear();
+        this.cells.clear();
+        this.grids = Collections.emptyMap();
+    }
+
+    /**
+     * Sends the message to all online players within the box of the given
+     * radius around the location. The message is rendered once per locale of
+     * the recipients. Can be called from any thread.
+     *
+     * @param message  The message to send
+     * @param location The center location
+     * @param radius   The radius
+     */
+    public void sendMessage(
+            final @NotNull Component message,
+            final @NotNull Location location,
+            final double radius
+    ) {
+        final var rendered = new Object2ObjectOpenHashMap<Locale, Component>(1);
+
+        this.forEachNearby(
+                location, radius,
+                entry -> entry.player.sendMessage(
+                        rendered.computeIfAbsent(
+                                entry.locale,
+                                locale -> GlobalTranslator.render(message, locale)
+                        )
+                )
+        );
+    }
+
+    private void removeFromCell(final @NotNull Entry entry) {
+        if (entry.world == null) {
+            return;
+        }
+
+        final var worldCells = this.cells.get(entry.world);
+
+        if (worldCells == null) {
+            return;
+        }
+
+        final var cell = worldCells.get(entry.cellKey);
+
+        if (
+                cell != null
+                && cell.remove(entry)
+                && cell.isEmpty()
+        ) {
+            worldCells.remove(entry.cellKey);
+
+            if (worldCells.isEmpty()) {
+                this.cells.remove(entry.world);
+            }
+        }
+    }
+
+    private void publish() {
+        final var grids = new Object2ObjectOpenHashMap<UUID, Long2ObjectMap<Entry[]>>(this.cells.size());
+
+        for (final var world : this.cells.entrySet()) {
+            final var grid = new Long2ObjectOpenHashMap<Entry[]>(world.getValue().size());
+
+            for (final var cell : world.getValue().long2ObjectEntrySet()) {
+                grid.put(cell.getLongKey(), cell.getValue().toArray(EMPTY));
+            }
+
+            grids.put(world.getKey(), grid);
+        }
+
+        this.grids = grids;
+    }
+
+    private void forEachNearby(
+            final @NotNull Location location,
+            final double radius,
+            final @NotNull Consumer<Entry> consumer
+    ) {
+        final World world = location.getWorld();
+
+        if (world == null) {
+            return;
+        }
+
+        final var grid = this.grids.get(world.getUID());
+
+        if (grid == null) {
+            return;
+        }
+
+        final double x = location.getX();
+        final double y = location.getY();
+        final double z = location.getZ();
+        final int minX = toCell(x - radius);
+        final int minZ = toCell(z - radius);
+        final int maxX = toCell(x + radius);
+        final int maxZ = toCell(z + radius);
+
+        for (int cellX = minX; cellX <= maxX; ++cellX) {
+            for (int cellZ = minZ; cellZ <= maxZ; ++cellZ) {
+                final Entry[] cell = grid.get(cellKey(cellX, cellZ));
+
+                if (cell == null) {
+                    continue;
+                }
+
+                for (final var entry : cell) {
+                    if (
+                            Math.abs(entry.x - x) <= radius
+                            && Math.abs(entry.y - y) <= radius
+                            && Math.abs(entry.z - z) <= radius
+                            && entry.player.isOnline()
+                    ) {
+                        consumer.accept(entry);
+                    }
+                }
+            }
+        }
+    }
+
+    private static int toCell(final double coordinate) {
+        return (int) Math.floor(coordinate) >> CELL_SHIFT;
+    }
+
+    private static long cellKey(
+            final int x,
+            final int z
+    ) {
+        return (long) x & 0xFFFFFFFFL | ((long) z & 0xFFFFFFFFL) << 32;
+    }
+
+    /**
+     * The coordinates and the locale are written by the main thread and read
+     * by any thread, the cell fields are only used by the main thread
+     */
+    private static final class Entry {
+        final Player player;
+        volatile double x;
+        volatile double y;
+        volatile double z;
+        volatile Locale locale;
+        UUID world;
+        long cellKey;
+        long tick;
+
+        Entry(final @NotNull Player player) {
+            this.player = player;
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.minersstudios.whomine.chat;
+
+import com.minersstudios.whomine.utility.Font;
+import io.netty.buffer.Unpooled;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.protocol.Packet;
+import net.minecraft.network.protocol.game.*;
+import net.minecraft.world.entity.Display;
+import net.minecraft.world.entity.EntityType;
+import org.bukkit.Location;
+import org.bukkit.craftbukkit.v1_20_R3.CraftServer;
+import org.bukkit.craftbukkit.v1_20_R3.CraftWorld;
+import org.bukkit.craftbukkit.v1_20_R3.entity.CraftPlayer;
+import org.bukkit.craftbukkit.v1_20_R3.entity.CraftTextDisplay;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.util.Transformation;
+import org.jetbrains.annotations.NotNull;
+import org.joml.AxisAngle4f;
+import org.joml.Vector3f;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static net.kyori.adventure.text.Component.space;
+import static net.kyori.adventure.text.Component.text;
+
+/**
+ * Virtual speech bubble above the player.
+ * <br>
+ * The bubble is a text display, which exists only on the clients of its
+ * viewers. It is never added to the world, so the server does not tick,
+ * track or save it. The spawn, mount and destroy packets are sent only to
+ * the players tracking the speaker, and to the speaker.
+ * <br>
+ * All methods must be called on the main thread.
+ */
+final class SpeechBubble {
+    private static final float OFFSET_Y = 0.4f;
+    private static final int LINE_WIDTH = 1000;
+
+    private final Player speaker;
+    private final int entityId;
+    private final int expiryTick;
+    private final Packet<?> spawnPacket;
+    private final Set<UUID> viewers;
+
+    private SpeechBubble(
+            final @NotNull Player speaker,
+            final int entityId,
+            final int expiryTick,
+            final @NotNull Packet<?> spawnPacket
+    ) {
+        this.speaker = speaker;
+        this.entityId = entityId;
+        this.expiryTick = expiryTick;
+        this.spawnPacket = spawnPacket;
+        this.viewers = new ObjectOpenHashSet<>();
+    }
+
+    /**
+     * Creates a new speech bubble with the given message above the speaker
+     * and shows it to the speaker and the players tracking the speaker
+     *
+     * @param speaker    The speaker
+     * @param chatLines  The lines of the message
+     * @param expiryTick The server tick, when the bubble expires
+     * @return A new speech bubble
+     */
+    static @NotNull SpeechBubble spawn(
+            final @NotNull Player speaker,
+            final String @NotNull [] chatLines,
+            final int expiryTick
+    ) {
+        final Location location = speaker.getLocation();
+        final var display = new Display.TextDisplay(EntityType.TEXT_DISPLAY, ((CraftWorld) speaker.getWorld()).getHandle());
+        final var craftDisplay = new CraftTextDisplay((CraftServer) speaker.getServer(), display);
+        Component message = Component.empty();
+
+        for (int i = 0; i < chatLines.length; ++i) {
+            message = message.append(
+                    (
+                            i == 0
+                            ? Font.Components.SPEECH
+                            : Component.newline()
+                    )
+                    .append(text(chatLines[i]))
+                    .append(space())
+            );
+        }
+
+        display.setPos(location.getX(), location.getY() + speaker.getHeight(), location.getZ());
+        craftDisplay.text(message.color(NamedTextColor.WHITE));
+        craftDisplay.setBillboard(org.bukkit.entity.Display.Billboard.CENTER);
+        craftDisplay.setLineWidth(LINE_WIDTH);
+        craftDisplay.setTransformation(
+                new Transformation(
+                        new Vector3f(0.0f, OFFSET_Y, 0.0f),
+                        new AxisAngle4f(),
+                        new Vector3f(1.0f, 1.0f, 1.0f),
+                        new AxisAngle4f()
+                )
+        );
+
+        final var dataValues = display.getEntityData().getNonDefaultValues();
+        final var packets = new ObjectArrayList<Packet<ClientGamePacketListener>>(2);
+
+        packets.add(new ClientboundAddEntityPacket(display));
+
+        if (dataValues != null) {
+            packets.add(new ClientboundSetEntityDataPacket(display.getId(), dataValues));
+        }
+
+        final SpeechBubble bubble = new SpeechBubble(
+                speaker,
+                display.getId(),
+                expiryTick,
+                new ClientboundBundlePacket(packets)
+        );
+
+        bubble.show(speaker);
+
+        for (final var viewer : speaker.getTrackedPlayers()) {
+            bubble.show(viewer);
+        }
+
+        return bubble;
+    }
+
+    /**
+     * @return The speaker
+     */
+    @NotNull Player getSpeaker() {
+        return this.speaker;
+    }
+
+    /**
+     * @return The server tick, when the bubble expires
+     */
+    int getExpiryTick() {
+        return this.expiryTick;
+    }
+
+    /**
+     * Shows the bubble to the viewer, if it is not shown yet
+     *
+     * @param viewer The viewer
+     */
+    void show(final @NotNull Player viewer) {
+        if (this.viewers.add(viewer.getUniqueId())) {
+            send(viewer, this.spawnPacket);
+            send(viewer, this.createPassengersPacket());
+        }
+    }
+
+    /**
+     * Hides the bubble from the viewer, if it is shown
+     *
+     * @param viewer The viewer
+     */
+    void hide(final @NotNull Player viewer) {
+        if (this.viewers.remove(viewer.getUniqueId())) {
+            send(viewer, new ClientboundRemoveEntitiesPacket(this.entityId));
+        }
+    }
+
+    /**
+     * Hides the bubble from all viewers
+     */
+    void destroy() {
+        final var packet = new ClientboundRemoveEntitiesPacket(this.entityId);
+        final var server = this.speaker.getServer();
+
+        for (final var uuid : this.viewers) {
+            final Player viewer = server.getPlayer(uuid);
+
+            if (viewer != null) {
+                send(viewer, packet);
+            }
+        }
+
+        this.viewers.clear();
+    }
+
+    private @NotNull ClientboundSetPassengersPacket createPassengersPacket() {
+        final List<Entity> passengers = this.speaker.getPassengers();
+        final int[] ids = new int[passengers.size() + 1];
+
+        for (int i = 0; i < passengers.size(); ++i) {
+            ids[i] = passengers.get(i).getEntityId();
+        }
+
+        ids[ids.length - 1] = this.entityId;
+
+        final var buffer = new FriendlyByteBuf(Unpooled.buffer());
+
+        try {
+            buffer.writeVarInt(this.speaker.getEntityId());
+            buffer.writeVarIntArray(ids);
+
+            return new ClientboundSetPassengersPacket(buffer);
+        } finally {
+            buffer.release();
+        }
+    }
+
+    private static void send(
+            final @NotNull Player viewer,
+            final @NotNull Packet<?> packet
+    ) {
+        ((CraftPlayer) viewer).getHandle().connection.send(packet);
+    }
+}
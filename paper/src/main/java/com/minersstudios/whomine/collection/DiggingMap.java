@@ -1,78 +1,106 @@
 package com.minersstudios.whomine.collection;
 
-import com.google.common.collect.ImmutableSet;
 import com.minersstudios.whomine.WhoMine;
+import com.minersstudios.whomine.scheduler.task.DiggingTask;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2ObjectMap;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
 import org.bukkit.block.Block;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitScheduler;
 import org.jetbrains.annotations.*;
 
-import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.ThreadSafe;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.UUID;
 
 /**
  * The DiggingMap class represents a data structure that associates digging
  * entries with blocks. It allows storing and managing multiple digging entries
  * for different blocks and players.
+ * <br>
+ * The map is indexed both by block and by player. Blocks are keyed by their
+ * world and packed block position, players are keyed by their UUID, and each
+ * player can dig only one block at a time. The entry with the biggest stage
+ * is cached per block and updated on {@link Entry#setStage(int)}, so all
+ * lookups on the digging path are constant-time and allocation-free.
  */
-@Immutable
+@ThreadSafe
 public class DiggingMap {
-    private final Map<Block, List<Entry>> diggingBlockMap = new ConcurrentHashMap<>();
+    private final Object2ObjectMap<UUID, Long2ObjectMap<Node>> worldMap = new Object2ObjectOpenHashMap<>();
+    private final Object2ObjectMap<UUID, Entry> playerMap = new Object2ObjectOpenHashMap<>();
+    private int blocksSize;
 
     /**
-     * @return An unmodifiable set of all digging entries present in the
+     * @return An unmodifiable snapshot of all digging entries present in the
      *         DiggingMap
      * @see Entry
      */
-    public @NotNull @Unmodifiable Set<Entry> diggingEntrySet() {
-        final var setBuilder = new ImmutableSet.Builder<Entry>();
-
-        for (final var diggingEntrySet : this.diggingBlockMap.values()) {
-            setBuilder.addAll(diggingEntrySet);
-        }
-
-        return setBuilder.build();
+    public synchronized @NotNull @Unmodifiable Set<Entry> diggingEntrySet() {
+        return Collections.unmodifiableSet(
+                new ObjectOpenHashSet<>(this.playerMap.values())
+        );
     }
 
     /**
-     * @return An unmodifiable set of all blocks present in the DiggingMap
+     * @return An unmodifiable snapshot of all blocks present in the DiggingMap
      */
-    public @NotNull @UnmodifiableView Set<Block> blockSet() {
-        return Collections.unmodifiableSet(this.diggingBlockMap.keySet());
+    public synchronized @NotNull @Unmodifiable Set<Block> blockSet() {
+        final var blocks = new ObjectOpenHashSet<Block>(this.blocksSize);
+
+        for (final var nodes : this.worldMap.values()) {
+            for (final var node : nodes.values()) {
+                blocks.add(node.block);
+            }
+        }
+
+        return Collections.unmodifiableSet(blocks);
     }
 
     /**
-     * @return An unmodifiable set of map entries containing blocks and their
-     *         corresponding digging entries
+     * @return An unmodifiable snapshot of map entries containing blocks and
+     *         their corresponding digging entries
      */
-    public @NotNull @Unmodifiable Set<Map.Entry<Block, Entry>> entrySet() {
-        final var entries = new ImmutableSet.Builder<Map.Entry<Block, Entry>>();
+    public synchronized @NotNull @Unmodifiable Set<Map.Entry<Block, Entry>> entrySet() {
+        final var entries = new ObjectOpenHashSet<Map.Entry<Block, Entry>>(this.playerMap.size());
 
-        this.diggingBlockMap.forEach((block, entrySet) ->
-                entrySet.forEach(diggingEntry ->
-                        entries.add(Map.entry(block, diggingEntry))
-                )
-        );
+        for (final var entry : this.playerMap.values()) {
+            entries.add(Map.entry(entry.node.block, entry));
+        }
 
-        return entries.build();
+        return Collections.unmodifiableSet(entries);
     }
 
     /**
      * @param block The block for which to retrieve the associated digging
      *              entries
-     * @return An unmodifiable list of digging entries associated with the given
-     *         block
+     * @return An unmodifiable snapshot of digging entries associated with the
+     *         given block
      * @see Entry
      */
-    public @NotNull @Unmodifiable List<Entry> getDiggingEntries(final @NotNull Block block) {
-        return Collections.unmodifiableList(
-                this.diggingBlockMap.getOrDefault(block, Collections.emptyList())
-        );
+    public synchronized @NotNull @Unmodifiable List<Entry> getDiggingEntries(final @NotNull Block block) {
+        final Node node = this.getNode(block);
+
+        return node == null
+                ? Collections.emptyList()
+                : List.copyOf(node.entries);
+    }
+
+    /**
+     * @param block The block for which to count the associated digging entries
+     * @return The number of digging entries associated with the given block
+     */
+    public synchronized int getEntryCount(final @NotNull Block block) {
+        final Node node = this.getNode(block);
+
+        return node == null
+                ? 0
+                : node.entries.size();
     }
 
     /**
@@ -82,14 +110,12 @@ public class DiggingMap {
      *         is not found in the map
      * @see Entry
      */
-    public @Nullable Block getBlock(final @NotNull Entry diggingEntry) {
-        for (final var entry : this.diggingBlockMap.entrySet()) {
-            if (entry.getValue().contains(diggingEntry)) {
-                return entry.getKey();
-            }
-        }
+    public synchronized @Nullable Block getBlock(final @NotNull Entry diggingEntry) {
+        final Node node = diggingEntry.node;
 
-        return null;
+        return node == null
+                ? null
+                : node.block;
     }
 
     /**
@@ -99,19 +125,21 @@ public class DiggingMap {
      * @see Entry
      * @see Entry#getPlayer()
      */
-    public @Nullable Block getBlock(final @NotNull Player player) {
-        for (final var entry : this.diggingBlockMap.entrySet()) {
-            final Block block = entry.getKey();
-            final var entries = entry.getValue();
-
-            for (final var diggingEntry : entries) {
-                if (diggingEntry.player.equals(player)) {
-                    return block;
-                }
-            }
-        }
+    public synchronized @Nullable Block getBlock(final @NotNull Player player) {
+        final Entry entry = this.playerMap.get(player.getUniqueId());
+
+        return entry == null
+                ? null
+                : entry.node.block;
+    }
 
-        return null;
+    /**
+     * @param player The player for which to retrieve the digging entry
+     * @return The digging entry associated with the player, or null if the
+     *         player is not found in the map
+     */
+    public synchronized @Nullable Entry getEntry(final @NotNull Player player) {
+        return this.playerMap.get(player.getUniqueId());
     }
 
     /**
@@ -120,23 +148,16 @@ public class DiggingMap {
      * @return The digging entry associated with the block and player,
      *         or null if no entry is found for the block and player
      */
-    public @Nullable Entry getEntry(
+    public synchronized @Nullable Entry getEntry(
             final @NotNull Block block,
             final @NotNull Player player
     ) {
-        final var entries = this.diggingBlockMap.get(block);
+        final Entry entry = this.playerMap.get(player.getUniqueId());
 
-        if (entries == null) {
-            return null;
-        }
-
-        for (final var diggingEntry : entries) {
-            if (diggingEntry.player.equals(player)) {
-                return diggingEntry;
-            }
-        }
-
-        return null;
+        return entry != null
+                && entry.node.matches(block)
+                ? entry
+                : null;
     }
 
     /**
@@ -147,26 +168,12 @@ public class DiggingMap {
      * @see Entry
      * @see Entry#getStage()
      */
-    public @Nullable Entry getBiggestStageEntry(final @NotNull Block block) {
-        final var entries = this.diggingBlockMap.get(block);
-
-        if (entries == null) {
-            return null;
-        }
-
-        Entry maxStageEntry = null;
-        int maxStage = Integer.MIN_VALUE;
+    public synchronized @Nullable Entry getBiggestStageEntry(final @NotNull Block block) {
+        final Node node = this.getNode(block);
 
-        for (final var entry : entries) {
-            final int currentStage = entry.stage;
-
-            if (currentStage > maxStage) {
-                maxStage = currentStage;
-                maxStageEntry = entry;
-            }
-        }
-
-        return maxStageEntry;
+        return node == null
+                ? null
+                : node.biggest;
     }
 
     /**
@@ -174,19 +181,44 @@ public class DiggingMap {
      * the DiggingMap. If the block already exists in the map, the
      * digging entry is added to the existing set of entries. Otherwise,
      * a new set of entries is created and the digging entry is added to it.
+     * <br>
+     * If the entry's player is already digging a block, their previous
+     * entry is removed and cancelled.
      *
      * @param block        The block to associate with the digging entry
      * @param diggingEntry The digging entry to associate with the block
      * @see Entry
      */
-    public void put(
+    public synchronized void put(
             final @NotNull Block block,
             final @NotNull Entry diggingEntry
     ) {
-        this.diggingBlockMap.computeIfAbsent(
-                block,
-                unused -> new ObjectArrayList<>()
-        ).add(diggingEntry);
+        final Entry previous = this.playerMap.put(diggingEntry.player.getUniqueId(), diggingEntry);
+
+        if (
+                previous != null
+                && previous != diggingEntry
+        ) {
+            this.unlink(previous);
+        } else if (diggingEntry.node != null) {
+            this.unlinkNode(diggingEntry);
+        }
+
+        final var nodes = this.worldMap.computeIfAbsent(
+                block.getWorld().getUID(),
+                unused -> new Long2ObjectOpenHashMap<>()
+        );
+        final long key = block.getBlockKey();
+        Node node = nodes.get(key);
+
+        if (node == null) {
+            node = new Node(block);
+
+            nodes.put(key, node);
+            this.blocksSize++;
+        }
+
+        node.add(diggingEntry);
     }
 
     /**
@@ -194,30 +226,25 @@ public class DiggingMap {
      * block from the DiggingMap. If the block has no other associated
      * digging entries, the block is removed from the map. Otherwise,
      * the digging entry is removed from the set of entries associated
-     * with the block. Additionally, the digging entry task is cancelled.
+     * with the block. Additionally, the digging entry is cancelled.
      *
      * @param block        The block from which to remove the digging entry
      * @param diggingEntry The digging entry to remove
      * @see Entry
-     * @see Entry#cancelTask()
+     * @see Entry#cancel()
      */
-    public void remove(
+    public synchronized void remove(
             final @NotNull Block block,
             final @NotNull Entry diggingEntry
     ) {
-        final var entries = this.diggingBlockMap.get(block);
-
-        if (entries == null) {
-            return;
-        }
+        final Node node = diggingEntry.node;
 
-        entries.remove(diggingEntry);
-        diggingEntry.cancelTask();
-
-        if (entries.isEmpty()) {
-            this.diggingBlockMap.remove(block);
-        } else {
-            this.diggingBlockMap.put(block, entries);
+        if (
+                node != null
+                && node.matches(block)
+        ) {
+            this.playerMap.remove(diggingEntry.player.getUniqueId(), diggingEntry);
+            this.unlink(diggingEntry);
         }
     }
 
@@ -226,123 +253,92 @@ public class DiggingMap {
      * and player from the DiggingMap. If the block has no other associated
      * digging entries, the block is removed from the map. Otherwise,
      * the digging entry is removed from the set of entries associated
-     * with the block. Additionally, the digging entry task is cancelled.
+     * with the block. Additionally, the digging entry is cancelled.
      *
      * @param block  The block from which to remove the digging entry
      * @param player The player whose digging entry to remove
      * @see Entry
-     * @see Entry#cancelTask()
+     * @see Entry#cancel()
      */
-    public void remove(
+    public synchronized void remove(
             final @NotNull Block block,
             final @NotNull Player player
     ) {
-        if (!this.diggingBlockMap.containsKey(block)) {
-            return;
-        }
+        final Entry entry = this.getEntry(block, player);
 
-        this.diggingBlockMap.forEach((diggingBlock, diggingEntrySet) ->
-                diggingEntrySet.forEach(diggingEntry -> {
-                    if (
-                            diggingBlock.equals(block)
-                            && diggingEntry.player.equals(player)
-                    ) {
-                        this.remove(block, diggingEntry);
-                    }
-                })
-        );
+        if (entry != null) {
+            this.remove(block, entry);
+        }
     }
 
     /**
-     * Removes all digging entries associated with the specified block
-     * from the DiggingMap. Additionally, all digging entries' tasks are
-     * cancelled.
+     * Removes the digging entry associated with the specified player
+     * from the DiggingMap. Additionally, the digging entry is cancelled.
      *
-     * @param block The block from which to remove all digging entries
+     * @param player The player whose digging entry to remove
+     * @return The block from which the digging entry was removed, or null if
+     *         the player is not found in the map
      * @see Entry
-     * @see Entry#cancelTask()
+     * @see Entry#cancel()
      */
-    public void removeAll(final @NotNull Block block) {
-        final var entries = this.diggingBlockMap.remove(block);
+    public synchronized @Nullable Block remove(final @NotNull Player player) {
+        final Entry entry = this.playerMap.remove(player.getUniqueId());
 
-        if (entries != null) {
-            for (final var diggingEntry : entries) {
-                diggingEntry.cancelTask();
-            }
+        if (entry == null) {
+            return null;
         }
-    }
 
-    /**
-     * Removes all digging entries that match the specified digging entry
-     * from the DiggingMap. Additionally, all digging entries' tasks are
-     * cancelled.
-     *
-     * @param diggingEntry The digging entry to remove from the DiggingMap
-     * @see Entry
-     * @see Entry#cancelTask()
-     * @see #remove(Block, Entry)
-     */
-    public void removeAll(final @NotNull Entry diggingEntry) {
-        final var toRemove = new ObjectArrayList<Block>();
-
-        for (final var entry : this.diggingBlockMap.entrySet()) {
-            final Block block = entry.getKey();
-            final var entries = entry.getValue();
+        final Block block = entry.node.block;
 
-            if (entries.contains(diggingEntry)) {
-                toRemove.add(block);
-            }
-        }
+        this.unlink(entry);
 
-        for (final var block : toRemove) {
-            this.remove(block, diggingEntry);
-        }
+        return block;
     }
 
     /**
-     * Removes all digging entries associated with the specified player
-     * from the DiggingMap. Additionally, all digging entries' tasks are
+     * Removes all digging entries associated with the specified block
+     * from the DiggingMap. Additionally, all digging entries are
      * cancelled.
      *
-     * @param player The player whose digging entries to remove
-     * @return A list of map entries containing blocks and their corresponding
-     *         digging entries that were removed from the DiggingMap
+     * @param block The block from which to remove all digging entries
      * @see Entry
-     * @see Entry#cancelTask()
-     * @see #remove(Block, Entry)
+     * @see Entry#cancel()
      */
-    public @NotNull List<Map.Entry<Block, Entry>> removeAll(final @NotNull Player player) {
-        final var toRemove = new ObjectArrayList<Map.Entry<Block, Entry>>();
+    public synchronized void removeAll(final @NotNull Block block) {
+        final var nodes = this.worldMap.get(block.getWorld().getUID());
+
+        if (nodes == null) {
+            return;
+        }
 
-        for (final var entry : this.diggingBlockMap.entrySet()) {
-            final Block block = entry.getKey();
-            final var entries = entry.getValue();
+        final Node node = nodes.remove(block.getBlockKey());
 
-            for (final var diggingEntry : entries) {
-                if (diggingEntry.player.equals(player)) {
-                    toRemove.add(
-                            Map.entry(block, diggingEntry)
-                    );
-                }
-            }
+        if (node == null) {
+            return;
         }
 
-        for (final var entry : toRemove) {
-            this.remove(
-                    entry.getKey(),
-                    entry.getValue()
-            );
+        this.blocksSize--;
+
+        for (final var diggingEntry : node.entries) {
+            this.playerMap.remove(diggingEntry.player.getUniqueId(), diggingEntry);
+            diggingEntry.node = null;
+            diggingEntry.cancel();
         }
 
-        return toRemove;
+        node.entries.clear();
+        node.biggest = null;
+
+        if (nodes.isEmpty()) {
+            this.worldMap.remove(block.getWorld().getUID());
+        }
     }
 
     /**
      * @param block The block to check for existence in the DiggingMap
      * @return True if the block is present in the DiggingMap
      */
-    public boolean containsBlock(final @NotNull Block block) {
-        return this.diggingBlockMap.containsKey(block);
+    public synchronized boolean containsBlock(final @NotNull Block block) {
+        return this.getNode(block) != null;
     }
 
     /**
@@ -352,14 +348,8 @@ public class DiggingMap {
      *                     in the DiggingMap
      * @return True if the digging entry is present in the DiggingMap
      */
-    public boolean containsEntry(final @NotNull Entry diggingEntry) {
-        for (final var diggingEntrySet : this.diggingBlockMap.values()) {
-            if (diggingEntrySet.contains(diggingEntry)) {
-                return true;
-            }
-        }
-
-        return false;
+    public synchronized boolean containsEntry(final @NotNull Entry diggingEntry) {
+        return diggingEntry.node != null;
     }
 
     /**
@@ -370,51 +360,152 @@ public class DiggingMap {
      * @return True if the DiggingMap contains any digging entry
      *         associated with the player
      */
-    public boolean containsPlayer(final @NotNull Player player) {
-        for (final var diggingEntrySet : this.diggingBlockMap.values()) {
-            for (final var diggingEntry : diggingEntrySet) {
-                if (diggingEntry.player.equals(player)) {
-                    return true;
-                }
-            }
-        }
-
-        return false;
+    public synchronized boolean containsPlayer(final @NotNull Player player) {
+        return this.playerMap.containsKey(player.getUniqueId());
     }
 
     /**
      * @return True if the DiggingMap contains no blocks
      */
-    public boolean isEmpty() {
-        return this.diggingBlockMap.isEmpty();
+    public synchronized boolean isEmpty() {
+        return this.blocksSize == 0;
     }
 
     /**
      * Clears all blocks and their associated digging entries from
-     * the DiggingMap
+     * the DiggingMap. Additionally, all digging entries are cancelled.
      */
-    public void clear() {
-        this.diggingBlockMap.clear();
+    public synchronized void clear() {
+        for (final var entry : this.playerMap.values()) {
+            entry.node = null;
+            entry.cancel();
+        }
+
+        this.worldMap.clear();
+        this.playerMap.clear();
+        this.blocksSize = 0;
     }
 
     /**
      * @return The total number of blocks present in the DiggingMap
      */
-    public int blocksSize() {
-        return this.diggingBlockMap.size();
+    public synchronized int blocksSize() {
+        return this.blocksSize;
     }
 
     /**
      * @return The total number of digging entries present in the DiggingMap
      */
-    public int entriesSize() {
-        int totalSize = 0;
+    public synchronized int entriesSize() {
+        return this.playerMap.size();
+    }
+
+    private @Nullable Node getNode(final @NotNull Block block) {
+        final var nodes = this.worldMap.get(block.getWorld().getUID());
+
+        return nodes == null
+                ? null
+                : nodes.get(block.getBlockKey());
+    }
 
-        for (final var diggingEntries : this.diggingBlockMap.values()) {
-            totalSize += diggingEntries.size();
+    private void unlink(final @NotNull Entry diggingEntry) {
+        this.unlinkNode(diggingEntry);
+        diggingEntry.cancel();
+    }
+
+    private void unlinkNode(final @NotNull Entry diggingEntry) {
+        final Node node = diggingEntry.node;
+
+        if (node == null) {
+            return;
         }
 
-        return totalSize;
+        node.remove(diggingEntry);
+
+        if (node.entries.isEmpty()) {
+            final UUID worldUUID = node.block.getWorld().getUID();
+            final var nodes = this.worldMap.get(worldUUID);
+
+            if (
+                    nodes != null
+                    && nodes.remove(node.key, node)
+            ) {
+                this.blocksSize--;
+
+                if (nodes.isEmpty()) {
+                    this.worldMap.remove(worldUUID);
+                }
+            }
+        }
+    }
+
+    /**
+     * Entries of a single block with the cached entry of the biggest stage
+     */
+    private final class Node {
+        final Block block;
+        final long key;
+        final ObjectArrayList<Entry> entries;
+        Entry biggest;
+
+        Node(final @NotNull Block block) {
+            this.block = block;
+            this.key = block.getBlockKey();
+            this.entries = new ObjectArrayList<>(1);
+        }
+
+        boolean matches(final @NotNull Block block) {
+            return this.key == block.getBlockKey()
+                    && this.block.getWorld().equals(block.getWorld());
+        }
+
+        void add(final @NotNull Entry entry) {
+            entry.node = this;
+
+            this.entries.add(entry);
+            this.update(entry);
+        }
+
+        void remove(final @NotNull Entry entry) {
+            entry.node = null;
+
+            this.entries.remove(entry);
+
+            if (this.biggest == entry) {
+                this.recalculate();
+            }
+        }
+
+        void update(final @NotNull Entry entry) {
+            synchronized (DiggingMap.this) {
+                if (entry.node != this) {
+                    return;
+                }
+
+                if (
+                        this.biggest == null
+                        || entry.stage > this.biggest.stage
+                ) {
+                    this.biggest = entry;
+                } else if (entry == this.biggest) {
+                    this.recalculate();
+                }
+            }
+        }
+
+        private void recalculate() {
+            Entry maxStageEntry = null;
+            int maxStage = Integer.MIN_VALUE;
+
+            for (final var entry : this.entries) {
+                if (entry.stage > maxStage) {
+                    maxStage = entry.stage;
+                    maxStageEntry = entry;
+                }
+            }
+
+            this.biggest = maxStageEntry;
+        }
     }
 
     /**
@@ -425,26 +516,24 @@ public class DiggingMap {
      */
     public static class Entry {
         private final Player player;
-        private int taskId;
         private int stage;
         private boolean isAborting;
+        private volatile boolean isCancelled;
+        private Node node;
 
         private Entry(
                 final @NotNull Player player,
-                final int taskId,
                 final int stage,
                 final boolean farAway
         ) {
             this.player = player;
             this.stage = stage;
-            this.taskId = taskId;
             this.isAborting = farAway;
         }
 
         /**
          * Creates a new Entry instance for the specified player with
-         * default values for task ID, stage, and farAway. The task ID
-         * is required to be set later.
+         * default values for stage and farAway
          *
          * @param player The player associated with the digging entry
          * @return A new Entry instance with the specified player
@@ -452,45 +541,25 @@ public class DiggingMap {
          */
         @Contract("_ -> new")
         public static @NotNull Entry create(final @NotNull Player player) {
-            return new Entry(player, -1, 0, false);
-        }
-
-        /**
-         * Creates a new Entry instance with the specified player
-         * and task ID. The stage and farAway properties are set
-         * to default values.
-         *
-         * @param player The player associated with the digging entry
-         * @param taskId The task ID associated with the digging entry
-         * @return A new Entry instance with the specified player
-         *         and task ID
-         */
-        @Contract("_, _ -> new")
-        public static @NotNull Entry create(
-                final @NotNull Player player,
-                final int taskId
-        ) {
-            return new Entry(player, taskId, 0, false);
+            return new Entry(player, 0, false);
         }
 
         /**
          * Creates a new Entry instance with the specified parameters
          *
          * @param player   The player associated with the digging entry
-         * @param taskId   The task ID associated with the digging entry
          * @param stage    The current stage of the digging process
          * @param farAway  A boolean indicating whether the player is
          *                 far away from the block being dug
          * @return A new Entry instance with the specified parameters
          */
-        @Contract("_, _, _, _ -> new")
+        @Contract("_, _, _ -> new")
         public static @NotNull Entry create(
                 final @NotNull Player player,
-                final int taskId,
                 final int stage,
                 final boolean farAway
         ) {
-            return new Entry(player, taskId, stage, farAway);
+            return new Entry(player, stage, farAway);
         }
 
         /**
@@ -500,25 +569,6 @@ public class DiggingMap {
             return this.player;
         }
 
-        /**
-         * @return The task ID associated with the digging entry
-         */
-        public int getTaskId() {
-            return this.taskId;
-        }
-
-        /**
-         * Sets the task ID for the digging entry
-         *
-         * @param taskId The task ID to set for the digging entry
-         * @return The current Entry instance with the updated task ID
-         */
-        public @NotNull Entry setTaskId(final int taskId) {
-            this.taskId = taskId;
-
-            return this;
-        }
-
         /**
          * @return The current stage of the digging process
          */
@@ -534,6 +584,11 @@ public class DiggingMap {
          */
         public @NotNull Entry setStage(final int stage) {
             this.stage = stage;
+            final Node node = this.node;
+
+            if (node != null) {
+                node.update(this);
+            }
 
             return this;
         }
@@ -557,6 +612,15 @@ public class DiggingMap {
             return this;
         }
 
+        /**
+         * @return True if the entry has been cancelled and its digging
+         *         process will no longer be advanced
+         * @see #cancel()
+         */
+        public boolean isCancelled() {
+            return this.isCancelled;
+        }
+
         /**
          * Checks if the player's current stage is the biggest stage
          * for the specified block in the DiggingMap
@@ -588,25 +652,20 @@ public class DiggingMap {
         public @NotNull String toString() {
             return "DiggingEntry{" +
                     "player=" + this.player.getName() +
-                    ", taskId=" + this.taskId +
                     ", stage=" + this.stage +
                     ", isAborting=" + this.isAborting +
+                    ", isCancelled=" + this.isCancelled +
                     '}';
         }
 
         /**
-         * Cancels the task associated with this Entry. If the task ID
-         * is valid, it cancels the scheduled task using Bukkit's scheduler.
-         * After cancellation, the task ID is set to -1.
-         *
-         * @throws NullPointerException If the server is not running
-         * @see BukkitScheduler#cancelTask(int)
+         * Cancels this Entry. The digging process associated with this entry
+         * will be dropped by the {@link DiggingTask} on its next tick.
+         * <br>
+         * This method is thread-safe.
          */
-        public void cancelTask() throws NullPointerException {
-            if (this.taskId != -1) {
-                this.player.getServer().getScheduler().cancelTask(this.taskId);
-                this.taskId = -1;
-            }
+        public void cancel() {
+            this.isCancelled = true;
         }
     }
 }
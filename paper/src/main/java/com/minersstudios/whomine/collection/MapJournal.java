@@ -0,0 +1,383 @@
+package com.minersstudios.whomine.collection;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.reflect.TypeToken;
+import com.minersstudios.whomine.utility.FileUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Crash-safe persistence of a map as a JSON snapshot file and an append-only
+ * journal of the changes made since the snapshot was written.
+ * <br>
+ * Every {@link #put(Object, Object) put} and {@link #remove(Object) remove}
+ * appends a single compact JSON line to the "&lt;snapshot&gt;.journal" file
+ * on a dedicated I/O thread, so the calling thread never performs any I/O.
+ * After {@link #COMPACT_THRESHOLD} journal entries, the current contents of
+ * the map are written to a temporary file, which is atomically moved over
+ * the snapshot, and the journal is truncated. On {@link #load() load}, the
+ * journal is replayed on top of the snapshot, skipping a line torn by a
+ * crash in the middle of an append.
+ * <br>
+ * The snapshot keeps the original pretty-printed JSON format of the map, so
+ * it can still be read and edited by hand while the server is stopped.
+ *
+ * @param <K> The key type
+ * @param <V> The value type
+ */
+public final class MapJournal<K, V> {
+    private final File file;
+    private final File journalFile;
+    private final Gson gson;
+    private final Type keyType;
+    private final Type valueType;
+    private final Type mapType;
+    private final Supplier<Map<K, V>> snapshotSupplier;
+    private final Logger logger;
+    private final ExecutorService executor;
+    private @Nullable BufferedWriter writer;
+    private int journalSize;
+
+    /** The number of journal entries after which the journal is compacted */
+    public static final int COMPACT_THRESHOLD = 512;
+
+    private static final String JOURNAL_SUFFIX = ".journal";
+    private static final String BACKUP_SUFFIX = ".OLD";
+    private static final String KEY_OPERATION = "op";
+    private static final String KEY_KEY = "key";
+    private static final String KEY_VALUE = "value";
+    private static final String OPERATION_PUT = "put";
+    private static final String OPERATION_REMOVE = "remove";
+
+    /**
+     * @param file             The snapshot file
+     * @param gson             The gson used to serialize the keys and the
+     *                         values, and to write the snapshot
+     * @param keyType          The key type
+     * @param valueType        The value type
+     * @param snapshotSupplier The supplier of the current contents of the
+     *                         map, called on the I/O thread when the journal
+     *                         is compacted
+     * @param logger           The logger
+     */
+    public MapJournal(
+            final @NotNull File file,
+            final @NotNull Gson gson,
+            final @NotNull Type keyType,
+            final @NotNull Type valueType,
+            final @NotNull Supplier<Map<K, V>> snapshotSupplier,
+            final @NotNull Logger logger
+    ) {
+        this.file = file;
+        this.journalFile = new File(file.getParentFile(), file.getName() + JOURNAL_SUFFIX);
+        this.gson = gson;
+        this.keyType = keyType;
+        this.valueType = valueType;
+        this.mapType = TypeToken.getParameterized(Map.class, keyType, valueType).getType();
+        this.snapshotSupplier = snapshotSupplier;
+        this.logger = logger;
+        this.executor = Executors.newSingleThreadExecutor(
+                new ThreadFactoryBuilder()
+                .setNameFormat("WhoMine Journal Writer (" + file.getName() + ")")
+                .setDaemon(true)
+                .build()
+        );
+    }
+
+    /**
+     * @return The snapshot file
+     */
+    public @NotNull File getFile() {
+        return this.file;
+    }
+
+    /**
+     * @return The journal file
+     */
+    public @NotNull File getJournalFile() {
+        return this.journalFile;
+    }
+
+    /**
+     * Loads the snapshot and replays the journal on top of it, after all
+     * pending changes have been written. If the snapshot cannot be read, it
+     * is moved to the "&lt;snapshot&gt;.OLD" backup file and only the journal
+     * is replayed.
+     * <br>
+     * The journal is not compacted by this method, {@link #compact()} should
+     * be called once the loaded entries are validated and put to the map.
+     * The live map should only be replaced {@link #runLocked(Runnable) under
+     * the lock} of this journal, otherwise a compaction could write a
+     * partially replaced map as the snapshot.
+     *
+     * @return The loaded map, the values may be null if they could not be
+     *         deserialized
+     */
+    public @NotNull Map<K, V> load() {
+        return this.await(this::read);
+    }
+
+    /**
+     * Appends the put of the value to the journal on the I/O thread
+     *
+     * @param key   The key
+     * @param value The value
+     */
+    public void put(
+            final @NotNull K key,
+            final @NotNull V value
+    ) {
+        final JsonObject entry = new JsonObject();
+
+        entry.addProperty(KEY_OPERATION, OPERATION_PUT);
+        entry.add(KEY_KEY, this.gson.toJsonTree(key, this.keyType));
+        entry.add(KEY_VALUE, this.gson.toJsonTree(value, this.valueType));
+        this.execute(() -> this.append(entry.toString()));
+    }
+
+    /**
+     * Appends the removal of the key to the journal on the I/O thread
+     *
+     * @param key The key
+     */
+    public void remove(final @NotNull K key) {
+        final JsonObject entry = new JsonObject();
+
+        entry.addProperty(KEY_OPERATION, OPERATION_REMOVE);
+        entry.add(KEY_KEY, this.gson.toJsonTree(key, this.keyType));
+        this.execute(() -> this.append(entry.toString()));
+    }
+
+    /**
+     * Runs the task on the calling thread while holding the lock of this
+     * journal, so no change is appended and no snapshot is written until the
+     * task returns
+     *
+     * @param task The task to run, for example replacing the contents of the
+     *             map with the {@link #load() loaded} entries
+     */
+    public void runLocked(final @NotNull Runnable task) {
+        synchronized (this) {
+            task.run();
+        }
+    }
+
+    /**
+     * Compacts the journal into a new snapshot on the I/O thread
+     */
+    public void compact() {
+        this.execute(this::writeSnapshot);
+    }
+
+    /**
+     * Writes all pending changes, compacts the journal and stops the I/O
+     * thread. All subsequent changes are written synchronously.
+     */
+    public void shutdown() {
+        this.executor.shutdown();
+
+        try {
+            if (!this.executor.awaitTermination(10L, TimeUnit.SECONDS)) {
+                this.logger.warning("Timed out waiting for the journal of \"" + this.file.getName() + "\"");
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        synchronized (this) {
+            this.writeSnapshot();
+        }
+    }
+
+    private void execute(final @NotNull Runnable task) {
+        try {
+            this.executor.execute(() -> {
+                synchronized (this) {
+                    task.run();
+                }
+            });
+        } catch (final RejectedExecutionException ignored) {
+            synchronized (this) {
+                task.run();
+            }
+        }
+    }
+
+    private <T> T await(final @NotNull Supplier<T> task) {
+        final Future<T> future;
+
+        try {
+            future = this.executor.submit(() -> {
+                synchronized (this) {
+                    return task.get();
+                }
+            });
+        } catch (final RejectedExecutionException ignored) {
+            synchronized (this) {
+                return task.get();
+            }
+        }
+
+        try {
+            return future.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the journal", e);
+        } catch (final ExecutionException e) {
+            throw new IllegalStateException("Failed to load \"" + this.file.getName() + "\"", e.getCause());
+        }
+    }
+
+    private @NotNull Map<K, V> read() {
+        final Map<K, V> map = new LinkedHashMap<>();
+
+        if (this.file.exists()) {
+            try {
+                final String json = Files.readString(this.file.toPath(), StandardCharsets.UTF_8);
+                final Map<K, V> snapshot = this.gson.fromJson(json, this.mapType);
+
+                if (snapshot == null) {
+                    throw new JsonParseException("Empty snapshot");
+                }
+
+                map.putAll(snapshot);
+            } catch (final IOException | JsonParseException e) {
+                this.createBackupFile(e);
+            }
+        }
+
+        this.replay(map);
+
+        return map;
+    }
+
+    private void replay(final @NotNull Map<K, V> map) {
+        this.closeWriter();
+
+        if (!this.journalFile.exists()) {
+            return;
+        }
+
+        final List<String> lines;
+
+        try {
+            lines = Files.readAllLines(this.journalFile.toPath(), StandardCharsets.UTF_8);
+        } catch (final IOException e) {
+            this.logger.log(Level.SEVERE, "Failed to read \"" + this.journalFile.getName() + "\"", e);
+            return;
+        }
+
+        for (final var line : lines) {
+            if (line.isBlank()) {
+                continue;
+            }
+
+            try {
+                final JsonObject entry = JsonParser.parseString(line).getAsJsonObject();
+                final K key = this.gson.fromJson(entry.get(KEY_KEY), this.keyType);
+
+                switch (entry.get(KEY_OPERATION).getAsString()) {
+                    case OPERATION_PUT ->    map.put(key, this.gson.fromJson(entry.get(KEY_VALUE), this.valueType));
+                    case OPERATION_REMOVE -> map.remove(key);
+                    default -> throw new JsonParseException("Unknown operation");
+                }
+            } catch (final RuntimeException e) {
+                this.logger.severe("Skipped malformed entry in \"" + this.journalFile.getName() + "\" : " + line);
+            }
+        }
+    }
+
+    private void append(final @NotNull String line) {
+        try {
+            if (this.writer == null) {
+                this.writer = Files.newBufferedWriter(
+                        this.journalFile.toPath(),
+                        StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE,
+                        StandardOpenOption.APPEND
+                );
+            }
+
+            this.writer.write(line);
+            this.writer.newLine();
+            this.writer.flush();
+        } catch (final IOException e) {
+            this.logger.log(Level.SEVERE, "Failed to append to \"" + this.journalFile.getName() + "\", writing a snapshot", e);
+            this.closeWriter();
+            this.writeSnapshot();
+            return;
+        }
+
+        if (++this.journalSize >= COMPACT_THRESHOLD) {
+            this.writeSnapshot();
+        }
+    }
+
+    private void writeSnapshot() {
+        this.writeSnapshot(this.snapshotSupplier.get());
+    }
+
+    private void writeSnapshot(final @NotNull Map<K, V> map) {
+        try {
+            FileUtils.writeAtomically(
+                    this.file,
+                    this.gson.toJson(map, this.mapType).getBytes(StandardCharsets.UTF_8)
+            );
+            this.closeWriter();
+            Files.deleteIfExists(this.journalFile.toPath());
+
+            this.journalSize = 0;
+        } catch (final IOException e) {
+            this.logger.log(Level.SEVERE, "Failed to write \"" + this.file.getName() + "\"", e);
+        }
+    }
+
+    private void createBackupFile(final @NotNull Exception cause) {
+        final File backupFile = new File(this.file.getParent(), this.file.getName() + BACKUP_SUFFIX);
+
+        try {
+            Files.move(this.file.toPath(), backupFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (final IOException e) {
+            this.logger.log(Level.SEVERE, "Failed to create \"" + backupFile.getName() + "\" backup file", e);
+        }
+
+        this.logger.log(Level.SEVERE, "Failed to read the \"" + this.file.getName() + "\" file, creating a new file", cause);
+    }
+
+    private void closeWriter() {
+        if (this.writer != null) {
+            try {
+                this.writer.close();
+            } catch (final IOException e) {
+                this.logger.log(Level.SEVERE, "Failed to close \"" + this.journalFile.getName() + "\"", e);
+            }
+
+            this.writer = null;
+        }
+    }
+}
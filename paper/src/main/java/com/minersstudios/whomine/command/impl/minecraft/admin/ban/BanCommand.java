@@ -9,7 +9,7 @@ import com.minersstudios.whomine.utility.ChatUtils;
 import com.minersstudios.whomine.utility.DateUtils;
 import com.minersstudios.whomine.utility.Font;
 import com.mojang.brigadier.arguments.StringArgumentType;
-import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import org.bukkit.Server;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandSender;
 import org.bukkit.permissions.PermissionDefault;
@@ -17,7 +17,6 @@ import org.jetbrains.annotations.NotNull;
 
 import java.time.Instant;
 import java.util.List;
-import java.util.UUID;
 
 import static com.minersstudios.whomine.locale.Translations.*;
 import static com.mojang.brigadier.builder.LiteralArgumentBuilder.literal;
@@ -96,31 +95,12 @@ public final class BanCommand extends PluginCommandExecutor {
     ) {
         switch (args.length) {
             case 1 -> {
-                final var completions = new ObjectArrayList<String>();
+                final Server server = sender.getServer();
 
-                for (final var offlinePlayer : sender.getServer().getOfflinePlayers()) {
-                    final String nickname = offlinePlayer.getName();
-                    final UUID uuid = offlinePlayer.getUniqueId();
-
-                    if (
-                            ChatUtils.isBlank(nickname)
-                            || offlinePlayer.isBanned()
-                    ) {
-                        continue;
-                    }
-
-                    final int id = this.getPlugin().getCache().getIdMap().getID(uuid, false, false);
-
-                    if (id != -1) {
-                        completions.add(String.valueOf(id));
-                    }
-
-                    if (offlinePlayer.hasPlayedBefore()) {
-                        completions.add(nickname);
-                    }
-                }
-
-                return completions;
+                return this.getPlugin().getCache().getPlayerNameIndex().complete(
+                        args[0],
+                        uuid -> !server.getOfflinePlayer(uuid).isBanned()
+                );
             }
             case 2 -> {
                 return DateUtils.getTimeSuggestions(args[1]);
@@ -15,7 +15,8 @@ import java.util.List;
 import static com.mojang.brigadier.builder.LiteralArgumentBuilder.literal;
 
 public final class MSEssentialsCommandHandler extends PluginCommandExecutor {
-    private static final List<String> TAB = Arrays.asList("reload", "updateids", "updatemutes");
+    private static final List<String> TAB = Arrays.asList("reload", "updateids", "updatemutes", "packetmetrics", "migrateplayers");
+    private static final List<String> TAB_PACKET_METRICS = Arrays.asList("on", "off", "reset", "dump");
 
     public MSEssentialsCommandHandler(final @NotNull WhoMine plugin) {
         super(
@@ -42,6 +43,14 @@ public final class MSEssentialsCommandHandler extends PluginCommandExecutor {
                         .then(literal("reload"))
                         .then(literal("updateids"))
                         .then(literal("updatemutes"))
+                        .then(literal("migrateplayers"))
+                        .then(
+                                literal("packetmetrics")
+                                .then(literal("on"))
+                                .then(literal("off"))
+                                .then(literal("reset"))
+                                .then(literal("dump"))
+                        )
                         .build()
                 )
                 .build()
@@ -57,9 +66,11 @@ public final class MSEssentialsCommandHandler extends PluginCommandExecutor {
     ) {
         return args.length != 0
                 && switch (args[0]) {
-                    case "reload" ->      ReloadCommand.runCommand(this.getPlugin(), sender);
-                    case "updateids" ->   UpdateIdsCommand.runCommand(this.getPlugin(), sender);
-                    case "updatemutes" -> UpdateMutesCommand.runCommand(this.getPlugin(), sender);
+                    case "reload" ->         ReloadCommand.runCommand(this.getPlugin(), sender);
+                    case "updateids" ->      UpdateIdsCommand.runCommand(this.getPlugin(), sender);
+                    case "updatemutes" ->    UpdateMutesCommand.runCommand(this.getPlugin(), sender);
+                    case "packetmetrics" ->  PacketMetricsCommand.runCommand(this.getPlugin(), sender, args);
+                    case "migrateplayers" -> MigratePlayersCommand.runCommand(this.getPlugin(), sender);
                     default -> false;
                 };
     }
@@ -71,6 +82,10 @@ public final class MSEssentialsCommandHandler extends PluginCommandExecutor {
             final @NotNull String label,
             final String @NotNull ... args
     ) {
-        return args.length == 1 ? TAB : EMPTY_TAB;
+        return switch (args.length) {
+            case 1 -> TAB;
+            case 2 -> "packetmetrics".equals(args[0]) ? TAB_PACKET_METRICS : EMPTY_TAB;
+            default -> EMPTY_TAB;
+        };
     }
 }
@@ -0,0 +1,62 @@
+package com.minersstudios.whomine.command.impl.minecraft.admin.msessentials;
+
+import com.minersstudios.whomine.WhoMine;
+import com.minersstudios.whomine.locale.Translations;
+import com.minersstudios.whomine.player.storage.PlayerFileMigrator;
+import com.minersstudios.whomine.player.storage.PlayerFileStorage;
+import com.minersstudios.whomine.utility.MSLogger;
+import org.bukkit.command.CommandSender;
+import org.jetbrains.annotations.NotNull;
+
+import static net.kyori.adventure.text.Component.text;
+
+public final class MigratePlayersCommand {
+
+    public static boolean runCommand(
+            final @NotNull WhoMine plugin,
+            final @NotNull CommandSender sender
+    ) {
+        final PlayerFileStorage to = plugin.getConfiguration().getPlayerFileStorage();
+
+        for (final var from : PlayerFileStorage.values()) {
+            if (from == to) {
+                continue;
+            }
+
+            final PlayerFileMigrator migrator = new PlayerFileMigrator(plugin, from, to);
+
+            MSLogger.info(
+                    sender,
+                    Translations.COMMAND_MSESSENTIALS_MIGRATE_PLAYERS_START.asTranslatable()
+                    .arguments(
+                            text(from.getName()),
+                            text(to.getName())
+                    )
+            );
+            plugin.runTaskAsync(() -> {
+                final PlayerFileMigrator.Result result = migrator.migrate();
+
+                MSLogger.fine(
+                        sender,
+                        Translations.COMMAND_MSESSENTIALS_MIGRATE_PLAYERS_SUCCESS.asTranslatable()
+                        .arguments(
+                                text(result.getTotalNanos() / 1_000_000L),
+                                text(result.getMigrated()),
+                                text(result.getSkipped()),
+                                text(result.getFailed()),
+                                text(from.getName()),
+                                text(result.getFromBytes() / 1024L),
+                                text(result.getFromLoadNanos() / 1_000_000L),
+                                text(result.getFromSaveNanos() / 1_000_000L),
+                                text(to.getName()),
+                                text(result.getToBytes() / 1024L),
+                                text(result.getToLoadNanos() / 1_000_000L),
+                                text(result.getToSaveNanos() / 1_000_000L)
+                        )
+                );
+            });
+        }
+
+        return true;
+    }
+}
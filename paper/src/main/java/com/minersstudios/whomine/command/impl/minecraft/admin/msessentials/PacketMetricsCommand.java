@@ -0,0 +1,111 @@
+package com.minersstudios.whomine.command.impl.minecraft.admin.msessentials;
+
+import com.minersstudios.whomine.WhoMine;
+import com.minersstudios.whomine.locale.Translations;
+import com.minersstudios.whomine.packet.PacketMetrics;
+import com.minersstudios.whomine.utility.MSLogger;
+import org.bukkit.command.CommandSender;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import static net.kyori.adventure.text.Component.text;
+
+public final class PacketMetricsCommand {
+    private static final int SUMMARY_SIZE = 10;
+    private static final String METRICS_FOLDER = "metrics";
+    private static final DateTimeFormatter FILE_NAME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss");
+
+    public static boolean runCommand(
+            final @NotNull WhoMine plugin,
+            final @NotNull CommandSender sender,
+            final String @NotNull [] args
+    ) {
+        final PacketMetrics metrics = plugin.getListenerManager().getPacketMetrics();
+
+        if (args.length == 1) {
+            sendSummary(sender, metrics);
+            return true;
+        }
+
+        switch (args[1]) {
+            case "on" -> {
+                plugin.getConfiguration().setPacketMetrics(true);
+                MSLogger.fine(sender, Translations.COMMAND_MSESSENTIALS_PACKET_METRICS_ENABLED.asTranslatable());
+            }
+            case "off" -> {
+                plugin.getConfiguration().setPacketMetrics(false);
+                MSLogger.fine(sender, Translations.COMMAND_MSESSENTIALS_PACKET_METRICS_DISABLED.asTranslatable());
+            }
+            case "reset" -> {
+                metrics.reset();
+                MSLogger.fine(sender, Translations.COMMAND_MSESSENTIALS_PACKET_METRICS_RESET.asTranslatable());
+            }
+            case "dump" -> plugin.runTaskAsync(() -> dump(plugin, sender, metrics));
+            default -> {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static void sendSummary(
+            final @NotNull CommandSender sender,
+            final @NotNull PacketMetrics metrics
+    ) {
+        final List<PacketMetrics.Stats> stats = metrics.packetTypeStats();
+        final StringBuilder builder = new StringBuilder(PacketMetrics.Stats.HEADER);
+        final int size = Math.min(SUMMARY_SIZE, stats.size());
+
+        for (int i = 0; i < size; ++i) {
+            builder.append('\n').append(stats.get(i).toLine());
+        }
+
+        MSLogger.info(
+                sender,
+                Translations.COMMAND_MSESSENTIALS_PACKET_METRICS_SUMMARY.asTranslatable()
+                .arguments(
+                        text(metrics.isEnabled() ? "on" : "off"),
+                        text((System.currentTimeMillis() - metrics.getStartTime()) / 1000L),
+                        text(builder.toString())
+                )
+        );
+    }
+
+    private static void dump(
+            final @NotNull WhoMine plugin,
+            final @NotNull CommandSender sender,
+            final @NotNull PacketMetrics metrics
+    ) {
+        final File folder = new File(plugin.getDataFolder(), METRICS_FOLDER);
+        final File file = new File(folder, "packets-" + LocalDateTime.now().format(FILE_NAME_FORMATTER) + ".txt");
+
+        try {
+            Files.createDirectories(folder.toPath());
+
+            try (final Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+                metrics.dump(writer);
+            }
+
+            MSLogger.fine(
+                    sender,
+                    Translations.COMMAND_MSESSENTIALS_PACKET_METRICS_DUMP_SUCCESS.asTranslatable()
+                    .arguments(text(file.getPath()))
+            );
+        } catch (final IOException e) {
+            MSLogger.severe(
+                    sender,
+                    Translations.COMMAND_MSESSENTIALS_PACKET_METRICS_DUMP_ERROR.asTranslatable()
+                    .arguments(text(e.getMessage()))
+            );
+        }
+    }
+}
@@ -6,13 +6,11 @@ import com.minersstudios.whomine.utility.MSLogger;
 import com.minersstudios.whomine.command.api.PluginCommandExecutor;
 import com.minersstudios.whomine.command.api.minecraft.CommandData;
 import com.minersstudios.whomine.player.PlayerInfo;
-import com.minersstudios.whomine.player.collection.IDMap;
 import com.minersstudios.whomine.player.collection.MuteMap;
 import com.minersstudios.whomine.utility.ChatUtils;
 import com.minersstudios.whomine.utility.DateUtils;
 import com.minersstudios.whomine.utility.Font;
 import com.mojang.brigadier.arguments.StringArgumentType;
-import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandSender;
 import org.bukkit.permissions.PermissionDefault;
@@ -20,7 +18,6 @@ import org.jetbrains.annotations.NotNull;
 
 import java.time.Instant;
 import java.util.List;
-import java.util.UUID;
 
 import static com.minersstudios.whomine.locale.Translations.*;
 import static com.mojang.brigadier.builder.LiteralArgumentBuilder.literal;
@@ -102,34 +99,13 @@ public final class MuteCommand extends PluginCommandExecutor {
     ) {
         switch (args.length) {
             case 1 -> {
-                final var completions = new ObjectArrayList<String>();
                 final Cache cache = this.getPlugin().getCache();
                 final MuteMap muteMap = cache.getMuteMap();
-                final IDMap idMap = cache.getIdMap();
 
-                for (final var offlinePlayer : sender.getServer().getOfflinePlayers()) {
-                    final String nickname = offlinePlayer.getName();
-                    final UUID uuid = offlinePlayer.getUniqueId();
-
-                    if (
-                            ChatUtils.isBlank(nickname)
-                            || muteMap.isMuted(offlinePlayer)
-                    ) {
-                        continue;
-                    }
-
-                    final int id = idMap.getID(uuid, false, false);
-
-                    if (id != -1) {
-                        completions.add(String.valueOf(id));
-                    }
-
-                    if (offlinePlayer.hasPlayedBefore()) {
-                        completions.add(nickname);
-                    }
-                }
-
-                return completions;
+                return cache.getPlayerNameIndex().complete(
+                        args[0],
+                        uuid -> !muteMap.isMuted(uuid)
+                );
             }
             case 2 -> {
                 return DateUtils.getTimeSuggestions(args[1]);
@@ -251,28 +251,10 @@ public final class AdminPlayerCommandHandler extends PluginCommandExecutor {
     ) {
         switch (args.length) {
             case 1 -> {
-                final var completions = new ObjectArrayList<String>();
-                final IDMap idMap = this.getPlugin().getCache().getIdMap();
-
-                for (final var offlinePlayer : sender.getServer().getOfflinePlayers()) {
-                    final String nickname = offlinePlayer.getName();
-
-                    if (nickname == null) {
-                        continue;
-                    }
-
-                    final int id = idMap.getID(offlinePlayer.getUniqueId(), false, false);
-
-                    if (id != -1) {
-                        completions.add(String.valueOf(id));
-                    }
-
-                    if (offlinePlayer.hasPlayedBefore()) {
-                        completions.add(nickname);
-                    }
-                }
-
-                return completions;
+                return this.getPlugin().getCache().getPlayerNameIndex().complete(
+                        args[0],
+                        uuid -> true
+                );
             }
             case 2 -> {
                 return TAB_2;
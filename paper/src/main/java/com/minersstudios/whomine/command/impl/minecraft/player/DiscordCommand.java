@@ -86,8 +86,8 @@ public final class DiscordCommand extends PluginCommandExecutor {
 
                     final DiscordManager discordManager = plugin.getDiscordManager();
 
-                    discordManager.retrieveUser(id)
-                    .ifPresent(user -> {
+                    discordManager.retrieveUserAsync(id)
+                    .thenAccept(optionalUser -> optionalUser.ifPresent(user -> {
                         discordManager.sendEmbeds(
                                 user,
                                 BotHandler.craftEmbed(
@@ -105,7 +105,7 @@ public final class DiscordCommand extends PluginCommandExecutor {
                                 COMMAND_DISCORD_UNLINK_MINECRAFT_SUCCESS.asTranslatable()
                                 .arguments(text(user.getName()))
                         );
-                    });
+                    }));
                 }
                 default -> {
                     return false;
@@ -0,0 +1,326 @@
+package com.minersstudios.whomine.custom;
+
+import com.minersstudios.whomine.custom.block.CustomBlockData;
+import com.minersstudios.whomine.custom.block.CustomBlockRegistry;
+import com.minersstudios.whomine.custom.decor.CustomDecorData;
+import com.minersstudios.whomine.custom.decor.CustomDecorType;
+import com.minersstudios.whomine.custom.item.CustomItem;
+import com.minersstudios.whomine.custom.item.CustomItemType;
+import com.minersstudios.whomine.custom.item.renameable.RenameableItem;
+import com.minersstudios.whomine.custom.item.renameable.RenameableItemRegistry;
+import com.minersstudios.whomine.utility.ChatUtils;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.Tag;
+import org.bukkit.Bukkit;
+import org.bukkit.craftbukkit.v1_20_R3.inventory.CraftItemStack;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.persistence.PersistentDataContainer;
+import org.bukkit.persistence.PersistentDataType;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Shared classifier of the custom item / block / decor / renameable item
+ * stacks.
+ * <br>
+ * The classifier reads all custom type tags of the item stack in a single
+ * pass directly from the tag of the underlying NMS item stack, without
+ * cloning the item meta, as {@link ItemStack#getItemMeta()} does. Only the
+ * item stacks, which are not backed by an NMS item stack, fall back to the
+ * item meta.
+ * <br>
+ * On the main thread, the classifications are cached by the identity of the
+ * NMS item tag until the end of the current tick, so the listeners handling
+ * the same event share a single classification of the same item stack.
+ * Changing the item meta replaces the tag of the NMS item stack, so a
+ * modified item stack is classified again.
+ *
+ * @see Classification
+ */
+public final class CustomItemClassifier {
+    private static final String BUKKIT_VALUES_TAG = "PublicBukkitValues";
+    private static final String ITEM_TYPE_TAG =     CustomItemType.TYPE_NAMESPACED_KEY.toString();
+    private static final String BLOCK_TYPE_TAG =    CustomBlockRegistry.TYPE_NAMESPACED_KEY.toString();
+    private static final String DECOR_TYPE_TAG =    CustomDecorType.TYPE_NAMESPACED_KEY.toString();
+    private static final String RENAMEABLE_TAG =    RenameableItemRegistry.RENAMEABLE_NAMESPACED_KEY.toString();
+
+    private static final VarHandle HANDLE = findHandle();
+    private static final Map<CompoundTag, Classification> CACHE = new Reference2ObjectOpenHashMap<>();
+    private static int cacheTick = -1;
+
+    @Contract(" -> fail")
+    private CustomItemClassifier() throws AssertionError {
+        throw new AssertionError("Utility class");
+    }
+
+    /**
+     * Classifies the item stack
+     *
+     * @param itemStack The item stack to classify
+     * @return The classification of the item stack, empty if the item stack
+     *         is null, air or has no custom type tags
+     */
+    public static @NotNull Classification classify(final @Nullable ItemStack itemStack) {
+        if (itemStack == null) {
+            return Classification.EMPTY;
+        }
+
+        if (
+                HANDLE == null
+                || !(itemStack instanceof final CraftItemStack craftItemStack)
+        ) {
+            return fromItemMeta(itemStack.getItemMeta());
+        }
+
+        final var handle = (net.minecraft.world.item.ItemStack) HANDLE.get(craftItemStack);
+
+        if (handle == null) {
+            return Classification.EMPTY;
+        }
+
+        final CompoundTag tag = handle.getTag();
+
+        if (
+                tag == null
+                || !tag.contains(BUKKIT_VALUES_TAG, Tag.TAG_COMPOUND)
+        ) {
+            return Classification.EMPTY;
+        }
+
+        if (!Bukkit.isPrimaryThread()) {
+            return fromTag(tag.getCompound(BUKKIT_VALUES_TAG));
+        }
+
+        final int tick = Bukkit.getCurrentTick();
+
+        if (tick != cacheTick) {
+            CACHE.clear();
+
+            cacheTick = tick;
+        }
+
+        Classification classification = CACHE.get(tag);
+
+        if (classification == null) {
+            classification = fromTag(tag.getCompound(BUKKIT_VALUES_TAG));
+
+            CACHE.put(tag, classification);
+        }
+
+        return classification;
+    }
+
+    private static @NotNull Classification fromTag(final @NotNull CompoundTag values) {
+        return Classification.of(
+                values.getString(ITEM_TYPE_TAG),
+                values.getString(BLOCK_TYPE_TAG),
+                values.getString(DECOR_TYPE_TAG),
+                values.getString(RENAMEABLE_TAG)
+        );
+    }
+
+    private static @NotNull Classification fromItemMeta(final @Nullable ItemMeta itemMeta) {
+        if (itemMeta == null) {
+            return Classification.EMPTY;
+        }
+
+        final PersistentDataContainer container = itemMeta.getPersistentDataContainer();
+
+        return Classification.of(
+                container.get(CustomItemType.TYPE_NAMESPACED_KEY, PersistentDataType.STRING),
+                container.get(CustomBlockRegistry.TYPE_NAMESPACED_KEY, PersistentDataType.STRING),
+                container.get(CustomDecorType.TYPE_NAMESPACED_KEY, PersistentDataType.STRING),
+                container.get(RenameableItemRegistry.RENAMEABLE_NAMESPACED_KEY, PersistentDataType.STRING)
+        );
+    }
+
+    private static @Nullable VarHandle findHandle() {
+        try {
+            return MethodHandles
+                    .privateLookupIn(CraftItemStack.class, MethodHandles.lookup())
+                    .findVarHandle(CraftItemStack.class, "handle", net.minecraft.world.item.ItemStack.class);
+        } catch (final ReflectiveOperationException ignored) {
+            return null;
+        }
+    }
+
+    /**
+     * Classification of the item stack, containing its custom type tags.
+     * The registry entries are resolved lazily from the tags and memoized,
+     * so the classification should only be shared on the main thread.
+     */
+    public static final class Classification {
+        private static final Classification EMPTY = new Classification(null, null, null, null);
+
+        private final String itemKey;
+        private final String blockKey;
+        private final String decorKey;
+        private final String renameableKey;
+        private Optional<CustomItem> customItem;
+        private Optional<CustomBlockData> customBlockData;
+        private Optional<CustomDecorData<?>> customDecorData;
+        private Optional<RenameableItem> renameableItem;
+
+        private Classification(
+                final @Nullable String itemKey,
+                final @Nullable String blockKey,
+                final @Nullable String decorKey,
+                final @Nullable String renameableKey
+        ) {
+            this.itemKey = itemKey;
+            this.blockKey = blockKey;
+            this.decorKey = decorKey;
+            this.renameableKey = renameableKey;
+        }
+
+        private static @NotNull Classification of(
+                final @Nullable String itemKey,
+                final @Nullable String blockKey,
+                final @Nullable String decorKey,
+                final @Nullable String renameableKey
+        ) {
+            return ChatUtils.isBlank(itemKey)
+                    && ChatUtils.isBlank(blockKey)
+                    && ChatUtils.isBlank(decorKey)
+                    && ChatUtils.isBlank(renameableKey)
+                    ? EMPTY
+                    : new Classification(
+                            ChatUtils.isBlank(itemKey) ? null : itemKey,
+                            ChatUtils.isBlank(blockKey) ? null : blockKey,
+                            ChatUtils.isBlank(decorKey) ? null : decorKey,
+                            ChatUtils.isBlank(renameableKey) ? null : renameableKey
+                    );
+        }
+
+        /**
+         * @return True if the item stack has no custom type tags
+         */
+        public boolean isEmpty() {
+            return this == EMPTY;
+        }
+
+        /**
+         * @return The custom item type key, or null if the item stack has no
+         *         custom item type tag
+         */
+        public @Nullable String getItemKey() {
+            return this.itemKey;
+        }
+
+        /**
+         * @return The custom block type key, or null if the item stack has no
+         *         custom block type tag
+         */
+        public @Nullable String getBlockKey() {
+            return this.blockKey;
+        }
+
+        /**
+         * @return The custom decor type key, or null if the item stack has no
+         *         custom decor type tag
+         */
+        public @Nullable String getDecorKey() {
+            return this.decorKey;
+        }
+
+        /**
+         * @return The renameable item key, or null if the item stack has no
+         *         renameable item tag
+         */
+        public @Nullable String getRenameableKey() {
+            return this.renameableKey;
+        }
+
+        /**
+         * @return An {@link Optional} containing the {@link CustomItem} or an
+         *         {@link Optional#empty()} if the item stack is not associated
+         *         with any custom item
+         * @see CustomItem#fromKey(String)
+         */
+        public @NotNull Optional<CustomItem> getCustomItem() {
+            if (this.customItem == null) {
+                this.customItem = CustomItem.fromKey(this.itemKey);
+            }
+
+            return this.customItem;
+        }
+
+        /**
+         * @param clazz The target class to cast the custom item instance
+         * @param <I>   The type of the target class
+         * @return An {@link Optional} containing the {@link CustomItem} or an
+         *         {@link Optional#empty()} if the item stack is not associated
+         *         with any custom item or if the custom item instance cannot
+         *         be cast to the specified class
+         */
+        public <I extends CustomItem> @NotNull Optional<I> getCustomItem(final @NotNull Class<I> clazz) {
+            return this.getCustomItem()
+                    .filter(clazz::isInstance)
+                    .map(clazz::cast);
+        }
+
+        /**
+         * @return An {@link Optional} containing the {@link CustomBlockData} or
+         *         an {@link Optional#empty()} if the item stack is not
+         *         associated with any custom block data
+         * @see CustomBlockRegistry#fromKey(String)
+         */
+        public @NotNull Optional<CustomBlockData> getCustomBlockData() {
+            if (this.customBlockData == null) {
+                this.customBlockData = CustomBlockRegistry.fromKey(this.blockKey);
+            }
+
+            return this.customBlockData;
+        }
+
+        /**
+         * @return An {@link Optional} containing the {@link CustomDecorData} or
+         *         an {@link Optional#empty()} if the item stack is not
+         *         associated with any custom decor data
+         * @see CustomDecorData#fromKey(String)
+         */
+        public @NotNull Optional<CustomDecorData<?>> getCustomDecorData() {
+            if (this.customDecorData == null) {
+                this.customDecorData = CustomDecorData.fromKey(this.decorKey);
+            }
+
+            return this.customDecorData;
+        }
+
+        /**
+         * @param clazz The class of the custom decor data to get
+         * @param <D>   The type of the custom decor data to get
+         * @return An {@link Optional} containing the {@link CustomDecorData} or
+         *         an {@link Optional#empty()} if the item stack is not
+         *         associated with any custom decor data or if the custom decor
+         *         data cannot be cast to the specified class
+         */
+        public <D extends CustomDecorData<D>> @NotNull Optional<D> getCustomDecorData(final @NotNull Class<D> clazz) {
+            return this.getCustomDecorData()
+                    .filter(clazz::isInstance)
+                    .map(clazz::cast);
+        }
+
+        /**
+         * @return An {@link Optional} containing the {@link RenameableItem} or
+         *         an {@link Optional#empty()} if the item stack is not
+         *         associated with any renameable item
+         * @see RenameableItemRegistry#fromKey(String)
+         */
+        public @NotNull Optional<RenameableItem> getRenameableItem() {
+            if (this.renameableItem == null) {
+                this.renameableItem = RenameableItemRegistry.fromKey(this.renameableKey);
+            }
+
+            return this.renameableItem;
+        }
+    }
+}
@@ -111,7 +111,8 @@ public abstract class AnomalyAction {
     }
 
     /**
-     * Do action if the time is up and the percentage is reached
+     * Do action if the time is up and the percentage is reached. Called on
+     * the main thread by the anomaly tasks.
      *
      * @param player         The player to be influenced
      * @param ignorableItems Ignorable items that will be damaged if the player
@@ -3,14 +3,16 @@ package com.minersstudios.whomine.custom.anomaly;
 import com.minersstudios.whomine.world.location.MSBoundingBox;
 import it.unimi.dsi.fastutil.doubles.Double2ObjectArrayMap;
 import it.unimi.dsi.fastutil.doubles.Double2ObjectMap;
+import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.entity.Player;
 import org.bukkit.util.BoundingBox;
-import org.bukkit.util.Vector;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.Unmodifiable;
 
 import javax.annotation.concurrent.Immutable;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -20,12 +22,18 @@ import java.util.Map;
  * This class is used to store the bounding boxes of anomalies. Use
  * {@link #getRadiusInside(Player)} to get the radius of the anomaly the player
  * is inside.
+ * <br>
+ * The bounding boxes are also kept in the ascending order of their radii, so
+ * the innermost radius containing a position is found by checking the boxes
+ * from the smallest one and stopping at the first match.
  */
 @Immutable
 public final class AnomalyBoundingBox extends BoundingBox {
     private final World world;
     private final List<Double> radii;
     private final Double2ObjectMap<MSBoundingBox> radiusBoundingBoxes;
+    private final double[] sortedRadii;
+    private final MSBoundingBox[] sortedBoundingBoxes;
 
     /**
      * Creates a new anomaly bounding box, with a list of radii and a map of
@@ -51,6 +59,15 @@ public final class AnomalyBoundingBox extends BoundingBox {
                     boundingBox.inflate(radius)
             );
         }
+
+        this.sortedRadii = this.radiusBoundingBoxes.keySet().toDoubleArray();
+        this.sortedBoundingBoxes = new MSBoundingBox[this.sortedRadii.length];
+
+        Arrays.sort(this.sortedRadii);
+
+        for (int i = 0; i < this.sortedRadii.length; ++i) {
+            this.sortedBoundingBoxes[i] = this.radiusBoundingBoxes.get(this.sortedRadii[i]);
+        }
     }
 
     /**
@@ -75,19 +92,49 @@ public final class AnomalyBoundingBox extends BoundingBox {
     }
 
     /**
-     * Gets the radius if any bounding box contains the player position
+     * @return The bounding box of the largest radius, which contains all
+     *         other bounding boxes, or null if the anomaly has no radii
+     */
+    public @Nullable MSBoundingBox getOuterBoundingBox() {
+        final int length = this.sortedBoundingBoxes.length;
+        return length == 0 ? null : this.sortedBoundingBoxes[length - 1];
+    }
+
+    /**
+     * Gets the innermost radius if any bounding box contains the player
+     * position
      *
      * @param player The player to check
      * @return -1 if the bounding box does not contain the player position
+     * @see #getRadiusInside(double, double, double)
      */
     public double getRadiusInside(final @NotNull Player player) {
-        if (player.getWorld() == this.world) {
-            final Vector playerPosition = player.getLocation().toVector();
+        if (player.getWorld() != this.world) {
+            return -1.0d;
+        }
+
+        final Location location = player.getLocation();
+
+        return this.getRadiusInside(location.x(), location.y(), location.z());
+    }
 
-            for (final var entry : this.radiusBoundingBoxes.double2ObjectEntrySet()) {
-                if (entry.getValue().contains(playerPosition)) {
-                    return entry.getDoubleKey();
-                }
+    /**
+     * Gets the innermost radius if any bounding box contains the position.
+     * The position is assumed to be in the world of the anomaly.
+     *
+     * @param x The x coordinate of the position
+     * @param y The y coordinate of the position
+     * @param z The z coordinate of the position
+     * @return -1 if the bounding box does not contain the position
+     */
+    public double getRadiusInside(
+            final double x,
+            final double y,
+            final double z
+    ) {
+        for (int i = 0; i < this.sortedRadii.length; ++i) {
+            if (this.sortedBoundingBoxes[i].contains(x, y, z)) {
+                return this.sortedRadii[i];
             }
         }
 
@@ -106,7 +106,8 @@ public final class AnomalyIgnorableItems {
     }
 
     /**
-     * Damages all ignorable items in the player inventory
+     * Damages all ignorable items in the player inventory. Must be called on
+     * the main thread.
      *
      * @param inventory The player inventory whose items will be damaged
      */
@@ -125,13 +126,11 @@ public final class AnomalyIgnorableItems {
                     this.includedItems.containsKey(equipmentSlot)
                     && this.isIgnorableItem(equipmentSlot, item)
             ) {
-                this.plugin.runTask(() ->
-                        ItemUtils.damageItem(
-                                player,
-                                equipmentSlot,
-                                item,
-                                this.breakingPerAction
-                        )
+                ItemUtils.damageItem(
+                        player,
+                        equipmentSlot,
+                        item,
+                        this.breakingPerAction
                 );
             }
         }
@@ -0,0 +1,215 @@
+package com.minersstudios.whomine.custom.anomaly;
+
+import com.minersstudios.whomine.WhoMine;
+import com.minersstudios.whomine.world.location.MSBoundingBox;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.AbstractObject2DoubleMap;
+import it.unimi.dsi.fastutil.objects.Object2DoubleMap;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Spatial index of the anomalies, shared by the anomaly tasks and the
+ * dosimeter.
+ * <br>
+ * Every anomaly is put into the cells of a per-world grid of
+ * {@link #CELL_SIZE} blocks, covered by the bounding box of its largest
+ * radius, so finding the anomalies at a position only checks the few
+ * anomalies of a single cell instead of every loaded anomaly. The grid is
+ * immutable and is replaced as a whole by {@link #rebuild(Collection)}, so it
+ * can be queried from any thread without locking.
+ * <br>
+ * The index also keeps a snapshot of the locations of the online players,
+ * which is taken at most once per server tick, so all anomaly tasks running
+ * in the same tick share a single location per player.
+ */
+public final class AnomalyIndex {
+    private final WhoMine plugin;
+    private volatile Map<UUID, Long2ObjectMap<Anomaly[]>> grids;
+    private volatile Map<Player, Location> locations;
+    private int locationsTick;
+
+    /** The size of the grid cells in blocks, equal to the chunk size */
+    public static final int CELL_SIZE = 16;
+
+    private static final int CELL_SHIFT = 4;
+    private static final Anomaly[] EMPTY = new Anomaly[0];
+
+    public AnomalyIndex(final @NotNull WhoMine plugin) {
+        this.plugin = plugin;
+        this.grids = Collections.emptyMap();
+        this.locations = Collections.emptyMap();
+        this.locationsTick = -1;
+    }
+
+    /**
+     * Rebuilds the index from the anomalies, replacing the previous index
+     *
+     * @param anomalies The anomalies to index
+     */
+    public void rebuild(final @NotNull Collection<Anomaly> anomalies) {
+        final var cells = new Object2ObjectOpenHashMap<UUID, Long2ObjectMap<List<Anomaly>>>();
+
+        for (final var anomaly : anomalies) {
+            final AnomalyBoundingBox boundingBox = anomaly.getBoundingBox();
+            final MSBoundingBox outer = boundingBox.getOuterBoundingBox();
+
+            if (outer == null) {
+                continue;
+            }
+
+            final var grid = cells.computeIfAbsent(
+                    boundingBox.getWorld().getUID(),
+                    uuid -> new Long2ObjectOpenHashMap<>()
+            );
+            final int minX = toCell(outer.minX());
+            final int minZ = toCell(outer.minZ());
+            final int maxX = toCell(outer.maxX());
+            final int maxZ = toCell(outer.maxZ());
+
+            for (int x = minX; x <= maxX; ++x) {
+                for (int z = minZ; z <= maxZ; ++z) {
+                    grid.computeIfAbsent(
+                            cellKey(x, z),
+                            key -> new ObjectArrayList<>(1)
+                    ).add(anomaly);
+                }
+            }
+        }
+
+        final var grids = new Object2ObjectOpenHashMap<UUID, Long2ObjectMap<Anomaly[]>>(cells.size());
+
+        for (final var entry : cells.entrySet()) {
+            final var grid = new Long2ObjectOpenHashMap<Anomaly[]>(entry.getValue().size());
+
+            for (final var cell : entry.getValue().long2ObjectEntrySet()) {
+                grid.put(cell.getLongKey(), cell.getValue().toArray(EMPTY));
+            }
+
+            grids.put(entry.getKey(), grid);
+        }
+
+        this.grids = grids;
+    }
+
+    /**
+     * Clears the index
+     */
+    public void clear() {
+        this.grids = Collections.emptyMap();
+    }
+
+    /**
+     * Gets the anomaly with the smallest innermost radius containing the
+     * location
+     *
+     * @param location The location
+     * @return Entry of the anomaly and its innermost radius containing the
+     *         location, or null if no anomaly contains the location
+     */
+    public @Nullable Object2DoubleMap.Entry<Anomaly> getInnermost(final @NotNull Location location) {
+        Anomaly innermost = null;
+        double innermostRadius = Double.POSITIVE_INFINITY;
+
+        for (final var anomaly : this.getCandidates(location)) {
+            final double radius = anomaly.getBoundingBox().getRadiusInside(location.x(), location.y(), location.z());
+
+            if (
+                    radius != -1.0d
+                    && radius < innermostRadius
+            ) {
+                innermost = anomaly;
+                innermostRadius = radius;
+            }
+        }
+
+        return innermost == null
+                ? null
+                : new AbstractObject2DoubleMap.BasicEntry<>(innermost, innermostRadius);
+    }
+
+    /**
+     * Gets the location of the player from the snapshot of the current tick.
+     * When called on the main thread, the snapshot is taken first if it was
+     * not taken in the current tick yet. When called asynchronously, the
+     * latest snapshot is used, and the location is taken directly only if the
+     * player is not in the snapshot.
+     *
+     * @param player The player
+     * @return The location of the player, shared by all callers in the same
+     *         tick and must not be modified
+     */
+    public @NotNull Location getLocation(final @NotNull Player player) {
+        final Location location = this.getLocations().get(player);
+        return location == null ? player.getLocation() : location;
+    }
+
+    /**
+     * @return Unmodifiable snapshot of the locations of the online players,
+     *         taken at most once per tick
+     * @see #getLocation(Player)
+     */
+    public @NotNull @Unmodifiable Map<Player, Location> getLocations() {
+        final var server = this.plugin.getServer();
+
+        if (server.isPrimaryThread()) {
+            final int tick = server.getCurrentTick();
+
+            if (tick != this.locationsTick) {
+                final var onlinePlayers = server.getOnlinePlayers();
+                final var locations = new Object2ObjectOpenHashMap<Player, Location>(onlinePlayers.size());
+
+                for (final var player : onlinePlayers) {
+                    locations.put(player, player.getLocation());
+                }
+
+                this.locationsTick = tick;
+                this.locations = Collections.unmodifiableMap(locations);
+            }
+        }
+
+        return this.locations;
+    }
+
+    private @NotNull Anomaly[] getCandidates(final @NotNull Location location) {
+        final World world = location.getWorld();
+
+        if (world == null) {
+            return EMPTY;
+        }
+
+        final var grid = this.grids.get(world.getUID());
+
+        if (grid == null) {
+            return EMPTY;
+        }
+
+        final Anomaly[] candidates = grid.get(cellKey(toCell(location.x()), toCell(location.z())));
+
+        return candidates == null ? EMPTY : candidates;
+    }
+
+    private static int toCell(final double coordinate) {
+        return (int) Math.floor(coordinate) >> CELL_SHIFT;
+    }
+
+    private static long cellKey(
+            final int x,
+            final int z
+    ) {
+        return (long) x & 0xFFFFFFFFL | ((long) z & 0xFFFFFFFFL) << 32;
+    }
+}
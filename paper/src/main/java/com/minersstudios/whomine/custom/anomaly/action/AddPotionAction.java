@@ -9,6 +9,8 @@ import org.bukkit.potion.PotionEffect;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Arrays;
+
 /**
  * Anomaly potion action class. Used to add potion effects to player when a
  * player is in the anomaly zone, and the time is up and the percentage is
@@ -71,7 +73,7 @@ public class AddPotionAction extends AnomalyAction {
     /**
      * Adds potion effects to player if the time is up and the percentage is
      * reached. If the player has ignorable items, they will be damaged instead
-     * of adding potion effects.
+     * of adding potion effects. Must be called on the main thread.
      *
      * @param player         The player to be influenced
      * @param ignorableItems Ignorable items that will be damaged if the player
@@ -100,11 +102,7 @@ public class AddPotionAction extends AnomalyAction {
                 ) {
                     ignorableItems.damageIgnorableItems(inventory);
                 } else {
-                    this.plugin.runTask(() -> {
-                        for (final var potionEffect : this.potionEffects) {
-                            player.addPotionEffect(potionEffect);
-                        }
-                    });
+                    player.addPotionEffects(Arrays.asList(this.potionEffects));
                 }
             }
         }
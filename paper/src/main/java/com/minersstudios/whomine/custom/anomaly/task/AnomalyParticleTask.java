@@ -5,7 +5,10 @@ import com.minersstudios.whomine.WhoMine;
 import com.minersstudios.whomine.custom.anomaly.Anomaly;
 import com.minersstudios.whomine.custom.anomaly.AnomalyAction;
 import com.minersstudios.whomine.custom.anomaly.AnomalyBoundingBox;
+import com.minersstudios.whomine.custom.anomaly.AnomalyIndex;
 import com.minersstudios.whomine.custom.anomaly.action.SpawnParticlesAction;
+import it.unimi.dsi.fastutil.objects.Object2DoubleMap;
+import org.bukkit.Location;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 
@@ -23,52 +26,55 @@ import java.util.Map;
  *
  * @see SpawnParticlesAction
  * @see AnomalyBoundingBox
+ * @see AnomalyIndex
  */
-public final class AnomalyParticleTask implements Runnable {
-    private final WhoMine plugin;
+public final class AnomalyParticleTask extends AnomalyTask {
     private final Map<Player, Map<AnomalyAction, Long>> anomalyActionMap;
     private final Collection<Anomaly> anomalies;
 
     public AnomalyParticleTask(final @NotNull WhoMine plugin) {
-        this.plugin = plugin;
+        super(plugin);
+
         this.anomalyActionMap = plugin.getCache().getPlayerAnomalyActionMap();
         this.anomalies = plugin.getCache().getAnomalies().values();
     }
 
     @Override
-    public void run() {
-        if (
-                this.anomalies.isEmpty()
-                || this.anomalyActionMap.isEmpty()
-        ) {
-            return;
-        }
+    protected boolean shouldRun() {
+        return !this.anomalies.isEmpty()
+                && !this.anomalyActionMap.isEmpty();
+    }
 
-        this.plugin.runTaskAsync(() -> {
-            for (final var entry : this.anomalyActionMap.entrySet()) {
-                final Player player = entry.getKey();
-                final var actionMap = entry.getValue();
+    @Override
+    protected void apply(
+            final @NotNull Map<Player, Location> locations,
+            final @NotNull Map<Player, Object2DoubleMap.Entry<Anomaly>> zones
+    ) {
+        for (final var entry : zones.entrySet()) {
+            final Player player = entry.getKey();
+            final var actionMap = this.anomalyActionMap.get(player);
 
-                for (final var action : actionMap.keySet()) {
-                    if (!(action instanceof SpawnParticlesAction)) {
-                        continue;
-                    }
+            if (
+                    actionMap == null
+                    || !player.isOnline()
+            ) {
+                continue;
+            }
 
-                    for (final var anomaly : this.anomalies) {
-                        final double radiusInside = anomaly.getBoundingBox().getRadiusInside(player);
+            final var zone = entry.getValue();
+            final var zoneActions = zone.getKey().getAnomalyActionMap().get(zone.getDoubleValue());
 
-                        if (radiusInside == -1.0d) {
-                            continue;
-                        }
+            for (final var action : actionMap.keySet()) {
+                if (!(action instanceof SpawnParticlesAction)) {
+                    continue;
+                }
 
-                        if (anomaly.getAnomalyActionMap().get(radiusInside).contains(action)) {
-                            action.doAction(player, null);
-                        } else {
-                            action.removeAction(player);
-                        }
-                    }
+                if (zoneActions.contains(action)) {
+                    action.doAction(player, null);
+                } else {
+                    action.removeAction(player);
                 }
             }
-        });
+        }
     }
 }
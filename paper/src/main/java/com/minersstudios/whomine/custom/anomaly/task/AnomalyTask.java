@@ -0,0 +1,105 @@
+package com.minersstudios.whomine.custom.anomaly.task;
+
+import com.minersstudios.whomine.WhoMine;
+import com.minersstudios.whomine.custom.anomaly.Anomaly;
+import com.minersstudios.whomine.custom.anomaly.AnomalyIndex;
+import it.unimi.dsi.fastutil.objects.Object2DoubleMap;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+
+/**
+ * Base class of the anomaly tasks, which run as a two-phase pipeline.
+ * <br>
+ * When the task runs on the main thread, it takes the snapshot of the
+ * player locations from the {@link AnomalyIndex}. The zones of the players
+ * are then computed asynchronously from the snapshot, without touching any
+ * entity, and the actions are applied back on the main thread in a single
+ * batch for all players. A new run is skipped while the previous one is
+ * still in progress, so the runs never overlap.
+ *
+ * @see MainAnomalyActionTask
+ * @see AnomalyParticleTask
+ */
+public abstract class AnomalyTask implements Runnable {
+    protected final WhoMine plugin;
+    protected final AnomalyIndex anomalyIndex;
+    private final AtomicBoolean isRunning;
+
+    protected AnomalyTask(final @NotNull WhoMine plugin) {
+        this.plugin = plugin;
+        this.anomalyIndex = plugin.getCache().getAnomalyIndex();
+        this.isRunning = new AtomicBoolean();
+    }
+
+    @Override
+    public final void run() {
+        if (
+                !this.shouldRun()
+                || !this.isRunning.compareAndSet(false, true)
+        ) {
+            return;
+        }
+
+        final var locations = this.anomalyIndex.getLocations();
+
+        this.plugin.runTaskAsync(() -> {
+            final Map<Player, Object2DoubleMap.Entry<Anomaly>> zones;
+
+            try {
+                zones = this.computeZones(locations);
+            } catch (final Throwable e) {
+                this.isRunning.set(false);
+                this.plugin.getLogger().log(Level.SEVERE, "Failed to compute anomaly zones", e);
+                return;
+            }
+
+            this.plugin.runTask(() -> {
+                try {
+                    this.apply(locations, zones);
+                } finally {
+                    this.isRunning.set(false);
+                }
+            });
+        });
+    }
+
+    /**
+     * @return True if the task should run in the current tick
+     */
+    protected abstract boolean shouldRun();
+
+    /**
+     * Applies the actions to the players on the main thread
+     *
+     * @param locations The snapshot of the player locations the zones were
+     *                  computed from
+     * @param zones     The innermost anomaly and its radius for every player
+     *                  in an anomaly zone
+     */
+    protected abstract void apply(
+            final @NotNull @Unmodifiable Map<Player, Location> locations,
+            final @NotNull @Unmodifiable Map<Player, Object2DoubleMap.Entry<Anomaly>> zones
+    );
+
+    private @NotNull @Unmodifiable Map<Player, Object2DoubleMap.Entry<Anomaly>> computeZones(final @NotNull Map<Player, Location> locations) {
+        final var zones = new Object2ObjectOpenHashMap<Player, Object2DoubleMap.Entry<Anomaly>>();
+
+        for (final var entry : locations.entrySet()) {
+            final var anomalyEntry = this.anomalyIndex.getInnermost(entry.getValue());
+
+            if (anomalyEntry != null) {
+                zones.put(entry.getKey(), anomalyEntry);
+            }
+        }
+
+        return Collections.unmodifiableMap(zones);
+    }
+}
@@ -5,8 +5,10 @@ import com.minersstudios.whomine.WhoMine;
 import com.minersstudios.whomine.custom.anomaly.Anomaly;
 import com.minersstudios.whomine.custom.anomaly.AnomalyAction;
 import com.minersstudios.whomine.custom.anomaly.AnomalyBoundingBox;
+import com.minersstudios.whomine.custom.anomaly.AnomalyIndex;
 import com.minersstudios.whomine.custom.anomaly.action.SpawnParticlesAction;
-import org.bukkit.NamespacedKey;
+import it.unimi.dsi.fastutil.objects.Object2DoubleMap;
+import org.bukkit.Location;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 
@@ -22,76 +24,75 @@ import java.util.Map;
  *
  * @see AnomalyAction
  * @see AnomalyBoundingBox
+ * @see AnomalyIndex
  */
-public final class MainAnomalyActionTask implements Runnable {
-    private final WhoMine plugin;
+public final class MainAnomalyActionTask extends AnomalyTask {
     private final Map<Player, Map<AnomalyAction, Long>> actionMap;
-    private final Map<NamespacedKey, Anomaly> anomalyMap;
 
     public MainAnomalyActionTask(final @NotNull WhoMine plugin) {
-        this.plugin = plugin;
+        super(plugin);
+
         this.actionMap = plugin.getCache().getPlayerAnomalyActionMap();
-        this.anomalyMap = plugin.getCache().getAnomalies();
     }
 
     @Override
-    public void run() {
-        final var onlinePlayers = this.plugin.getServer().getOnlinePlayers();
-
-        if (onlinePlayers.isEmpty()) {
-            return;
-        }
-
-        for (final var player : onlinePlayers) {
-            for (final var anomaly : this.anomalyMap.values()) {
-                final double radiusInside = anomaly.getBoundingBox().getRadiusInside(player);
+    protected boolean shouldRun() {
+        return !this.plugin.getServer().getOnlinePlayers().isEmpty();
+    }
 
-                if (radiusInside == -1.0d) {
-                    continue;
-                }
+    @Override
+    protected void apply(
+            final @NotNull Map<Player, Location> locations,
+            final @NotNull Map<Player, Object2DoubleMap.Entry<Anomaly>> zones
+    ) {
+        for (final var player : locations.keySet()) {
+            if (!player.isOnline()) {
+                continue;
+            }
 
-                var timedAction = this.actionMap.get(player);
-                final var ignorablePlayers = anomaly.getIgnorablePlayers();
+            final var zone = zones.get(player);
 
-                for (final var action : anomaly.getAnomalyActionMap().get(radiusInside)) {
-                    if (
-                            timedAction == null
-                            || !timedAction.containsKey(action)
-                    ) {
-                        final boolean isIgnorable = ignorablePlayers.contains(player);
+            if (zone == null) {
+                this.actionMap.remove(player);
+                continue;
+            }
 
-                        if (
-                                isIgnorable
-                                && action instanceof SpawnParticlesAction
-                        ) {
-                            action.putAction(player);
-                            return;
-                        } else if (!isIgnorable) {
-                            timedAction = action.putAction(player);
-                        }
-                    }
+            final Anomaly anomaly = zone.getKey();
+            final double radiusInside = zone.getDoubleValue();
+            final boolean isIgnorable = anomaly.getIgnorablePlayers().contains(player);
+            var timedAction = this.actionMap.get(player);
+
+            for (final var action : anomaly.getAnomalyActionMap().get(radiusInside)) {
+                if (
+                        (timedAction == null
+                        || !timedAction.containsKey(action))
+                        && (!isIgnorable
+                        || action instanceof SpawnParticlesAction)
+                ) {
+                    action.putAction(player);
+
+                    timedAction = this.actionMap.get(player);
                 }
+            }
 
-                if (timedAction == null) {
-                    return;
-                }
+            if (
+                    timedAction == null
+                    || isIgnorable
+            ) {
+                continue;
+            }
 
-                final var ignorableItems = anomaly.getIgnorableItems();
+            final var ignorableItems = anomaly.getIgnorableItems();
 
-                for (final var action : timedAction.keySet()) {
-                    if (anomaly.isAnomalyActionRadius(action, radiusInside)) {
-                        if (!(action instanceof SpawnParticlesAction)) {
-                            action.doAction(player, ignorableItems);
-                        }
-                    } else {
-                        action.removeAction(player);
+            for (final var action : timedAction.keySet()) {
+                if (anomaly.isAnomalyActionRadius(action, radiusInside)) {
+                    if (!(action instanceof SpawnParticlesAction)) {
+                        action.doAction(player, ignorableItems);
                     }
+                } else {
+                    action.removeAction(player);
                 }
-
-                return;
             }
-
-            this.actionMap.remove(player);
         }
     }
 }
@@ -1,6 +1,7 @@
 package com.minersstudios.whomine.custom.block;
 
 import com.minersstudios.whomine.WhoMine;
+import com.minersstudios.whomine.custom.CustomItemClassifier;
 import com.minersstudios.whomine.custom.block.params.PlacingType;
 import com.minersstudios.whomine.utility.SharedConstants;
 import com.minersstudios.whomine.custom.block.params.NoteBlockData;
@@ -15,8 +16,6 @@ import org.bukkit.block.Block;
 import org.bukkit.block.data.BlockData;
 import org.bukkit.block.data.type.NoteBlock;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.inventory.meta.ItemMeta;
-import org.bukkit.persistence.PersistentDataType;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -226,16 +225,7 @@ public final class CustomBlockRegistry {
      * @see #fromKey(String)
      */
     public static @NotNull Optional<CustomBlockData> fromItemStack(final @Nullable ItemStack itemStack) {
-        if (itemStack == null) {
-            return Optional.empty();
-        }
-        
-        final ItemMeta itemMeta = itemStack.getItemMeta();
-        return itemMeta == null
-                ? Optional.empty()
-                : fromKey(
-                        itemMeta.getPersistentDataContainer().get(TYPE_NAMESPACED_KEY, PersistentDataType.STRING)
-                );
+        return CustomItemClassifier.classify(itemStack).getCustomBlockData();
     }
 
     /**
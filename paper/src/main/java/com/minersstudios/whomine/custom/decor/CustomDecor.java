@@ -1,5 +1,6 @@
 package com.minersstudios.whomine.custom.decor;
 
+import com.minersstudios.whomine.Cache;
 import com.minersstudios.whomine.WhoMine;
 import com.minersstudios.whomine.world.location.MSBoundingBox;
 import com.minersstudios.whomine.world.location.MSPosition;
@@ -10,7 +11,9 @@ import com.minersstudios.whomine.custom.decor.event.CustomDecorBreakEvent;
 import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 import net.kyori.adventure.text.Component;
 import net.minecraft.world.level.block.Blocks;
+import org.bukkit.Bukkit;
 import org.bukkit.GameMode;
+import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.block.Block;
 import org.bukkit.block.BlockFace;
@@ -26,7 +29,10 @@ import org.bukkit.persistence.PersistentDataContainer;
 import org.bukkit.persistence.PersistentDataType;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -39,6 +45,7 @@ public final class CustomDecor {
     private final ItemDisplay display;
     private final Interaction[] interactions;
     private final MSBoundingBox msbb;
+    private final boolean isComplete;
 
     /**
      * Constructs a CustomDecor instance based on provided parameters
@@ -55,11 +62,22 @@ public final class CustomDecor {
             final @NotNull ItemDisplay display,
             final Interaction @NotNull [] interactions,
             final @NotNull MSBoundingBox msbb
+    ) {
+        this(data, display, interactions, msbb, true);
+    }
+
+    private CustomDecor(
+            final @NotNull CustomDecorData<?> data,
+            final @NotNull ItemDisplay display,
+            final Interaction @NotNull [] interactions,
+            final @NotNull MSBoundingBox msbb,
+            final boolean isComplete
     ) {
         this.data = data;
         this.display = display;
         this.interactions = interactions;
         this.msbb = msbb;
+        this.isComplete = isComplete;
     }
 
     /**
@@ -68,15 +86,55 @@ public final class CustomDecor {
      * @param block The block from which to retrieve the CustomDecor
      * @return An Optional containing the CustomDecor instance if found,
      *         otherwise an empty Optional
+     * @see #allFromBlock(Block)
      */
     public static @NotNull Optional<CustomDecor> fromBlock(final @Nullable Block block) {
-        return block == null
+        final var decors = allFromBlock(block);
+
+        return decors.isEmpty()
                 ? Optional.empty()
-                : fromInteraction(
-                        MSDecorUtils.getNearbyInteraction(
-                                MSPosition.of(block.getLocation().toCenterLocation())
-                        )
-                );
+                : Optional.of(decors.get(0));
+    }
+
+    /**
+     * Retrieves all CustomDecor instances occupying a given block. If the
+     * block is {@link CustomDecorIndex#isIndexed(Block) indexed} in the
+     * {@link CustomDecorIndex}, the decor is looked up in the index,
+     * otherwise the nearby interactions are queried from the world.
+     *
+     * @param block The block from which to retrieve the CustomDecor
+     * @return An unmodifiable list of the CustomDecor instances occupying the
+     *         block, empty if there are none
+     */
+    public static @NotNull @Unmodifiable List<CustomDecor> allFromBlock(final @Nullable Block block) {
+        if (block == null) {
+            return Collections.emptyList();
+        }
+
+        final CustomDecorIndex index = getIndex();
+
+        if (index != null) {
+            final var indexed = index.get(block);
+
+            if (indexed != null) {
+                return indexed;
+            }
+        }
+
+        final var decors = new ObjectArrayList<CustomDecor>();
+
+        for (
+                final var interaction :
+                MSDecorUtils.getNearbyInteractions(
+                        MSPosition.of(block.getLocation().toCenterLocation())
+                )
+        ) {
+            fromInteraction(interaction)
+            .filter(customDecor -> !decors.contains(customDecor))
+            .ifPresent(decors::add);
+        }
+
+        return Collections.unmodifiableList(decors);
     }
 
     /**
@@ -91,15 +149,27 @@ public final class CustomDecor {
             return Optional.empty();
         }
 
-        final PersistentDataContainer container = interaction.getPersistentDataContainer();
+        final CustomDecorIndex index = getIndex();
 
-        return container.isEmpty()
-                ? Optional.empty()
-                : DecorHitBox.isParent(container)
-                ? Optional.ofNullable(fromParent(interaction))
-                : DecorHitBox.isChild(container)
-                ? Optional.ofNullable(fromChild(interaction))
-                : Optional.empty();
+        if (index != null) {
+            final CustomDecor indexed = index.get(interaction);
+
+            if (indexed != null) {
+                return Optional.of(indexed);
+            }
+        }
+
+        final CustomDecor customDecor = parse(interaction);
+
+        if (
+                customDecor != null
+                && index != null
+                && index.isEnabled()
+        ) {
+            index.add(customDecor);
+        }
+
+        return Optional.ofNullable(customDecor);
     }
 
     /**
@@ -123,6 +193,27 @@ public final class CustomDecor {
         return this.interactions.clone();
     }
 
+    /**
+     * @param block The block
+     * @return The interaction of this decor located in the block, or the
+     *         parent interaction if there is no interaction in the block
+     */
+    public @NotNull Interaction getInteraction(final @NotNull Block block) {
+        for (final var interaction : this.interactions) {
+            final Location location = interaction.getLocation();
+
+            if (
+                    location.getBlockX() == block.getX()
+                    && location.getBlockY() == block.getY()
+                    && location.getBlockZ() == block.getZ()
+            ) {
+                return interaction;
+            }
+        }
+
+        return this.getParent();
+    }
+
     /**
      * @return The MSBoundingBox defining the hitbox of the decor
      */
@@ -130,6 +221,20 @@ public final class CustomDecor {
         return this.msbb;
     }
 
+    @Override
+    public boolean equals(final @Nullable Object obj) {
+        return this == obj
+                || (
+                        obj instanceof final CustomDecor that
+                        && this.getParent().getUniqueId().equals(that.getParent().getUniqueId())
+                );
+    }
+
+    @Override
+    public int hashCode() {
+        return this.getParent().getUniqueId().hashCode();
+    }
+
     /**
      * Destroys this custom decor in the server world
      *
@@ -194,6 +299,12 @@ public final class CustomDecor {
             );
         }
 
+        final CustomDecorIndex index = getIndex();
+
+        if (index != null) {
+            index.remove(this);
+        }
+
         for (final var interaction : this.interactions) {
             interaction.remove();
         }
@@ -308,13 +419,8 @@ public final class CustomDecor {
             final @NotNull Block block,
             final boolean dropItem
     ) {
-        for (
-                final var interaction :
-                MSDecorUtils.getNearbyInteractions(
-                        MSPosition.of(block.getLocation().toCenterLocation())
-                )
-        ) {
-            destroy(plugin, destroyer, interaction, dropItem);
+        for (final var customDecor : allFromBlock(block)) {
+            customDecor.destroy(plugin, destroyer, dropItem);
         }
     }
 
@@ -351,99 +457,147 @@ public final class CustomDecor {
         .ifPresent(customDecor -> customDecor.destroy(plugin, destroyer, dropItem));
     }
 
-    private static @Nullable CustomDecor fromParent(final @NotNull Interaction interaction) {
+    /**
+     * @return The parent interaction of this decor, which stores the decor
+     *         data
+     */
+    @NotNull Interaction getParent() {
+        return this.interactions[0];
+    }
+
+    /**
+     * @return True if all child interactions of this decor were loaded when
+     *         it was resolved, false if some of them are in a chunk, whose
+     *         entities are not loaded
+     */
+    boolean isComplete() {
+        return this.isComplete;
+    }
+
+    /**
+     * @return The interactions of this decor, without copying the array
+     */
+    Interaction @NotNull [] getInteractionArray() {
+        return this.interactions;
+    }
+
+    /**
+     * Parses the CustomDecor from the persistent data of the interaction,
+     * without using the {@link CustomDecorIndex}
+     *
+     * @param interaction The parent or child interaction of the decor
+     * @return The parsed CustomDecor, or null if the interaction is not a
+     *         part of a valid decor
+     */
+    static @Nullable CustomDecor parse(final @NotNull Interaction interaction) {
         final PersistentDataContainer container = interaction.getPersistentDataContainer();
 
-        if (container.isEmpty()) {
+        return container.isEmpty()
+                ? null
+                : DecorHitBox.isParent(container)
+                ? fromParent(interaction)
+                : DecorHitBox.isChild(container)
+                ? fromChild(interaction)
+                : null;
+    }
+
+    /**
+     * @return The custom decor index, or null if the cache is not loaded or
+     *         the caller is not on the main thread
+     */
+    static @Nullable CustomDecorIndex getIndex() {
+        final WhoMine plugin = WhoMine.singleton();
+
+        if (
+                plugin == null
+                || !plugin.getServer().isPrimaryThread()
+        ) {
             return null;
         }
 
-        CustomDecorData<?> data = null;
-        ItemDisplay display = null;
-        final var interactions = new ObjectArrayList<Interaction>();
-        MSBoundingBox msbb = null;
+        final Cache cache = plugin.getCache();
 
-        interactions.add(interaction);
+        return cache.isLoaded()
+                ? cache.getCustomDecorIndex()
+                : null;
+    }
 
-        for (final var key : container.getKeys()) {
-            final String value = container.get(key, PersistentDataType.STRING);
+    private static @Nullable CustomDecor fromParent(final @NotNull Interaction interaction) {
+        final PersistentDataContainer container = interaction.getPersistentDataContainer();
+        final String type = container.get(CustomDecorType.TYPE_NAMESPACED_KEY, PersistentDataType.STRING);
 
-            if (ChatUtils.isBlank(value)) {
-                continue;
-            }
+        if (ChatUtils.isBlank(type)) {
+            return null;
+        }
 
-            switch (key.getKey()) {
-                case CustomDecorType.TYPE_TAG_NAME -> data = CustomDecorData.fromKey(value).orElse(null);
-                case DecorHitBox.HITBOX_DISPLAY_KEY -> {
-                    try {
-                        if (interaction.getWorld().getEntity(UUID.fromString(value)) instanceof final ItemDisplay itemDisplay) {
-                            display = itemDisplay;
-                        }
-                    } catch (final IllegalArgumentException ignored) {
-                        return null;
-                    }
-                }
-                case DecorHitBox.HITBOX_INTERACTIONS_KEY -> {
-                    for (final var uuid : value.split(",")) {
-                        try {
-                            if (interaction.getWorld().getEntity(UUID.fromString(uuid)) instanceof final Interaction child) {
-                                interactions.add(child);
-                            }
-                        } catch (final IllegalArgumentException ignored) {
-                            return null;
-                        }
-                    }
-                }
-                case DecorHitBox.HITBOX_BOUNDING_BOX_KEY -> {
-                    final String[] coordinates = value.split(",");
+        final CustomDecorData<?> data = CustomDecorData.fromKey(type).orElse(null);
+        final DecorHitBoxCodec.Link link = DecorHitBoxCodec.readParent(container);
 
-                    if (coordinates.length != 6) {
-                        return null;
-                    }
+        if (
+                data == null
+                || link == null
+                || !(interaction.getWorld().getEntity(link.display()) instanceof final ItemDisplay display)
+        ) {
+            return null;
+        }
 
-                    try {
-                        msbb = MSBoundingBox.of(
-                                Double.parseDouble(coordinates[0]),
-                                Double.parseDouble(coordinates[1]),
-                                Double.parseDouble(coordinates[2]),
-                                Double.parseDouble(coordinates[3]),
-                                Double.parseDouble(coordinates[4]),
-                                Double.parseDouble(coordinates[5])
-                        );
-                    } catch (final NumberFormatException ignored) {
-                        return null;
-                    }
-                }
+        final var interactions = new ObjectArrayList<Interaction>(link.interactions().length + 1);
+
+        interactions.add(interaction);
+
+        for (final var uuid : link.interactions()) {
+            if (interaction.getWorld().getEntity(uuid) instanceof final Interaction child) {
+                interactions.add(child);
             }
         }
 
-        return data == null
-                || display == null
-                || msbb == null
-                ? null
-                : new CustomDecor(
-                        data,
-                        display,
-                        interactions.toArray(new Interaction[0]),
-                        msbb
-                );
+        if (
+                DecorHitBoxCodec.isLegacy(container)
+                && Bukkit.isPrimaryThread()
+        ) {
+            migrate(interaction, interactions, link);
+        }
+
+        return new CustomDecor(
+                data,
+                display,
+                interactions.toArray(new Interaction[0]),
+                link.boundingBox(),
+                interactions.size() == link.interactions().length + 1
+        );
     }
 
     private static @Nullable CustomDecor fromChild(final @NotNull Interaction interaction) {
-        final String uuid =
-                interaction.getPersistentDataContainer()
-                .get(
-                        DecorHitBox.HITBOX_CHILD_NAMESPACED_KEY,
-                        PersistentDataType.STRING
-                );
+        final UUID uuid = DecorHitBoxCodec.readChild(interaction.getPersistentDataContainer());
 
-        try {
-            return ChatUtils.isBlank(uuid)
-                    || !(interaction.getWorld().getEntity(UUID.fromString(uuid)) instanceof final Interaction parent)
-                    ? null
-                    : fromParent(parent);
-        } catch (final IllegalArgumentException ignored) {
-            return null;
+        return uuid != null
+                && interaction.getWorld().getEntity(uuid) instanceof final Interaction parent
+                ? fromParent(parent)
+                : null;
+    }
+
+    /**
+     * Rewrites the legacy string metadata of the parent and the loaded child
+     * interactions in the binary form
+     *
+     * @param parent       The parent interaction
+     * @param interactions The parent and the loaded child interactions
+     * @param link         The metadata read from the parent interaction
+     * @see DecorHitBoxCodec
+     */
+    private static void migrate(
+            final @NotNull Interaction parent,
+            final @NotNull List<Interaction> interactions,
+            final @NotNull DecorHitBoxCodec.Link link
+    ) {
+        final UUID parentUUID = parent.getUniqueId();
+
+        DecorHitBoxCodec.writeParent(parent.getPersistentDataContainer(), link);
+
+        for (final var interaction : interactions) {
+            if (interaction != parent) {
+                DecorHitBoxCodec.writeChild(interaction.getPersistentDataContainer(), parentUUID);
+            }
         }
     }
 }
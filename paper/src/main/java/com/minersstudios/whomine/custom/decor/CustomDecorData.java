@@ -1,6 +1,7 @@
 package com.minersstudios.whomine.custom.decor;
 
 import com.minersstudios.whomine.WhoMine;
+import com.minersstudios.whomine.custom.CustomItemClassifier;
 import com.minersstudios.whomine.custom.decor.action.DecorBreakAction;
 import com.minersstudios.whomine.custom.decor.action.DecorClickAction;
 import com.minersstudios.whomine.custom.decor.action.DecorPlaceAction;
@@ -10,20 +11,18 @@ import com.minersstudios.whomine.custom.decor.event.CustomDecorPlaceEvent;
 import com.minersstudios.whomine.inventory.recipe.entry.RecipeEntry;
 import com.minersstudios.whomine.world.location.MSPosition;
 import com.minersstudios.whomine.world.sound.SoundGroup;
-import com.minersstudios.whomine.utility.ChatUtils;
-import com.minersstudios.whomine.utility.MSDecorUtils;
 import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
 import net.kyori.adventure.text.Component;
 import org.bukkit.Keyed;
 import org.bukkit.Material;
 import org.bukkit.NamespacedKey;
+import org.bukkit.World;
 import org.bukkit.block.Block;
 import org.bukkit.block.BlockFace;
 import org.bukkit.entity.Interaction;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.EquipmentSlot;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.persistence.PersistentDataContainer;
 import org.bukkit.persistence.PersistentDataType;
 import org.jetbrains.annotations.*;
@@ -550,21 +549,7 @@ public interface CustomDecorData<D extends CustomDecorData<D>> extends Keyed {
      * @see #fromKey(String)
      */
     static @NotNull Optional<CustomDecorData<?>> fromItemStack(final @Nullable ItemStack itemStack) {
-        if (itemStack == null) {
-            return Optional.empty();
-        }
-
-        final ItemMeta itemMeta = itemStack.getItemMeta();
-
-        return itemMeta == null
-                ? Optional.empty()
-                : fromKey(
-                        itemMeta.getPersistentDataContainer()
-                        .get(
-                                CustomDecorType.TYPE_NAMESPACED_KEY,
-                                PersistentDataType.STRING
-                        )
-                );
+        return CustomItemClassifier.classify(itemStack).getCustomDecorData();
     }
 
     /**
@@ -588,18 +573,7 @@ public interface CustomDecorData<D extends CustomDecorData<D>> extends Keyed {
             return Optional.empty();
         }
 
-        final ItemMeta itemMeta = itemStack.getItemMeta();
-
-        return itemMeta == null
-                ? Optional.empty()
-                : fromKey(
-                        itemMeta.getPersistentDataContainer()
-                        .get(
-                                CustomDecorType.TYPE_NAMESPACED_KEY,
-                                PersistentDataType.STRING
-                        ),
-                        clazz
-                );
+        return CustomItemClassifier.classify(itemStack).getCustomDecorData(clazz);
     }
 
     /**
@@ -621,22 +595,18 @@ public interface CustomDecorData<D extends CustomDecorData<D>> extends Keyed {
         }
 
         if (DecorHitBox.isChild(interaction)) {
-            final String uuid = container.get(DecorHitBox.HITBOX_CHILD_NAMESPACED_KEY, PersistentDataType.STRING);
-
-            try {
-                return ChatUtils.isBlank(uuid)
-                        || !(interaction.getWorld().getEntity(UUID.fromString(uuid)) instanceof final Interaction parent)
-                        ? Optional.empty()
-                        : fromKey(
-                                parent.getPersistentDataContainer()
-                                .get(
-                                        CustomDecorType.TYPE_NAMESPACED_KEY,
-                                        PersistentDataType.STRING
-                                )
-                        );
-            } catch (final IllegalArgumentException ignored) {
-                return Optional.empty();
-            }
+            final UUID uuid = DecorHitBoxCodec.readChild(container);
+
+            return uuid == null
+                    || !(interaction.getWorld().getEntity(uuid) instanceof final Interaction parent)
+                    ? Optional.empty()
+                    : fromKey(
+                            parent.getPersistentDataContainer()
+                            .get(
+                                    CustomDecorType.TYPE_NAMESPACED_KEY,
+                                    PersistentDataType.STRING
+                            )
+                    );
         } else if (DecorHitBox.isParent(interaction)) {
             return fromKey(
                     container.get(
@@ -677,23 +647,19 @@ public interface CustomDecorData<D extends CustomDecorData<D>> extends Keyed {
         }
 
         if (DecorHitBox.isChild(container)) {
-            final String uuid = container.get(DecorHitBox.HITBOX_CHILD_NAMESPACED_KEY, PersistentDataType.STRING);
-
-            try {
-                return ChatUtils.isBlank(uuid)
-                        || !(interaction.getWorld().getEntity(UUID.fromString(uuid)) instanceof final Interaction parent)
-                        ? Optional.empty()
-                        : fromKey(
-                                parent.getPersistentDataContainer()
-                                .get(
-                                        CustomDecorType.TYPE_NAMESPACED_KEY,
-                                        PersistentDataType.STRING
-                                ),
-                                clazz
-                        );
-            } catch (final IllegalArgumentException ignored) {
-                return Optional.empty();
-            }
+            final UUID uuid = DecorHitBoxCodec.readChild(container);
+
+            return uuid == null
+                    || !(interaction.getWorld().getEntity(uuid) instanceof final Interaction parent)
+                    ? Optional.empty()
+                    : fromKey(
+                            parent.getPersistentDataContainer()
+                            .get(
+                                    CustomDecorType.TYPE_NAMESPACED_KEY,
+                                    PersistentDataType.STRING
+                            ),
+                            clazz
+                    );
         } else if (DecorHitBox.isParent(container)) {
             return fromKey(
                     container.get(
@@ -754,9 +720,8 @@ public interface CustomDecorData<D extends CustomDecorData<D>> extends Keyed {
     static @NotNull Optional<CustomDecorData<?>> fromPosition(final @Nullable MSPosition position) throws IllegalArgumentException {
         return position == null
                 ? Optional.empty()
-                : fromInteraction(
-                        MSDecorUtils.getNearbyInteraction(position.center())
-                );
+                : CustomDecor.fromBlock(getBlock(position))
+                .map(CustomDecor::getData);
     }
 
     /**
@@ -777,10 +742,20 @@ public interface CustomDecorData<D extends CustomDecorData<D>> extends Keyed {
         return position == null
                 || clazz == null
                 ? Optional.empty()
-                : fromInteraction(
-                        MSDecorUtils.getNearbyInteraction(position.center()),
-                        clazz
-                );
+                : CustomDecor.fromBlock(getBlock(position))
+                .map(CustomDecor::getData)
+                .filter(clazz::isInstance)
+                .map(clazz::cast);
+    }
+
+    private static @NotNull Block getBlock(final @NotNull MSPosition position) throws IllegalArgumentException {
+        final World world = position.world();
+
+        if (world == null) {
+            throw new IllegalArgumentException("Location world cannot be null");
+        }
+
+        return position.getBlock(world);
     }
 
     /**
@@ -951,7 +951,17 @@ public abstract class CustomDecorDataImpl<D extends CustomDecorData<D>> implemen
             }
         }
 
-        return new CustomDecor(this, itemDisplay, interactions, boundingBox);
+        final CustomDecor customDecor = new CustomDecor(this, itemDisplay, interactions, boundingBox);
+        final CustomDecorIndex index = CustomDecor.getIndex();
+
+        if (
+                index != null
+                && index.isEnabled()
+        ) {
+            index.add(customDecor);
+        }
+
+        return customDecor;
     }
 
     private @NotNull ItemDisplay summonItem(
@@ -1119,20 +1129,14 @@ public abstract class CustomDecorDataImpl<D extends CustomDecorData<D>> implemen
             final @NotNull MSBoundingBox msbb
     ) {
         final Interaction firstInteraction = interactions[0];
-        final String firstUUID = firstInteraction.getUniqueId().toString();
-        final StringBuilder uuidsBuilder = new StringBuilder();
+        final UUID firstUUID = firstInteraction.getUniqueId();
+        final UUID[] childUUIDs = new UUID[interactions.length - 1];
 
         for (int i = 1; i < interactions.length; ++i) {
             final Interaction interaction = interactions[i];
 
-            uuidsBuilder
-            .append(interaction.getUniqueId())
-            .append(',');
-            interaction.getPersistentDataContainer().set(
-                    DecorHitBox.HITBOX_CHILD_NAMESPACED_KEY,
-                    PersistentDataType.STRING,
-                    firstUUID
-            );
+            childUUIDs[i - 1] = interaction.getUniqueId();
+            DecorHitBoxCodec.writeChild(interaction.getPersistentDataContainer(), firstUUID);
         }
 
         final PersistentDataContainer firstContainer = firstInteraction.getPersistentDataContainer();
@@ -1142,34 +1146,12 @@ public abstract class CustomDecorDataImpl<D extends CustomDecorData<D>> implemen
                 PersistentDataType.STRING,
                 this.namespacedKey.getKey()
         );
-
-        firstContainer.set(
-                DecorHitBox.HITBOX_DISPLAY_NAMESPACED_KEY,
-                PersistentDataType.STRING,
-                display.getUniqueId().toString()
-        );
-
-        if (!uuidsBuilder.isEmpty()) {
-            firstContainer.set(
-                    DecorHitBox.HITBOX_INTERACTIONS_NAMESPACED_KEY,
-                    PersistentDataType.STRING,
-                    uuidsBuilder
-                    .deleteCharAt(uuidsBuilder.length() - 1)
-                    .toString()
-            );
-        }
-
-        firstContainer.set(
-                DecorHitBox.HITBOX_BOUNDING_BOX_NAMESPACED_KEY,
-                PersistentDataType.STRING,
-                String.join(
-                        ",",
-                        String.valueOf(msbb.minX()),
-                        String.valueOf(msbb.minY()),
-                        String.valueOf(msbb.minZ()),
-                        String.valueOf(msbb.maxX()),
-                        String.valueOf(msbb.maxY()),
-                        String.valueOf(msbb.maxZ())
+        DecorHitBoxCodec.writeParent(
+                firstContainer,
+                new DecorHitBoxCodec.Link(
+                        display.getUniqueId(),
+                        childUUIDs,
+                        msbb
                 )
         );
     }
@@ -0,0 +1,469 @@
+package com.minersstudios.whomine.custom.decor;
+
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import net.minecraft.core.BlockPos;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.Server;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Interaction;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * In-memory index of the placed custom decor, keyed by the chunk of the
+ * parent interaction and by the block positions occupied by the decor.
+ * <br>
+ * Every indexed decor is resolved once, with its display, interactions and
+ * bounding box, so finding the decor in a block or of an interaction is a
+ * hash lookup instead of a world entity query followed by parsing the
+ * persistent data of the interactions. The index is maintained when the
+ * decor is placed or destroyed, and when the entities of a chunk are loaded
+ * or unloaded.
+ * <br>
+ * Only the blocks of the chunks, whose entities were loaded and indexed, are
+ * {@link #isIndexed(Block) authoritative}. A decor, whose child interactions
+ * are in a chunk with not loaded entities, is not indexed, but is kept
+ * pending and is resolved again when any chunk it spans is loaded. The blocks
+ * occupied by a pending decor are not authoritative. For any block that is
+ * not authoritative the caller should fall back to the entity query.
+ * <br>
+ * This class is not thread-safe and must only be used on the main thread.
+ */
+public final class CustomDecorIndex {
+    private final Map<UUID, WorldIndex> worlds;
+    private final Map<UUID, CustomDecor> interactions;
+    private boolean isEnabled;
+
+    public CustomDecorIndex() {
+        this.worlds = new Object2ObjectOpenHashMap<>();
+        this.interactions = new Object2ObjectOpenHashMap<>();
+    }
+
+    /**
+     * @return True if the index is enabled and the chunks are indexed when
+     *         their entities are loaded
+     */
+    public boolean isEnabled() {
+        return this.isEnabled;
+    }
+
+    /**
+     * Enables the index and indexes all chunks of the loaded worlds, whose
+     * entities are already loaded. Should be called once all custom decor
+     * types are loaded, as the decor of an unknown type cannot be resolved.
+     *
+     * @param server The server
+     */
+    public void enable(final @NotNull Server server) {
+        this.isEnabled = true;
+
+        for (final var world : server.getWorlds()) {
+            for (final var chunk : world.getLoadedChunks()) {
+                if (chunk.isEntitiesLoaded()) {
+                    this.loadChunk(world, chunk.getChunkKey(), Arrays.asList(chunk.getEntities()));
+                }
+            }
+        }
+    }
+
+    /**
+     * @param world  The world
+     * @param chunkX The chunk x coordinate
+     * @param chunkZ The chunk z coordinate
+     * @return True if the chunk is indexed. The index is authoritative for
+     *         its blocks, except the blocks occupied by a pending decor.
+     * @see #isIndexed(Block)
+     */
+    public boolean isIndexed(
+            final @NotNull World world,
+            final int chunkX,
+            final int chunkZ
+    ) {
+        final WorldIndex worldIndex = this.worlds.get(world.getUID());
+
+        return worldIndex != null
+                && worldIndex.indexedChunks.contains(Chunk.getChunkKey(chunkX, chunkZ));
+    }
+
+    /**
+     * @param block The block
+     * @return True if the chunk of the block is indexed, and the block is not
+     *         occupied by a pending decor, so the result of
+     *         {@link #get(Block)} is authoritative for the block
+     */
+    public boolean isIndexed(final @NotNull Block block) {
+        final WorldIndex worldIndex = this.worlds.get(block.getWorld().getUID());
+
+        return worldIndex != null
+                && worldIndex.indexedChunks.contains(Chunk.getChunkKey(block.getX() >> 4, block.getZ() >> 4))
+                && !worldIndex.pendingBlocks.containsKey(BlockPos.asLong(block.getX(), block.getY(), block.getZ()));
+    }
+
+    /**
+     * @param block The block
+     * @return Unmodifiable list of the valid decor occupying the block, empty
+     *         if there is no decor in the block, or null if the block is not
+     *         {@link #isIndexed(Block) indexed}
+     */
+    public @Nullable @Unmodifiable List<CustomDecor> get(final @NotNull Block block) {
+        final WorldIndex worldIndex = this.worlds.get(block.getWorld().getUID());
+
+        if (worldIndex == null) {
+            return null;
+        }
+
+        final long blockKey = BlockPos.asLong(block.getX(), block.getY(), block.getZ());
+        final var decors = worldIndex.blocks.get(blockKey);
+
+        if (decors != null) {
+            for (final var decor : decors.toArray(new CustomDecor[0])) {
+                if (!isValid(decor)) {
+                    this.invalidate(decor);
+                }
+            }
+        }
+
+        if (!this.isIndexed(block)) {
+            return null;
+        }
+
+        final var valid = worldIndex.blocks.get(blockKey);
+
+        return valid == null
+                ? Collections.emptyList()
+                : Collections.unmodifiableList(new ObjectArrayList<>(valid));
+    }
+
+    /**
+     * @param interaction The interaction
+     * @return The valid indexed decor, which the interaction belongs to, or
+     *         null if the interaction is not a part of any indexed decor
+     */
+    public @Nullable CustomDecor get(final @NotNull Interaction interaction) {
+        final CustomDecor decor = this.interactions.get(interaction.getUniqueId());
+
+        if (
+                decor != null
+                && !isValid(decor)
+        ) {
+            this.invalidate(decor);
+            return null;
+        }
+
+        return decor;
+    }
+
+    /**
+     * Adds the decor to the index, if it is not indexed yet. If some of the
+     * child interactions of the decor were not loaded, the decor is kept
+     * pending instead, until any chunk it spans is loaded.
+     *
+     * @param decor The decor to add
+     */
+    public void add(final @NotNull CustomDecor decor) {
+        final Interaction parent = decor.getParent();
+
+        if (this.interactions.containsKey(parent.getUniqueId())) {
+            return;
+        }
+
+        final WorldIndex worldIndex = this.worlds.computeIfAbsent(
+                parent.getWorld().getUID(),
+                uuid -> new WorldIndex()
+        );
+
+        if (!decor.isComplete()) {
+            worldIndex.addPending(decor);
+            return;
+        }
+
+        worldIndex.removePending(parent.getUniqueId());
+
+        final Location location = parent.getLocation();
+
+        worldIndex.chunks.computeIfAbsent(
+                Chunk.getChunkKey(location.getBlockX() >> 4, location.getBlockZ() >> 4),
+                key -> new ObjectArrayList<>()
+        ).add(decor);
+
+        for (final var blockPos : decor.getBoundingBox().getBlockPositions()) {
+            worldIndex.blocks.computeIfAbsent(
+                    blockPos.asLong(),
+                    key -> new ObjectArrayList<>(1)
+            ).add(decor);
+        }
+
+        for (final var interaction : decor.getInteractionArray()) {
+            this.interactions.put(interaction.getUniqueId(), decor);
+        }
+    }
+
+    /**
+     * Removes the decor from the index
+     *
+     * @param decor The decor to remove
+     */
+    public void remove(final @NotNull CustomDecor decor) {
+        final Interaction parent = decor.getParent();
+        final WorldIndex worldIndex = this.worlds.get(parent.getWorld().getUID());
+
+        if (worldIndex != null) {
+            worldIndex.removePending(parent.getUniqueId());
+        }
+
+        if (this.interactions.get(parent.getUniqueId()) != decor) {
+            return;
+        }
+
+        for (final var interaction : decor.getInteractionArray()) {
+            this.interactions.remove(interaction.getUniqueId(), decor);
+        }
+
+        if (worldIndex == null) {
+            return;
+        }
+
+        for (final var blockPos : decor.getBoundingBox().getBlockPositions()) {
+            final long blockKey = blockPos.asLong();
+            final var decors = worldIndex.blocks.get(blockKey);
+
+            if (
+                    decors != null
+                    && decors.remove(decor)
+                    && decors.isEmpty()
+            ) {
+                worldIndex.blocks.remove(blockKey);
+            }
+        }
+
+        final Location location = parent.getLocation();
+        final long chunkKey = Chunk.getChunkKey(location.getBlockX() >> 4, location.getBlockZ() >> 4);
+        final var decors = worldIndex.chunks.get(chunkKey);
+
+        if (
+                decors != null
+                && decors.remove(decor)
+                && decors.isEmpty()
+        ) {
+            worldIndex.chunks.remove(chunkKey);
+        }
+    }
+
+    /**
+     * Indexes the decor of the loaded chunk entities, marks the chunk as
+     * indexed and resolves the pending decor spanning the chunk again. Does
+     * nothing if the index is not {@link #isEnabled() enabled}.
+     *
+     * @param world    The world of the chunk
+     * @param chunkKey The chunk key
+     * @param entities The loaded entities of the chunk
+     */
+    public void loadChunk(
+            final @NotNull World world,
+            final long chunkKey,
+            final @NotNull List<Entity> entities
+    ) {
+        if (!this.isEnabled) {
+            return;
+        }
+
+        final WorldIndex worldIndex = this.worlds.computeIfAbsent(
+                world.getUID(),
+                uuid -> new WorldIndex()
+        );
+
+        worldIndex.indexedChunks.add(chunkKey);
+
+        for (final var entity : entities) {
+            if (
+                    entity instanceof final Interaction interaction
+                    && DecorHitBox.isParent(interaction)
+            ) {
+                final CustomDecor decor = CustomDecor.parse(interaction);
+
+                if (decor != null) {
+                    this.add(decor);
+                }
+            }
+        }
+
+        if (worldIndex.pending.isEmpty()) {
+            return;
+        }
+
+        final int chunkX = (int) chunkKey;
+        final int chunkZ = (int) (chunkKey >> 32);
+
+        for (final var decor : worldIndex.pending.values().toArray(new CustomDecor[0])) {
+            if (spans(decor, chunkX, chunkZ)) {
+                worldIndex.removePending(decor.getParent().getUniqueId());
+                this.resolve(decor.getParent());
+            }
+        }
+    }
+
+    /**
+     * Removes all decor with the parent interaction in the unloaded chunk
+     * from the index and marks the chunk as not indexed
+     *
+     * @param world    The world of the chunk
+     * @param chunkKey The chunk key
+     */
+    public void unloadChunk(
+            final @NotNull World world,
+            final long chunkKey
+    ) {
+        final WorldIndex worldIndex = this.worlds.get(world.getUID());
+
+        if (worldIndex == null) {
+            return;
+        }
+
+        worldIndex.indexedChunks.remove(chunkKey);
+
+        final var decors = worldIndex.chunks.get(chunkKey);
+
+        if (decors != null) {
+            for (final var decor : decors.toArray(new CustomDecor[0])) {
+                this.remove(decor);
+            }
+        }
+
+        for (final var decor : worldIndex.pending.values().toArray(new CustomDecor[0])) {
+            final Location location = decor.getParent().getLocation();
+
+            if (Chunk.getChunkKey(location.getBlockX() >> 4, location.getBlockZ() >> 4) == chunkKey) {
+                worldIndex.removePending(decor.getParent().getUniqueId());
+            }
+        }
+    }
+
+    /**
+     * Clears and disables the index
+     */
+    public void clear() {
+        this.isEnabled = false;
+        this.worlds.clear();
+        this.interactions.clear();
+    }
+
+    /**
+     * @return The number of indexed decor
+     */
+    public int size() {
+        int size = 0;
+
+        for (final var worldIndex : this.worlds.values()) {
+            for (final var decors : worldIndex.chunks.values()) {
+                size += decors.size();
+            }
+        }
+
+        return size;
+    }
+
+    /**
+     * Removes the decor, which is no longer valid, from the index and
+     * resolves it again, if its parent interaction is still loaded. So a
+     * decor, whose child interactions have been unloaded, is kept pending.
+     */
+    private void invalidate(final @NotNull CustomDecor decor) {
+        this.remove(decor);
+        this.resolve(decor.getParent());
+    }
+
+    private void resolve(final @NotNull Interaction parent) {
+        if (!parent.isValid()) {
+            return;
+        }
+
+        final CustomDecor decor = CustomDecor.parse(parent);
+
+        if (decor != null) {
+            this.add(decor);
+        }
+    }
+
+    private static boolean isValid(final @NotNull CustomDecor decor) {
+        if (!decor.getDisplay().isValid()) {
+            return false;
+        }
+
+        for (final var interaction : decor.getInteractionArray()) {
+            if (!interaction.isValid()) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean spans(
+            final @NotNull CustomDecor decor,
+            final int chunkX,
+            final int chunkZ
+    ) {
+        for (final var blockPos : decor.getBoundingBox().getBlockPositions()) {
+            if (
+                    blockPos.getX() >> 4 == chunkX
+                    && blockPos.getZ() >> 4 == chunkZ
+            ) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static final class WorldIndex {
+        final Long2ObjectMap<List<CustomDecor>> chunks = new Long2ObjectOpenHashMap<>();
+        final Long2ObjectMap<List<CustomDecor>> blocks = new Long2ObjectOpenHashMap<>();
+        final LongSet indexedChunks = new LongOpenHashSet();
+        final Map<UUID, CustomDecor> pending = new Object2ObjectOpenHashMap<>();
+        final Long2IntOpenHashMap pendingBlocks = new Long2IntOpenHashMap();
+
+        void addPending(final @NotNull CustomDecor decor) {
+            if (this.pending.putIfAbsent(decor.getParent().getUniqueId(), decor) != null) {
+                return;
+            }
+
+            for (final var blockPos : decor.getBoundingBox().getBlockPositions()) {
+                this.pendingBlocks.addTo(blockPos.asLong(), 1);
+            }
+        }
+
+        void removePending(final @NotNull UUID parentUUID) {
+            final CustomDecor decor = this.pending.remove(parentUUID);
+
+            if (decor == null) {
+                return;
+            }
+
+            for (final var blockPos : decor.getBoundingBox().getBlockPositions()) {
+                final long blockKey = blockPos.asLong();
+
+                if (this.pendingBlocks.get(blockKey) <= 1) {
+                    this.pendingBlocks.remove(blockKey);
+                } else {
+                    this.pendingBlocks.addTo(blockKey, -1);
+                }
+            }
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.minersstudios.whomine.custom.decor;
 
 import com.minersstudios.whomine.WhoMine;
+import com.minersstudios.whomine.custom.CustomItemClassifier;
 import com.minersstudios.whomine.api.annotation.Key;
 import com.minersstudios.whomine.custom.decor.registry.christmas.*;
 import com.minersstudios.whomine.custom.decor.registry.decoration.home.*;
@@ -33,8 +34,6 @@ import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
 import org.bukkit.NamespacedKey;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.inventory.meta.ItemMeta;
-import org.bukkit.persistence.PersistentDataType;
 import org.jetbrains.annotations.*;
 
 import java.lang.reflect.Constructor;
@@ -296,6 +295,7 @@ public enum CustomDecorType {
         typesWithRecipes.sort(Comparator.comparingInt(CustomDecorType::ordinal));
 
         statusHandler.assignStatus(WhoMine.LOADED_DECORATIONS);
+        plugin.runTask(() -> plugin.getCache().getCustomDecorIndex().enable(plugin.getServer()));
         plugin.getComponentLogger().info(
                 Component.text(
                         "Loaded " + loaded.get() + " custom decors in " + (System.currentTimeMillis() - startTime) + "ms",
@@ -411,20 +411,9 @@ public enum CustomDecorType {
     public static @Nullable CustomDecorType fromItemStack(final @Nullable ItemStack itemStack) throws IllegalStateException {
         checkLoaded();
 
-        if (itemStack == null) {
-            return null;
-        }
-
-        final ItemMeta itemMeta = itemStack.getItemMeta();
-
-        return itemMeta == null
+        return itemStack == null
                 ? null
-                : fromKey(
-                        itemMeta.getPersistentDataContainer().get(
-                                TYPE_NAMESPACED_KEY,
-                                PersistentDataType.STRING
-                        )
-                );
+                : fromKey(CustomItemClassifier.classify(itemStack).getDecorKey());
     }
 
     /**
@@ -40,11 +40,13 @@ public final class DecorHitBox {
     public static final String HITBOX_DISPLAY_KEY =      "hitbox_display";
     public static final String HITBOX_INTERACTIONS_KEY = "hitbox_interactions";
     public static final String HITBOX_BOUNDING_BOX_KEY = "hitbox_bounding_box";
+    public static final String HITBOX_VERSION_KEY =      "hitbox_version";
 
     public static final NamespacedKey HITBOX_CHILD_NAMESPACED_KEY =        new NamespacedKey(MSDECOR_NAMESPACE, HITBOX_CHILD_KEY);
     public static final NamespacedKey HITBOX_DISPLAY_NAMESPACED_KEY =      new NamespacedKey(MSDECOR_NAMESPACE, HITBOX_DISPLAY_KEY);
     public static final NamespacedKey HITBOX_INTERACTIONS_NAMESPACED_KEY = new NamespacedKey(MSDECOR_NAMESPACE, HITBOX_INTERACTIONS_KEY);
     public static final NamespacedKey HITBOX_BOUNDING_BOX_NAMESPACED_KEY = new NamespacedKey(MSDECOR_NAMESPACE, HITBOX_BOUNDING_BOX_KEY);
+    public static final NamespacedKey HITBOX_VERSION_NAMESPACED_KEY =      new NamespacedKey(MSDECOR_NAMESPACE, HITBOX_VERSION_KEY);
 
     /**
      * Constructs a DecorHitBox based on the provided Builder
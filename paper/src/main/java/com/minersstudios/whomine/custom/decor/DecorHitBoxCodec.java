@@ -0,0 +1,272 @@
+package com.minersstudios.whomine.custom.decor;
+
+import com.minersstudios.whomine.utility.ChatUtils;
+import com.minersstudios.whomine.world.location.MSBoundingBox;
+import org.bukkit.persistence.PersistentDataContainer;
+import org.bukkit.persistence.PersistentDataType;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.UUID;
+
+import static com.minersstudios.whomine.custom.decor.DecorHitBox.*;
+
+/**
+ * Codec of the decor hitbox metadata, stored in the persistent data
+ * containers of the decor interactions.
+ * <br>
+ * Since {@link #VERSION version 1}, the metadata is stored in a compact
+ * binary form :
+ * <ul>
+ *     <li>{@link DecorHitBox#HITBOX_VERSION_KEY} - the byte version of the
+ *         encoding</li>
+ *     <li>{@link DecorHitBox#HITBOX_CHILD_KEY} and
+ *         {@link DecorHitBox#HITBOX_DISPLAY_KEY} - a long array of the most
+ *         and least significant bits of the UUID</li>
+ *     <li>{@link DecorHitBox#HITBOX_INTERACTIONS_KEY} - a long array of the
+ *         most and least significant bits of every child UUID</li>
+ *     <li>{@link DecorHitBox#HITBOX_BOUNDING_BOX_KEY} - a long array of the
+ *         raw bits of the six bounding box coordinates</li>
+ * </ul>
+ * The legacy unversioned form, which stores the same values as
+ * comma-separated strings, is still read, and should be
+ * {@link #writeParent(PersistentDataContainer, Link) rewritten} in the
+ * binary form once it is read.
+ */
+public final class DecorHitBoxCodec {
+    /** The current version of the binary encoding */
+    public static final byte VERSION = 1;
+
+    private static final int UUID_LENGTH = 2;
+    private static final int BOUNDING_BOX_LENGTH = 6;
+    private static final UUID[] EMPTY_UUIDS = new UUID[0];
+
+    @Contract(" -> fail")
+    private DecorHitBoxCodec() throws AssertionError {
+        throw new AssertionError("Utility class");
+    }
+
+    /**
+     * @param container The persistent data container of the interaction
+     * @return True if the metadata is stored in the legacy string form
+     */
+    public static boolean isLegacy(final @NotNull PersistentDataContainer container) {
+        final Byte version = container.get(HITBOX_VERSION_NAMESPACED_KEY, PersistentDataType.BYTE);
+        return version == null || version < VERSION;
+    }
+
+    /**
+     * Reads the metadata of the parent interaction
+     *
+     * @param container The persistent data container of the parent
+     *                  interaction
+     * @return The decoded metadata, or null if it is missing or malformed
+     */
+    public static @Nullable Link readParent(final @NotNull PersistentDataContainer container) {
+        return isLegacy(container)
+                ? readLegacyParent(container)
+                : readBinaryParent(container);
+    }
+
+    /**
+     * Reads the parent UUID of the child interaction
+     *
+     * @param container The persistent data container of the child
+     *                  interaction
+     * @return The parent UUID, or null if it is missing or malformed
+     */
+    public static @Nullable UUID readChild(final @NotNull PersistentDataContainer container) {
+        if (isLegacy(container)) {
+            final String uuid = container.get(HITBOX_CHILD_NAMESPACED_KEY, PersistentDataType.STRING);
+
+            try {
+                return ChatUtils.isBlank(uuid) ? null : UUID.fromString(uuid);
+            } catch (final IllegalArgumentException ignored) {
+                return null;
+            }
+        }
+
+        final long[] bits = container.get(HITBOX_CHILD_NAMESPACED_KEY, PersistentDataType.LONG_ARRAY);
+
+        return bits == null || bits.length != UUID_LENGTH
+                ? null
+                : new UUID(bits[0], bits[1]);
+    }
+
+    /**
+     * Writes the metadata of the parent interaction in the binary form,
+     * replacing the legacy values
+     *
+     * @param container The persistent data container of the parent
+     *                  interaction
+     * @param link      The metadata to write
+     */
+    public static void writeParent(
+            final @NotNull PersistentDataContainer container,
+            final @NotNull Link link
+    ) {
+        final UUID[] interactions = link.interactions();
+        final MSBoundingBox msbb = link.boundingBox();
+
+        container.set(HITBOX_VERSION_NAMESPACED_KEY, PersistentDataType.BYTE, VERSION);
+        container.set(HITBOX_DISPLAY_NAMESPACED_KEY, PersistentDataType.LONG_ARRAY, toBits(link.display()));
+
+        if (interactions.length == 0) {
+            container.remove(HITBOX_INTERACTIONS_NAMESPACED_KEY);
+        } else {
+            container.set(HITBOX_INTERACTIONS_NAMESPACED_KEY, PersistentDataType.LONG_ARRAY, toBits(interactions));
+        }
+
+        container.set(
+                HITBOX_BOUNDING_BOX_NAMESPACED_KEY,
+                PersistentDataType.LONG_ARRAY,
+                new long[] {
+                        Double.doubleToRawLongBits(msbb.minX()),
+                        Double.doubleToRawLongBits(msbb.minY()),
+                        Double.doubleToRawLongBits(msbb.minZ()),
+                        Double.doubleToRawLongBits(msbb.maxX()),
+                        Double.doubleToRawLongBits(msbb.maxY()),
+                        Double.doubleToRawLongBits(msbb.maxZ())
+                }
+        );
+    }
+
+    /**
+     * Writes the parent UUID of the child interaction in the binary form,
+     * replacing the legacy value
+     *
+     * @param container The persistent data container of the child
+     *                  interaction
+     * @param parent    The parent UUID
+     */
+    public static void writeChild(
+            final @NotNull PersistentDataContainer container,
+            final @NotNull UUID parent
+    ) {
+        container.set(HITBOX_VERSION_NAMESPACED_KEY, PersistentDataType.BYTE, VERSION);
+        container.set(HITBOX_CHILD_NAMESPACED_KEY, PersistentDataType.LONG_ARRAY, toBits(parent));
+    }
+
+    private static @Nullable Link readBinaryParent(final @NotNull PersistentDataContainer container) {
+        final long[] display = container.get(HITBOX_DISPLAY_NAMESPACED_KEY, PersistentDataType.LONG_ARRAY);
+        final long[] interactions = container.get(HITBOX_INTERACTIONS_NAMESPACED_KEY, PersistentDataType.LONG_ARRAY);
+        final long[] box = container.get(HITBOX_BOUNDING_BOX_NAMESPACED_KEY, PersistentDataType.LONG_ARRAY);
+
+        if (
+                display == null
+                || display.length != UUID_LENGTH
+                || box == null
+                || box.length != BOUNDING_BOX_LENGTH
+                || (interactions != null
+                && interactions.length % UUID_LENGTH != 0)
+        ) {
+            return null;
+        }
+
+        final UUID[] children;
+
+        if (interactions == null) {
+            children = EMPTY_UUIDS;
+        } else {
+            children = new UUID[interactions.length / UUID_LENGTH];
+
+            for (int i = 0; i < children.length; ++i) {
+                children[i] = new UUID(interactions[i * UUID_LENGTH], interactions[i * UUID_LENGTH + 1]);
+            }
+        }
+
+        return new Link(
+                new UUID(display[0], display[1]),
+                children,
+                MSBoundingBox.of(
+                        Double.longBitsToDouble(box[0]),
+                        Double.longBitsToDouble(box[1]),
+                        Double.longBitsToDouble(box[2]),
+                        Double.longBitsToDouble(box[3]),
+                        Double.longBitsToDouble(box[4]),
+                        Double.longBitsToDouble(box[5])
+                )
+        );
+    }
+
+    private static @Nullable Link readLegacyParent(final @NotNull PersistentDataContainer container) {
+        final String display = container.get(HITBOX_DISPLAY_NAMESPACED_KEY, PersistentDataType.STRING);
+        final String interactions = container.get(HITBOX_INTERACTIONS_NAMESPACED_KEY, PersistentDataType.STRING);
+        final String box = container.get(HITBOX_BOUNDING_BOX_NAMESPACED_KEY, PersistentDataType.STRING);
+
+        if (
+                ChatUtils.isBlank(display)
+                || ChatUtils.isBlank(box)
+        ) {
+            return null;
+        }
+
+        final String[] coordinates = box.split(",");
+
+        if (coordinates.length != BOUNDING_BOX_LENGTH) {
+            return null;
+        }
+
+        try {
+            final UUID[] children;
+
+            if (ChatUtils.isBlank(interactions)) {
+                children = EMPTY_UUIDS;
+            } else {
+                final String[] uuids = interactions.split(",");
+                children = new UUID[uuids.length];
+
+                for (int i = 0; i < uuids.length; ++i) {
+                    children[i] = UUID.fromString(uuids[i]);
+                }
+            }
+
+            return new Link(
+                    UUID.fromString(display),
+                    children,
+                    MSBoundingBox.of(
+                            Double.parseDouble(coordinates[0]),
+                            Double.parseDouble(coordinates[1]),
+                            Double.parseDouble(coordinates[2]),
+                            Double.parseDouble(coordinates[3]),
+                            Double.parseDouble(coordinates[4]),
+                            Double.parseDouble(coordinates[5])
+                    )
+            );
+        } catch (final IllegalArgumentException ignored) {
+            return null;
+        }
+    }
+
+    private static long @NotNull [] toBits(final @NotNull UUID uuid) {
+        return new long[] {
+                uuid.getMostSignificantBits(),
+                uuid.getLeastSignificantBits()
+        };
+    }
+
+    private static long @NotNull [] toBits(final UUID @NotNull [] uuids) {
+        final long[] bits = new long[uuids.length * UUID_LENGTH];
+
+        for (int i = 0; i < uuids.length; ++i) {
+            bits[i * UUID_LENGTH] = uuids[i].getMostSignificantBits();
+            bits[i * UUID_LENGTH + 1] = uuids[i].getLeastSignificantBits();
+        }
+
+        return bits;
+    }
+
+    /**
+     * Decoded metadata of the parent interaction
+     *
+     * @param display      The UUID of the item display
+     * @param interactions The UUIDs of the child interactions
+     * @param boundingBox  The bounding box of the decor
+     */
+    public record Link(
+            @NotNull UUID display,
+            UUID @NotNull [] interactions,
+            @NotNull MSBoundingBox boundingBox
+    ) {}
+}
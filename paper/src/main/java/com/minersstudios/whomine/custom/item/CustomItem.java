@@ -1,13 +1,12 @@
 package com.minersstudios.whomine.custom.item;
 
 import com.minersstudios.whomine.WhoMine;
+import com.minersstudios.whomine.custom.CustomItemClassifier;
 import com.minersstudios.whomine.inventory.recipe.entry.RecipeEntry;
 import com.minersstudios.whomine.menu.CraftsMenu;
 import org.bukkit.Keyed;
 import org.bukkit.NamespacedKey;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.inventory.meta.ItemMeta;
-import org.bukkit.persistence.PersistentDataType;
 import org.jetbrains.annotations.*;
 
 import java.util.List;
@@ -285,13 +284,6 @@ public interface CustomItem extends Keyed {
             return Optional.empty();
         }
 
-        final ItemMeta itemMeta = itemStack.getItemMeta();
-
-        return itemMeta == null
-                ? Optional.empty()
-                : fromKey(
-                itemMeta.getPersistentDataContainer().get(CustomItemType.TYPE_NAMESPACED_KEY, PersistentDataType.STRING),
-                clazz
-        );
+        return CustomItemClassifier.classify(itemStack).getCustomItem(clazz);
     }
 }
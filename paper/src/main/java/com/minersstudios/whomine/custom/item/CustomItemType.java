@@ -1,6 +1,7 @@
 package com.minersstudios.whomine.custom.item;
 
 import com.minersstudios.whomine.WhoMine;
+import com.minersstudios.whomine.custom.CustomItemClassifier;
 import com.minersstudios.whomine.custom.item.damageable.Damageable;
 import com.minersstudios.whomine.custom.item.registry.*;
 import com.minersstudios.whomine.menu.CraftsMenu;
@@ -20,8 +21,6 @@ import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
 import org.bukkit.NamespacedKey;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.inventory.meta.ItemMeta;
-import org.bukkit.persistence.PersistentDataType;
 import org.jetbrains.annotations.*;
 
 import java.util.*;
@@ -247,20 +246,9 @@ public enum CustomItemType {
     public static @Nullable CustomItemType fromItemStack(final @Nullable ItemStack itemStack) throws IllegalStateException {
         checkLoaded();
 
-        if (itemStack == null) {
-            return null;
-        }
-
-        final ItemMeta itemMeta = itemStack.getItemMeta();
-
-        return itemMeta == null
+        return itemStack == null
                 ? null
-                : fromKey(
-                        itemMeta.getPersistentDataContainer().get(
-                                TYPE_NAMESPACED_KEY,
-                                PersistentDataType.STRING
-                        )
-                );
+                : fromKey(CustomItemClassifier.classify(itemStack).getItemKey());
     }
 
     /**
@@ -0,0 +1,259 @@
+package com.minersstudios.whomine.custom.item.renameable;
+
+import com.minersstudios.whomine.custom.CustomItemClassifier;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.annotation.concurrent.Immutable;
+import java.util.*;
+
+/**
+ * Immutable index of the rename entries of the renameable items, used by
+ * {@link RenameableItemRegistry#fromRename(String, ItemStack)}.
+ * <br>
+ * The entries are grouped by the material and the custom type keys of the
+ * registered items. Within a group, the lower-cased renames are indexed by
+ * their hash, so the lookup of the renameable item, which rename is the
+ * longest prefix of the given rename (case-insensitive), is a single pass
+ * over the given rename with a hash lookup at every registered rename length.
+ * The lookup does not allocate.
+ */
+@Immutable
+final class RenameIndex {
+    static final RenameIndex EMPTY = new RenameIndex(new EnumMap<>(Material.class));
+
+    private final Map<Material, Group[]> groups;
+
+    private RenameIndex(final @NotNull Map<Material, Group[]> groups) {
+        this.groups = groups;
+    }
+
+    /**
+     * Builds the index of the rename entries of the given renameable items.
+     * If several items have the same rename for the same item, the first one
+     * is indexed.
+     *
+     * @param renameableItems The renameable items to index
+     * @return A new rename index
+     */
+    static @NotNull RenameIndex build(final @NotNull Collection<RenameableItem> renameableItems) {
+        final var builders = new EnumMap<Material, List<Group.Builder>>(Material.class);
+
+        for (final var renameableItem : renameableItems) {
+            final RenameCollection renames = renameableItem.getRenames();
+
+            for (final var item : renames.items()) {
+                final CustomItemClassifier.Classification classification = CustomItemClassifier.classify(item);
+                final var materialBuilders = builders.computeIfAbsent(item.getType(), material -> new ObjectArrayList<>());
+                Group.Builder builder = null;
+
+                for (final var materialBuilder : materialBuilders) {
+                    if (materialBuilder.matches(classification)) {
+                        builder = materialBuilder;
+                        break;
+                    }
+                }
+
+                if (builder == null) {
+                    builder = new Group.Builder(classification);
+
+                    materialBuilders.add(builder);
+                }
+
+                for (final var rename : renames.renames()) {
+                    builder.add(rename, renameableItem);
+                }
+            }
+        }
+
+        final var groups = new EnumMap<Material, Group[]>(Material.class);
+
+        for (final var entry : builders.entrySet()) {
+            final var materialBuilders = entry.getValue();
+            final Group[] materialGroups = new Group[materialBuilders.size()];
+
+            for (int i = 0; i < materialGroups.length; ++i) {
+                materialGroups[i] = materialBuilders.get(i).build();
+            }
+
+            groups.put(entry.getKey(), materialGroups);
+        }
+
+        return new RenameIndex(groups);
+    }
+
+    /**
+     * @param rename    The rename value
+     * @param itemStack The item stack to rename
+     * @return The renameable item, which rename is the longest prefix of the
+     *         given rename (case-insensitive) and which item has the same
+     *         material and custom type keys as the given item stack, or null
+     *         if there is no such item
+     */
+    @Nullable RenameableItem get(
+            final @NotNull String rename,
+            final @NotNull ItemStack itemStack
+    ) {
+        final Group[] materialGroups = this.groups.get(itemStack.getType());
+
+        if (materialGroups == null) {
+            return null;
+        }
+
+        final CustomItemClassifier.Classification classification = CustomItemClassifier.classify(itemStack);
+
+        for (final var group : materialGroups) {
+            if (group.matches(classification)) {
+                return group.get(rename);
+            }
+        }
+
+        return null;
+    }
+
+    private static int hash(
+            final int hash,
+            final char c
+    ) {
+        return 31 * hash + Character.toLowerCase(c);
+    }
+
+    private record Entry(
+            @NotNull String rename,
+            @NotNull RenameableItem renameableItem
+    ) {}
+
+    private static final class Group {
+        private final String itemKey;
+        private final String blockKey;
+        private final String decorKey;
+        private final Int2ObjectMap<Entry[]> entries;
+        private final boolean[] lengths;
+
+        private Group(
+                final @Nullable String itemKey,
+                final @Nullable String blockKey,
+                final @Nullable String decorKey,
+                final @NotNull Int2ObjectMap<Entry[]> entries,
+                final boolean @NotNull [] lengths
+        ) {
+            this.itemKey = itemKey;
+            this.blockKey = blockKey;
+            this.decorKey = decorKey;
+            this.entries = entries;
+            this.lengths = lengths;
+        }
+
+        boolean matches(final @NotNull CustomItemClassifier.Classification classification) {
+            return Objects.equals(this.itemKey, classification.getItemKey())
+                    && Objects.equals(this.blockKey, classification.getBlockKey())
+                    && Objects.equals(this.decorKey, classification.getDecorKey());
+        }
+
+        @Nullable RenameableItem get(final @NotNull String rename) {
+            final int length = Math.min(rename.length(), this.lengths.length - 1);
+            RenameableItem found = null;
+            int hash = 0;
+
+            for (int i = 0; i < length; ++i) {
+                hash = hash(hash, rename.charAt(i));
+
+                if (!this.lengths[i + 1]) {
+                    continue;
+                }
+
+                final Entry[] candidates = this.entries.get(hash);
+
+                if (candidates == null) {
+                    continue;
+                }
+
+                for (final var candidate : candidates) {
+                    if (
+                            candidate.rename.length() == i + 1
+                            && rename.regionMatches(true, 0, candidate.rename, 0, i + 1)
+                    ) {
+                        found = candidate.renameableItem;
+                        break;
+                    }
+                }
+            }
+
+            return found;
+        }
+
+        private static final class Builder {
+            private final String itemKey;
+            private final String blockKey;
+            private final String decorKey;
+            private final Map<String, RenameableItem> renames;
+
+            Builder(final @NotNull CustomItemClassifier.Classification classification) {
+                this.itemKey = classification.getItemKey();
+                this.blockKey = classification.getBlockKey();
+                this.decorKey = classification.getDecorKey();
+                this.renames = new LinkedHashMap<>();
+            }
+
+            boolean matches(final @NotNull CustomItemClassifier.Classification classification) {
+                return Objects.equals(this.itemKey, classification.getItemKey())
+                        && Objects.equals(this.blockKey, classification.getBlockKey())
+                        && Objects.equals(this.decorKey, classification.getDecorKey());
+            }
+
+            void add(
+                    final @NotNull String rename,
+                    final @NotNull RenameableItem renameableItem
+            ) {
+                if (!rename.isBlank()) {
+                    this.renames.putIfAbsent(rename.toLowerCase(Locale.ROOT), renameableItem);
+                }
+            }
+
+            @NotNull Group build() {
+                final var buckets = new Int2ObjectOpenHashMap<List<Entry>>();
+                int maxLength = 0;
+
+                for (final var entry : this.renames.entrySet()) {
+                    final String rename = entry.getKey();
+                    int hash = 0;
+
+                    for (int i = 0; i < rename.length(); ++i) {
+                        hash = hash(hash, rename.charAt(i));
+                    }
+
+                    buckets.computeIfAbsent(hash, h -> new ObjectArrayList<>(1))
+                    .add(new Entry(rename, entry.getValue()));
+
+                    maxLength = Math.max(maxLength, rename.length());
+                }
+
+                final var entries = new Int2ObjectOpenHashMap<Entry[]>(buckets.size());
+                final boolean[] lengths = new boolean[maxLength + 1];
+
+                for (final var bucket : buckets.int2ObjectEntrySet()) {
+                    final Entry[] bucketEntries = bucket.getValue().toArray(new Entry[0]);
+
+                    for (final var entry : bucketEntries) {
+                        lengths[entry.rename.length()] = true;
+                    }
+
+                    entries.put(bucket.getIntKey(), bucketEntries);
+                }
+
+                return new Group(
+                        this.itemKey,
+                        this.blockKey,
+                        this.decorKey,
+                        entries,
+                        lengths
+                );
+            }
+        }
+    }
+}
@@ -1,12 +1,11 @@
 package com.minersstudios.whomine.custom.item.renameable;
 
+import com.minersstudios.whomine.custom.CustomItemClassifier;
 import com.minersstudios.whomine.utility.ChatUtils;
 import com.minersstudios.whomine.utility.SharedConstants;
 import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
 import org.bukkit.NamespacedKey;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.inventory.meta.ItemMeta;
-import org.bukkit.persistence.PersistentDataType;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -26,6 +25,10 @@ import java.util.*;
  * and rename entries are used to look up items based on rename values and item
  * stacks.
  * <br>
+ * The lookups by rename value and item stack use an immutable rename index,
+ * which is built from the registered items and replaced at once by
+ * {@link #reindex()} after the items are (re)loaded.
+ * <br>
  * Make sure to use the provided methods and their respective Optional return
  * types to handle cases where the desired renameable item data might not be
  * present.
@@ -55,6 +58,7 @@ public final class RenameableItemRegistry {
 
     private static final Map<String, RenameableItem> KEY_MAP = new Object2ObjectOpenHashMap<>();
     private static final Map<RenameEntry, String> RENAME_ENTRY_MAP = new Object2ObjectOpenHashMap<>();
+    private static volatile RenameIndex renameIndex;
 
     @Contract(" -> fail")
     private RenameableItemRegistry() throws AssertionError {
@@ -103,45 +107,54 @@ public final class RenameableItemRegistry {
 
     /**
      * Gets the {@link RenameableItem} from the given rename entry. It will get
-     * the item from the {@link #RENAME_ENTRY_MAP}
+     * the item from the rename index
      *
      * @param renameEntry The rename entry to get the RenameableItem from
      * @return An {@link Optional} containing the {@link RenameableItem} or an
      *         {@link Optional#empty()} if the given rename entry is not
      *         associated with any renameable item
-     * @see #RENAME_ENTRY_MAP
+     * @see #fromRename(String, ItemStack)
      */
     public static @NotNull Optional<RenameableItem> fromRenameEntry(final @Nullable RenameEntry renameEntry) {
-        if (renameEntry == null) {
-            return Optional.empty();
-        }
-
-        for (final var entry : RENAME_ENTRY_MAP.entrySet()) {
-            if (entry.getKey().equals(renameEntry)) {
-                return fromKey(entry.getValue());
-            }
-        }
-
-        return Optional.empty();
+        return renameEntry == null
+                ? Optional.empty()
+                : fromRename(renameEntry.getRename(), renameEntry.getItem());
     }
 
     /**
      * Gets the {@link RenameableItem} from the given rename value and item
-     * stack. It will create a {@link RenameEntry} from the given rename value
-     * and item stack and get the item from the {@link #RENAME_ENTRY_MAP}.
+     * stack. It will get the item, which rename is the longest prefix of the
+     * given rename value (case-insensitive) and which item has the same
+     * material and custom type as the given item stack, from the rename index.
+     * The index is built once after the renameable items are registered, so
+     * the lookup does not depend on the number of the registered items.
      *
      * @param rename    The rename value to get the {@link RenameableItem}
      * @param itemStack The item stack to get the {@link RenameableItem}
      * @return An {@link Optional} containing the {@link RenameableItem} or an
      *         {@link Optional#empty()} if the given rename value and item stack
      *         are not associated with any renameable item
-     * @see #fromRenameEntry(RenameEntry)
+     * @see #reindex()
      */
     public static @NotNull Optional<RenameableItem> fromRename(
             final @Nullable String rename,
             final @Nullable ItemStack itemStack
     ) {
-        return fromRenameEntry(RenameEntry.create(rename, itemStack));
+        if (
+                ChatUtils.isBlank(rename)
+                || itemStack == null
+                || itemStack.getType().isAir()
+        ) {
+            return Optional.empty();
+        }
+
+        RenameIndex index = renameIndex;
+
+        if (index == null) {
+            index = buildIndex();
+        }
+
+        return Optional.ofNullable(index.get(rename, itemStack));
     }
 
     /**
@@ -160,17 +173,7 @@ public final class RenameableItemRegistry {
      * @see #fromKey(String)
      */
     public static @NotNull Optional<RenameableItem> fromItemStack(final @Nullable ItemStack itemStack) {
-        if (itemStack == null) {
-            return Optional.empty();
-        }
-
-        final ItemMeta itemMeta = itemStack.getItemMeta();
-
-        return itemMeta == null
-                ? Optional.empty()
-                : fromKey(
-                        itemMeta.getPersistentDataContainer().get(RENAMEABLE_NAMESPACED_KEY, PersistentDataType.STRING)
-                );
+        return CustomItemClassifier.classify(itemStack).getRenameableItem();
     }
 
     /**
@@ -300,6 +303,8 @@ public final class RenameableItemRegistry {
         renameCollection.entrySet().forEach(
                 rename -> RENAME_ENTRY_MAP.put(rename, key)
         );
+
+        renameIndex = null;
     }
 
     /**
@@ -324,6 +329,8 @@ public final class RenameableItemRegistry {
 
         KEY_MAP.remove(key);
         renameCollection.entrySet().forEach(RENAME_ENTRY_MAP::remove);
+
+        renameIndex = null;
     }
 
     /**
@@ -333,5 +340,24 @@ public final class RenameableItemRegistry {
     public static synchronized void unregisterAll() {
         KEY_MAP.clear();
         RENAME_ENTRY_MAP.clear();
+
+        renameIndex = RenameIndex.EMPTY;
+    }
+
+    /**
+     * Builds the rename index from the registered renameable items and
+     * publishes it, replacing the previous index at once. Should be called
+     * after all renameable items are registered, otherwise the index will be
+     * built lazily on the first lookup.
+     */
+    public static void reindex() {
+        buildIndex();
+    }
+
+    private static synchronized @NotNull RenameIndex buildIndex() {
+        final RenameIndex index = RenameIndex.build(KEY_MAP.values());
+        renameIndex = index;
+
+        return index;
     }
 }
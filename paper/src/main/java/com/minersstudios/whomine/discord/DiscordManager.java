@@ -19,6 +19,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -34,6 +35,8 @@ import static com.minersstudios.whomine.locale.Translations.DISCORD_SERVER_ENABL
  */
 public final class DiscordManager {
     private final WhoMine plugin;
+    private final DiscordRelay relay;
+    private final DiscordMemberCache memberCache;
     private JDA jda;
     private Guild mainGuild;
     private TextChannel globalChannel;
@@ -47,6 +50,8 @@ public final class DiscordManager {
      */
     public DiscordManager(final @NotNull WhoMine plugin) {
         this.plugin = plugin;
+        this.relay = new DiscordRelay(plugin.getLogger());
+        this.memberCache = new DiscordMemberCache(this);
     }
 
     /**
@@ -56,6 +61,20 @@ public final class DiscordManager {
         return this.plugin;
     }
 
+    /**
+     * @return The outbound relay of the chat messages
+     */
+    public @NotNull DiscordRelay getRelay() {
+        return this.relay;
+    }
+
+    /**
+     * @return The cache of the main guild members
+     */
+    public @NotNull DiscordMemberCache getMemberCache() {
+        return this.memberCache;
+    }
+
     /**
      * @return An Optional containing the JDA instance if it exists, or an empty
      *         Optional otherwise
@@ -110,14 +129,28 @@ public final class DiscordManager {
     }
 
     /**
+     * Retrieves the user, blocking the calling thread if the user is not
+     * cached. Prefer {@link #retrieveUserAsync(long)} on the server thread.
+     *
      * @param userId The id of the user to retrieve
      * @return An Optional containing the user, or an empty Optional if not
      *         available
      */
     public @NotNull Optional<User> retrieveUser(final long userId) {
+        return this.retrieveUserAsync(userId).join();
+    }
+
+    /**
+     * @param userId The id of the user to retrieve
+     * @return A future completed with an Optional containing the user, or an
+     *         empty Optional if not available
+     */
+    public @NotNull CompletableFuture<Optional<User>> retrieveUserAsync(final long userId) {
         return this.jda == null
-                ? Optional.empty()
-                : Optional.ofNullable(this.jda.retrieveUserById(userId).complete());
+                ? CompletableFuture.completedFuture(Optional.empty())
+                : this.jda.retrieveUserById(userId).submit()
+                .thenApply(Optional::of)
+                .exceptionally(throwable -> Optional.empty());
     }
 
     /**
@@ -144,26 +177,49 @@ public final class DiscordManager {
     }
 
     /**
+     * Retrieves the member, blocking the calling thread if the member is not
+     * cached. Prefer {@link #retrieveMemberAsync(User)} on the server thread.
+     *
      * @param user The user to retrieve the member of
      * @return An Optional containing the member, or an empty Optional if not
      *         available
      */
     public @NotNull Optional<Member> retrieveMember(final @Nullable User user) {
-        return this.mainGuild == null
-                || user == null
-                ? Optional.empty()
-                : Optional.ofNullable(this.mainGuild.retrieveMember(user).complete());
+        return this.retrieveMemberAsync(user).join();
     }
 
     /**
+     * Retrieves the member, blocking the calling thread if the member is not
+     * cached. Prefer {@link #retrieveMemberAsync(long)} on the server thread.
+     *
      * @param userId The id of the user to retrieve the member of
      * @return An Optional containing the member, or an empty Optional if not
      *         available
      */
     public @NotNull Optional<Member> retrieveMember(final long userId) {
-        return this.mainGuild == null
-                ? Optional.empty()
-                : Optional.ofNullable(this.mainGuild.retrieveMemberById(userId).complete());
+        return this.retrieveMemberAsync(userId).join();
+    }
+
+    /**
+     * @param user The user to retrieve the member of
+     * @return A future completed with an Optional containing the member, or
+     *         an empty Optional if not available
+     * @see DiscordMemberCache#retrieveMember(long)
+     */
+    public @NotNull CompletableFuture<Optional<Member>> retrieveMemberAsync(final @Nullable User user) {
+        return user == null
+                ? CompletableFuture.completedFuture(Optional.empty())
+                : this.memberCache.retrieveMember(user.getIdLong());
+    }
+
+    /**
+     * @param userId The id of the user to retrieve the member of
+     * @return A future completed with an Optional containing the member, or
+     *         an empty Optional if not available
+     * @see DiscordMemberCache#retrieveMember(long)
+     */
+    public @NotNull CompletableFuture<Optional<Member>> retrieveMemberAsync(final long userId) {
+        return this.memberCache.retrieveMember(userId);
     }
 
     /**
@@ -188,56 +244,74 @@ public final class DiscordManager {
     /**
      * @param user The user to check
      * @return True if the user is a member of the main guild, false otherwise
-     * @see #retrieveMember(User)
+     * @see DiscordMemberCache#isMember(long)
      */
     public boolean isMember(final @Nullable User user) {
-        return this.retrieveMember(user).isPresent();
+        return user != null
+                && this.memberCache.isMember(user.getIdLong());
     }
 
     /**
      * @param userId The id of the user to check
      * @return True if the user is a member of the main guild, false otherwise
-     * @see #retrieveMember(long)
+     * @see DiscordMemberCache#isMember(long)
      */
     public boolean isMember(final long userId) {
-        return this.retrieveMember(userId).isPresent();
+        return this.memberCache.isMember(userId);
+    }
+
+    /**
+     * @param userId The id of the user to check
+     * @return A future completed with true if the user is a member of the
+     *         main guild, false otherwise
+     * @see DiscordMemberCache#isMemberAsync(long)
+     */
+    public @NotNull CompletableFuture<Boolean> isMemberAsync(final long userId) {
+        return this.memberCache.isMemberAsync(userId);
     }
 
     /**
      * @param user The user to check
      * @return True if the user is a member of the main guild and has the member
      *         role, false otherwise
-     * @see #retrieveMember(User)
+     * @see DiscordMemberCache#isVerified(long)
      * @see #getMemberRole()
      */
     public boolean isVerified(final @Nullable User user) {
         return user != null
-                && this.memberRole != null
-                && this.retrieveMember(user)
-                .map(member -> member.getRoles().contains(this.memberRole))
-                .orElse(false);
+                && this.memberCache.isVerified(user.getIdLong());
     }
 
     /**
      * @param userId The id of the user to check
      * @return True if the user is a member of the main guild and has the member
      *         role, false otherwise
-     * @see #retrieveMember(long)
+     * @see DiscordMemberCache#isVerified(long)
      * @see #getMemberRole()
      */
     public boolean isVerified(final long userId) {
-        return this.memberRole != null
-                && this.retrieveMember(userId)
-                .map(member -> member.getRoles().contains(this.memberRole))
-                .orElse(false);
+        return this.memberCache.isVerified(userId);
     }
 
     /**
-     * Sends a message to the specified chat type
+     * @param userId The id of the user to check
+     * @return A future completed with true if the user is a member of the
+     *         main guild and has the member role, false otherwise
+     * @see DiscordMemberCache#isVerifiedAsync(long)
+     */
+    public @NotNull CompletableFuture<Boolean> isVerifiedAsync(final long userId) {
+        return this.memberCache.isVerifiedAsync(userId);
+    }
+
+    /**
+     * Queues a message to be sent to the specified chat type. The message may
+     * be merged with the other messages sent to the same chat type shortly
+     * before or after it. Can be called from any thread.
      *
      * @param chatType The chat type to send the message to
      * @param message  The message to send
      * @see ChatType
+     * @see DiscordRelay
      * @see #getGlobalChannel()
      * @see #getLocalChannel()
      */
@@ -245,21 +319,8 @@ public final class DiscordManager {
             final @NotNull ChatType chatType,
             final @NotNull CharSequence message
     ) {
-        if (!this.isLoaded()) {
-            return;
-        }
-
-        switch (chatType) {
-            case GLOBAL -> {
-                if (this.globalChannel != null) {
-                    this.globalChannel.sendMessage(message).queue();
-                }
-            }
-            case LOCAL -> {
-                if (this.localChannel != null) {
-                    this.localChannel.sendMessage(message).queue();
-                }
-            }
+        if (this.isLoaded()) {
+            this.relay.enqueue(chatType, message);
         }
     }
 
@@ -285,15 +346,15 @@ public final class DiscordManager {
      *
      * @param userId  The id of the user to send the message to
      * @param message The message to send
-     * @see #retrieveUser(long)
+     * @see #retrieveUserAsync(long)
      * @see #sendMessage(User, CharSequence)
      */
     public void sendMessage(
             final long userId,
             final @NotNull CharSequence message
     ) {
-        this.retrieveUser(userId).ifPresent(
-                user -> this.sendMessage(user, message)
+        this.retrieveUserAsync(userId).thenAccept(
+                user -> user.ifPresent(u -> this.sendMessage(u, message))
         );
     }
 
@@ -355,7 +416,7 @@ public final class DiscordManager {
      * @param userId The id of the user to send the message to
      * @param first  The first embed to send
      * @param rest   The rest of the embeds to send
-     * @see #retrieveUser(long)
+     * @see #retrieveUserAsync(long)
      * @see #sendEmbeds(User, MessageEmbed, MessageEmbed...)
      */
     public void sendEmbeds(
@@ -363,8 +424,8 @@ public final class DiscordManager {
             final @NotNull MessageEmbed first,
             final MessageEmbed @NotNull ... rest
     ) {
-        this.retrieveUser(userId).ifPresent(
-                user -> this.sendEmbeds(user, first, rest)
+        this.retrieveUserAsync(userId).thenAccept(
+                user -> user.ifPresent(u -> this.sendEmbeds(u, first, rest))
         );
     }
 
@@ -469,6 +530,8 @@ public final class DiscordManager {
                 }
             }
 
+            this.memberCache.load(this.mainGuild);
+
             if (globalChannelId != 0) {
                 this.globalChannel = this.jda.getTextChannelById(globalChannelId);
 
@@ -485,6 +548,14 @@ public final class DiscordManager {
                 }
             }
 
+            if (this.globalChannel != null) {
+                this.relay.setSink(ChatType.GLOBAL, createSink(this.globalChannel));
+            }
+
+            if (this.localChannel != null) {
+                this.relay.setSink(ChatType.LOCAL, createSink(this.localChannel));
+            }
+
             final Presence presence = this.jda.getPresence();
 
             if (config.isDeveloperMode()) {
@@ -505,9 +576,11 @@ public final class DiscordManager {
     }
 
     /**
-     * Unloads the Discord bot
+     * Unloads the Discord bot, sending the pending messages first
      */
     public void unload() {
+        this.relay.shutdown();
+
         if (this.isLoaded()) {
             this.jda.shutdown();
         }
@@ -522,7 +595,7 @@ public final class DiscordManager {
                         GatewayIntent.MESSAGE_CONTENT,
                         GatewayIntent.GUILD_MEMBERS
                 )
-                .addEventListeners(new ListenerAdapter() {
+                .addEventListeners(this.memberCache, new ListenerAdapter() {
 
                     @Override
                     public void onShutdown(final @NotNull ShutdownEvent event) {
@@ -531,10 +604,18 @@ public final class DiscordManager {
                         DiscordManager.this.globalChannel = null;
                         DiscordManager.this.localChannel = null;
                         DiscordManager.this.memberRole = null;
+
+                        DiscordManager.this.relay.setSink(ChatType.GLOBAL, null);
+                        DiscordManager.this.relay.setSink(ChatType.LOCAL, null);
+                        DiscordManager.this.memberCache.clear();
                     }
                 })
                 .setMemberCachePolicy(MemberCachePolicy.ALL)
                 .build()
                 .awaitReady();
     }
+
+    private static @NotNull DiscordRelay.Sink createSink(final @NotNull TextChannel channel) {
+        return message -> channel.sendMessage(message).submit();
+    }
 }
@@ -1,10 +1,13 @@
 package com.minersstudios.whomine.discord;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
-import com.google.gson.reflect.TypeToken;
 import com.minersstudios.whomine.WhoMine;
+import com.minersstudios.whomine.collection.MapJournal;
 import com.minersstudios.whomine.player.PlayerInfo;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
@@ -12,34 +15,38 @@ import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.UnmodifiableView;
 
 import java.io.File;
-import java.io.FileOutputStream;
-import java.io.IOException;
-import java.io.OutputStreamWriter;
-import java.lang.reflect.Type;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.StandardCopyOption;
 import java.security.SecureRandom;
 import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.logging.Level;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Discord linking a map with discord user id and its player's {@link Params}.
  * All mutes stored in the "config/minersstudios/MSEssentials/discord_links.json"
- * file.
+ * file, changes are appended to its journal by the {@link MapJournal}.
+ * <br>
+ * The links are also indexed by the player's {@link UUID}, and the link codes
+ * are kept in a timed cache indexed by both the code and the player, so
+ * linking, unlinking and code validation are constant time operations.
  *
  * @see Params
  */
 public final class DiscordMap {
     private final WhoMine plugin;
-    private final File file;
     private final Map<Long, Params> map;
-    private final Map<Short, PlayerInfo> codeMap;
+    private final Map<UUID, Long> uuidIndex;
+    private final MapJournal<Long, Params> journal;
+    private final Cache<Short, PlayerInfo> codeCache;
+    private final Map<UUID, Short> codeIndex;
 
+    /** The time in minutes after which an unused link code expires */
+    public static final long CODE_EXPIRATION_TIME = 5L;
+
+    private static final int MIN_CODE = 1000;
+    private static final int CODE_COUNT = 9000;
     private static final SecureRandom RANDOM = new SecureRandom();
     private static final Gson GSON =
             new GsonBuilder()
@@ -52,25 +59,65 @@ public final class DiscordMap {
      */
     public DiscordMap(final @NotNull WhoMine plugin) {
         this.plugin = plugin;
-        this.file = new File(plugin.getDataFolder(), "discord_links.json");
         this.map = new ConcurrentHashMap<>();
-        this.codeMap = new ConcurrentHashMap<>();
+        this.uuidIndex = new ConcurrentHashMap<>();
+        this.journal = new MapJournal<>(
+                new File(plugin.getDataFolder(), "discord_links.json"),
+                GSON,
+                Long.class,
+                Params.class,
+                () -> this.map,
+                plugin.getLogger()
+        );
+        this.codeIndex = new ConcurrentHashMap<>();
+        this.codeCache =
+                CacheBuilder.newBuilder()
+                .expireAfterWrite(CODE_EXPIRATION_TIME, TimeUnit.MINUTES)
+                .maximumSize(CODE_COUNT)
+                .<Short, PlayerInfo>removalListener(
+                        notification -> {
+                            final Short code = notification.getKey();
+                            final PlayerInfo playerInfo = notification.getValue();
+
+                            if (
+                                    code != null
+                                    && playerInfo != null
+                            ) {
+                                this.codeIndex.remove(playerInfo.getUuid(), code);
+                            }
+                        }
+                )
+                .build();
 
         this.reloadLinks();
     }
 
+    /**
+     * @return The journal, which persists this map
+     */
+    public @NotNull MapJournal<Long, Params> getJournal() {
+        return this.journal;
+    }
+
     /**
      * @param params The params of the linked player
      * @return The id of the linked discord user or -1 if not found
      */
     public long getId(final @NotNull Params params) {
-        for (final var entry : this.map.entrySet()) {
-            if (entry.getValue().equals(params)) {
-                return entry.getKey();
-            }
-        }
+        final long id = this.getId(params.getUuid());
+
+        return id != -1L && params.equals(this.map.get(id))
+                ? id
+                : -1L;
+    }
 
-        return -1L;
+    /**
+     * @param uuid The uuid of the linked player
+     * @return The id of the linked discord user or -1 if not found
+     */
+    public long getId(final @NotNull UUID uuid) {
+        final Long id = this.uuidIndex.get(uuid);
+        return id == null ? -1L : id;
     }
 
     /**
@@ -113,52 +160,63 @@ public final class DiscordMap {
     }
 
     /**
-     * Links the player with the params
+     * Links the player with the params. The previous link of the player and
+     * the previous link of the discord user are replaced.
      *
      * @param id     The id of the linking discord player
      * @param params The params of the linking player
      */
-    public void put(
+    public synchronized void put(
             final long id,
             final @NotNull Params params
     ) {
-        for (final var entry : this.map.entrySet()) {
-            if (entry.getValue().equals(params)) {
-                this.map.remove(entry.getKey());
-            }
+        final UUID uuid = params.getUuid();
+        final Long previousId = this.uuidIndex.put(uuid, id);
+
+        if (
+                previousId != null
+                && previousId != id
+                && this.map.remove(previousId) != null
+        ) {
+            this.journal.remove(previousId);
+        }
+
+        final Params previous = this.map.put(id, params);
+
+        if (
+                previous != null
+                && !previous.getUuid().equals(uuid)
+        ) {
+            this.uuidIndex.remove(previous.getUuid(), id);
         }
 
-        this.map.put(id, params);
-        this.saveFile();
+        this.journal.put(id, params);
     }
 
     /**
      * Generates a new code for the link request. If the code is already in use,
-     * it will generate a new one. The code will be removed after 5 minutes if
-     * it is not used.
+     * it will generate a new one. The previous code of the player is removed.
+     * The code expires after {@link #CODE_EXPIRATION_TIME} minutes if it is not
+     * used.
      *
      * @param playerInfo The player info to generate code for
      * @return The generated code
      */
-    public short generateCode(final @NotNull PlayerInfo playerInfo) {
-        if (this.codeMap.containsValue(playerInfo)) {
-            for (final var entry : this.codeMap.entrySet()) {
-                if (entry.getValue().equals(playerInfo)) {
-                    this.codeMap.remove(entry.getKey());
-                }
-            }
+    public synchronized short generateCode(final @NotNull PlayerInfo playerInfo) {
+        final Short previousCode = this.codeIndex.get(playerInfo.getUuid());
+
+        if (previousCode != null) {
+            this.codeCache.invalidate(previousCode);
         }
 
-        final short code = (short) (RANDOM.nextInt(9000) + 1000);
+        final var codes = this.codeCache.asMap();
+        short code;
 
-        if (this.codeMap.containsKey(code)) {
-            return this.generateCode(playerInfo);
-        }
+        do {
+            code = (short) (RANDOM.nextInt(CODE_COUNT) + MIN_CODE);
+        } while (codes.putIfAbsent(code, playerInfo) != null);
 
-        this.codeMap.put(code, playerInfo);
-        this.plugin.runTaskLater(
-                () -> this.codeMap.remove(code, playerInfo), 6000L
-        );
+        this.codeIndex.put(playerInfo.getUuid(), code);
 
         return code;
     }
@@ -169,15 +227,16 @@ public final class DiscordMap {
      * @param code The code to remove
      */
     public void removeCode(final short code) {
-        this.codeMap.remove(code);
+        this.codeCache.invalidate(code);
     }
 
     /**
      * @param code The code to validate
-     * @return The linked player if the code is valid, otherwise null
+     * @return The linked player if the code is valid and has not expired,
+     *         otherwise null
      */
     public @Nullable PlayerInfo validateCode(final short code) {
-        return this.codeMap.get(code);
+        return this.codeCache.getIfPresent(code);
     }
 
     /**
@@ -201,9 +260,13 @@ public final class DiscordMap {
      *
      * @param id The id of the linked player
      */
-    public void remove(final long id) {
-        this.map.remove(id);
-        this.saveFile();
+    public synchronized void remove(final long id) {
+        final Params params = this.map.remove(id);
+
+        if (params != null) {
+            this.uuidIndex.remove(params.getUuid(), id);
+            this.journal.remove(id);
+        }
     }
 
     /**
@@ -235,88 +298,32 @@ public final class DiscordMap {
     }
 
     /**
-     * Reloads "discord_links.json" file
-     */
-    public void reloadLinks() {
-        this.map.clear();
-
-        if (!this.file.exists()) {
-            this.createFile();
-        } else {
-            try {
-                final Type mapType = new TypeToken<Map<Long, Params>>() {}.getType();
-                final String json = Files.readString(this.file.toPath(), StandardCharsets.UTF_8);
-                final Map<Long, Params> jsonMap = GSON.fromJson(json, mapType);
-
-                if (jsonMap == null) {
-                    this.createBackupFile();
-                    this.reloadLinks();
-                    return;
-                }
-
-                jsonMap.forEach((id, params) -> {
-                    if (params != null && params.isValidate()) {
-                        this.map.put(id, params);
-                    } else {
-                        this.plugin.getLogger().severe("Failed to read the discord params : " + id.toString() + " in \"discord_links.json\"");
-                    }
-                });
-            } catch (final Exception ignored) {
-                this.createBackupFile();
-                this.reloadLinks();
-            }
-        }
-    }
-
-    /**
-     * Creates a new "discord_links.json" file
+     * Reloads "discord_links.json" file and replays its journal
      */
-    private void createFile() {
-        try {
-            if (
-                    this.file.getParentFile().mkdirs()
-                    && this.file.createNewFile()
-            ) {
-                this.saveFile();
-            }
-        } catch (final IOException e) {
-            this.plugin.getLogger().log(Level.SEVERE, "Failed to create a new \"discord_links.json\" file", e);
-        }
-    }
+    public synchronized void reloadLinks() {
+        final var loaded = new Object2ObjectOpenHashMap<Long, Params>();
+        final var loadedIndex = new Object2ObjectOpenHashMap<UUID, Long>();
 
-    /**
-     * Creates a backup file of the "discord_links.json" file
-     */
-    private void createBackupFile() {
-        final File backupFile = new File(this.file.getParent(), this.file.getName() + ".OLD");
-
-        try {
-            Files.move(this.file.toPath(), backupFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
-            this.saveFile();
-        } catch (final IOException e) {
-            this.plugin.getLogger().log(
-                    Level.SEVERE,
-                    "Failed to create \"discord_links.json.OLD\" backup file",
-                    e
-            );
-        }
+        this.journal.load().forEach((id, params) -> {
+            if (params != null && params.isValidate()) {
+                final Long previousId = loadedIndex.put(params.getUuid(), id);
 
-        this.plugin.getLogger().severe("Failed to read the \"discord_links.json\" file, creating a new file");
-    }
+                if (previousId != null) {
+                    loaded.remove(previousId);
+                }
 
-    /**
-     * Saves the links to "discord_links.json" file
-     */
-    private void saveFile() {
-        try (final var writer = new OutputStreamWriter(new FileOutputStream(this.file), StandardCharsets.UTF_8)) {
-            GSON.toJson(this.map, writer);
-        } catch (final IOException e) {
-            this.plugin.getLogger().log(
-                    Level.SEVERE,
-                    "Failed to save \"discord_links.json\" file",
-                    e
-            );
-        }
+                loaded.put(id, params);
+            } else {
+                this.plugin.getLogger().severe("Failed to read the discord params : " + id + " in \"discord_links.json\"");
+            }
+        });
+        this.journal.runLocked(() -> {
+            this.map.clear();
+            this.map.putAll(loaded);
+            this.uuidIndex.clear();
+            this.uuidIndex.putAll(loadedIndex);
+        });
+        this.journal.compact();
     }
 
     /**
@@ -0,0 +1,314 @@
+package com.minersstudios.whomine.discord;
+
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.entities.Role;
+import net.dv8tion.jda.api.events.guild.member.GuildMemberJoinEvent;
+import net.dv8tion.jda.api.events.guild.member.GuildMemberRemoveEvent;
+import net.dv8tion.jda.api.events.guild.member.GuildMemberRoleAddEvent;
+import net.dv8tion.jda.api.events.guild.member.GuildMemberRoleRemoveEvent;
+import net.dv8tion.jda.api.exceptions.ErrorResponseException;
+import net.dv8tion.jda.api.hooks.ListenerAdapter;
+import net.dv8tion.jda.api.requests.ErrorResponse;
+import org.bukkit.Bukkit;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache of the main guild membership and verification state of the Discord
+ * users, keyed by the user id.
+ * <br>
+ * The cache is filled with all members of the main guild when the bot is
+ * loaded, and is kept up to date by the member join, leave and role
+ * gateway events. Users who are not members of the main guild are cached
+ * too, so repeated checks of a non-member do not hit the REST API. Entries
+ * older than {@link #REFRESH_INTERVAL} milliseconds are still answered from
+ * memory, but are refreshed in the background. At most one REST request per
+ * user is in flight at a time.
+ *
+ * @see DiscordManager#isVerified(long)
+ */
+public final class DiscordMemberCache extends ListenerAdapter {
+    private final DiscordManager discordManager;
+    private final Map<Long, Entry> entries;
+    private final Map<Long, CompletableFuture<Optional<Member>>> pending;
+
+    /** The age in milliseconds after which an entry is refreshed in the background */
+    public static final long REFRESH_INTERVAL = 600_000L;
+
+    DiscordMemberCache(final @NotNull DiscordManager discordManager) {
+        this.discordManager = discordManager;
+        this.entries = new ConcurrentHashMap<>();
+        this.pending = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Loads all members of the guild into the cache in the background
+     *
+     * @param guild The main guild
+     */
+    void load(final @NotNull Guild guild) {
+        guild.loadMembers(this::put);
+    }
+
+    /**
+     * Clears the cache
+     */
+    void clear() {
+        this.entries.clear();
+        this.pending.clear();
+    }
+
+    /**
+     * @return The number of cached users
+     */
+    public int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * Checks if the user is a member of the main guild. The check is
+     * answered from memory if possible. Otherwise, it is answered by a REST
+     * request, unless it is called from the server thread, then the request
+     * is only started in the background and false is returned.
+     *
+     * @param userId The id of the user to check
+     * @return True if the user is a member of the main guild
+     */
+    public boolean isMember(final long userId) {
+        final Entry entry = this.getEntry(userId);
+        return entry != null && entry.isMember;
+    }
+
+    /**
+     * Checks if the user is a member of the main guild and has the member
+     * role. The check is answered from memory if possible. Otherwise, it is
+     * answered by a REST request, unless it is called from the server thread,
+     * then the request is only started in the background and false is
+     * returned.
+     *
+     * @param userId The id of the user to check
+     * @return True if the user is a member of the main guild and has the
+     *         member role
+     */
+    public boolean isVerified(final long userId) {
+        final Entry entry = this.getEntry(userId);
+        return entry != null && entry.isVerified;
+    }
+
+    /**
+     * @param userId The id of the user to check
+     * @return A future completed with true if the user is a member of the
+     *         main guild
+     */
+    public @NotNull CompletableFuture<Boolean> isMemberAsync(final long userId) {
+        final Entry entry = this.getCachedEntry(userId);
+        return entry != null
+                ? CompletableFuture.completedFuture(entry.isMember)
+                : this.refresh(userId).thenApply(Optional::isPresent);
+    }
+
+    /**
+     * @param userId The id of the user to check
+     * @return A future completed with true if the user is a member of the
+     *         main guild and has the member role
+     */
+    public @NotNull CompletableFuture<Boolean> isVerifiedAsync(final long userId) {
+        final Entry entry = this.getCachedEntry(userId);
+        return entry != null
+                ? CompletableFuture.completedFuture(entry.isVerified)
+                : this.refresh(userId).thenApply(
+                        member -> member.map(this::hasMemberRole).orElse(false)
+                );
+    }
+
+    /**
+     * @param userId The id of the user to retrieve the member of
+     * @return A future completed with an Optional containing the member, or
+     *         an empty Optional if the user is not a member of the main guild
+     *         or the member could not be retrieved
+     */
+    public @NotNull CompletableFuture<Optional<Member>> retrieveMember(final long userId) {
+        final Guild guild = this.discordManager.getMainGuild().orElse(null);
+
+        if (guild == null) {
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+
+        final Member member = guild.getMemberById(userId);
+
+        if (member != null) {
+            this.put(member);
+
+            return CompletableFuture.completedFuture(Optional.of(member));
+        }
+
+        final Entry entry = this.entries.get(userId);
+
+        return entry != null
+                && !entry.isMember
+                && !entry.isExpired()
+                ? CompletableFuture.completedFuture(Optional.empty())
+                : this.refresh(userId);
+    }
+
+    @Override
+    public void onGuildMemberJoin(final @NotNull GuildMemberJoinEvent event) {
+        if (this.isMainGuild(event.getGuild())) {
+            this.put(event.getMember());
+        }
+    }
+
+    @Override
+    public void onGuildMemberRemove(final @NotNull GuildMemberRemoveEvent event) {
+        if (this.isMainGuild(event.getGuild())) {
+            this.entries.put(event.getUser().getIdLong(), Entry.notMember());
+        }
+    }
+
+    @Override
+    public void onGuildMemberRoleAdd(final @NotNull GuildMemberRoleAddEvent event) {
+        if (this.isMainGuild(event.getGuild())) {
+            this.put(event.getMember());
+        }
+    }
+
+    @Override
+    public void onGuildMemberRoleRemove(final @NotNull GuildMemberRoleRemoveEvent event) {
+        if (this.isMainGuild(event.getGuild())) {
+            this.put(event.getMember());
+        }
+    }
+
+    private @Nullable Entry getEntry(final long userId) {
+        final Entry entry = this.getCachedEntry(userId);
+
+        if (entry != null) {
+            return entry;
+        }
+
+        final var future = this.refresh(userId);
+
+        if (
+                !future.isDone()
+                && Bukkit.isPrimaryThread()
+        ) {
+            return null;
+        }
+
+        future.join();
+
+        return this.entries.get(userId);
+    }
+
+    /**
+     * @return The cached entry of the user, or null if there is none. An
+     *         expired entry is returned too, but a background refresh is
+     *         started for it.
+     */
+    private @Nullable Entry getCachedEntry(final long userId) {
+        final Entry entry = this.entries.get(userId);
+
+        if (entry != null) {
+            if (entry.isExpired()) {
+                this.refresh(userId);
+            }
+
+            return entry;
+        }
+
+        final Member member = this.discordManager.getMember(userId).orElse(null);
+
+        return member == null ? null : this.put(member);
+    }
+
+    private @NotNull CompletableFuture<Optional<Member>> refresh(final long userId) {
+        final Guild guild = this.discordManager.getMainGuild().orElse(null);
+
+        if (guild == null) {
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+
+        final var future = new CompletableFuture<Optional<Member>>();
+        final var previous = this.pending.putIfAbsent(userId, future);
+
+        if (previous != null) {
+            return previous;
+        }
+
+        guild.retrieveMemberById(userId).submit()
+        .handle((member, throwable) -> {
+            if (throwable == null) {
+                this.put(member);
+
+                return Optional.of(member);
+            }
+
+            final Throwable cause =
+                    throwable instanceof CompletionException
+                    && throwable.getCause() != null
+                    ? throwable.getCause()
+                    : throwable;
+
+            if (
+                    cause instanceof final ErrorResponseException e
+                    && (e.getErrorResponse() == ErrorResponse.UNKNOWN_MEMBER
+                    || e.getErrorResponse() == ErrorResponse.UNKNOWN_USER)
+            ) {
+                this.entries.put(userId, Entry.notMember());
+            }
+
+            return Optional.<Member>empty();
+        })
+        .whenComplete((member, throwable) -> {
+            this.pending.remove(userId, future);
+            future.complete(member == null ? Optional.empty() : member);
+        });
+
+        return future;
+    }
+
+    private @NotNull Entry put(final @NotNull Member member) {
+        final Entry entry = Entry.member(this.hasMemberRole(member));
+
+        this.entries.put(member.getIdLong(), entry);
+
+        return entry;
+    }
+
+    private boolean hasMemberRole(final @NotNull Member member) {
+        final Role memberRole = this.discordManager.getMemberRole().orElse(null);
+        return memberRole != null && member.getRoles().contains(memberRole);
+    }
+
+    private boolean isMainGuild(final @NotNull Guild guild) {
+        return this.discordManager.getMainGuild()
+                .map(mainGuild -> mainGuild.getIdLong() == guild.getIdLong())
+                .orElse(false);
+    }
+
+    private record Entry(
+            boolean isMember,
+            boolean isVerified,
+            long time
+    ) {
+
+        static @NotNull Entry member(final boolean isVerified) {
+            return new Entry(true, isVerified, System.currentTimeMillis());
+        }
+
+        static @NotNull Entry notMember() {
+            return new Entry(false, false, System.currentTimeMillis());
+        }
+
+        boolean isExpired() {
+            return System.currentTimeMillis() - this.time > REFRESH_INTERVAL;
+        }
+    }
+}
@@ -0,0 +1,378 @@
+package com.minersstudios.whomine.discord;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.minersstudios.whomine.chat.ChatType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Coalescing outbound relay of the chat messages to the Discord channels.
+ * <br>
+ * Every chat type has its own queue of pending messages. A new line is
+ * appended to the last pending message of its channel, if the merged
+ * message still fits into {@link #MAX_MESSAGE_LENGTH} characters, so a burst
+ * of chat lines is sent as a few long messages instead of one message per
+ * line. The first line of a burst schedules a flush after
+ * {@link #FLUSH_DELAY} milliseconds.
+ * <br>
+ * Only one message per channel is in flight at a time, the next one is sent
+ * when the previous send completes. Since JDA completes a send only after
+ * waiting out the rate limit of the channel, the relay never floods the JDA
+ * requester, and the lines sent in the meantime are merged instead. Every
+ * queue holds at most {@link #MAX_PENDING_MESSAGES} messages, when it is
+ * full, the oldest pending message is dropped and a warning is logged.
+ * <br>
+ * The messages are sent through the {@link Sink sinks} of the channels, so
+ * the relay does not depend on the Discord gateway itself.
+ *
+ * @see DiscordManager#sendMessage(ChatType, CharSequence)
+ */
+public final class DiscordRelay {
+    private final Logger logger;
+    private final ScheduledExecutorService executor;
+    private final Map<ChatType, ChannelQueue> queues;
+    private final LongAdder sentCount;
+    private final LongAdder mergedCount;
+    private final LongAdder droppedCount;
+    private volatile boolean isShutdown;
+
+    /** The maximum length of a Discord message */
+    public static final int MAX_MESSAGE_LENGTH = 2000;
+    /** The maximum number of pending messages per channel */
+    public static final int MAX_PENDING_MESSAGES = 32;
+    /** The delay in milliseconds after the first pending line before it is sent */
+    public static final long FLUSH_DELAY = 500L;
+
+    /**
+     * Creates a new relay with its own scheduler thread
+     *
+     * @param logger The logger to log the failed sends and the dropped
+     *               messages to
+     */
+    public DiscordRelay(final @NotNull Logger logger) {
+        this(
+                logger,
+                Executors.newSingleThreadScheduledExecutor(
+                        new ThreadFactoryBuilder()
+                        .setNameFormat("WhoMine Discord Relay")
+                        .setDaemon(true)
+                        .build()
+                )
+        );
+    }
+
+    /**
+     * Creates a new relay with the given scheduler
+     *
+     * @param logger   The logger to log the failed sends and the dropped
+     *                 messages to
+     * @param executor The scheduler of the flushes
+     */
+    public DiscordRelay(
+            final @NotNull Logger logger,
+            final @NotNull ScheduledExecutorService executor
+    ) {
+        this.logger = logger;
+        this.executor = executor;
+        this.queues = new EnumMap<>(ChatType.class);
+        this.sentCount = new LongAdder();
+        this.mergedCount = new LongAdder();
+        this.droppedCount = new LongAdder();
+
+        for (final var chatType : ChatType.values()) {
+            this.queues.put(chatType, new ChannelQueue(chatType));
+        }
+    }
+
+    /**
+     * Sets the sink of the channel of the given chat type. The pending
+     * messages of the channel are discarded, if the sink is null.
+     *
+     * @param chatType The chat type
+     * @param sink     The sink to send the messages to, or null if the
+     *                 channel is not available
+     */
+    public void setSink(
+            final @NotNull ChatType chatType,
+            final @Nullable Sink sink
+    ) {
+        this.queues.get(chatType).setSink(sink);
+    }
+
+    /**
+     * Queues the line to be sent to the channel of the given chat type.
+     * Lines longer than {@link #MAX_MESSAGE_LENGTH} are split. Does nothing
+     * if the channel has no sink.
+     * <br>
+     * After the {@link #shutdown()}, the line is sent immediately.
+     *
+     * @param chatType The chat type
+     * @param line     The line to send
+     */
+    public void enqueue(
+            final @NotNull ChatType chatType,
+            final @NotNull CharSequence line
+    ) {
+        final ChannelQueue queue = this.queues.get(chatType);
+
+        for (int start = 0; start < line.length(); start += MAX_MESSAGE_LENGTH) {
+            queue.add(line.subSequence(start, Math.min(line.length(), start + MAX_MESSAGE_LENGTH)));
+        }
+
+        if (this.isShutdown) {
+            queue.drain();
+        }
+    }
+
+    /**
+     * @param chatType The chat type
+     * @return The number of pending messages of the channel of the given
+     *         chat type, not counting the message in flight
+     */
+    public int getQueueDepth(final @NotNull ChatType chatType) {
+        return this.queues.get(chatType).size();
+    }
+
+    /**
+     * @return The number of pending messages of all channels, not counting
+     *         the messages in flight
+     */
+    public int getQueueDepth() {
+        int depth = 0;
+
+        for (final var queue : this.queues.values()) {
+            depth += queue.size();
+        }
+
+        return depth;
+    }
+
+    /**
+     * @return The number of messages sent since the relay was created
+     */
+    public long getSentCount() {
+        return this.sentCount.sum();
+    }
+
+    /**
+     * @return The number of lines that were merged into a previous pending
+     *         message of the same channel
+     */
+    public long getMergedCount() {
+        return this.mergedCount.sum();
+    }
+
+    /**
+     * @return The number of lines that were dropped, because the queue of
+     *         their channel was full
+     */
+    public long getDroppedCount() {
+        return this.droppedCount.sum();
+    }
+
+    /**
+     * Stops the scheduler thread and sends all pending messages immediately.
+     * Lines queued after this call are sent immediately.
+     */
+    public void shutdown() {
+        this.isShutdown = true;
+
+        this.executor.shutdownNow();
+
+        for (final var queue : this.queues.values()) {
+            queue.drain();
+        }
+    }
+
+    /**
+     * Destination of the relayed messages, for example a Discord text channel
+     */
+    @FunctionalInterface
+    public interface Sink {
+
+        /**
+         * Sends the message
+         *
+         * @param message The message to send, not longer than
+         *                {@link #MAX_MESSAGE_LENGTH} characters
+         * @return A future completed when the message has been sent
+         */
+        @NotNull CompletableFuture<?> send(final @NotNull String message);
+    }
+
+    private final class ChannelQueue {
+        private final ChatType chatType;
+        private final Deque<Batch> batches;
+        private Sink sink;
+        private boolean isScheduled;
+        private boolean isInFlight;
+
+        ChannelQueue(final @NotNull ChatType chatType) {
+            this.chatType = chatType;
+            this.batches = new ArrayDeque<>();
+        }
+
+        synchronized void setSink(final @Nullable Sink sink) {
+            this.sink = sink;
+
+            if (sink == null) {
+                this.batches.clear();
+            }
+        }
+
+        synchronized int size() {
+            return this.batches.size();
+        }
+
+        synchronized void add(final @NotNull CharSequence line) {
+            if (this.sink == null) {
+                return;
+            }
+
+            final Batch last = this.batches.peekLast();
+
+            if (
+                    last != null
+                    && last.builder.length() + 1 + line.length() <= MAX_MESSAGE_LENGTH
+            ) {
+                last.builder.append('\n').append(line);
+                ++last.lines;
+
+                DiscordRelay.this.mergedCount.increment();
+            } else {
+                if (this.batches.size() == MAX_PENDING_MESSAGES) {
+                    final int lines = this.batches.pollFirst().lines;
+
+                    DiscordRelay.this.droppedCount.add(lines);
+                    DiscordRelay.this.logger.warning(
+                            "Discord " + this.chatType.name().toLowerCase() + " channel queue is full, "
+                            + lines + " lines have been dropped"
+                    );
+                }
+
+                this.batches.addLast(new Batch(line));
+            }
+
+            this.schedule(FLUSH_DELAY);
+        }
+
+        void drain() {
+            final Sink sink;
+            final Batch[] batches;
+
+            synchronized (this) {
+                sink = this.sink;
+                batches = this.batches.toArray(new Batch[0]);
+
+                this.batches.clear();
+            }
+
+            if (sink != null) {
+                for (final var batch : batches) {
+                    this.send(sink, batch.builder.toString());
+                }
+            }
+        }
+
+        private void flush() {
+            final Sink sink;
+            final Batch batch;
+
+            synchronized (this) {
+                this.isScheduled = false;
+
+                if (
+                        this.isInFlight
+                        || this.sink == null
+                        || this.batches.isEmpty()
+                ) {
+                    return;
+                }
+
+                sink = this.sink;
+                batch = this.batches.pollFirst();
+                this.isInFlight = true;
+            }
+
+            this.send(sink, batch.builder.toString())
+            .whenComplete((result, throwable) -> {
+                synchronized (this) {
+                    this.isInFlight = false;
+
+                    this.schedule(0L);
+                }
+            });
+        }
+
+        private @NotNull CompletableFuture<?> send(
+                final @NotNull Sink sink,
+                final @NotNull String message
+        ) {
+            CompletableFuture<?> future;
+
+            try {
+                future = sink.send(message);
+            } catch (final Throwable e) {
+                future = CompletableFuture.failedFuture(e);
+            }
+
+            return future.whenComplete((result, throwable) -> {
+                if (throwable == null) {
+                    DiscordRelay.this.sentCount.increment();
+                } else {
+                    DiscordRelay.this.logger.log(
+                            Level.WARNING,
+                            "Failed to send a message to the Discord " + this.chatType.name().toLowerCase() + " channel",
+                            throwable
+                    );
+                }
+            });
+        }
+
+        /**
+         * Must be called while holding the lock of this queue
+         */
+        private void schedule(final long delay) {
+            if (
+                    this.isScheduled
+                    || this.isInFlight
+                    || this.batches.isEmpty()
+                    || DiscordRelay.this.isShutdown
+            ) {
+                return;
+            }
+
+            try {
+                DiscordRelay.this.executor.schedule(this::flush, delay, TimeUnit.MILLISECONDS);
+
+                this.isScheduled = true;
+            } catch (final RejectedExecutionException ignored) {
+                // The relay is being shut down, the pending messages
+                // will be drained by the shutdown
+            }
+        }
+    }
+
+    private static final class Batch {
+        final StringBuilder builder;
+        int lines;
+
+        Batch(final @NotNull CharSequence line) {
+            this.builder = new StringBuilder(line);
+            this.lines = 1;
+        }
+    }
+}
@@ -14,10 +14,15 @@ import com.minersstudios.whomine.listener.impl.event.inventory.*;
 import com.minersstudios.whomine.listener.impl.event.mechanic.*;
 import com.minersstudios.whomine.listener.impl.event.player.*;
 import com.minersstudios.whomine.listener.impl.event.server.ServerCommandListener;
+import com.minersstudios.whomine.listener.impl.event.world.EntitiesLoadListener;
+import com.minersstudios.whomine.listener.impl.event.world.EntitiesUnloadListener;
 import com.minersstudios.whomine.listener.impl.packet.player.PlayerActionListener;
 import com.minersstudios.whomine.listener.impl.packet.player.PlayerUpdateSignListener;
 import com.minersstudios.whomine.listener.impl.packet.player.SwingArmListener;
+import com.minersstudios.whomine.packet.PacketContainer;
 import com.minersstudios.whomine.packet.PacketEvent;
+import com.minersstudios.whomine.packet.PacketExecutor;
+import com.minersstudios.whomine.packet.PacketMetrics;
 import com.minersstudios.whomine.packet.PacketType;
 import com.minersstudios.whomine.api.status.StatusWatcher;
 import it.unimi.dsi.fastutil.objects.ObjectArrayList;
@@ -40,6 +45,14 @@ public final class ListenerManager {
     private final List<EventListener> eventList;
     private final Map<PacketType, List<PacketListener>> receivePacketMap;
     private final Map<PacketType, List<PacketListener>> sendPacketMap;
+    private volatile PacketListener[][] receiveDispatchTable;
+    private volatile PacketListener[][] sendDispatchTable;
+    private volatile PacketListener[][] receiveOffLoopTable;
+    private volatile PacketListener[][] sendOffLoopTable;
+    private final PacketMetrics packetMetrics;
+    private final PacketExecutor packetExecutor;
+
+    private static final PacketListener[] EMPTY_LISTENERS = new PacketListener[0];
 
     /**
      * Constructs a new listener manager
@@ -52,6 +65,32 @@ public final class ListenerManager {
         this.eventList = new ObjectArrayList<>();
         this.receivePacketMap = new EnumMap<>(PacketType.class);
         this.sendPacketMap = new EnumMap<>(PacketType.class);
+        this.receiveDispatchTable = createDispatchTable(this.receivePacketMap, false);
+        this.sendDispatchTable = createDispatchTable(this.sendPacketMap, false);
+        this.receiveOffLoopTable = createDispatchTable(this.receivePacketMap, true);
+        this.sendOffLoopTable = createDispatchTable(this.sendPacketMap, true);
+        this.packetMetrics = new PacketMetrics();
+        this.packetExecutor = new PacketExecutor();
+    }
+
+    /**
+     * Returns the packet metrics, which are recorded only while they are
+     * {@link PacketMetrics#isEnabled() enabled}
+     *
+     * @return The packet metrics
+     */
+    public @NotNull PacketMetrics getPacketMetrics() {
+        return this.packetMetrics;
+    }
+
+    /**
+     * Returns the packet executor, which handles the
+     * {@link PacketListener#isOffLoop() off-loop packet listeners}
+     *
+     * @return The packet executor
+     */
+    public @NotNull PacketExecutor getPacketExecutor() {
+        return this.packetExecutor;
     }
 
     /**
@@ -239,38 +278,106 @@ public final class ListenerManager {
                 );
     }
 
+    /**
+     * Returns whether there are any packet listeners registered for the
+     * specified received packet type.
+     * <br>
+     * This method is lock-free and allocation-free, so it can be used to skip
+     * the packet event creation for the packets without listeners.
+     *
+     * @param packetType Packet type to be checked
+     * @return True if there are any packet listeners registered for the
+     *         specified received packet type
+     */
+    public boolean hasReceiveListeners(final @NotNull PacketType packetType) {
+        final int ordinal = packetType.ordinal();
+
+        return this.receiveDispatchTable[ordinal].length != 0
+                || this.receiveOffLoopTable[ordinal].length != 0;
+    }
+
+    /**
+     * Returns whether there are any packet listeners registered for the
+     * specified sent packet type.
+     * <br>
+     * This method is lock-free and allocation-free, so it can be used to skip
+     * the packet event creation for the packets without listeners.
+     *
+     * @param packetType Packet type to be checked
+     * @return True if there are any packet listeners registered for the
+     *         specified sent packet type
+     */
+    public boolean hasSendListeners(final @NotNull PacketType packetType) {
+        final int ordinal = packetType.ordinal();
+
+        return this.sendDispatchTable[ordinal].length != 0
+                || this.sendOffLoopTable[ordinal].length != 0;
+    }
+
     /**
      * Calls a packet event to all registered packet listeners with the
-     * whitelist containing the packet type of the event
+     * whitelist containing the packet type of the event.
+     * <br>
+     * If the event is not cancelled by the event loop listeners, a copy of
+     * the event is passed to the {@link PacketListener#isOffLoop() off-loop
+     * listeners} through the {@link PacketExecutor}.
      *
      * @param event Packet event to be called
      * @see PacketEvent
      */
     public void callPacketReceiveEvent(final @NotNull PacketEvent event) {
-        final PacketType packetType = event.getPacketContainer().getType();
+        final int ordinal = event.getPacketContainer().getType().ordinal();
+        final var listeners = this.receiveDispatchTable[ordinal];
 
-        if (this.containsPacketType(packetType)) {
-            for (final var listener : this.packetListeners(packetType)) {
+        if (this.packetMetrics.isEnabled()) {
+            this.callTimed(event, listeners, true);
+        } else {
+            for (final var listener : listeners) {
                 listener.onPacketReceive(event);
             }
         }
+
+        final var offLoopListeners = this.receiveOffLoopTable[ordinal];
+
+        if (
+                offLoopListeners.length != 0
+                && !event.isCancelled()
+        ) {
+            this.callOffLoop(event, offLoopListeners, true);
+        }
     }
 
     /**
      * Calls a packet event to all registered packet listeners with the
-     * whitelist containing the packet type of the event
+     * whitelist containing the packet type of the event.
+     * <br>
+     * If the event is not cancelled by the event loop listeners, a copy of
+     * the event is passed to the {@link PacketListener#isOffLoop() off-loop
+     * listeners} through the {@link PacketExecutor}.
      *
      * @param event Packet event to be called
      * @see PacketEvent
      */
     public void callPacketSendEvent(final @NotNull PacketEvent event) {
-        final PacketType packetType = event.getPacketContainer().getType();
+        final int ordinal = event.getPacketContainer().getType().ordinal();
+        final var listeners = this.sendDispatchTable[ordinal];
 
-        if (this.containsPacketType(packetType)) {
-            for (final var listener : this.packetListeners(packetType)) {
+        if (this.packetMetrics.isEnabled()) {
+            this.callTimed(event, listeners, false);
+        } else {
+            for (final var listener : listeners) {
                 listener.onPacketSend(event);
             }
         }
+
+        final var offLoopListeners = this.sendOffLoopTable[ordinal];
+
+        if (
+                offLoopListeners.length != 0
+                && !event.isCancelled()
+        ) {
+            this.callOffLoop(event, offLoopListeners, false);
+        }
     }
 
     /**
@@ -350,10 +457,16 @@ public final class ListenerManager {
         new PlayerSpawnLocationListener(this.plugin).register();
         new PlayerStopSpectatingEntityListener(this.plugin).register();
         new PlayerTeleportListener(this.plugin).register();
+        new PlayerTrackEntityListener(this.plugin).register();
+        new PlayerUntrackEntityListener(this.plugin).register();
 
         // Server listeners
         new ServerCommandListener(this.plugin).register();
 
+        // World listeners
+        new EntitiesLoadListener(this.plugin).register();
+        new EntitiesUnloadListener(this.plugin).register();
+
         // Mechanic listeners
         new BanSwordMechanic(this.plugin).register();
         new CardBoxMechanic(this.plugin).register();
@@ -425,6 +538,11 @@ public final class ListenerManager {
                     .add(listener);
                 }
             }
+
+            synchronized (this.receivePacketMap) {
+                this.receiveDispatchTable = createDispatchTable(this.receivePacketMap, false);
+                this.receiveOffLoopTable = createDispatchTable(this.receivePacketMap, true);
+            }
         }
 
         if (sendSize != 0) {
@@ -435,6 +553,136 @@ public final class ListenerManager {
                     .add(listener);
                 }
             }
+
+            synchronized (this.sendPacketMap) {
+                this.sendDispatchTable = createDispatchTable(this.sendPacketMap, false);
+                this.sendOffLoopTable = createDispatchTable(this.sendPacketMap, true);
+            }
         }
     }
+
+    /**
+     * Calls the packet event to the given listeners, recording the time spent
+     * in each listener and in the whole dispatch into the packet metrics
+     *
+     * @param event     Packet event to be called
+     * @param listeners Listeners to be called
+     * @param isReceive True if the event is a receive event
+     */
+    private void callTimed(
+            final @NotNull PacketEvent event,
+            final PacketListener @NotNull [] listeners,
+            final boolean isReceive
+    ) {
+        final PacketType packetType = event.getPacketContainer().getType();
+        final long start = System.nanoTime();
+        long listenerStart = start;
+
+        for (final var listener : listeners) {
+            callListener(listener, event, isReceive);
+
+            final long listenerEnd = System.nanoTime();
+
+            this.packetMetrics.recordListener(listener, listenerEnd - listenerStart, event.isCancelled());
+            listenerStart = listenerEnd;
+        }
+
+        this.packetMetrics.recordPacket(packetType, listenerStart - start, event.isCancelled());
+    }
+
+    /**
+     * Passes a detached copy of the packet event to the given off-loop
+     * listeners on the packet executor stripe of the event connection
+     *
+     * @param event     Packet event to be copied
+     * @param listeners Off-loop listeners to be called
+     * @param isReceive True if the event is a receive event
+     */
+    private void callOffLoop(
+            final @NotNull PacketEvent event,
+            final PacketListener @NotNull [] listeners,
+            final boolean isReceive
+    ) {
+        final PacketContainer container = event.getPacketContainer();
+        final PacketEvent copy = new PacketEvent(
+                new PacketContainer(container.getPacket(), container.getType()),
+                event.getConnection()
+        );
+
+        this.packetExecutor.execute(
+                copy.getConnection(),
+                () -> {
+                    final PacketMetrics metrics = this.packetMetrics;
+
+                    for (final var listener : listeners) {
+                        if (!metrics.isEnabled()) {
+                            callListener(listener, copy, isReceive);
+                            continue;
+                        }
+
+                        final long start = System.nanoTime();
+
+                        callListener(listener, copy, isReceive);
+                        metrics.recordListener(listener, System.nanoTime() - start, copy.isCancelled());
+                    }
+                }
+        );
+    }
+
+    private static void callListener(
+            final @NotNull PacketListener listener,
+            final @NotNull PacketEvent event,
+            final boolean isReceive
+    ) {
+        if (isReceive) {
+            listener.onPacketReceive(event);
+        } else {
+            listener.onPacketSend(event);
+        }
+    }
+
+    /**
+     * Creates a dispatch table indexed by the {@link PacketType#ordinal()
+     * packet type ordinal}, containing the listeners of each packet type
+     *
+     * @param packetMap Packet type to listeners map
+     * @param offLoop   True to include only the off-loop listeners, false to
+     *                  include only the event loop listeners
+     * @return A new dispatch table
+     * @see PacketListener#isOffLoop()
+     */
+    private static PacketListener @NotNull [] @NotNull [] createDispatchTable(
+            final @NotNull Map<PacketType, List<PacketListener>> packetMap,
+            final boolean offLoop
+    ) {
+        final PacketType[] packetTypes = PacketType.values();
+        final var table = new PacketListener[packetTypes.length][];
+
+        for (final var packetType : packetTypes) {
+            final var list = packetMap.get(packetType);
+
+            if (
+                    list == null
+                    || list.isEmpty()
+            ) {
+                table[packetType.ordinal()] = EMPTY_LISTENERS;
+                continue;
+            }
+
+            final var filtered = new ObjectArrayList<PacketListener>(list.size());
+
+            for (final var listener : list) {
+                if (listener.isOffLoop() == offLoop) {
+                    filtered.add(listener);
+                }
+            }
+
+            table[packetType.ordinal()] =
+                    filtered.isEmpty()
+                    ? EMPTY_LISTENERS
+                    : filtered.toArray(EMPTY_LISTENERS);
+        }
+
+        return table;
+    }
 }
@@ -3,6 +3,7 @@ package com.minersstudios.whomine.listener.api;
 import com.google.common.base.Joiner;
 import com.minersstudios.whomine.WhoMine;
 import com.minersstudios.whomine.packet.PacketEvent;
+import com.minersstudios.whomine.packet.PacketExecutor;
 import com.minersstudios.whomine.packet.PacketType;
 import com.minersstudios.whomine.plugin.AbstractPluginComponent;
 import org.jetbrains.annotations.NotNull;
@@ -57,12 +58,35 @@ public abstract class PacketListener extends AbstractPluginComponent {
         return Collections.unmodifiableSet(this.sendWhiteList);
     }
 
+    /**
+     * Returns whether this listener is handled off the Netty event loop.
+     * <br>
+     * Off-loop listeners are called on the {@link PacketExecutor} stripe of
+     * the connection, after all event loop listeners have been called and
+     * only if the packet has not been cancelled by them. The packets of one
+     * connection are still handled in order, but the packets of different
+     * connections no longer contend with each other and do not block the
+     * network I/O.
+     * <br>
+     * Off-loop listeners receive a detached copy of the event, which may be
+     * retained, but the packet has already been passed down the pipeline, so
+     * they can only observe the packet and cannot cancel or replace it.
+     *
+     * @return True if this listener is handled off the Netty event loop,
+     *         false by default
+     * @see PacketExecutor
+     */
+    public boolean isOffLoop() {
+        return false;
+    }
+
     @Override
     public @NotNull String toString() {
         return this.getClass().getSimpleName() +
                 "plugin=" + this.getPlugin() +
                 ", sendWhiteList=[" + Joiner.on(", ").join(this.sendWhiteList) + ']' +
                 ", receiveWhiteList=[" + Joiner.on(", ").join(this.receiveWhiteList) + ']' +
+                ", offLoop=" + this.isOffLoop() +
                 '}';
     }
 
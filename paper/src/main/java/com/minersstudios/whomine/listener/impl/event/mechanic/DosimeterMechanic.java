@@ -1,11 +1,10 @@
 package com.minersstudios.whomine.listener.impl.event.mechanic;
 
 import com.minersstudios.whomine.WhoMine;
-import com.minersstudios.whomine.custom.anomaly.Anomaly;
+import com.minersstudios.whomine.custom.anomaly.AnomalyIndex;
 import com.minersstudios.whomine.custom.item.CustomItem;
 import com.minersstudios.whomine.custom.item.registry.Dosimeter;
 import com.minersstudios.whomine.listener.api.EventListener;
-import it.unimi.dsi.fastutil.objects.Object2DoubleOpenHashMap;
 import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 import org.bukkit.Location;
 import org.bukkit.entity.Player;
@@ -197,12 +196,12 @@ public final class DosimeterMechanic extends EventListener {
     }
 
     public static class DosimeterTask {
-        private final WhoMine plugin;
         private final Map<Player, EquipmentSlot> players;
+        private final AnomalyIndex anomalyIndex;
 
         public DosimeterTask(final @NotNull WhoMine plugin) {
-            this.plugin = plugin;
             this.players = plugin.getCache().getDosimeterPlayers();
+            this.anomalyIndex = plugin.getCache().getAnomalyIndex();
         }
 
         public void run() {
@@ -224,17 +223,8 @@ public final class DosimeterMechanic extends EventListener {
                     copy.setItem(itemStack);
 
                     if (copy.isEnabled()) {
-                        final var radiiPlayerInside = new Object2DoubleOpenHashMap<Anomaly>();
-
-                        for (final var anomaly : this.plugin.getCache().getAnomalies().values()) {
-                            final double radiusInside = anomaly.getBoundingBox().getRadiusInside(player);
-
-                            if (radiusInside != -1.0d) {
-                                radiiPlayerInside.put(anomaly, radiusInside);
-                            }
-                        }
-
-                        final var anomalyEntry = getEntryWithMinValue(radiiPlayerInside);
+                        final Location location = this.anomalyIndex.getLocation(player);
+                        final var anomalyEntry = this.anomalyIndex.getInnermost(location);
                         final List<Double> radii =
                                 anomalyEntry == null
                                 ? Collections.emptyList()
@@ -242,13 +232,13 @@ public final class DosimeterMechanic extends EventListener {
                         final Double radius =
                                 anomalyEntry == null
                                 ? null
-                                : anomalyEntry.getValue();
+                                : anomalyEntry.getDoubleValue();
 
                         copy.setItem(itemStack);
                         copy.setScreenTypeByRadius(radii, radius);
                         player.sendActionBar(
                                 text("Уровень радиации : ")
-                                .append(text(radiusToLevel(radii, radius, player.getLocation())))
+                                .append(text(radiusToLevel(radii, radius, location)))
                                 .append(text(" мк3в/ч"))
                         );
 
@@ -276,21 +266,5 @@ public final class DosimeterMechanic extends EventListener {
                     + Math.min(afterComma, 0.9d)
                     + String.valueOf(Math.min(Math.round(Math.random() * 10.0d), 9));
         }
-
-        private static @Nullable Map.Entry<Anomaly, Double> getEntryWithMinValue(final @NotNull Map<Anomaly, Double> map) {
-            Map.Entry<Anomaly, Double> minEntry = null;
-            double minValue = Double.POSITIVE_INFINITY;
-
-            for (final var entry : map.entrySet()) {
-                final double value = entry.getValue();
-
-                if (value < minValue) {
-                    minValue = value;
-                    minEntry = entry;
-                }
-            }
-
-            return minEntry;
-        }
     }
 }
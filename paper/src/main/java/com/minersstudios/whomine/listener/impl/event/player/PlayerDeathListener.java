@@ -22,7 +22,7 @@ public final class PlayerDeathListener extends EventListener {
         final PlayerInfo playerInfo = PlayerInfo.fromOnlinePlayer(this.getPlugin(), player);
         final Cache cache = this.getPlugin().getCache();
 
-        cache.getDiggingMap().removeAll(player);
+        cache.getDiggingMap().remove(player);
         cache.getStepMap().put(player, 0.0d);
         event.deathMessage(null);
         playerInfo.unsetSitting();
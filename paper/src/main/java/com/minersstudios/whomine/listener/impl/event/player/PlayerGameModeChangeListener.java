@@ -14,6 +14,6 @@ public final class PlayerGameModeChangeListener extends EventListener {
 
     @EventHandler
     public void onPlayerGameModeChange(final @NotNull PlayerGameModeChangeEvent event) {
-        this.getPlugin().getCache().getDiggingMap().removeAll(event.getPlayer());
+        this.getPlugin().getCache().getDiggingMap().remove(event.getPlayer());
     }
 }
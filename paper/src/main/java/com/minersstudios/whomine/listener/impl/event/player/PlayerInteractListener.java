@@ -660,32 +660,22 @@ public final class PlayerInteractListener extends EventListener {
     ) {
         final PluginManager pluginManager = player.getServer().getPluginManager();
 
-        for (
-                final var interaction :
-                MSDecorUtils.getNearbyInteractions(
-                        MSPosition.of(block.getLocation().toCenterLocation())
-                )
-        ) {
-            CustomDecor.fromInteraction(interaction)
-                    .ifPresent(
-                            customDecor -> {
-                                final CustomDecorClickEvent clickEvent = new CustomDecorClickEvent(
-                                        customDecor,
-                                        player,
-                                        hand,
-                                        interactedPosition,
-                                        interaction,
-                                        clickType
-                                );
-
-                                pluginManager.callEvent(clickEvent);
-
-                                if (!clickEvent.isCancelled()) {
-                                    customDecor.getData().doClickAction(plugin, clickEvent);
-                                    doneForMainHand(player);
-                                }
-                            }
-                    );
+        for (final var customDecor : CustomDecor.allFromBlock(block)) {
+            final CustomDecorClickEvent clickEvent = new CustomDecorClickEvent(
+                    customDecor,
+                    player,
+                    hand,
+                    interactedPosition,
+                    customDecor.getInteraction(block),
+                    clickType
+            );
+
+            pluginManager.callEvent(clickEvent);
+
+            if (!clickEvent.isCancelled()) {
+                customDecor.getData().doClickAction(plugin, clickEvent);
+                doneForMainHand(player);
+            }
         }
     }
 }
@@ -30,6 +30,7 @@ public final class PlayerJoinListener extends EventListener {
         );
 
         event.joinMessage(null);
+        plugin.getCache().getPlayerNameIndex().put(player);
 
         if (player.isDead()) {
             this.getPlugin().runTaskLater(() -> {
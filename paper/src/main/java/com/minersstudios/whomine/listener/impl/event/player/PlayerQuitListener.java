@@ -20,7 +20,7 @@ public final class PlayerQuitListener extends EventListener {
         final Player player = event.getPlayer();
         final Cache cache = this.getPlugin().getCache();
 
-        cache.getDiggingMap().removeAll(player);
+        cache.getDiggingMap().remove(player);
         cache.getStepMap().remove(player);
 
         event.quitMessage(null);
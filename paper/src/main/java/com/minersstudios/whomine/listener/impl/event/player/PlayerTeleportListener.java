@@ -21,7 +21,7 @@ public final class PlayerTeleportListener extends EventListener {
         final Cache cache = this.getPlugin().getCache();
         final PlayerInfo playerInfo = PlayerInfo.fromOnlinePlayer(this.getPlugin(), player);
 
-        cache.getDiggingMap().removeAll(player);
+        cache.getDiggingMap().remove(player);
         cache.getStepMap().put(player, 0.0d);
 
         if (playerInfo.isSitting()) {
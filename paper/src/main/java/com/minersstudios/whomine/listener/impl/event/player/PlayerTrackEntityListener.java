@@ -0,0 +1,36 @@
+package com.minersstudios.whomine.listener.impl.event.player;
+
+import com.minersstudios.whomine.WhoMine;
+import com.minersstudios.whomine.listener.api.EventListener;
+import io.papermc.paper.event.player.PlayerTrackEntityEvent;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.jetbrains.annotations.NotNull;
+
+public final class PlayerTrackEntityListener extends EventListener {
+
+    public PlayerTrackEntityListener(final @NotNull WhoMine plugin) {
+        super(plugin);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerTrackEntity(final @NotNull PlayerTrackEntityEvent event) {
+        if (!(event.getEntity() instanceof final Player speaker)) {
+            return;
+        }
+
+        final Player viewer = event.getPlayer();
+        final WhoMine plugin = this.getPlugin();
+
+        // The speaker is sent to the viewer after the event
+        plugin.runTask(() -> {
+            if (
+                    viewer.isOnline()
+                    && speaker.isOnline()
+            ) {
+                plugin.getCache().getChatBuffer().showBubble(viewer, speaker);
+            }
+        });
+    }
+}
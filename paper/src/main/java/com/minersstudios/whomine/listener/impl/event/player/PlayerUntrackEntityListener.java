@@ -0,0 +1,23 @@
+package com.minersstudios.whomine.listener.impl.event.player;
+
+import com.minersstudios.whomine.WhoMine;
+import com.minersstudios.whomine.listener.api.EventListener;
+import io.papermc.paper.event.player.PlayerUntrackEntityEvent;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.jetbrains.annotations.NotNull;
+
+public final class PlayerUntrackEntityListener extends EventListener {
+
+    public PlayerUntrackEntityListener(final @NotNull WhoMine plugin) {
+        super(plugin);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerUntrackEntity(final @NotNull PlayerUntrackEntityEvent event) {
+        if (event.getEntity() instanceof final Player speaker) {
+            this.getPlugin().getCache().getChatBuffer().hideBubble(event.getPlayer(), speaker);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.minersstudios.whomine.listener.impl.event.world;
+
+import com.minersstudios.whomine.WhoMine;
+import com.minersstudios.whomine.listener.api.EventListener;
+import org.bukkit.Chunk;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.world.EntitiesUnloadEvent;
+import org.jetbrains.annotations.NotNull;
+
+public final class EntitiesUnloadListener extends EventListener {
+
+    public EntitiesUnloadListener(final @NotNull WhoMine plugin) {
+        super(plugin);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntitiesUnload(final @NotNull EntitiesUnloadEvent event) {
+        final Chunk chunk = event.getChunk();
+
+        this.getPlugin().getCache().getCustomDecorIndex()
+        .unloadChunk(chunk.getWorld(), chunk.getChunkKey());
+    }
+}
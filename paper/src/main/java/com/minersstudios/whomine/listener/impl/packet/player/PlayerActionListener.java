@@ -1,5 +1,6 @@
 package com.minersstudios.whomine.listener.impl.packet.player;
 
+import com.minersstudios.whomine.Cache;
 import com.minersstudios.whomine.WhoMine;
 import com.minersstudios.whomine.custom.block.CustomBlock;
 import com.minersstudios.whomine.custom.block.CustomBlockData;
@@ -10,11 +11,11 @@ import com.minersstudios.whomine.world.location.MSPosition;
 import com.minersstudios.whomine.packet.PacketContainer;
 import com.minersstudios.whomine.packet.PacketEvent;
 import com.minersstudios.whomine.packet.PacketType;
+import com.minersstudios.whomine.scheduler.task.DiggingTask;
 import com.minersstudios.whomine.world.sound.SoundGroup;
 import com.minersstudios.whomine.utility.BlockUtils;
 import com.minersstudios.whomine.utility.PlayerUtils;
 import com.minersstudios.whomine.utility.SharedConstants;
-import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
 import net.minecraft.core.BlockPos;
 import net.minecraft.network.protocol.game.ServerboundPlayerActionPacket;
 import net.minecraft.server.level.ServerPlayer;
@@ -44,11 +45,22 @@ public final class PlayerActionListener extends PacketListener {
     public PlayerActionListener(final @NotNull WhoMine plugin) {
         super(plugin, PacketType.PLAY_SERVER_PLAYER_ACTION);
 
-        this.handlerMap = new Object2ObjectOpenHashMap<>();
-        this.effectMap = new Object2ObjectOpenHashMap<>();
+        this.handlerMap = new ConcurrentHashMap<>();
+        this.effectMap = new ConcurrentHashMap<>();
         this.clickRequestMap = new ConcurrentHashMap<>();
     }
 
+    /**
+     * The dig action packets are handled off the Netty event loop. The
+     * packets of one player are still handled in order on the player's
+     * executor stripe, so the handler of a player is never accessed
+     * concurrently and no global lock is needed.
+     */
+    @Override
+    public boolean isOffLoop() {
+        return true;
+    }
+
     @Override
     public void onPacketReceive(final @NotNull PacketEvent event) {
         final ServerPlayer player = event.getConnection().getPlayer();
@@ -73,36 +85,34 @@ public final class PlayerActionListener extends PacketListener {
             final @NotNull ServerPlayer serverPlayer,
             final @NotNull MSPosition position
     ) {
-        synchronized (this.handlerMap) {
-            final Handler handler = this.handlerMap.get(serverPlayer.getStringUUID());
-
-            if (BlockUtils.isWoodenSound(position.getBlock().getType())) {
-                if (
-                        handler != null
-                        && handler.position.equals(position)
-                ) {
-                    return Optional.of(handler);
-                }
-
-                final Handler newHandler = new Handler(serverPlayer, position);
-
-                this.handlerMap.put(
-                        serverPlayer.getStringUUID(),
-                        newHandler
-                );
-
-                return Optional.of(newHandler);
-            } else if (handler != null) {
-                handler.stop();
-                this.handlerMap.remove(serverPlayer.getStringUUID());
+        final Handler handler = this.handlerMap.get(serverPlayer.getStringUUID());
+
+        if (BlockUtils.isWoodenSound(position.getBlock().getType())) {
+            if (
+                    handler != null
+                    && handler.position.equals(position)
+            ) {
+                return Optional.of(handler);
             }
 
-            this.getPlugin().runTask(
-                    () -> this.removeSlowDigging(serverPlayer)
+            final Handler newHandler = new Handler(serverPlayer, position);
+
+            this.handlerMap.put(
+                    serverPlayer.getStringUUID(),
+                    newHandler
             );
 
-            return Optional.empty();
+            return Optional.of(newHandler);
+        } else if (handler != null) {
+            handler.stop();
+            this.handlerMap.remove(serverPlayer.getStringUUID());
         }
+
+        this.getPlugin().runTask(
+                () -> this.removeSlowDigging(serverPlayer)
+        );
+
+        return Optional.empty();
     }
 
     private boolean addSlowDigging(final @NotNull ServerPlayer serverPlayer) {
@@ -170,6 +180,7 @@ public final class PlayerActionListener extends PacketListener {
      */
     private class Handler {
         private final DiggingMap diggingMap;
+        private final DiggingTask diggingTask;
         private final ServerPlayer serverPlayer;
         private final MSPosition position;
         private final Block block;
@@ -184,7 +195,10 @@ public final class PlayerActionListener extends PacketListener {
                 final @NotNull ServerPlayer serverPlayer,
                 final @NotNull MSPosition position
         ) {
-            this.diggingMap = PlayerActionListener.this.getPlugin().getCache().getDiggingMap();
+            final Cache cache = PlayerActionListener.this.getPlugin().getCache();
+
+            this.diggingMap = cache.getDiggingMap();
+            this.diggingTask = cache.getDiggingTask();
             this.serverPlayer = serverPlayer;
             this.position = position;
             this.block = position.getBlock();
@@ -249,7 +263,7 @@ public final class PlayerActionListener extends PacketListener {
 
                         entry.setStage(-1);
 
-                        if (this.diggingMap.getDiggingEntries(this.block).size() == 1) {
+                        if (this.diggingMap.getEntryCount(this.block) == 1) {
                             this.broadcastStage(this.block, -1);
                         }
                     }
@@ -279,8 +293,8 @@ public final class PlayerActionListener extends PacketListener {
         }
 
         /**
-         * Stops the block-breaking process for all entries associated with
-         * the player
+         * Stops the block-breaking process for the entry associated with the
+         * player
          *
          * @see #stop(DiggingMap.Entry)
          */
@@ -291,21 +305,17 @@ public final class PlayerActionListener extends PacketListener {
         /**
          * Stops the block-breaking process
          *
-         * @param entry The entry to stop, if null, all entries associated with
+         * @param entry The entry to stop, if null, the entry associated with
          *              the player will be stopped
          */
         public void stop(final @Nullable DiggingMap.Entry entry) {
             final WhoMine plugin = PlayerActionListener.this.getPlugin();
 
             if (entry == null) {
-                final var removed = this.diggingMap.removeAll(this.serverPlayer.getBukkitEntity());
+                final Block removed = this.diggingMap.remove(this.serverPlayer.getBukkitEntity());
 
-                if (!removed.isEmpty()) {
-                    plugin.runTask(() -> {
-                        for (final var removedEntry : removed) {
-                            broadcastBiggestStage(removedEntry.getKey());
-                        }
-                    });
+                if (removed != null) {
+                    plugin.runTask(() -> broadcastBiggestStage(removed));
                 }
             } else {
                 this.diggingMap.remove(this.block, entry);
@@ -399,89 +409,70 @@ public final class PlayerActionListener extends PacketListener {
                     this.getSlowDiggingAmplifier()
             );
 
-            this.diggingMap.put(this.block, entry.setTaskId(
-                    plugin.runTaskTimer(new Runnable() {
-                        float ticks = 0.0f;
-                        float progress = 0.0f;
-                        boolean isAlreadyAborted = false;
-
-                        @Override
-                        public void run() {
-                            if (
-                                    this.isAlreadyAborted
-                                    || !block.equals(getTargetBlock(serverPlayer))
-                            ) {
-                                Handler.this.abort(false);
-                            }
+            this.diggingMap.put(this.block, entry);
+            this.diggingTask.start(new DiggingTask.Process(this.serverPlayer, this.block, entry) {
+                float progress = 0.0f;
 
-                            if (entry.isAborting()) {
-                                this.isAlreadyAborted = true;
-
-                                return;
-                            }
+                @Override
+                protected void abort() {
+                    Handler.this.abort(false);
+                }
 
-                            final int stage = entry.getStage();
+                @Override
+                protected void dig(
+                        final @NotNull DiggingTask task,
+                        final int ticks
+                ) {
+                    final int stage = entry.getStage();
 
-                            if (stage == -1) {
-                                this.progress = 0.0f;
-                            }
+                    if (stage == -1) {
+                        this.progress = 0.0f;
+                    }
 
-                            this.ticks++;
-                            this.progress += digSpeed;
-                            final int progressInStage = (int) Math.floor(this.progress * 10.0f);
+                    this.progress += digSpeed;
+                    final int progressInStage = (int) Math.floor(this.progress * 10.0f);
 
-                            if (this.ticks % 4.0f == 0.0f) {
-                                soundGroup.playHitSound(center);
-                            }
+                    if (ticks % 4 == 0) {
+                        soundGroup.playHitSound(center);
+                    }
 
-                            if (progressInStage > stage) {
-                                entry.setStage(progressInStage);
+                    if (progressInStage > stage) {
+                        entry.setStage(progressInStage);
 
-                                if (progressInStage > SharedConstants.FINAL_DESTROY_STAGE) {
-                                    Handler.this.finish();
-                                    new CustomBlock(block, customBlockData)
-                                            .destroy(plugin, player);
-                                } else if (entry.isStageTheBiggest(plugin, block)) {
-                                    Handler.this.broadcastStage(block, progressInStage);
-                                }
-                            }
+                        if (progressInStage > SharedConstants.FINAL_DESTROY_STAGE) {
+                            Handler.this.finish();
+                            new CustomBlock(block, customBlockData)
+                                    .destroy(plugin, player);
+                        } else if (entry.isStageTheBiggest(plugin, block)) {
+                            task.broadcastStage(serverPlayer.level(), block, progressInStage);
                         }
-                    }, 0L, 1L).getTaskId())
-            );
+                    }
+                }
+            });
         }
 
         private void handleWoodenBlock() {
             final DiggingMap.Entry entry = DiggingMap.Entry.create(this.serverPlayer.getBukkitEntity());
             final Location center = this.position.center().toLocation();
 
-            this.diggingMap.put(this.block, entry.setTaskId(
-                    PlayerActionListener.this.getPlugin().runTaskTimer(new Runnable() {
-                        float ticks = 0.0f;
-                        boolean isAlreadyAborted = false;
-
-                        @Override
-                        public void run() {
-                            if (
-                                    this.isAlreadyAborted
-                                    || !block.equals(getTargetBlock(serverPlayer))
-                            ) {
-                                abort(false);
-                            }
-
-                            if (entry.isAborting()) {
-                                this.isAlreadyAborted = true;
-
-                                return;
-                            }
+            this.diggingMap.put(this.block, entry);
+            this.diggingTask.start(new DiggingTask.Process(this.serverPlayer, this.block, entry) {
 
-                            this.ticks++;
+                @Override
+                protected void abort() {
+                    Handler.this.abort(false);
+                }
 
-                            if (this.ticks % 4.0f == 0.0f) {
-                                SoundGroup.WOOD.playHitSound(center);
-                            }
-                        }
-                    }, 0L, 1L).getTaskId())
-            );
+                @Override
+                protected void dig(
+                        final @NotNull DiggingTask task,
+                        final int ticks
+                ) {
+                    if (ticks % 4 == 0) {
+                        SoundGroup.WOOD.playHitSound(center);
+                    }
+                }
+            });
         }
     }
 }
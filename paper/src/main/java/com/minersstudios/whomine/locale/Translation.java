@@ -16,11 +16,17 @@ import static com.minersstudios.whomine.locale.TranslationRegistry.registry;
 
 /**
  * Represents a translation
+ * <br>
+ * Every registered message format is also compiled into a thread-safe
+ * {@link TranslationTemplate}, which is used to format and render this
+ * translation.
  */
 public final class Translation {
     private final String path;
     private final MessageFormat fallback;
+    private final TranslationTemplate fallbackTemplate;
     private final Map<Locale, MessageFormat> map;
+    private final Map<Locale, TranslationTemplate> templates;
     private final TranslatableComponent cachedTranslatable;
 
     Translation(
@@ -34,7 +40,9 @@ public final class Translation {
                         ? path
                         : fallback
                 );
+        this.fallbackTemplate = TranslationTemplate.of(this.fallback);
         this.map = new ConcurrentHashMap<>();
+        this.templates = new ConcurrentHashMap<>();
         this.cachedTranslatable =
                 Component.translatable(
                         this.path,
@@ -61,6 +69,16 @@ public final class Translation {
         return this.fallback;
     }
 
+    /**
+     * Returns the compiled fallback of this translation
+     *
+     * @return The compiled fallback of this translation, or the compiled path
+     *         if no fallback was specified
+     */
+    public @NotNull TranslationTemplate getFallbackTemplate() {
+        return this.fallbackTemplate;
+    }
+
     /**
      * Returns an unmodifiable view of the locale set
      *
@@ -160,6 +178,37 @@ public final class Translation {
         return format;
     }
 
+    /**
+     * Gets the compiled translation for the given locale
+     *
+     * @param locale The locale to get the translation for
+     * @return The compiled translation for the given locale, or the compiled
+     *         fallback if it doesn't exist
+     * @see #templateNullable(Locale)
+     */
+    public @NotNull TranslationTemplate template(final @NotNull Locale locale) {
+        final TranslationTemplate template = this.templateNullable(locale);
+
+        return template == null
+               ? this.fallbackTemplate
+               : template;
+    }
+
+    /**
+     * Gets the compiled translation for the given locale
+     *
+     * @param locale The locale to get the translation for
+     * @return The compiled translation for the given locale, or for the
+     *         default locale if it doesn't exist, or null if neither exists
+     */
+    public @Nullable TranslationTemplate templateNullable(final @NotNull Locale locale) {
+        final TranslationTemplate template = this.templates.get(locale);
+
+        return template == null
+               ? this.templates.get(registry().getDefaultLocale())
+               : template;
+    }
+
     /**
      * Returns the hash code of this translation
      *
@@ -299,13 +348,13 @@ public final class Translation {
      * @param args   The arguments to format the translation with
      * @return The formatted translation with the given locale and the given
      *         arguments
-     * @see #asFormat(Locale)
+     * @see #template(Locale)
      */
     public @NotNull String asString(
             final @NotNull Locale locale,
             final Object @NotNull ... args
     ) {
-        return this.asFormat(locale).format(args);
+        return this.template(locale).format(args);
     }
 
     /**
@@ -371,6 +420,8 @@ public final class Translation {
             final @NotNull MessageFormat translation
     ) {
         this.map.put(locale, translation);
+        this.templates.put(locale, TranslationTemplate.of(translation));
+        invalidateRenderCache();
     }
 
     /**
@@ -379,7 +430,9 @@ public final class Translation {
      * @param translations The translations to register
      */
     public void registerAll(final @NotNull Map<Locale, MessageFormat> translations) {
-        this.map.putAll(translations);
+        for (final var entry : translations.entrySet()) {
+            this.register(entry.getKey(), entry.getValue());
+        }
     }
 
     /**
@@ -389,6 +442,9 @@ public final class Translation {
      * @return Whether the locale was unregistered
      */
     public boolean unregister(final @NotNull Locale locale) {
+        this.templates.remove(locale);
+        invalidateRenderCache();
+
         return this.map.remove(locale) != null;
     }
 
@@ -406,9 +462,14 @@ public final class Translation {
                 removed = true;
 
                 this.map.remove(entry.getKey());
+                this.templates.remove(entry.getKey());
             }
         }
 
+        if (removed) {
+            invalidateRenderCache();
+        }
+
         return removed;
     }
 
@@ -423,7 +484,14 @@ public final class Translation {
             final @NotNull Locale locale,
             final @NotNull MessageFormat translation
     ) {
-        return this.map.remove(locale, translation);
+        if (!this.map.remove(locale, translation)) {
+            return false;
+        }
+
+        this.templates.remove(locale);
+        invalidateRenderCache();
+
+        return true;
     }
 
     /**
@@ -431,6 +499,8 @@ public final class Translation {
      */
     public void unregisterAll() {
         this.map.clear();
+        this.templates.clear();
+        invalidateRenderCache();
     }
 
     /**
@@ -458,4 +528,12 @@ public final class Translation {
     ) {
         return registry().getTranslation(path, fallback);
     }
+
+    private static void invalidateRenderCache() {
+        final TranslationRegistryImpl registry = TranslationRegistryImpl.registry;
+
+        if (registry != null) {
+            registry.invalidateRenderCache();
+        }
+    }
 }
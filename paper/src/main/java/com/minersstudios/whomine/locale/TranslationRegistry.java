@@ -97,6 +97,23 @@ public interface TranslationRegistry extends Translator {
             final @NotNull Locale locale
     );
 
+    /**
+     * Gets the compiled translation for the given path, or the compiled
+     * fallback if not found
+     *
+     * @param path     The path of the translation
+     * @param fallback The fallback of the translation
+     * @param locale   The locale of the translation
+     * @return The compiled translation for the given path and locale, or the
+     *         compiled fallback if not found
+     * @see Translation#template(Locale)
+     */
+    @NotNull TranslationTemplate template(
+            final @NotNull String path,
+            final @Nullable String fallback,
+            final @NotNull Locale locale
+    );
+
     /**
      * Returns a component representing the given translatable component with
      * the given locale
@@ -479,7 +496,7 @@ public interface TranslationRegistry extends Translator {
      * @param args     The arguments to format the translation with
      * @return A string representing the translation for the given path and
      *         locale
-     * @see #renderAsFormat(String, String, Locale)
+     * @see #template(String, String, Locale)
      */
     static @NotNull String renderAsString(
             final @NotNull String path,
@@ -487,7 +504,8 @@ public interface TranslationRegistry extends Translator {
             final @NotNull Locale locale,
             final Object @NotNull ... args
     ) {
-        return renderAsFormat(path, fallback, locale)
+        return registry()
+                .template(path, fallback, locale)
                 .format(args);
     }
 
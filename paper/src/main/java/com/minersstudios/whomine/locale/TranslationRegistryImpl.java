@@ -1,9 +1,12 @@
 package com.minersstudios.whomine.locale;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.minersstudios.whomine.utility.ChatUtils;
 import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 import net.kyori.adventure.key.Key;
 import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
 import net.kyori.adventure.text.TranslatableComponent;
 import net.kyori.adventure.text.renderer.TranslatableComponentRenderer;
 import net.kyori.adventure.util.TriState;
@@ -14,15 +17,21 @@ import org.jetbrains.annotations.UnmodifiableView;
 import java.text.MessageFormat;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 final class TranslationRegistryImpl implements TranslationRegistry {
     private final Key name;
     private final Locale defaultLocale;
     private final Map<String, Translation> translationMap;
+    private final Cache<RenderKey, Component> renderCache;
+    private final AtomicLong renderGeneration;
     private final TranslatableComponentRenderer<Locale> renderer;
 
     static volatile TranslationRegistryImpl registry;
 
+    /** The maximum number of rendered argument-free translations to cache */
+    static final int RENDER_CACHE_SIZE = 1024;
+
     TranslationRegistryImpl(
             final @NotNull Key name,
             final @NotNull Locale defaultLocale
@@ -30,6 +39,11 @@ final class TranslationRegistryImpl implements TranslationRegistry {
         this.name = name;
         this.defaultLocale = defaultLocale;
         this.translationMap = new ConcurrentHashMap<>();
+        this.renderCache =
+                CacheBuilder.newBuilder()
+                .maximumSize(RENDER_CACHE_SIZE)
+                .build();
+        this.renderGeneration = new AtomicLong();
         this.renderer = new TranslatableComponentRenderer<>() {
 
             protected @Nullable MessageFormat translate(
@@ -55,9 +69,65 @@ final class TranslationRegistryImpl implements TranslationRegistry {
                     final @NotNull TranslatableComponent component,
                     final @NotNull Locale locale
             ) {
-                return TranslationRegistryImpl.this.translationMap.isEmpty()
-                        ? component
-                        : super.renderTranslatable(component, locale);
+                if (TranslationRegistryImpl.this.translationMap.isEmpty()) {
+                    return component;
+                }
+
+                // Read before the template lookup, so a render of a template
+                // changed in the meantime is cached under an outdated key
+                final long generation = TranslationRegistryImpl.this.renderGeneration.get();
+                final Translation translation = TranslationRegistryImpl.this.getTranslation(component.key());
+                final TranslationTemplate template =
+                        translation == null
+                        ? null
+                        : translation.templateNullable(locale);
+
+                if (
+                        template == null
+                        || !template.isCompiled()
+                ) {
+                    return super.renderTranslatable(component, locale);
+                }
+
+                if (!component.arguments().isEmpty()) {
+                    return this.renderTemplate(component, template, locale);
+                }
+
+                final var cache = TranslationRegistryImpl.this.renderCache;
+                final RenderKey key = new RenderKey(component, locale, generation);
+                Component rendered = cache.getIfPresent(key);
+
+                if (rendered == null) {
+                    rendered = this.renderTemplate(component, template, locale);
+
+                    cache.put(key, rendered);
+                }
+
+                return rendered;
+            }
+
+            private @NotNull Component renderTemplate(
+                    final @NotNull TranslatableComponent component,
+                    final @NotNull TranslationTemplate template,
+                    final @NotNull Locale locale
+            ) {
+                final var arguments = component.arguments();
+                final TextComponent.Builder builder = Component.text();
+
+                this.mergeStyle(component, builder, locale);
+
+                if (arguments.isEmpty()) {
+                    builder.content(template.format());
+                } else {
+                    template.appendTo(
+                            builder,
+                            index -> index < arguments.size()
+                                    ? this.render(arguments.get(index).asComponent(), locale)
+                                    : null
+                    );
+                }
+
+                return this.optionallyRenderChildrenAppendAndBuild(component.children(), builder, locale);
             }
         };
     }
@@ -90,10 +160,11 @@ final class TranslationRegistryImpl implements TranslationRegistry {
             final @NotNull String path,
             final @Nullable String fallback
     ) {
-        return this.translationMap.getOrDefault(
-                path,
-                new Translation(path, fallback)
-        );
+        final Translation translation = this.translationMap.get(path);
+
+        return translation == null
+                ? new Translation(path, fallback)
+                : translation;
     }
 
     @Override
@@ -110,9 +181,32 @@ final class TranslationRegistryImpl implements TranslationRegistry {
             final @Nullable String fallback,
             final @NotNull Locale locale
     ) {
-        return this
-                .getTranslation(path, fallback)
-                .translate(locale, fallback);
+        final Translation translation = this.translationMap.get(path);
+
+        return translation == null
+                ? new MessageFormat(fallback == null ? path : fallback)
+                : translation.translate(locale, fallback);
+    }
+
+    @Override
+    public @NotNull TranslationTemplate template(
+            final @NotNull String path,
+            final @Nullable String fallback,
+            final @NotNull Locale locale
+    ) {
+        final Translation translation = this.translationMap.get(path);
+
+        if (translation == null) {
+            return TranslationTemplate.compile(fallback == null ? path : fallback, null);
+        }
+
+        final TranslationTemplate template = translation.templateNullable(locale);
+
+        return template != null
+                ? template
+                : fallback == null
+                ? translation.getFallbackTemplate()
+                : TranslationTemplate.compile(fallback, null);
     }
 
     @Deprecated
@@ -166,6 +260,7 @@ final class TranslationRegistryImpl implements TranslationRegistry {
 
         if (existing == null) {
             this.translationMap.put(path, translation);
+            this.invalidateRenderCache();
         } else {
             for (final var entry : translation.entrySet()) {
                 existing.register(
@@ -258,7 +353,13 @@ final class TranslationRegistryImpl implements TranslationRegistry {
 
     @Override
     public boolean unregister(final @NotNull String path) {
-        return this.translationMap.remove(path) != null;
+        if (this.translationMap.remove(path) == null) {
+            return false;
+        }
+
+        this.invalidateRenderCache();
+
+        return true;
     }
 
     @Override
@@ -302,5 +403,26 @@ final class TranslationRegistryImpl implements TranslationRegistry {
     @Override
     public void unregisterAll() {
         this.translationMap.clear();
+        this.invalidateRenderCache();
+    }
+
+    /**
+     * Invalidates all rendered translations, must be called whenever any
+     * translation is changed
+     */
+    void invalidateRenderCache() {
+        this.renderGeneration.incrementAndGet();
+        this.renderCache.invalidateAll();
     }
+
+    /**
+     * The generation is incremented by every invalidation, so a render that
+     * was started before the invalidation and put into the cache after it is
+     * never returned
+     */
+    private record RenderKey(
+            @NotNull TranslatableComponent component,
+            @NotNull Locale locale,
+            long generation
+    ) {}
 }
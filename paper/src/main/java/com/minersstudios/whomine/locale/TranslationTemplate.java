@@ -0,0 +1,325 @@
+package com.minersstudios.whomine.locale;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.annotation.concurrent.Immutable;
+import java.text.MessageFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.function.IntFunction;
+
+/**
+ * Compiled translation pattern.
+ * <br>
+ * The pattern is parsed once with the {@link MessageFormat} quoting rules
+ * into literal segments and argument slots, so formatting a template does
+ * not parse the pattern and does not share any mutable state. Unlike
+ * {@link MessageFormat}, the template is immutable and can be used from any
+ * thread.
+ * <br>
+ * Only the plain {@code {index}} arguments are compiled. A pattern with a
+ * format type, for example {@code {0,number}}, is not
+ * {@link #isCompiled() compiled}, and is formatted by a new
+ * {@link MessageFormat} instance every time instead. String arguments are
+ * inserted as is, number and date arguments are formatted by a new
+ * {@link MessageFormat} instance too, like in the {@link MessageFormat}.
+ */
+@Immutable
+public final class TranslationTemplate {
+    private final String pattern;
+    private final Locale locale;
+    private final String[] literals;
+    private final int[] arguments;
+
+    private TranslationTemplate(
+            final @NotNull String pattern,
+            final @NotNull Locale locale,
+            final String @Nullable [] literals,
+            final int @Nullable [] arguments
+    ) {
+        this.pattern = pattern;
+        this.locale = locale;
+        this.literals = literals;
+        this.arguments = arguments;
+    }
+
+    /**
+     * Compiles the pattern of the message format
+     *
+     * @param format The message format to compile
+     * @return A new compiled template
+     */
+    public static @NotNull TranslationTemplate of(final @NotNull MessageFormat format) {
+        return compile(format.toPattern(), format.getLocale());
+    }
+
+    /**
+     * Compiles the pattern
+     *
+     * @param pattern The {@link MessageFormat} pattern to compile
+     * @param locale  The locale to format the number and date arguments with
+     * @return A new compiled template
+     */
+    public static @NotNull TranslationTemplate compile(
+            final @NotNull String pattern,
+            final @Nullable Locale locale
+    ) {
+        final Locale formatLocale =
+                locale == null
+                ? Locale.getDefault(Locale.Category.FORMAT)
+                : locale;
+        final var literals = new ObjectArrayList<String>();
+        final var arguments = new IntArrayList();
+        final StringBuilder literal = new StringBuilder(pattern.length());
+        boolean isQuoted = false;
+
+        for (int i = 0; i < pattern.length(); ++i) {
+            final char c = pattern.charAt(i);
+
+            if (c == '\'') {
+                if (
+                        i + 1 < pattern.length()
+                        && pattern.charAt(i + 1) == '\''
+                ) {
+                    literal.append('\'');
+                    ++i;
+                } else {
+                    isQuoted = !isQuoted;
+                }
+            } else if (
+                    c == '{'
+                    && !isQuoted
+            ) {
+                final int end = pattern.indexOf('}', i + 1);
+                final int index = end == -1 ? -1 : parseIndex(pattern, i + 1, end);
+
+                if (index == -1) {
+                    return new TranslationTemplate(pattern, formatLocale, null, null);
+                }
+
+                literals.add(literal.toString());
+                arguments.add(index);
+                literal.setLength(0);
+
+                i = end;
+            } else {
+                literal.append(c);
+            }
+        }
+
+        literals.add(literal.toString());
+
+        return new TranslationTemplate(
+                pattern,
+                formatLocale,
+                literals.toArray(new String[0]),
+                arguments.toIntArray()
+        );
+    }
+
+    /**
+     * @return The pattern of this template
+     */
+    public @NotNull String getPattern() {
+        return this.pattern;
+    }
+
+    /**
+     * @return The locale of this template
+     */
+    public @NotNull Locale getLocale() {
+        return this.locale;
+    }
+
+    /**
+     * @return True if the pattern has been compiled, false if it contains
+     *         format types and is formatted by a {@link MessageFormat}
+     */
+    public boolean isCompiled() {
+        return this.literals != null;
+    }
+
+    /**
+     * @return The number of argument slots, or -1 if the pattern has not
+     *         been compiled
+     */
+    public int getSlotCount() {
+        return this.arguments == null ? -1 : this.arguments.length;
+    }
+
+    /**
+     * Formats this template without arguments, every argument slot is
+     * formatted as {@code {index}}
+     *
+     * @return The formatted string
+     */
+    public @NotNull String format() {
+        return this.format((Object[]) null);
+    }
+
+    /**
+     * Formats this template with the given arguments
+     *
+     * @param args The arguments
+     * @return The formatted string, equal to the result of the
+     *         {@link MessageFormat} with the same pattern
+     */
+    public @NotNull String format(final Object @Nullable ... args) {
+        if (this.literals == null) {
+            return this.toFormat().format(args);
+        }
+
+        if (this.arguments.length == 0) {
+            return this.literals[0];
+        }
+
+        if (
+                args != null
+                && this.hasFormattedArgument(args)
+        ) {
+            return this.toFormat().format(args);
+        }
+
+        final StringBuilder builder = new StringBuilder(this.pattern.length() + 16 * this.arguments.length);
+
+        for (int i = 0; i < this.arguments.length; ++i) {
+            final int index = this.arguments[i];
+
+            builder.append(this.literals[i]);
+
+            if (
+                    args == null
+                    || index >= args.length
+            ) {
+                builder.append('{').append(index).append('}');
+                continue;
+            }
+
+            builder.append(args[index]);
+        }
+
+        return builder
+                .append(this.literals[this.arguments.length])
+                .toString();
+    }
+
+    /**
+     * Appends this template to the component builder. The literal segments
+     * are appended as text components, the argument slots are replaced with
+     * the components returned by the given function. Slots, for which the
+     * function returns null, are appended as {@code {index}} text.
+     *
+     * @param builder   The builder to append to
+     * @param arguments The function returning the component of the argument
+     *                  with the given index, or null if there is no such
+     *                  argument
+     * @throws IllegalStateException If the pattern has not been compiled
+     */
+    public void appendTo(
+            final @NotNull TextComponent.Builder builder,
+            final @NotNull IntFunction<Component> arguments
+    ) throws IllegalStateException {
+        if (this.literals == null) {
+            throw new IllegalStateException("Template is not compiled : " + this.pattern);
+        }
+
+        final StringBuilder text = new StringBuilder();
+
+        for (int i = 0; i < this.arguments.length; ++i) {
+            final int index = this.arguments[i];
+            final Component argument = arguments.apply(index);
+
+            text.append(this.literals[i]);
+
+            if (argument == null) {
+                text.append('{').append(index).append('}');
+                continue;
+            }
+
+            if (!text.isEmpty()) {
+                builder.append(Component.text(text.toString()));
+                text.setLength(0);
+            }
+
+            builder.append(argument);
+        }
+
+        text.append(this.literals[this.arguments.length]);
+
+        if (!text.isEmpty()) {
+            builder.append(Component.text(text.toString()));
+        }
+    }
+
+    /**
+     * @return A new message format with the pattern and the locale of this
+     *         template
+     */
+    public @NotNull MessageFormat toFormat() {
+        return new MessageFormat(this.pattern, this.locale);
+    }
+
+    @Override
+    public @NotNull String toString() {
+        return "TranslationTemplate{" +
+                "pattern=" + this.pattern +
+                ", locale=" + this.locale +
+                ", compiled=" + this.isCompiled() +
+                '}';
+    }
+
+    /**
+     * @return True if any argument used by a slot is a number or a date, which
+     *         must be formatted by the {@link MessageFormat}
+     */
+    private boolean hasFormattedArgument(final Object @NotNull [] args) {
+        for (final int index : this.arguments) {
+            if (index >= args.length) {
+                continue;
+            }
+
+            final Object arg = args[index];
+
+            if (
+                    arg instanceof Number
+                    || arg instanceof Date
+            ) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static int parseIndex(
+            final @NotNull String pattern,
+            final int start,
+            final int end
+    ) {
+        if (
+                start == end
+                || end - start > 9
+        ) {
+            return -1;
+        }
+
+        int index = 0;
+
+        for (int i = start; i < end; ++i) {
+            final char c = pattern.charAt(i);
+
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+
+            index = index * 10 + (c - '0');
+        }
+
+        return index;
+    }
+}
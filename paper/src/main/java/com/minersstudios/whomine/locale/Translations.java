@@ -100,6 +100,14 @@ public final class Translations {
     public static final Translation COMMAND_MSESSENTIALS_RELOAD_SUCCESS =                  register("ms.command.msessentials.reload.success",                  "The plugin has been reloaded in {0} ms");
     public static final Translation COMMAND_MSESSENTIALS_UPDATE_IDS_SUCCESS =              register("ms.command.msessentials.update_ids.success",              "The ID list has been successfully reloaded in {0} ms");
     public static final Translation COMMAND_MSESSENTIALS_UPDATE_MUTES_SUCCESS =            register("ms.command.msessentials.update_mutes.success",            "The mute list has been successfully reloaded in {0} ms");
+    public static final Translation COMMAND_MSESSENTIALS_PACKET_METRICS_ENABLED =          register("ms.command.msessentials.packet_metrics.enabled",          "Packet metrics recording has been enabled");
+    public static final Translation COMMAND_MSESSENTIALS_PACKET_METRICS_DISABLED =         register("ms.command.msessentials.packet_metrics.disabled",         "Packet metrics recording has been disabled");
+    public static final Translation COMMAND_MSESSENTIALS_PACKET_METRICS_RESET =            register("ms.command.msessentials.packet_metrics.reset",            "Packet metrics have been reset");
+    public static final Translation COMMAND_MSESSENTIALS_PACKET_METRICS_SUMMARY =          register("ms.command.msessentials.packet_metrics.summary",          "Packet metrics ({0}) for the last {1} s :\n{2}");
+    public static final Translation COMMAND_MSESSENTIALS_PACKET_METRICS_DUMP_SUCCESS =     register("ms.command.msessentials.packet_metrics.dump.success",     "Packet metrics have been dumped to : \"{0}\"");
+    public static final Translation COMMAND_MSESSENTIALS_PACKET_METRICS_DUMP_ERROR =       register("ms.command.msessentials.packet_metrics.dump.error",       "Failed to dump packet metrics : \"{0}\"");
+    public static final Translation COMMAND_MSESSENTIALS_MIGRATE_PLAYERS_START =           register("ms.command.msessentials.migrate_players.start",           "Migrating player files from \"{0}\" to \"{1}\"...");
+    public static final Translation COMMAND_MSESSENTIALS_MIGRATE_PLAYERS_SUCCESS =         register("ms.command.msessentials.migrate_players.success",         "Player files have been migrated in {0} ms :\n    - Migrated : {1}\n    - Skipped : {2}\n    - Failed : {3}\n    - \"{4}\" : {5} KB, load {6} ms, save {7} ms\n    - \"{8}\" : {9} KB, load {10} ms, save {11} ms");
     public static final Translation COMMAND_MSCORE_RELOAD_CONFIG_SUCCESS =                 register("ms.command.mscore.reload_config.success",                 "The configuration has been successfully reloaded in {0} ms");
     public static final Translation COMMAND_PLAYER_UPDATE_SUCCESS =                        register("ms.command.player.update.success",                        "Data for player : \"{0}\" ({1}) has been successfully updated");
     public static final Translation COMMAND_PLAYER_FIRST_JOIN =                            register("ms.command.player.first_join",                            "Player : \"{0}\" ({1}) has joined the server for the first time");
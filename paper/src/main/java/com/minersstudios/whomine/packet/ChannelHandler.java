@@ -1,5 +1,6 @@
 package com.minersstudios.whomine.packet;
 
+import com.minersstudios.whomine.listener.api.ListenerManager;
 import com.minersstudios.whomine.utility.MSLogger;
 import com.minersstudios.whomine.WhoMine;
 import io.netty.channel.*;
@@ -10,23 +11,29 @@ import net.minecraft.server.level.ServerPlayer;
 import org.bukkit.event.player.PlayerKickEvent;
 import org.jetbrains.annotations.NotNull;
 
-import javax.annotation.concurrent.Immutable;
-
 /**
  * The ChannelHandler class is responsible for handling incoming and outgoing
  * packets in the Minecraft server networking pipeline.
  * <br>
  * It extends {@link ChannelDuplexHandler}, which allows handling of both
  * inbound and outbound data.
+ * <br>
+ * Packets without registered listeners are passed through without creating
+ * any packet events. For the packets with listeners, one receive and one send
+ * {@link PacketEvent} are reused per connection, a new event is only created
+ * when a listener triggers a nested packet of the same direction.
  *
  * @see PacketType
  * @see PacketContainer
  * @see PacketEvent
  */
-@Immutable
 public final class ChannelHandler extends ChannelDuplexHandler {
     private final WhoMine plugin;
     private final Connection connection;
+    private PacketEvent receiveEvent;
+    private PacketEvent sendEvent;
+    private boolean isReceiving;
+    private boolean isSending;
 
     public static final String CHANNEL_HANDLER_NAME = "ms_channel_handler";
     public static final String PACKET_HANDLER_NAME = "packet_handler";
@@ -60,10 +67,10 @@ public final class ChannelHandler extends ChannelDuplexHandler {
     }
 
     /**
-     * This method is called when a packet is received from the client. It
-     * processes the packet, creates a {@link PacketContainer}, and fires a
-     * {@link PacketEvent}. If the event is not cancelled, the packet is passed
-     * to the next channel handler in the pipeline.
+     * This method is called when a packet is received from the client. If
+     * there are listeners for the packet type, it fires a {@link PacketEvent}.
+     * If the event is not cancelled, the packet is passed to the next channel
+     * handler in the pipeline.
      *
      * @param ctx The ChannelHandlerContext
      * @param msg The received packet
@@ -91,19 +98,52 @@ public final class ChannelHandler extends ChannelDuplexHandler {
             return;
         }
 
-        final PacketContainer packetContainer = new PacketContainer(packet, packetType);
-        final PacketEvent event = new PacketEvent(packetContainer, this.connection);
+        final ListenerManager listenerManager = this.plugin.getListenerManager();
+
+        if (!listenerManager.hasReceiveListeners(packetType)) {
+            final PacketMetrics metrics = listenerManager.getPacketMetrics();
+
+            if (metrics.isEnabled()) {
+                metrics.recordPassThrough(packetType);
+            }
+
+            super.channelRead(ctx, packet);
+            return;
+        }
+
+        final boolean isNested = this.isReceiving;
+        final PacketEvent event;
+
+        if (isNested) {
+            event = new PacketEvent(new PacketContainer(packet, packetType), this.connection);
+        } else if (this.receiveEvent == null) {
+            event = this.receiveEvent = new PacketEvent(new PacketContainer(packet, packetType), this.connection);
+        } else {
+            event = this.receiveEvent.reset(packet, packetType);
+        }
+
+        final Packet<?> result;
+
+        this.isReceiving = true;
 
-        this.plugin.getListenerManager().callPacketReceiveEvent(event);
+        try {
+            listenerManager.callPacketReceiveEvent(event);
 
-        if (!event.isCancelled()) {
-            super.channelRead(ctx, event.getPacketContainer().getPacket());
+            result = event.isCancelled()
+                    ? null
+                    : event.getPacketContainer().getPacket();
+        } finally {
+            this.isReceiving = isNested;
+        }
+
+        if (result != null) {
+            super.channelRead(ctx, result);
         }
     }
 
     /**
      * This method is called when a packet is about to be sent to the client.
-     * It processes the packet, creates a {@link PacketContainer}, and fires a
+     * If there are listeners for the packet type, it fires a
      * {@link PacketEvent}. If the event is not cancelled, the packet is passed
      * to the next channel handler in the pipeline.
      *
@@ -135,13 +175,46 @@ public final class ChannelHandler extends ChannelDuplexHandler {
             return;
         }
 
-        final PacketContainer packetContainer = new PacketContainer(packet, packetType);
-        final PacketEvent event = new PacketEvent(packetContainer, connection);
+        final ListenerManager listenerManager = this.plugin.getListenerManager();
+
+        if (!listenerManager.hasSendListeners(packetType)) {
+            final PacketMetrics metrics = listenerManager.getPacketMetrics();
+
+            if (metrics.isEnabled()) {
+                metrics.recordPassThrough(packetType);
+            }
+
+            super.write(ctx, packet, promise);
+            return;
+        }
+
+        final boolean isNested = this.isSending;
+        final PacketEvent event;
+
+        if (isNested) {
+            event = new PacketEvent(new PacketContainer(packet, packetType), this.connection);
+        } else if (this.sendEvent == null) {
+            event = this.sendEvent = new PacketEvent(new PacketContainer(packet, packetType), this.connection);
+        } else {
+            event = this.sendEvent.reset(packet, packetType);
+        }
+
+        final Packet<?> result;
 
-        this.plugin.getListenerManager().callPacketSendEvent(event);
+        this.isSending = true;
+
+        try {
+            listenerManager.callPacketSendEvent(event);
+
+            result = event.isCancelled()
+                    ? null
+                    : event.getPacketContainer().getPacket();
+        } finally {
+            this.isSending = isNested;
+        }
 
-        if (!event.isCancelled()) {
-            super.write(ctx, event.getPacketContainer().getPacket(), promise);
+        if (result != null) {
+            super.write(ctx, result, promise);
         }
     }
 
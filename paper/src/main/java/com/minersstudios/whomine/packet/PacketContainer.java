@@ -12,7 +12,7 @@ import org.jetbrains.annotations.NotNull;
  */
 public final class PacketContainer {
     private Packet<?> packet;
-    private final PacketType type;
+    private PacketType type;
 
     /**
      * Packet container constructor
@@ -57,6 +57,20 @@ public final class PacketContainer {
         return this.type;
     }
 
+    /**
+     * Reuses this container for another packet
+     *
+     * @param packet The packet to contain
+     * @param type   The packet type of the packet
+     */
+    void reset(
+            final @NotNull Packet<?> packet,
+            final @NotNull PacketType type
+    ) {
+        this.packet = packet;
+        this.type = type;
+    }
+
     /**
      * @return The string representation of this packet container
      */
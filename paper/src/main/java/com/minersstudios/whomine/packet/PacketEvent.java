@@ -1,6 +1,7 @@
 package com.minersstudios.whomine.packet;
 
 import net.minecraft.network.Connection;
+import net.minecraft.network.protocol.Packet;
 import org.bukkit.event.Cancellable;
 import org.jetbrains.annotations.NotNull;
 
@@ -9,6 +10,10 @@ import org.jetbrains.annotations.NotNull;
  * who sent or received the packet. It also implements {@link Cancellable} so
  * the packet can be cancelled. The packet container contains the packet and the
  * packet type and can be modified, but the packet type cannot be changed.
+ * <br>
+ * Packet events are reused by the {@link ChannelHandler} for the subsequent
+ * packets of the same connection, so they must not be retained after the
+ * listener call returns.
  *
  * @see PacketContainer
  * @see Cancellable
@@ -30,6 +35,23 @@ public class PacketEvent implements Cancellable {
         this.connection = connection;
     }
 
+    /**
+     * Reuses this event for another packet of the same connection
+     *
+     * @param packet The packet
+     * @param type   The packet type of the packet
+     * @return This event
+     */
+    @NotNull PacketEvent reset(
+            final @NotNull Packet<?> packet,
+            final @NotNull PacketType type
+    ) {
+        this.packetContainer.reset(packet, type);
+        this.cancelled = false;
+
+        return this;
+    }
+
     /**
      * @return The packet container of this event
      */
@@ -0,0 +1,152 @@
+package com.minersstudios.whomine.packet;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.minersstudios.whomine.utility.MSLogger;
+import net.minecraft.network.Connection;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A striped executor for the packet listeners, which are handled off the
+ * Netty event loop.
+ * <br>
+ * Every connection is always mapped to the same single-threaded stripe, so
+ * the packets of one player are handled in the order they were received or
+ * sent, while the packets of the players mapped to different stripes are
+ * handled in parallel without contending with each other.
+ *
+ * @see com.minersstudios.whomine.listener.api.PacketListener#isOffLoop()
+ */
+public final class PacketExecutor {
+    private final ExecutorService[] stripes;
+    private volatile boolean isShutdown;
+
+    /**
+     * The default number of stripes, half of the available processors, but
+     * not less than 2
+     */
+    public static final int DEFAULT_STRIPE_COUNT = Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+
+    /**
+     * Constructs a new packet executor with the
+     * {@link #DEFAULT_STRIPE_COUNT default number of stripes}
+     */
+    public PacketExecutor() {
+        this(DEFAULT_STRIPE_COUNT);
+    }
+
+    /**
+     * Constructs a new packet executor
+     *
+     * @param stripeCount The number of single-threaded stripes
+     * @throws IllegalArgumentException If the stripe count is less than 1
+     */
+    public PacketExecutor(final int stripeCount) throws IllegalArgumentException {
+        if (stripeCount < 1) {
+            throw new IllegalArgumentException("Stripe count must be positive");
+        }
+
+        final ThreadFactory threadFactory =
+                new ThreadFactoryBuilder()
+                .setNameFormat("WhoMine Packet Executor #%d")
+                .setDaemon(true)
+                .build();
+        this.stripes = new ExecutorService[stripeCount];
+
+        for (int i = 0; i < stripeCount; ++i) {
+            this.stripes[i] = Executors.newSingleThreadExecutor(threadFactory);
+        }
+    }
+
+    /**
+     * @return The number of single-threaded stripes
+     */
+    public int getStripeCount() {
+        return this.stripes.length;
+    }
+
+    /**
+     * Executes the given task on the stripe of the given connection. The
+     * tasks of the same connection are executed in the submission order.
+     * <br>
+     * Tasks submitted after the {@link #shutdown()} are silently discarded.
+     *
+     * @param connection The connection the task belongs to
+     * @param task       The task to execute
+     */
+    public void execute(
+            final @NotNull Connection connection,
+            final @NotNull Runnable task
+    ) {
+        if (this.isShutdown) {
+            return;
+        }
+
+        try {
+            this.stripes[this.stripeIndex(connection)].execute(() -> {
+                try {
+                    task.run();
+                } catch (final Throwable e) {
+                    MSLogger.severe("An error occurred while handling a packet off the event loop", e);
+                }
+            });
+        } catch (final RejectedExecutionException ignored) {
+            // The executor has been shut down concurrently
+        }
+    }
+
+    /**
+     * Shuts down all stripes, waiting up to the given time for the already
+     * submitted tasks to complete
+     *
+     * @param timeout The maximum time to wait
+     * @param unit    The time unit of the timeout argument
+     */
+    public void shutdown(
+            final long timeout,
+            final @NotNull TimeUnit unit
+    ) {
+        this.isShutdown = true;
+
+        for (final var stripe : this.stripes) {
+            stripe.shutdown();
+        }
+
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+
+        try {
+            for (final var stripe : this.stripes) {
+                if (!stripe.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                    stripe.shutdownNow();
+                }
+            }
+        } catch (final InterruptedException e) {
+            for (final var stripe : this.stripes) {
+                stripe.shutdownNow();
+            }
+
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Shuts down all stripes, waiting up to 5 seconds for the already
+     * submitted tasks to complete
+     *
+     * @see #shutdown(long, TimeUnit)
+     */
+    public void shutdown() {
+        this.shutdown(5L, TimeUnit.SECONDS);
+    }
+
+    private int stripeIndex(final @NotNull Connection connection) {
+        final int hash = System.identityHashCode(connection);
+
+        return ((hash ^ (hash >>> 16)) & Integer.MAX_VALUE) % this.stripes.length;
+    }
+}
@@ -0,0 +1,458 @@
+package com.minersstudios.whomine.packet;
+
+import com.minersstudios.whomine.listener.api.PacketListener;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Opt-in packet interception metrics.
+ * <br>
+ * When enabled, the {@link ChannelHandler} records the number of packets per
+ * {@link PacketType}, the number of cancelled packets, and the time spent in
+ * the packet listeners, both per packet type and per {@link PacketListener}.
+ * <br>
+ * Counters are striped {@link LongAdder LongAdders} and latencies are recorded
+ * into log-linear histograms, so recording from multiple Netty event loops is
+ * lock-free and allocation-free. When disabled, only a single volatile read is
+ * made per packet.
+ */
+public final class PacketMetrics {
+    private final AtomicReferenceArray<Stats> typeStats;
+    private final Map<PacketListener, Stats> listenerStats;
+    private volatile boolean enabled;
+    private volatile long startTime;
+
+    public PacketMetrics() {
+        this.typeStats = new AtomicReferenceArray<>(PacketType.values().length);
+        this.listenerStats = new ConcurrentHashMap<>();
+        this.startTime = System.currentTimeMillis();
+    }
+
+    /**
+     * @return True if the metrics are being recorded
+     */
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    /**
+     * Enables or disables the metrics recording. Already recorded metrics are
+     * kept until {@link #reset()} is called.
+     *
+     * @param enabled True to enable the metrics recording
+     */
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * @return The time in milliseconds since the metrics have been recorded
+     */
+    public long getStartTime() {
+        return this.startTime;
+    }
+
+    /**
+     * Records a packet that has no listeners and passed through the channel
+     * handler without an event
+     *
+     * @param packetType The packet type
+     */
+    public void recordPassThrough(final @NotNull PacketType packetType) {
+        this.getStats(packetType).count.increment();
+    }
+
+    /**
+     * Records a packet that has been passed to the listeners
+     *
+     * @param packetType The packet type
+     * @param nanos      The total time in nanoseconds spent in the listeners
+     * @param cancelled  True if the packet has been cancelled
+     */
+    public void recordPacket(
+            final @NotNull PacketType packetType,
+            final long nanos,
+            final boolean cancelled
+    ) {
+        this.getStats(packetType).record(nanos, cancelled);
+    }
+
+    /**
+     * Records the time spent in a single listener call
+     *
+     * @param listener  The packet listener
+     * @param nanos     The time in nanoseconds spent in the listener
+     * @param cancelled True if the packet is cancelled after the listener call
+     */
+    public void recordListener(
+            final @NotNull PacketListener listener,
+            final long nanos,
+            final boolean cancelled
+    ) {
+        Stats stats = this.listenerStats.get(listener);
+
+        if (stats == null) {
+            stats = this.listenerStats.computeIfAbsent(
+                    listener,
+                    key -> new Stats(key.getClass().getSimpleName())
+            );
+        }
+
+        stats.record(nanos, cancelled);
+    }
+
+    /**
+     * @param packetType The packet type
+     * @return The stats of the packet type, or null if no packets of this
+     *         type have been recorded
+     */
+    public @Nullable Stats getTypeStats(final @NotNull PacketType packetType) {
+        return this.typeStats.get(packetType.ordinal());
+    }
+
+    /**
+     * @param listener The packet listener
+     * @return The stats of the packet listener, or null if the listener has
+     *         not been called since the metrics have been enabled
+     */
+    public @Nullable Stats getListenerStats(final @NotNull PacketListener listener) {
+        return this.listenerStats.get(listener);
+    }
+
+    /**
+     * @return An unmodifiable list of the recorded packet type stats, sorted
+     *         by the total time spent in listeners and then by count
+     */
+    public @NotNull @Unmodifiable List<Stats> packetTypeStats() {
+        final var list = new ObjectArrayList<Stats>();
+
+        for (int i = 0; i < this.typeStats.length(); ++i) {
+            final Stats stats = this.typeStats.get(i);
+
+            if (stats != null) {
+                list.add(stats);
+            }
+        }
+
+        list.sort(Stats.COMPARATOR);
+
+        return Collections.unmodifiableList(list);
+    }
+
+    /**
+     * @return An unmodifiable list of the recorded packet listener stats,
+     *         sorted by the total time spent in the listener
+     */
+    public @NotNull @Unmodifiable List<Stats> listenerStats() {
+        final var list = new ObjectArrayList<>(this.listenerStats.values());
+
+        list.sort(Stats.COMPARATOR);
+
+        return Collections.unmodifiableList(list);
+    }
+
+    /**
+     * Clears all recorded metrics
+     */
+    public void reset() {
+        for (int i = 0; i < this.typeStats.length(); ++i) {
+            this.typeStats.set(i, null);
+        }
+
+        this.listenerStats.clear();
+        this.startTime = System.currentTimeMillis();
+    }
+
+    /**
+     * Writes all recorded metrics as a plain text table
+     *
+     * @param writer The writer to write to
+     * @throws IOException If an I/O error occurs
+     */
+    public void dump(final @NotNull Writer writer) throws IOException {
+        writer.write("Packet metrics for the last " + (System.currentTimeMillis() - this.startTime) / 1000L + " s\n\n");
+        writer.write("Packet types:\n");
+        writer.write(Stats.HEADER);
+        writer.write('\n');
+
+        for (final var stats : this.packetTypeStats()) {
+            writer.write(stats.toLine());
+            writer.write('\n');
+        }
+
+        writer.write("\nPacket listeners:\n");
+        writer.write(Stats.HEADER);
+        writer.write('\n');
+
+        for (final var stats : this.listenerStats()) {
+            writer.write(stats.toLine());
+            writer.write('\n');
+        }
+
+        writer.flush();
+    }
+
+    private @NotNull Stats getStats(final @NotNull PacketType packetType) {
+        final int index = packetType.ordinal();
+        final Stats stats = this.typeStats.get(index);
+
+        if (stats != null) {
+            return stats;
+        }
+
+        final Stats newStats = new Stats(packetType.name());
+
+        return this.typeStats.compareAndSet(index, null, newStats)
+                ? newStats
+                : this.typeStats.get(index);
+    }
+
+    /**
+     * Counters and the latency histogram of a single packet type or listener
+     */
+    public static final class Stats {
+        private final String name;
+        private final LongAdder count;
+        private final LongAdder cancelled;
+        private final Histogram histogram;
+
+        public static final String HEADER = String.format(
+                "%-48s %12s %10s %12s %10s %10s %10s %10s %12s",
+                "name", "count", "cancelled", "timed", "mean(us)", "p50(us)", "p99(us)", "max(us)", "total(ms)"
+        );
+        static final Comparator<Stats> COMPARATOR =
+                Comparator.<Stats>comparingLong(stats -> stats.histogram.getTotal()).reversed()
+                .thenComparing(Comparator.<Stats>comparingLong(Stats::getCount).reversed());
+
+        Stats(final @NotNull String name) {
+            this.name = name;
+            this.count = new LongAdder();
+            this.cancelled = new LongAdder();
+            this.histogram = new Histogram();
+        }
+
+        /**
+         * @return The name of the packet type or listener
+         */
+        public @NotNull String getName() {
+            return this.name;
+        }
+
+        /**
+         * @return The number of recorded packets
+         */
+        public long getCount() {
+            return this.count.sum();
+        }
+
+        /**
+         * @return The number of recorded cancelled packets
+         */
+        public long getCancelled() {
+            return this.cancelled.sum();
+        }
+
+        /**
+         * @return The latency histogram
+         */
+        public @NotNull Histogram getHistogram() {
+            return this.histogram;
+        }
+
+        /**
+         * @return A single table line representation of these stats
+         */
+        public @NotNull String toLine() {
+            final Histogram histogram = this.histogram;
+
+            return String.format(
+                    "%-48s %12d %10d %12d %10.1f %10.1f %10.1f %10.1f %12.1f",
+                    this.name,
+                    this.getCount(),
+                    this.getCancelled(),
+                    histogram.getCount(),
+                    histogram.getMean() / 1000.0d,
+                    histogram.getPercentile(0.5d) / 1000.0d,
+                    histogram.getPercentile(0.99d) / 1000.0d,
+                    histogram.getMax() / 1000.0d,
+                    histogram.getTotal() / 1_000_000.0d
+            );
+        }
+
+        @Override
+        public @NotNull String toString() {
+            return "Stats{" +
+                    "name=" + this.name +
+                    ", count=" + this.getCount() +
+                    ", cancelled=" + this.getCancelled() +
+                    ", histogram=" + this.histogram +
+                    '}';
+        }
+
+        void record(
+                final long nanos,
+                final boolean cancelled
+        ) {
+            this.count.increment();
+
+            if (cancelled) {
+                this.cancelled.increment();
+            }
+
+            this.histogram.record(nanos);
+        }
+    }
+
+    /**
+     * A concurrent log-linear latency histogram.
+     * <br>
+     * Every power of two range is split into {@link #SUB_BUCKETS} linear
+     * buckets, so the relative error of the reported values is at most
+     * 1 / {@link #SUB_BUCKETS}. Values from 0 to {@link Long#MAX_VALUE} fit
+     * into a fixed number of buckets.
+     */
+    public static final class Histogram {
+        private final AtomicLongArray buckets;
+        private final LongAdder count;
+        private final LongAdder total;
+        private volatile long max;
+
+        private static final int SUB_BUCKET_BITS = 3;
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+        private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+        private static final AtomicLongFieldUpdater<Histogram> MAX_UPDATER =
+                AtomicLongFieldUpdater.newUpdater(Histogram.class, "max");
+
+        Histogram() {
+            this.buckets = new AtomicLongArray(BUCKET_COUNT);
+            this.count = new LongAdder();
+            this.total = new LongAdder();
+        }
+
+        /**
+         * @return The number of recorded values
+         */
+        public long getCount() {
+            return this.count.sum();
+        }
+
+        /**
+         * @return The sum of all recorded values
+         */
+        public long getTotal() {
+            return this.total.sum();
+        }
+
+        /**
+         * @return The maximum recorded value
+         */
+        public long getMax() {
+            return this.max;
+        }
+
+        /**
+         * @return The mean of the recorded values
+         */
+        public double getMean() {
+            final long count = this.getCount();
+
+            return count == 0L
+                    ? 0.0d
+                    : (double) this.getTotal() / count;
+        }
+
+        /**
+         * @param percentile The percentile from 0.0 to 1.0
+         * @return The upper bound of the bucket containing the value at the
+         *         given percentile, or 0 if no values have been recorded
+         */
+        public long getPercentile(final double percentile) {
+            long count = 0L;
+
+            for (int i = 0; i < BUCKET_COUNT; ++i) {
+                count += this.buckets.get(i);
+            }
+
+            if (count == 0L) {
+                return 0L;
+            }
+
+            final long target = Math.max(1L, (long) Math.ceil(count * percentile));
+            long seen = 0L;
+
+            for (int i = 0; i < BUCKET_COUNT; ++i) {
+                seen += this.buckets.get(i);
+
+                if (seen >= target) {
+                    return Math.min(upperBound(i), this.max);
+                }
+            }
+
+            return this.max;
+        }
+
+        @Override
+        public @NotNull String toString() {
+            return "Histogram{" +
+                    "count=" + this.getCount() +
+                    ", mean=" + this.getMean() +
+                    ", p50=" + this.getPercentile(0.5d) +
+                    ", p99=" + this.getPercentile(0.99d) +
+                    ", max=" + this.max +
+                    '}';
+        }
+
+        void record(final long value) {
+            final long nanos = Math.max(0L, value);
+
+            this.buckets.incrementAndGet(bucketIndex(nanos));
+            this.count.increment();
+            this.total.add(nanos);
+
+            long max;
+
+            while (nanos > (max = this.max)) {
+                if (MAX_UPDATER.compareAndSet(this, max, nanos)) {
+                    break;
+                }
+            }
+        }
+
+        private static int bucketIndex(final long value) {
+            if (value < SUB_BUCKETS) {
+                return (int) value;
+            }
+
+            final int magnitude = 63 - Long.numberOfLeadingZeros(value);
+            final int subBucket = (int) (value >>> (magnitude - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+
+            return (magnitude - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+        }
+
+        private static long upperBound(final int index) {
+            if (index < SUB_BUCKETS) {
+                return index;
+            }
+
+            final int magnitude = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+            final long subBucket = index % SUB_BUCKETS;
+            final int shift = magnitude - SUB_BUCKET_BITS;
+
+            return ((SUB_BUCKETS + subBucket + 1) << shift) - 1;
+        }
+    }
+}
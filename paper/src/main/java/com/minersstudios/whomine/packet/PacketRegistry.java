@@ -29,6 +29,15 @@ import static net.minecraft.network.protocol.PacketFlow.*;
 public final class PacketRegistry {
     private static final Map<Class<?>, PacketType> CLASS_TO_TYPE = new ConcurrentHashMap<>();
     private static final Map<PacketType, Class<?>> TYPE_TO_CLASS = new ConcurrentHashMap<>();
+    private static final ClassValue<PacketType> TYPE_CACHE = new ClassValue<>() {
+
+        @Override
+        protected @Nullable PacketType computeValue(final @NotNull Class<?> packet) {
+            return packet == ClientboundBundlePacket.class
+                    ? PacketType.PLAY_CLIENT_BUNDLE_DELIMITER
+                    : CLASS_TO_TYPE.get(packet);
+        }
+    };
 
     static {
         final ConnectionProtocol[] protocols = ConnectionProtocol.values();
@@ -156,7 +165,10 @@ public final class PacketRegistry {
     }
 
     /**
-     * Get the {@link PacketType} associated with the given packet class
+     * Get the {@link PacketType} associated with the given packet class.
+     * <br>
+     * The result is cached in the packet class itself after the first lookup,
+     * so subsequent lookups do not hash the class.
      *
      * @param packet The packet class for which to retrieve the corresponding
      *               {@link PacketType}
@@ -164,9 +176,7 @@ public final class PacketRegistry {
      *         null if the packet class is not registered
      */
     public static @Nullable PacketType getTypeFromClass(final @NotNull Class<?> packet) {
-        return packet == ClientboundBundlePacket.class
-                ? PacketType.PLAY_CLIENT_BUNDLE_DELIMITER
-                : CLASS_TO_TYPE.get(packet);
+        return TYPE_CACHE.get(packet);
     }
 
     /**
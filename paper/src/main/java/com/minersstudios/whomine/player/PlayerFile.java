@@ -1,8 +1,12 @@
 package com.minersstudios.whomine.player;
 
+import com.minersstudios.whomine.Cache;
+import com.minersstudios.whomine.Config;
 import com.minersstudios.whomine.WhoMine;
 import com.minersstudios.whomine.player.skin.Skin;
+import com.minersstudios.whomine.player.storage.PlayerFileStorage;
 import com.minersstudios.whomine.utility.ChatUtils;
+import com.minersstudios.whomine.utility.FileUtils;
 import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 import org.bukkit.Bukkit;
 import org.bukkit.GameMode;
@@ -23,7 +27,8 @@ import static com.minersstudios.whomine.locale.Translations.*;
 /**
  * Player file with player data, settings, etc.
  * All files stored in the "config/minersstudios/MSEssentials/players" folder.
- * File name is player {@link UUID}.
+ * File name is player {@link UUID} with the extension of the configured
+ * {@link PlayerFileStorage}.
  *
  * @see PlayerInfo
  */
@@ -31,6 +36,7 @@ import static com.minersstudios.whomine.locale.Translations.*;
 public final class PlayerFile {
     private final @NotNull WhoMine plugin;
     private final @NotNull File file;
+    private final @NotNull PlayerFileStorage storage;
     private final @NotNull YamlConfiguration config;
 
     private @NotNull PlayerName playerName;
@@ -44,16 +50,19 @@ public final class PlayerFile {
     private @NotNull Instant firstJoin;
     private @Nullable Location lastLeaveLocation;
     private @Nullable Location lastDeathLocation;
+    private volatile boolean dirty;
 
     private static final int MAX_SKINS = 18;
 
     private PlayerFile(
             final @NotNull WhoMine plugin,
             final @NotNull File file,
+            final @NotNull PlayerFileStorage storage,
             final @NotNull YamlConfiguration config
     ) {
         this.plugin = plugin;
         this.file = file;
+        this.storage = storage;
         this.config = config;
 
         this.playerName = PlayerName.create(
@@ -111,15 +120,73 @@ public final class PlayerFile {
             final @NotNull UUID uniqueId,
             final @Nullable String nickname
     ) {
-        final File dataFile = new File(
-                plugin.getDataFolder(),
-                "players/" + ("$Console".equals(nickname) ? "console" : uniqueId) + ".yml"
-        );
-        return new PlayerFile(
-                plugin,
-                dataFile,
-                YamlConfiguration.loadConfiguration(dataFile)
-        );
+        final PlayerFileStorage storage = plugin.getConfiguration().getPlayerFileStorage();
+        final String fileName = "$Console".equals(nickname) ? "console" : uniqueId.toString();
+        final File folder = new File(plugin.getDataFolder(), Config.PLAYERS_FOLDER);
+        final File dataFile = new File(folder, fileName + storage.getExtension());
+        final PlayerFileWriter writer = getWriter(plugin);
+        final byte[] pending = writer == null ? null : writer.getPending(dataFile);
+
+        if (pending != null) {
+            try {
+                return new PlayerFile(plugin, dataFile, storage, storage.decode(pending));
+            } catch (final IOException e) {
+                plugin.getLogger().log(
+                        Level.SEVERE,
+                        "Failed to load pending player file : " + dataFile.getName(),
+                        e
+                );
+            }
+        }
+
+        File sourceFile = dataFile;
+        PlayerFileStorage sourceStorage = storage;
+        long lastModified = dataFile.lastModified();
+
+        // Loads the most recently saved file, so a stale file left in the
+        // current storage is never loaded instead of a newer one, if the
+        // storage has been switched back and forth. The loaded file will be
+        // saved in the current storage.
+        for (final var other : PlayerFileStorage.values()) {
+            if (other == storage) {
+                continue;
+            }
+
+            final File otherFile = new File(folder, fileName + other.getExtension());
+            final long otherLastModified = otherFile.lastModified();
+
+            if (otherLastModified > lastModified) {
+                sourceFile = otherFile;
+                sourceStorage = other;
+                lastModified = otherLastModified;
+            }
+        }
+
+        if (
+                sourceFile != dataFile
+                && dataFile.exists()
+        ) {
+            plugin.getLogger().warning(
+                    "Player file " + sourceFile.getName() + " is newer than "
+                    + dataFile.getName() + ", loading it instead"
+            );
+        }
+
+        YamlConfiguration config;
+
+        try {
+            config = sourceStorage.load(sourceFile);
+        } catch (final IOException e) {
+            plugin.getLogger().log(
+                    Level.SEVERE,
+                    "Failed to load player file : " + sourceFile.getName(),
+                    e
+            );
+
+            config = new YamlConfiguration();
+        }
+
+        return new PlayerFile(plugin, dataFile, storage, config);
     }
 
     public @NotNull WhoMine getPlugin() {
@@ -130,6 +197,10 @@ public final class PlayerFile {
         return this.file;
     }
 
+    public @NotNull PlayerFileStorage getStorage() {
+        return this.storage;
+    }
+
     public @NotNull YamlConfiguration getConfig() {
         return this.config;
     }
@@ -150,6 +221,7 @@ public final class PlayerFile {
         section.set("first-name", this.playerName.getFirstName());
         section.set("last-name", this.playerName.getLastName());
         section.set("patronymic", this.playerName.getPatronymic());
+        this.dirty = true;
     }
 
     public boolean isNoName() {
@@ -165,6 +237,7 @@ public final class PlayerFile {
     public void setPronouns(final @NotNull Pronouns pronouns) {
         this.pronouns = pronouns;
         this.config.set("pronouns", pronouns.name());
+        this.dirty = true;
     }
 
     public void addIp(final @Nullable String ip) {
@@ -178,6 +251,7 @@ public final class PlayerFile {
 
     public void saveIpList() {
         this.config.set("ip-list", this.ipList);
+        this.dirty = true;
     }
 
     public @NotNull @UnmodifiableView List<Skin> getSkins() {
@@ -301,6 +375,7 @@ public final class PlayerFile {
     public void setGameMode(final @NotNull GameMode gameMode) {
         this.gameMode = gameMode;
         this.config.set("game-params.game-mode", gameMode.name());
+        this.dirty = true;
     }
 
     public double getHealth() {
@@ -310,6 +385,7 @@ public final class PlayerFile {
     public void setHealth(final double health) {
         this.health = health;
         this.config.set("game-params.health", health);
+        this.dirty = true;
     }
 
     public int getAir() {
@@ -319,6 +395,7 @@ public final class PlayerFile {
     public void setAir(final int air) {
         this.air = air;
         this.config.set("game-params.air", air);
+        this.dirty = true;
     }
 
     public @NotNull PlayerSettings getPlayerSettings() {
@@ -332,6 +409,7 @@ public final class PlayerFile {
     public void setFirstJoin(final @NotNull Instant firstJoin) {
         this.firstJoin = firstJoin;
         this.config.set("first-join", firstJoin.toEpochMilli());
+        this.dirty = true;
     }
 
     public @Nullable Location getLastLeaveLocation() {
@@ -344,6 +422,7 @@ public final class PlayerFile {
                 this.config.createSection("locations.last-leave-location"),
                 leaveLocation
         );
+        this.dirty = true;
     }
 
     public @Nullable Location getLastDeathLocation() {
@@ -356,6 +435,7 @@ public final class PlayerFile {
                 this.config.createSection("locations.last-death-location"),
                 deathLocation
         );
+        this.dirty = true;
     }
 
     private static void setLocation(
@@ -372,13 +452,74 @@ public final class PlayerFile {
         section.set("pitch", isNull ? null : location.getPitch());
     }
 
+    /**
+     * @return True if the player file has been modified since it was loaded
+     *         or last saved
+     */
+    public boolean isDirty() {
+        return this.dirty;
+    }
+
+    /**
+     * Marks the player file as modified. Must be called after modifying the
+     * {@link #getConfig() config} directly, without calling {@link #save()}.
+     */
+    public void markDirty() {
+        this.dirty = true;
+    }
+
     public boolean exists() {
-        return this.file.exists();
+        if (this.file.exists()) {
+            return true;
+        }
+
+        final PlayerFileWriter writer = getWriter(this.plugin);
+
+        if (
+                writer != null
+                && writer.isPending(this.file)
+        ) {
+            return true;
+        }
+
+        final String name = this.file.getName();
+        final String baseName = name.substring(0, name.length() - this.storage.getExtension().length());
+
+        for (final var other : PlayerFileStorage.values()) {
+            if (
+                    other != this.storage
+                    && new File(this.file.getParentFile(), baseName + other.getExtension()).exists()
+            ) {
+                return true;
+            }
+        }
+
+        return false;
     }
 
+    /**
+     * Saves the player file.
+     * <br>
+     * The file is encoded with its {@link PlayerFileStorage storage} on the
+     * calling thread and written later on the I/O thread of the
+     * {@link PlayerFileWriter}, repeated saves are coalesced. If the cache is
+     * not loaded, the file is written synchronously.
+     *
+     * @see PlayerFileWriter
+     */
     public void save() {
+        final PlayerFileWriter writer = getWriter(this.plugin);
+        this.dirty = false;
+
         try {
-            this.config.save(this.file);
+            final byte[] contents = this.storage.encode(this.config);
+
+            if (writer != null) {
+                writer.save(this.file, contents);
+                return;
+            }
+
+            FileUtils.writeAtomically(this.file, contents);
         } catch (final IOException e) {
             this.plugin.getLogger().log(
                     Level.SEVERE,
@@ -388,6 +529,14 @@ public final class PlayerFile {
         }
     }
 
+    private static @Nullable PlayerFileWriter getWriter(final @NotNull WhoMine plugin) {
+        final Cache cache = plugin.getCache();
+
+        return cache.isLoaded()
+                ? cache.getPlayerFileWriter()
+                : null;
+    }
+
     public void serializeSkinsSection() {
         final var list = new ObjectArrayList<>(MAX_SKINS);
 
@@ -396,6 +545,7 @@ public final class PlayerFile {
         }
 
         this.config.set("skins", list);
+        this.dirty = true;
     }
 
     public @NotNull List<Skin> deserializeSkinsSection() {
@@ -0,0 +1,156 @@
+package com.minersstudios.whomine.player;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.minersstudios.whomine.WhoMine;
+import com.minersstudios.whomine.utility.FileUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+
+/**
+ * Write-behind persistence service for the {@link PlayerFile player files}.
+ * <br>
+ * A save only stores the serialized snapshot of the file as dirty. Dirty
+ * snapshots are written in batches on a dedicated I/O thread, repeated saves
+ * of the same file before it is written are coalesced into a single write of
+ * the latest snapshot. Every file is written to a temporary file first and
+ * then atomically moved over the old one, so a crash never leaves a
+ * partially written player file.
+ * <br>
+ * Dirty snapshots are kept until they have been written, so
+ * {@link #getPending(File)} can be used to read the latest state of a file
+ * that has not been written yet.
+ *
+ * @see PlayerFile#save()
+ */
+public final class PlayerFileWriter {
+    private final WhoMine plugin;
+    private final Map<File, byte[]> pending;
+    private final ScheduledExecutorService executor;
+    private final AtomicBoolean isScheduled;
+    private volatile boolean isShutdown;
+
+    /** The delay in milliseconds after the first dirty save before a batch is written */
+    public static final long BATCH_DELAY = 1000L;
+
+    public PlayerFileWriter(final @NotNull WhoMine plugin) {
+        this.plugin = plugin;
+        this.pending = new ConcurrentHashMap<>();
+        this.executor = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder()
+                .setNameFormat("WhoMine Player File Writer")
+                .setDaemon(true)
+                .build()
+        );
+        this.isScheduled = new AtomicBoolean();
+    }
+
+    /**
+     * Marks the file as dirty with the given contents. The contents will be
+     * written on the I/O thread within {@link #BATCH_DELAY} milliseconds,
+     * replacing any not yet written contents of the same file.
+     * <br>
+     * After the {@link #shutdown()}, the contents are written synchronously.
+     *
+     * @param file     The player file
+     * @param contents The serialized contents of the file
+     */
+    public void save(
+            final @NotNull File file,
+            final byte @NotNull [] contents
+    ) {
+        this.pending.put(file, contents);
+
+        if (this.isShutdown) {
+            this.flush();
+            return;
+        }
+
+        if (this.isScheduled.compareAndSet(false, true)) {
+            try {
+                this.executor.schedule(
+                        () -> {
+                            this.isScheduled.set(false);
+                            this.flush();
+                        },
+                        BATCH_DELAY,
+                        TimeUnit.MILLISECONDS
+                );
+            } catch (final RejectedExecutionException ignored) {
+                this.flush();
+            }
+        }
+    }
+
+    /**
+     * @param file The player file
+     * @return The latest not yet written contents of the file, or null if
+     *         the file has no pending writes
+     */
+    public byte @Nullable [] getPending(final @NotNull File file) {
+        return this.pending.get(file);
+    }
+
+    /**
+     * @param file The player file
+     * @return True if the file has pending writes
+     */
+    public boolean isPending(final @NotNull File file) {
+        return this.pending.containsKey(file);
+    }
+
+    /**
+     * Writes all dirty files on the calling thread
+     */
+    public synchronized void flush() {
+        for (final var entry : this.pending.entrySet()) {
+            final File file = entry.getKey();
+            final byte[] contents = entry.getValue();
+
+            try {
+                FileUtils.writeAtomically(file, contents);
+            } catch (final IOException e) {
+                this.plugin.getLogger().log(
+                        Level.SEVERE,
+                        "Failed to save player file : " + file.getName(),
+                        e
+                );
+            }
+
+            // Keeps the entry if it has been replaced by a newer snapshot
+            // during the write, it will be written in the next batch
+            this.pending.remove(file, contents);
+        }
+    }
+
+    /**
+     * Stops the I/O thread and writes all remaining dirty files on the
+     * calling thread. Saves made after this call are written synchronously.
+     */
+    public void shutdown() {
+        this.isShutdown = true;
+
+        this.executor.shutdown();
+
+        try {
+            if (!this.executor.awaitTermination(10L, TimeUnit.SECONDS)) {
+                this.executor.shutdownNow();
+            }
+        } catch (final InterruptedException e) {
+            this.executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+
+        this.flush();
+    }
+}
@@ -17,6 +17,7 @@ import com.minersstudios.whomine.discord.BotHandler;
 import com.minersstudios.whomine.discord.DiscordMap;
 import com.minersstudios.whomine.menu.PronounMenu;
 import com.minersstudios.whomine.menu.ResourcePackMenu;
+import com.minersstudios.whomine.scheduler.ExpiryScheduler;
 import com.minersstudios.whomine.utility.IDUtils;
 import com.minersstudios.whomine.utility.MSPlayerUtils;
 import com.minersstudios.whomine.world.WorldDark;
@@ -494,7 +495,7 @@ public final class PlayerInfo {
                 armorStand.setCollidable(false);
                 armorStand.setSmall(true);
                 armorStand.addPassenger(player);
-                this.plugin.getCache().getSeats().put(player, armorStand);
+                this.plugin.getCache().getSeatsTask().sit(player, armorStand);
             }
         );
 
@@ -532,7 +533,7 @@ public final class PlayerInfo {
             return;
         }
 
-        final ArmorStand armorStand = this.plugin.getCache().getSeats().remove(player);
+        final ArmorStand armorStand = this.plugin.getCache().getSeatsTask().unsit(player);
         final Location playerLoc = player.getLocation();
         final Location getUpLocation = armorStand.getLocation().add(0.0d, 0.25d, 0.0d);
 
@@ -1165,6 +1166,14 @@ public final class PlayerInfo {
         
         banEntry.setExpiration(expiration);
         banEntry.save();
+
+        final ExpiryScheduler<UUID> scheduler = this.plugin.getCache().getBanExpiryScheduler();
+
+        if (expiration == null) {
+            scheduler.cancel(this.uuid);
+        } else {
+            scheduler.schedule(this.uuid, expiration.toInstant());
+        }
     }
 
     /**
@@ -1203,6 +1212,7 @@ public final class PlayerInfo {
             }
 
             banList.addBan(this.profile, reason, Date.from(date), commandSender.getName());
+            this.plugin.getCache().getBanExpiryScheduler().schedule(this.uuid, date);
             this.kick(
                     COMMAND_BAN_MESSAGE_RECEIVER_TITLE.asTranslatable(),
                     COMMAND_BAN_MESSAGE_RECEIVER_SUBTITLE.asTranslatable()
@@ -1236,6 +1246,7 @@ public final class PlayerInfo {
             }
 
             banList.pardon(this.profile);
+            this.plugin.getCache().getBanExpiryScheduler().cancel(this.uuid);
             MSLogger.fine(
                     sender,
                     COMMAND_UNBAN_MESSAGE_SENDER.asTranslatable()
@@ -1332,7 +1343,7 @@ public final class PlayerInfo {
     public boolean isSitting() {
         final Player player = this.getOnlinePlayer();
         return player != null
-                && this.plugin.getCache().getSeats().containsKey(player);
+                && this.plugin.getCache().getSeatsTask().isSitting(player);
     }
 
     /**
@@ -1634,6 +1645,7 @@ public final class PlayerInfo {
         }
 
         this.playerFile.getConfig().set("name.nickname", this.nickname);
+        this.playerFile.markDirty();
 
         final Player player = this.getOnlinePlayer();
 
@@ -55,6 +55,7 @@ public final class PlayerSettings {
                 ? ResourcePack.Type.NULL
                 : resourcePackType.name()
         );
+        this.playerFile.markDirty();
     }
 
     public @NotNull Parameter<Skin> getSkinParam() {
@@ -73,6 +74,7 @@ public final class PlayerSettings {
                 ? null
                 : skin.getName()
         );
+        this.playerFile.markDirty();
     }
 
     public void save() {
@@ -1,39 +1,76 @@
 package com.minersstudios.whomine.player.collection;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.reflect.TypeToken;
 import com.minersstudios.whomine.WhoMine;
+import com.minersstudios.whomine.utility.FileUtils;
 import com.minersstudios.whomine.utility.IDUtils;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
 import org.bukkit.Bukkit;
 import org.bukkit.OfflinePlayer;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
-import org.jetbrains.annotations.UnmodifiableView;
+import org.jetbrains.annotations.Unmodifiable;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.OutputStreamWriter;
 import java.lang.reflect.Type;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * ID map with {@link UUID} and its ID.
  * All ids stored in the "config/minersstudios/MSEssentials/ids.json" file.
+ * <br>
+ * The ids are indexed in both directions, so both {@link #getID} and
+ * {@link #getUUID(int)} are constant time lookups, and the used ids are
+ * tracked in a bit set, so the {@link #nextID() next free ID} is found
+ * without scanning the map.
+ * <br>
+ * New ids are not written to the "ids.json" snapshot immediately, they are
+ * appended to the "ids.journal" file instead, one {@code <uuid>:<id>} line
+ * per change. The journal is replayed on top of the snapshot when the ids are
+ * loaded, and compacted into the snapshot after loading and every
+ * {@link #COMPACT_THRESHOLD} appended entries.
+ * <br>
+ * The appends and the compactions run in order on a dedicated I/O thread,
+ * so assigning an ID never waits for the disk while holding the lock of the
+ * map, or on the main thread.
  */
 public final class IDMap {
     private final File file;
-    private final Map<UUID, Integer> map;
+    private final File journalFile;
+    private final Object2IntMap<UUID> uuidToId;
+    private final Int2ObjectMap<UUID> idToUuid;
+    private final BitSet usedIds;
     private final Logger logger;
+    private final ExecutorService executor;
+    private int journalSize;
 
+    /** The number of journal entries after which the journal is compacted */
+    public static final int COMPACT_THRESHOLD = 256;
+
+    private static final int MAX_ID_LENGTH = 10;
+    private static final char JOURNAL_SEPARATOR = ':';
     private static final Gson GSON =
             new GsonBuilder()
             .setPrettyPrinting()
@@ -41,18 +78,29 @@ public final class IDMap {
 
     public IDMap(final @NotNull WhoMine plugin) {
         this.file = new File(plugin.getDataFolder(), "ids.json");
-        this.map = new ConcurrentHashMap<>();
+        this.journalFile = new File(plugin.getDataFolder(), "ids.journal");
+        this.uuidToId = new Object2IntOpenHashMap<>();
+        this.idToUuid = new Int2ObjectOpenHashMap<>();
+        this.usedIds = new BitSet();
         this.logger = plugin.getLogger();
+        this.executor = Executors.newSingleThreadExecutor(
+                new ThreadFactoryBuilder()
+                .setNameFormat("WhoMine Journal Writer (" + this.file.getName() + ")")
+                .setDaemon(true)
+                .build()
+        );
+
+        this.uuidToId.defaultReturnValue(-1);
         this.reloadIds();
     }
 
     /**
      * Gets ID map
      *
-     * @return map with {@link UUID} and its ID
+     * @return A snapshot of the map with {@link UUID} and its ID
      */
-    public @NotNull @UnmodifiableView Map<UUID, Integer> getMap() {
-        return Collections.unmodifiableMap(this.map);
+    public synchronized @NotNull @Unmodifiable Map<UUID, Integer> getMap() {
+        return Collections.unmodifiableMap(new Object2IntOpenHashMap<>(this.uuidToId));
     }
 
     /**
@@ -69,7 +117,19 @@ public final class IDMap {
             final boolean addPlayer,
             final boolean zeroIfNull
     ) {
-        return this.map.getOrDefault(uuid, addPlayer ? this.addPlayer(uuid) : zeroIfNull ? 0 : -1);
+        final int id;
+
+        synchronized (this) {
+            id = this.uuidToId.getInt(uuid);
+        }
+
+        if (id != -1) {
+            return id;
+        }
+
+        return addPlayer
+                ? this.addPlayer(uuid)
+                : zeroIfNull ? 0 : -1;
     }
 
     /**
@@ -78,14 +138,8 @@ public final class IDMap {
      * @param id Player ID
      * @return {@link UUID} of player with this ID or null if not found
      */
-    public @Nullable UUID getUUID(final int id) {
-        for (final var entry : this.map.entrySet()) {
-            if (entry.getValue() == id) {
-                return entry.getKey();
-            }
-        }
-
-        return null;
+    public synchronized @Nullable UUID getUUID(final int id) {
+        return this.idToUuid.get(id);
     }
 
     /**
@@ -122,104 +176,232 @@ public final class IDMap {
     }
 
     /**
-     * Sets player ID
+     * Sets player ID. If the ID is already used by another player, that
+     * player loses its ID.
      *
      * @param uuid Player {@link UUID}
      * @param id   ID to set
+     * @throws IllegalArgumentException If the ID is negative
      */
-    public void put(
+    public synchronized void put(
             final @NotNull UUID uuid,
             final int id
-    ) {
-        this.map.put(uuid, id);
-        this.saveFile();
+    ) throws IllegalArgumentException {
+        if (id < 0) {
+            throw new IllegalArgumentException("ID must not be negative : " + id);
+        }
+
+        this.putInternal(uuid, id);
+        this.appendJournal(uuid, id);
     }
 
     /**
      * @return The number of ids in this map
      */
-    public int size() {
-        return this.map.size();
+    public synchronized int size() {
+        return this.uuidToId.size();
     }
 
     /**
      * @return True if this map contains no ids
      */
-    public boolean isEmpty() {
-        return this.map.isEmpty();
+    public synchronized boolean isEmpty() {
+        return this.uuidToId.isEmpty();
     }
 
     /**
      * @param uuid {@link UUID} of player
      * @return True if the map contains the uuid of the player
      */
-    public boolean containsUUID(final @Nullable UUID uuid) {
+    public synchronized boolean containsUUID(final @Nullable UUID uuid) {
         return uuid != null
-                && this.map.containsKey(uuid);
+                && this.uuidToId.containsKey(uuid);
     }
 
     /**
      * @param id ID of player
      * @return True if the map contains the id of the player
      */
-    public boolean containsID(final int id) {
-        return this.map.containsValue(id);
+    public synchronized boolean containsID(final int id) {
+        return id >= 0
+                && this.usedIds.get(id);
     }
 
     /**
-     * @return An unmodifiable view of the UUIDs contained in this map
+     * @return A snapshot of the UUIDs contained in this map
      */
-    public @NotNull @UnmodifiableView Set<UUID> uuidSet() {
-        return Collections.unmodifiableSet(this.map.keySet());
+    public synchronized @NotNull @Unmodifiable Set<UUID> uuidSet() {
+        return Collections.unmodifiableSet(new ObjectOpenHashSet<>(this.uuidToId.keySet()));
     }
 
     /**
-     * @return An unmodifiable view of the ids contained in this map
+     * @return A snapshot of the ids contained in this map
      */
-    public @NotNull @UnmodifiableView Collection<Integer> ids() {
-        return Collections.unmodifiableCollection(this.map.values());
+    public synchronized @NotNull @Unmodifiable Collection<Integer> ids() {
+        return Collections.unmodifiableCollection(new IntArrayList(this.idToUuid.keySet()));
     }
 
     /**
-     * @return An unmodifiable view of the mappings contained in this map
+     * @return A snapshot of the mappings contained in this map
      */
-    public @NotNull @UnmodifiableView Set<Map.Entry<UUID, Integer>> entrySet() {
-        return Collections.unmodifiableSet(this.map.entrySet());
+    public synchronized @NotNull @Unmodifiable Set<Map.Entry<UUID, Integer>> entrySet() {
+        return this.getMap().entrySet();
+    }
+
+    /**
+     * Gets the ids, whose decimal representation starts with the specified
+     * prefix, in the ascending order of their length and value. The ranges
+     * of matching ids are walked in the used ids bit set, so only the
+     * matching ids are visited.
+     *
+     * @param prefix The decimal prefix of the ids, an empty prefix matches
+     *               all ids
+     * @param limit  The maximum number of the returned ids
+     * @param filter The filter of the players, whose ids should be returned
+     * @return The ids with the specified prefix
+     */
+    public synchronized @NotNull IntList getIDsByPrefix(
+            final @NotNull String prefix,
+            final int limit,
+            final @NotNull Predicate<UUID> filter
+    ) {
+        final var ids = new IntArrayList();
+
+        if (prefix.isEmpty()) {
+            for (
+                    int id = this.usedIds.nextSetBit(0);
+                    id >= 0 && ids.size() < limit;
+                    id = this.usedIds.nextSetBit(id + 1)
+            ) {
+                if (filter.test(this.idToUuid.get(id))) {
+                    ids.add(id);
+                }
+            }
+
+            return ids;
+        }
+
+        if (
+                prefix.length() > MAX_ID_LENGTH
+                || !IDUtils.matchesIDRegex(prefix)
+                || prefix.charAt(0) == '-'
+                || prefix.length() > 1 && prefix.charAt(0) == '0'
+        ) {
+            return ids;
+        }
+
+        final long max = this.usedIds.length();
+        long from = Long.parseLong(prefix);
+        long to = from + 1;
+
+        while (
+                from < max
+                && ids.size() < limit
+        ) {
+            for (
+                    int id = this.usedIds.nextSetBit((int) from);
+                    id >= 0 && id < to && ids.size() < limit;
+                    id = this.usedIds.nextSetBit(id + 1)
+            ) {
+                if (filter.test(this.idToUuid.get(id))) {
+                    ids.add(id);
+                }
+            }
+
+            if (from == 0) {
+                break;
+            }
+
+            from *= 10;
+            to *= 10;
+        }
+
+        return ids;
     }
 
     /**
-     * Adds player with next ID
+     * Adds player with next ID if the player doesn't have an ID yet
      *
      * @param uuid player {@link UUID}
-     * @return next player ID, or -1 if the player already has an ID
+     * @return The ID of the player
      */
-    public int addPlayer(final @NotNull UUID uuid) {
-        return this.map.computeIfAbsent(uuid, unused -> this.nextID());
+    public synchronized int addPlayer(final @NotNull UUID uuid) {
+        final int existing = this.uuidToId.getInt(uuid);
+
+        if (existing != -1) {
+            return existing;
+        }
+
+        final int id = this.nextID();
+
+        this.putInternal(uuid, id);
+        this.appendJournal(uuid, id);
+
+        return id;
     }
 
     /**
-     * Gets next ID, by the size of the ID map. If the ID with that size already
-     * exists, returns the next ID.
+     * Gets the lowest ID that is not used by any player
      *
      * @return next player ID
+     * @throws IllegalStateException If there is no available ID
      */
-    public int nextID() {
-        final var usedIDs = new ObjectOpenHashSet<>(this.map.values());
+    public synchronized int nextID() throws IllegalStateException {
+        final int id = this.usedIds.nextClearBit(0);
 
-        for (int id = 0; id < Integer.MAX_VALUE; id++) {
-            if (!usedIDs.contains(id)) {
-                return id;
-            }
+        if (id < 0) {
+            throw new IllegalStateException("No available ID found.");
         }
 
-        throw new IllegalStateException("No available ID found.");
+        return id;
     }
 
     /**
-     * Reloads ids.json file
+     * Reloads ids.json file and replays the ids.journal file on top of it,
+     * after all pending journal entries have been written
      */
     public void reloadIds() {
-        this.map.clear();
+        // Must not hold the lock of the map while waiting, as the
+        // compaction on the I/O thread takes it to copy the ids
+        this.awaitPending();
+
+        synchronized (this) {
+            this.load();
+        }
+    }
+
+    /**
+     * Compacts the journal into a new "ids.json" snapshot on the I/O thread
+     */
+    public void compact() {
+        this.execute(this::writeCompaction);
+    }
+
+    /**
+     * Writes all pending journal entries, compacts the journal and stops the
+     * I/O thread. All subsequent changes are written synchronously.
+     */
+    public void shutdown() {
+        this.executor.shutdown();
+
+        try {
+            if (!this.executor.awaitTermination(10L, TimeUnit.SECONDS)) {
+                this.logger.warning("Timed out waiting for the journal of \"ids.json\"");
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        synchronized (this) {
+            this.writeCompaction();
+        }
+    }
+
+    private void load() {
+        this.uuidToId.clear();
+        this.idToUuid.clear();
+        this.usedIds.clear();
+        this.journalSize = 0;
 
         if (!this.file.exists()) {
             this.createFile();
@@ -231,22 +413,164 @@ public final class IDMap {
 
                 if (jsonMap == null) {
                     this.createBackupFile();
-                    this.reloadIds();
+                    this.load();
                     return;
                 }
 
                 jsonMap.forEach((uuid, id) -> {
-                    if (id != null) {
-                        this.map.put(uuid, id);
+                    if (
+                            id != null
+                            && id >= 0
+                    ) {
+                        this.putInternal(uuid, id);
                     } else {
                         this.logger.severe("Failed to read the player id : " + uuid.toString() + " in \"ids.json\"");
                     }
                 });
             } catch (final Exception e) {
                 this.createBackupFile();
-                this.reloadIds();
+                this.load();
+                return;
+            }
+        }
+
+        if (this.replayJournal()) {
+            this.compact();
+        }
+    }
+
+    /**
+     * Writes all ids to the "ids.json" snapshot and truncates the
+     * "ids.journal" file. Must be called on the I/O thread, or after it has
+     * been stopped.
+     */
+    private void writeCompaction() {
+        try {
+            this.writeSnapshot();
+            Files.deleteIfExists(this.journalFile.toPath());
+
+            this.journalSize = 0;
+        } catch (final IOException e) {
+            this.logger.log(Level.SEVERE, "Failed to compact ids", e);
+        }
+    }
+
+    private void putInternal(
+            final @NotNull UUID uuid,
+            final int id
+    ) {
+        final int previousId = this.uuidToId.put(uuid, id);
+
+        if (previousId != -1) {
+            this.idToUuid.remove(previousId);
+            this.usedIds.clear(previousId);
+        }
+
+        final UUID previousUuid = this.idToUuid.put(id, uuid);
+
+        if (
+                previousUuid != null
+                && !previousUuid.equals(uuid)
+        ) {
+            this.uuidToId.removeInt(previousUuid);
+        }
+
+        this.usedIds.set(id);
+    }
+
+    /**
+     * Replays the "ids.journal" file, skipping the malformed lines, which
+     * may be left by a crash in the middle of an append
+     *
+     * @return True if the journal contained any entries
+     */
+    private boolean replayJournal() {
+        if (!this.journalFile.exists()) {
+            return false;
+        }
+
+        final List<String> lines;
+
+        try {
+            lines = Files.readAllLines(this.journalFile.toPath(), StandardCharsets.UTF_8);
+        } catch (final IOException e) {
+            this.logger.log(Level.SEVERE, "Failed to read the \"ids.journal\" file", e);
+            return false;
+        }
+
+        for (final var line : lines) {
+            final int separator = line.indexOf(JOURNAL_SEPARATOR);
+
+            try {
+                final UUID uuid = UUID.fromString(line.substring(0, separator));
+                final int id = Integer.parseInt(line.substring(separator + 1));
+
+                if (id < 0) {
+                    throw new IllegalArgumentException();
+                }
+
+                this.putInternal(uuid, id);
+            } catch (final IllegalArgumentException | IndexOutOfBoundsException ignored) {
+                this.logger.severe("Skipped malformed entry in \"ids.journal\" : " + line);
             }
         }
+
+        return !lines.isEmpty();
+    }
+
+    private void appendJournal(
+            final @NotNull UUID uuid,
+            final int id
+    ) {
+        final String line = uuid.toString() + JOURNAL_SEPARATOR + id + '\n';
+
+        this.execute(() -> this.writeJournal(line));
+    }
+
+    /**
+     * Must be called on the I/O thread, or after it has been stopped
+     */
+    private void writeJournal(final @NotNull String line) {
+        try {
+            Files.writeString(
+                    this.journalFile.toPath(),
+                    line,
+                    StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND,
+                    StandardOpenOption.DSYNC
+            );
+        } catch (final IOException e) {
+            this.logger.log(Level.SEVERE, "Failed to append id to the journal, saving all ids", e);
+            this.writeCompaction();
+            return;
+        }
+
+        if (++this.journalSize >= COMPACT_THRESHOLD) {
+            this.writeCompaction();
+        }
+    }
+
+    private void execute(final @NotNull Runnable task) {
+        try {
+            this.executor.execute(task);
+        } catch (final RejectedExecutionException ignored) {
+            synchronized (this) {
+                task.run();
+            }
+        }
+    }
+
+    private void awaitPending() {
+        try {
+            this.executor.submit(() -> {}).get();
+        } catch (final RejectedExecutionException ignored) {
+            // The I/O thread has been stopped, nothing is pending
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (final ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
     }
 
     /**
@@ -255,7 +579,7 @@ public final class IDMap {
     private void createFile() {
         try {
             if (this.file.createNewFile()) {
-                this.saveFile();
+                this.writeSnapshot();
             }
         } catch (final IOException e) {
             this.logger.log(Level.SEVERE, "Failed to create a new \"ids.json\" file", e);
@@ -270,7 +594,7 @@ public final class IDMap {
 
         try {
             Files.move(this.file.toPath(), backupFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
-            this.saveFile();
+            this.writeSnapshot();
         } catch (final IOException e) {
             this.logger.log(Level.SEVERE, "Failed to create \"ids.json.OLD\" backup file", e);
         }
@@ -279,13 +603,19 @@ public final class IDMap {
     }
 
     /**
-     * Saves the mute map to the "ids.json" file
+     * Atomically writes the id map to the "ids.json" file. The ids are copied
+     * while holding the lock of the map, the file is written without it.
      */
-    private void saveFile() {
-        try (final var writer = new OutputStreamWriter(new FileOutputStream(this.file), StandardCharsets.UTF_8)) {
-            GSON.toJson(this.map, writer);
-        } catch (final IOException e) {
-            this.logger.log(Level.SEVERE, "Failed to save ids", e);
+    private void writeSnapshot() throws IOException {
+        final var snapshot = new LinkedHashMap<UUID, Integer>();
+
+        synchronized (this) {
+            new TreeMap<>(this.idToUuid).forEach((id, uuid) -> snapshot.put(uuid, id));
         }
+
+        FileUtils.writeAtomically(
+                this.file,
+                GSON.toJson(snapshot).getBytes(StandardCharsets.UTF_8)
+        );
     }
 }
@@ -2,9 +2,12 @@ package com.minersstudios.whomine.player.collection;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
-import com.google.gson.reflect.TypeToken;
 import com.minersstudios.whomine.WhoMine;
+import com.minersstudios.whomine.collection.MapJournal;
+import com.minersstudios.whomine.scheduler.ExpiryScheduler;
+import com.minersstudios.whomine.scheduler.task.MuteMapTask;
 import com.mojang.util.InstantTypeAdapter;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
 import org.bukkit.OfflinePlayer;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
@@ -12,31 +15,28 @@ import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.UnmodifiableView;
 
 import java.io.File;
-import java.io.FileOutputStream;
-import java.io.IOException;
-import java.io.OutputStreamWriter;
-import java.lang.reflect.Type;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.StandardCopyOption;
 import java.time.Instant;
 import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Mute map with {@link UUID} and its {@link Entry}.
- * All mutes stored in the "config/minersstudios/MSEssentials/muted_players.json" file.
+ * All mutes stored in the "config/minersstudios/MSEssentials/muted_players.json" file,
+ * changes are appended to its journal by the {@link MapJournal}.
+ * <br>
+ * The expiration of every mute is scheduled in the {@link ExpiryScheduler}, so
+ * the player is unmuted by the {@link MuteMapTask} when the mute expires.
  *
  * @see Entry
  */
 public final class MuteMap {
-    private final File file;
     private final Map<UUID, Entry> map;
+    private final MapJournal<UUID, Entry> journal;
+    private final ExpiryScheduler<UUID> expiryScheduler;
     private final Logger logger;
 
     private static final Gson GSON =
@@ -50,12 +50,34 @@ public final class MuteMap {
      * file.
      */
     public MuteMap(final @NotNull WhoMine plugin) {
-        this.file = new File(plugin.getDataFolder(), "muted_players.json");
         this.map = new ConcurrentHashMap<>();
+        this.journal = new MapJournal<>(
+                new File(plugin.getDataFolder(), "muted_players.json"),
+                GSON,
+                UUID.class,
+                Entry.class,
+                () -> this.map,
+                plugin.getLogger()
+        );
+        this.expiryScheduler = new ExpiryScheduler<>(plugin, new MuteMapTask(plugin));
         this.logger = plugin.getLogger();
         this.reloadMutes();
     }
 
+    /**
+     * @return The journal, which persists this map
+     */
+    public @NotNull MapJournal<UUID, Entry> getJournal() {
+        return this.journal;
+    }
+
+    /**
+     * @return The scheduler of the mute expirations
+     */
+    public @NotNull ExpiryScheduler<UUID> getExpiryScheduler() {
+        return this.expiryScheduler;
+    }
+
     /**
      * Gets mute entry of the player from the map
      *
@@ -63,7 +85,17 @@ public final class MuteMap {
      * @return Creation and expiration date, reason and source of mute
      */
     public @Nullable MuteMap.Entry getMuteEntry(final @NotNull OfflinePlayer player) {
-        return this.map.get(player.getUniqueId());
+        return this.getMuteEntry(player.getUniqueId());
+    }
+
+    /**
+     * Gets mute entry of the player from the map
+     *
+     * @param uuid {@link UUID} of probably muted player
+     * @return Creation and expiration date, reason and source of mute
+     */
+    public @Nullable MuteMap.Entry getMuteEntry(final @NotNull UUID uuid) {
+        return this.map.get(uuid);
     }
 
     /**
@@ -75,6 +107,14 @@ public final class MuteMap {
         return player != null && this.map.containsKey(player.getUniqueId());
     }
 
+    /**
+     * @param uuid {@link UUID} of probably muted player
+     * @return True if the player is muted
+     */
+    public boolean isMuted(final @NotNull UUID uuid) {
+        return this.map.containsKey(uuid);
+    }
+
     /**
      * Adds mute for the player
      *
@@ -92,8 +132,11 @@ public final class MuteMap {
         final Instant created = Instant.now();
         final UUID uuid = player.getUniqueId();
 
-        this.map.put(uuid, Entry.create(created, expiration, reason, source));
-        this.saveFile();
+        final Entry entry = Entry.create(created, expiration, reason, source);
+
+        this.map.put(uuid, entry);
+        this.expiryScheduler.schedule(uuid, expiration);
+        this.journal.put(uuid, entry);
     }
 
     /**
@@ -106,8 +149,12 @@ public final class MuteMap {
             return;
         }
 
-        this.map.remove(player.getUniqueId());
-        this.saveFile();
+        final UUID uuid = player.getUniqueId();
+
+        if (this.map.remove(uuid) != null) {
+            this.expiryScheduler.cancel(uuid);
+            this.journal.remove(uuid);
+        }
     }
 
     /**
@@ -148,80 +195,29 @@ public final class MuteMap {
     }
 
     /**
-     * Reloads "muted_players.json" file
+     * Reloads "muted_players.json" file and replays its journal
      */
     public void reloadMutes() {
-        this.map.clear();
-
-        if (!this.file.exists()) {
-            this.createFile();
-        } else {
-            try {
-                final Type mapType = new TypeToken<Map<UUID, Entry>>() {}.getType();
-                final String json = Files.readString(this.file.toPath(), StandardCharsets.UTF_8);
-                final Map<UUID, Entry> jsonMap = GSON.fromJson(json, mapType);
-
-                if (jsonMap == null) {
-                    this.createBackupFile();
-                    this.reloadMutes();
-                    return;
-                }
-
-                jsonMap.forEach((uuid, params) -> {
-                    if (params != null && params.isValidate()) {
-                        this.map.put(uuid, params);
-                    } else {
-                        this.logger.severe("Failed to read the player params : " + uuid.toString() + " in \"muted_players.json\"");
-                    }
-                });
-            } catch (final Exception ignored) {
-                this.createBackupFile();
-                this.reloadMutes();
-            }
-        }
-    }
+        final var loaded = new Object2ObjectOpenHashMap<UUID, Entry>();
 
-    /**
-     * Creates a new "muted_players.json" file
-     */
-    private void createFile() {
-        try {
-            if (
-                    this.file.getParentFile().mkdirs()
-                    && this.file.createNewFile()
-            ) {
-                this.saveFile();
+        this.journal.load().forEach((uuid, params) -> {
+            if (params != null && params.isValidate()) {
+                loaded.put(uuid, params);
+            } else {
+                this.logger.severe("Failed to read the player params : " + uuid + " in \"muted_players.json\"");
             }
-        } catch (final IOException e) {
-            this.logger.log(Level.SEVERE, "Failed to create a new \"muted_players.json\" file", e);
+        });
+        this.journal.runLocked(() -> {
+            this.map.clear();
+            this.map.putAll(loaded);
+        });
+        this.expiryScheduler.clear();
+
+        for (final var entry : loaded.entrySet()) {
+            this.expiryScheduler.schedule(entry.getKey(), entry.getValue().getExpiration());
         }
-    }
 
-    /**
-     * Creates a backup file of the "muted_players.json" file
-     */
-    private void createBackupFile() {
-        final File backupFile = new File(this.file.getParent(), this.file.getName() + ".OLD");
-
-        try {
-            Files.move(this.file.toPath(), backupFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
-            this.saveFile();
-        } catch (final IOException e) {
-            this.logger.log(Level.SEVERE, "Failed to create \"muted_players.json.OLD\" backup file", e);
-        }
-
-        this.logger.severe("Failed to read the \"muted_players.json\" file, creating a new file");
-    }
-
-    /**
-     * Saves the mute map to the "muted_players.json" file
-     */
-    private void saveFile() {
-        try (final var writer = new OutputStreamWriter(new FileOutputStream(this.file), StandardCharsets.UTF_8)) {
-            GSON.toJson(this.map, writer);
-        } catch (final IOException e) {
-            this.logger.log(Level.SEVERE, "Failed to save muted players", e);
-        }
+        this.journal.compact();
     }
 
     /**
@@ -1,9 +1,13 @@
 package com.minersstudios.whomine.player.collection;
 
+import com.google.common.collect.Collections2;
+import com.google.common.collect.Maps;
+import com.minersstudios.whomine.Config;
 import com.minersstudios.whomine.WhoMine;
 import com.minersstudios.whomine.utility.ChatUtils;
 import com.minersstudios.whomine.player.PlayerFile;
 import com.minersstudios.whomine.player.PlayerInfo;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.Contract;
@@ -13,6 +17,9 @@ import org.jetbrains.annotations.UnmodifiableView;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Player info map with {@link UUID} and its {@link PlayerInfo}.
@@ -23,17 +30,33 @@ import java.util.concurrent.ConcurrentHashMap;
  * Use {@link #get(UUID, String)} or {@link #get(Player)} to get player info.
  * It will create new player info if it doesn't exist, or get existing player
  * info if it exists and save it to the map if it's not cached.
+ * <br>
+ * The map is bounded by the {@link Config#getPlayerCacheMaxSize() max size}
+ * and the {@link Config#getPlayerCacheIdleTime() idle time}. The
+ * {@link #evict()} method removes the offline players that have not been
+ * accessed for the idle time, and then the least recently accessed offline
+ * players until the map fits into the max size. Online players are pinned and
+ * never evicted. Modified player files are saved before their player info is
+ * evicted.
  *
  * @see PlayerInfo
  * @see PlayerFile
  */
 public final class PlayerInfoMap {
     private final WhoMine plugin;
-    private final Map<UUID, PlayerInfo> map;
+    private final Map<UUID, Node> map;
+    private final AtomicBoolean isEvictionScheduled;
+    private final LongAdder hitCount;
+    private final LongAdder missCount;
+    private final LongAdder evictionCount;
 
     public PlayerInfoMap(final @NotNull WhoMine plugin) {
         this.plugin = plugin;
         this.map = new ConcurrentHashMap<>();
+        this.isEvictionScheduled = new AtomicBoolean();
+        this.hitCount = new LongAdder();
+        this.missCount = new LongAdder();
+        this.evictionCount = new LongAdder();
     }
 
     /**
@@ -54,10 +77,25 @@ public final class PlayerInfoMap {
             final @NotNull UUID uniqueId,
             final @NotNull String nickname
     ) {
-        return this.map.computeIfAbsent(
-                uniqueId,
-                uuid -> new PlayerInfo(this.plugin, uuid, nickname)
-        );
+        Node node = this.map.get(uniqueId);
+
+        if (node != null) {
+            this.hitCount.increment();
+        } else {
+            node = this.map.computeIfAbsent(
+                    uniqueId,
+                    uuid -> {
+                        this.missCount.increment();
+                        return new Node(new PlayerInfo(this.plugin, uuid, nickname));
+                    }
+            );
+
+            this.scheduleEvictionIfFull();
+        }
+
+        node.lastAccess = System.currentTimeMillis();
+
+        return node.playerInfo;
     }
 
     /**
@@ -99,7 +137,13 @@ public final class PlayerInfoMap {
      *         or null if there was no mapping for player's {@link UUID}
      */
     public @Nullable PlayerInfo put(final @NotNull PlayerInfo playerInfo) {
-        return this.map.put(playerInfo.getUuid(), playerInfo);
+        final Node previous = this.map.put(playerInfo.getUuid(), new Node(playerInfo));
+
+        if (previous == null) {
+            this.scheduleEvictionIfFull();
+        }
+
+        return previous == null ? null : previous.playerInfo;
     }
 
     /**
@@ -110,7 +154,9 @@ public final class PlayerInfoMap {
      *         or null if there was no mapping for player's {@link UUID}
      */
     public @Nullable PlayerInfo remove(final @NotNull UUID uniqueId) {
-        return this.map.remove(uniqueId);
+        final Node node = this.map.remove(uniqueId);
+
+        return node == null ? null : node.playerInfo;
     }
 
     /**
@@ -124,6 +170,95 @@ public final class PlayerInfoMap {
         return this.remove(playerInfo.getUuid());
     }
 
+    /**
+     * Evicts the player infos of the offline players that have not been
+     * accessed for the idle time, and then the least recently accessed
+     * player infos of the offline players until the map fits into the max
+     * size. Modified player files are saved before eviction.
+     * <br>
+     * This method must be called from the main thread.
+     *
+     * @return The number of evicted player infos
+     */
+    public int evict() {
+        this.isEvictionScheduled.set(false);
+
+        final Config config = this.plugin.getConfiguration();
+        final int maxSize = config.getPlayerCacheMaxSize();
+        final long idleTime = TimeUnit.SECONDS.toMillis(config.getPlayerCacheIdleTime());
+        final long now = System.currentTimeMillis();
+        final var candidates = new ObjectArrayList<Node>();
+        int evicted = 0;
+
+        for (final var node : this.map.values()) {
+            if (node.playerInfo.getOnlinePlayer() != null) {
+                continue;
+            }
+
+            if (
+                    idleTime > 0L
+                    && now - node.lastAccess >= idleTime
+            ) {
+                if (this.evict(node)) {
+                    evicted++;
+                }
+            } else {
+                candidates.add(node);
+            }
+        }
+
+        int overflow = maxSize > 0 ? this.map.size() - maxSize : 0;
+
+        if (overflow > 0) {
+            candidates.sort(Comparator.comparingLong(node -> node.lastAccess));
+
+            for (final var node : candidates) {
+                if (overflow <= 0) {
+                    break;
+                }
+
+                if (this.evict(node)) {
+                    evicted++;
+                    overflow--;
+                }
+            }
+        }
+
+        return evicted;
+    }
+
+    /**
+     * @return The number of lookups that found a cached player info
+     */
+    public long getHitCount() {
+        return this.hitCount.sum();
+    }
+
+    /**
+     * @return The number of lookups that had to load the player info
+     */
+    public long getMissCount() {
+        return this.missCount.sum();
+    }
+
+    /**
+     * @return The number of evicted player infos
+     */
+    public long getEvictionCount() {
+        return this.evictionCount.sum();
+    }
+
+    /**
+     * @return The ratio of the lookups that found a cached player info, or
+     *         1.0 if there were no lookups
+     */
+    public double getHitRate() {
+        final long hits = this.getHitCount();
+        final long total = hits + this.getMissCount();
+
+        return total == 0L ? 1.0d : (double) hits / total;
+    }
+
     /**
      * @return The amount of player info in this map
      */
@@ -152,7 +287,10 @@ public final class PlayerInfoMap {
      * @return True if the map contains the player info
      */
     public boolean containsPlayerInfo(final @NotNull PlayerInfo playerInfo) {
-        return this.map.containsValue(playerInfo);
+        final Node node = this.map.get(playerInfo.getUuid());
+
+        return node != null
+                && node.playerInfo.equals(playerInfo);
     }
 
     /**
@@ -174,13 +312,57 @@ public final class PlayerInfoMap {
      * @return An unmodifiable view of the player info contained in this map
      */
     public @NotNull @UnmodifiableView Collection<PlayerInfo> playerInfos() {
-        return Collections.unmodifiableCollection(this.map.values());
+        return Collections.unmodifiableCollection(
+                Collections2.transform(this.map.values(), node -> node.playerInfo)
+        );
     }
 
     /**
      * @return An unmodifiable view of the mappings contained in this map
      */
     public @NotNull @UnmodifiableView Set<Map.Entry<UUID, PlayerInfo>> entrySet() {
-        return Collections.unmodifiableSet(this.map.entrySet());
+        return Collections.unmodifiableSet(
+                Maps.transformValues(this.map, node -> node.playerInfo).entrySet()
+        );
+    }
+
+    private boolean evict(final @NotNull Node node) {
+        final PlayerInfo playerInfo = node.playerInfo;
+
+        if (!this.map.remove(playerInfo.getUuid(), node)) {
+            return false;
+        }
+
+        final PlayerFile playerFile = playerInfo.getPlayerFile();
+
+        if (playerFile.isDirty()) {
+            playerFile.save();
+        }
+
+        this.evictionCount.increment();
+
+        return true;
+    }
+
+    private void scheduleEvictionIfFull() {
+        final int maxSize = this.plugin.getConfiguration().getPlayerCacheMaxSize();
+
+        if (
+                maxSize > 0
+                && this.map.size() > maxSize + (maxSize >> 2)
+                && this.isEvictionScheduled.compareAndSet(false, true)
+        ) {
+            this.plugin.runTask(this::evict);
+        }
+    }
+
+    private static final class Node {
+        final PlayerInfo playerInfo;
+        volatile long lastAccess;
+
+        Node(final @NotNull PlayerInfo playerInfo) {
+            this.playerInfo = playerInfo;
+            this.lastAccess = System.currentTimeMillis();
+        }
     }
 }
@@ -0,0 +1,224 @@
+package com.minersstudios.whomine.player.collection;
+
+import com.minersstudios.whomine.WhoMine;
+import com.minersstudios.whomine.utility.ChatUtils;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.Server;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Predicate;
+
+/**
+ * Prefix index of the nicknames and ids of the players, who have played on
+ * the server, used for the command tab completions.
+ * <br>
+ * The nicknames are kept in a sorted map by their lower case form, so all
+ * nicknames with a prefix form a contiguous range, and the ids are looked up
+ * by their prefix in the {@link IDMap}. The index is {@link #rebuild(Server)
+ * built} once from the offline players on startup and then maintained
+ * incrementally on player join, so completing a prefix never touches the
+ * offline player data.
+ */
+public final class PlayerNameIndex {
+    private final WhoMine plugin;
+    private final NavigableMap<String, Entry> nameMap;
+    private final Map<UUID, String> uuidMap;
+
+    /** The default maximum number of the ids and the nicknames completed */
+    public static final int DEFAULT_LIMIT = 50;
+
+    public PlayerNameIndex(final @NotNull WhoMine plugin) {
+        this.plugin = plugin;
+        this.nameMap = new ConcurrentSkipListMap<>();
+        this.uuidMap = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Puts the player's nickname to the index, replacing the previous
+     * nickname of the player
+     *
+     * @param uuid     Player {@link UUID}
+     * @param nickname Player nickname
+     */
+    public synchronized void put(
+            final @NotNull UUID uuid,
+            final @NotNull String nickname
+    ) {
+        final String key = nickname.toLowerCase(Locale.ROOT);
+        final String previousKey = this.uuidMap.put(uuid, key);
+
+        if (
+                previousKey != null
+                && !previousKey.equals(key)
+        ) {
+            final Entry previousEntry = this.nameMap.get(previousKey);
+
+            if (
+                    previousEntry != null
+                    && previousEntry.uuid.equals(uuid)
+            ) {
+                this.nameMap.remove(previousKey);
+            }
+        }
+
+        final Entry previous = this.nameMap.put(key, new Entry(uuid, nickname));
+
+        if (
+                previous != null
+                && !previous.uuid.equals(uuid)
+        ) {
+            this.uuidMap.remove(previous.uuid, key);
+        }
+    }
+
+    /**
+     * Puts the player's nickname to the index if the player has a nickname
+     *
+     * @param offlinePlayer The offline player
+     */
+    public void put(final @NotNull OfflinePlayer offlinePlayer) {
+        final String nickname = offlinePlayer.getName();
+
+        if (ChatUtils.isNotBlank(nickname)) {
+            this.put(offlinePlayer.getUniqueId(), nickname);
+        }
+    }
+
+    /**
+     * Removes the player's nickname from the index
+     *
+     * @param uuid Player {@link UUID}
+     */
+    public synchronized void remove(final @NotNull UUID uuid) {
+        final String key = this.uuidMap.remove(uuid);
+
+        if (key != null) {
+            final Entry entry = this.nameMap.get(key);
+
+            if (
+                    entry != null
+                    && entry.uuid.equals(uuid)
+            ) {
+                this.nameMap.remove(key);
+            }
+        }
+    }
+
+    /**
+     * @param uuid Player {@link UUID}
+     * @return True if the index contains the player's nickname
+     */
+    public boolean contains(final @NotNull UUID uuid) {
+        return this.uuidMap.containsKey(uuid);
+    }
+
+    /**
+     * @return The number of nicknames in the index
+     */
+    public int size() {
+        return this.uuidMap.size();
+    }
+
+    /**
+     * Rebuilds the index from the offline players of the server, who have
+     * played before. This method reads the offline player data and should be
+     * called asynchronously.
+     *
+     * @param server The server
+     */
+    public void rebuild(final @NotNull Server server) {
+        for (final var offlinePlayer : server.getOfflinePlayers()) {
+            if (offlinePlayer.hasPlayedBefore()) {
+                this.put(offlinePlayer);
+            }
+        }
+    }
+
+    /**
+     * Completes the prefix with up to {@link #DEFAULT_LIMIT} ids and up to
+     * {@link #DEFAULT_LIMIT} nicknames of the players, that match the filter
+     *
+     * @param prefix The prefix to complete
+     * @param filter The filter of the players
+     * @return The ids and the nicknames starting with the prefix
+     * @see #complete(String, int, Predicate)
+     */
+    public @NotNull List<String> complete(
+            final @NotNull String prefix,
+            final @NotNull Predicate<UUID> filter
+    ) {
+        return this.complete(prefix, DEFAULT_LIMIT, filter);
+    }
+
+    /**
+     * Completes the prefix with the ids and the nicknames of the players,
+     * that match the filter. The ids are returned first, in the ascending
+     * order of their length and value, followed by the nicknames in the
+     * case-insensitive alphabetical order.
+     *
+     * @param prefix The prefix to complete
+     * @param limit  The maximum number of the ids and the maximum number of
+     *               the nicknames
+     * @param filter The filter of the players
+     * @return The ids and the nicknames starting with the prefix
+     */
+    public @NotNull List<String> complete(
+            final @NotNull String prefix,
+            final int limit,
+            final @NotNull Predicate<UUID> filter
+    ) {
+        final var completions = new ObjectArrayList<String>();
+        final IDMap idMap = this.plugin.getCache().getIdMap();
+
+        if (idMap != null) {
+            for (final int id : idMap.getIDsByPrefix(prefix, limit, filter)) {
+                completions.add(String.valueOf(id));
+            }
+        }
+
+        final String from = prefix.toLowerCase(Locale.ROOT);
+        int names = 0;
+
+        for (final var entry : this.nameMap.tailMap(from).entrySet()) {
+            if (
+                    names >= limit
+                    || !entry.getKey().startsWith(from)
+            ) {
+                break;
+            }
+
+            final Entry value = entry.getValue();
+
+            if (filter.test(value.uuid)) {
+                completions.add(value.nickname);
+                names++;
+            }
+        }
+
+        return completions;
+    }
+
+    /**
+     * @param nickname Player nickname
+     * @return {@link UUID} of the player with the nickname, or null if the
+     *         index doesn't contain the nickname
+     */
+    public @Nullable UUID getUUID(final @NotNull String nickname) {
+        final Entry entry = this.nameMap.get(nickname.toLowerCase(Locale.ROOT));
+        return entry == null ? null : entry.uuid;
+    }
+
+    private record Entry(
+            @NotNull UUID uuid,
+            @NotNull String nickname
+    ) {}
+}
@@ -0,0 +1,258 @@
+package com.minersstudios.whomine.player.storage;
+
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary player file storage.
+ * <br>
+ * The file starts with the {@link #MAGIC magic number} and the
+ * {@link #VERSION format version}, followed by the root section. Every value
+ * is written as a one byte tag followed by its payload, strings are written
+ * as a length-prefixed UTF-8 byte array, lists and sections as an element
+ * count followed by the elements. Decoding does not involve any text
+ * parsing, which makes it much cheaper than parsing YAML.
+ * <br>
+ * The decoded configuration has the same shape as a configuration loaded from
+ * YAML: nested maps become configuration sections, maps inside lists stay
+ * plain JDK maps, and floating point numbers are loaded as doubles.
+ */
+public final class BinaryPlayerFileStorage implements PlayerFileStorage {
+    public static final String NAME = "binary";
+    public static final String EXTENSION = ".dat";
+
+    /** The magic number at the beginning of every binary player file */
+    public static final int MAGIC = 0x574D5046; // WMPF
+    /** The current format version */
+    public static final byte VERSION = 1;
+
+    private static final byte TAG_NULL =    0;
+    private static final byte TAG_STRING =  1;
+    private static final byte TAG_BOOLEAN = 2;
+    private static final byte TAG_INT =     3;
+    private static final byte TAG_LONG =    4;
+    private static final byte TAG_DOUBLE =  5;
+    private static final byte TAG_LIST =    6;
+    private static final byte TAG_MAP =     7;
+
+    private static final int MAX_DEPTH = 64;
+
+    BinaryPlayerFileStorage() {}
+
+    @Override
+    public @NotNull String getName() {
+        return NAME;
+    }
+
+    @Override
+    public @NotNull String getExtension() {
+        return EXTENSION;
+    }
+
+    @Override
+    public byte @NotNull [] encode(final @NotNull YamlConfiguration config) throws IOException {
+        final var byteOutput = new ByteArrayOutputStream(1024);
+
+        try (final var output = new DataOutputStream(byteOutput)) {
+            output.writeInt(MAGIC);
+            output.writeByte(VERSION);
+            writeSection(output, config, 0);
+        }
+
+        return byteOutput.toByteArray();
+    }
+
+    @Override
+    public @NotNull YamlConfiguration decode(final byte @NotNull [] data) throws IOException {
+        try (final var input = new DataInputStream(new ByteArrayInputStream(data))) {
+            if (input.readInt() != MAGIC) {
+                throw new IOException("Not a binary player file");
+            }
+
+            final byte version = input.readByte();
+
+            if (version != VERSION) {
+                throw new IOException("Unsupported binary player file version : " + version);
+            }
+
+            final YamlConfiguration config = new YamlConfiguration();
+
+            for (final var entry : readMap(input, 0).entrySet()) {
+                final String key = entry.getKey();
+                final Object value = entry.getValue();
+
+                if (value instanceof final Map<?, ?> map) {
+                    config.createSection(key, map);
+                } else {
+                    config.set(key, value);
+                }
+            }
+
+            return config;
+        }
+    }
+
+    @Override
+    public @NotNull String toString() {
+        return NAME;
+    }
+
+    private static void writeSection(
+            final @NotNull DataOutputStream output,
+            final @NotNull ConfigurationSection section,
+            final int depth
+    ) throws IOException {
+        final var keys = section.getKeys(false);
+
+        output.writeInt(keys.size());
+
+        for (final var key : keys) {
+            writeString(output, key);
+            writeValue(output, section.get(key), depth + 1);
+        }
+    }
+
+    private static void writeValue(
+            final @NotNull DataOutputStream output,
+            final @Nullable Object value,
+            final int depth
+    ) throws IOException {
+        if (depth > MAX_DEPTH) {
+            throw new IOException("Player file is nested too deeply");
+        }
+
+        if (value == null) {
+            output.writeByte(TAG_NULL);
+        } else if (value instanceof final String string) {
+            output.writeByte(TAG_STRING);
+            writeString(output, string);
+        } else if (value instanceof final Boolean bool) {
+            output.writeByte(TAG_BOOLEAN);
+            output.writeBoolean(bool);
+        } else if (
+                value instanceof Integer
+                || value instanceof Short
+                || value instanceof Byte
+        ) {
+            output.writeByte(TAG_INT);
+            output.writeInt(((Number) value).intValue());
+        } else if (value instanceof final Long longValue) {
+            output.writeByte(TAG_LONG);
+            output.writeLong(longValue);
+        } else if (value instanceof final Number number) {
+            output.writeByte(TAG_DOUBLE);
+            output.writeDouble(number.doubleValue());
+        } else if (value instanceof final ConfigurationSection section) {
+            output.writeByte(TAG_MAP);
+            writeSection(output, section, depth);
+        } else if (value instanceof final Map<?, ?> map) {
+            output.writeByte(TAG_MAP);
+            output.writeInt(map.size());
+
+            for (final var entry : map.entrySet()) {
+                writeString(output, String.valueOf(entry.getKey()));
+                writeValue(output, entry.getValue(), depth + 1);
+            }
+        } else if (value instanceof final List<?> list) {
+            output.writeByte(TAG_LIST);
+            output.writeInt(list.size());
+
+            for (final var element : list) {
+                writeValue(output, element, depth + 1);
+            }
+        } else {
+            output.writeByte(TAG_STRING);
+            writeString(output, value.toString());
+        }
+    }
+
+    private static @Nullable Object readValue(
+            final @NotNull DataInputStream input,
+            final int depth
+    ) throws IOException {
+        if (depth > MAX_DEPTH) {
+            throw new IOException("Player file is nested too deeply");
+        }
+
+        final byte tag = input.readByte();
+
+        return switch (tag) {
+            case TAG_NULL ->    null;
+            case TAG_STRING ->  readString(input);
+            case TAG_BOOLEAN -> input.readBoolean();
+            case TAG_INT ->     input.readInt();
+            case TAG_LONG ->    input.readLong();
+            case TAG_DOUBLE ->  input.readDouble();
+            case TAG_MAP ->     readMap(input, depth);
+            case TAG_LIST -> {
+                final int size = readSize(input);
+                final var list = new ArrayList<>(size);
+
+                for (int i = 0; i < size; ++i) {
+                    list.add(readValue(input, depth + 1));
+                }
+
+                yield list;
+            }
+            default -> throw new IOException("Unknown value tag : " + tag);
+        };
+    }
+
+    private static @NotNull Map<String, Object> readMap(
+            final @NotNull DataInputStream input,
+            final int depth
+    ) throws IOException {
+        final int size = readSize(input);
+        final var map = new LinkedHashMap<String, Object>(size);
+
+        for (int i = 0; i < size; ++i) {
+            map.put(readString(input), readValue(input, depth + 1));
+        }
+
+        return map;
+    }
+
+    private static void writeString(
+            final @NotNull DataOutputStream output,
+            final @NotNull String string
+    ) throws IOException {
+        final byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static @NotNull String readString(final @NotNull DataInputStream input) throws IOException {
+        final byte[] bytes = new byte[readSize(input)];
+
+        input.readFully(bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int readSize(final @NotNull DataInputStream input) throws IOException {
+        final int size = input.readInt();
+
+        if (
+                size < 0
+                || size > input.available()
+        ) {
+            throw new IOException("Invalid size : " + size);
+        }
+
+        return size;
+    }
+}
@@ -0,0 +1,268 @@
+package com.minersstudios.whomine.player.storage;
+
+import com.minersstudios.whomine.Cache;
+import com.minersstudios.whomine.Config;
+import com.minersstudios.whomine.WhoMine;
+import com.minersstudios.whomine.player.PlayerFileWriter;
+import com.minersstudios.whomine.utility.FileUtils;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.logging.Level;
+
+/**
+ * One-shot migrator of the player files from one {@link PlayerFileStorage}
+ * to another.
+ * <br>
+ * Every source file is decoded with the source storage, encoded with the
+ * target storage and atomically written next to it, unless the target file is
+ * newer than the source file. Then, the source file is moved into the
+ * {@link #BACKUP_FOLDER} subfolder, so a stale source file is never loaded
+ * instead of the target file, if the storage is switched back. While
+ * migrating, the decoding and encoding of every file are timed with both
+ * storages, so the result also serves as a benchmark of the two formats on
+ * the real player data.
+ * <br>
+ * The migration performs blocking I/O and must not be run on the main thread.
+ */
+public final class PlayerFileMigrator {
+    private final WhoMine plugin;
+    private final PlayerFileStorage from;
+    private final PlayerFileStorage to;
+
+    /** The subfolder of the players folder the migrated source files are moved to */
+    public static final String BACKUP_FOLDER = "backup";
+
+    /**
+     * @param plugin The plugin instance
+     * @param from   The storage to migrate from
+     * @param to     The storage to migrate to
+     * @throws IllegalArgumentException If the storages are the same
+     */
+    public PlayerFileMigrator(
+            final @NotNull WhoMine plugin,
+            final @NotNull PlayerFileStorage from,
+            final @NotNull PlayerFileStorage to
+    ) throws IllegalArgumentException {
+        if (from == to) {
+            throw new IllegalArgumentException("Cannot migrate to the same storage");
+        }
+
+        this.plugin = plugin;
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * @return The storage to migrate from
+     */
+    public @NotNull PlayerFileStorage getFrom() {
+        return this.from;
+    }
+
+    /**
+     * @return The storage to migrate to
+     */
+    public @NotNull PlayerFileStorage getTo() {
+        return this.to;
+    }
+
+    /**
+     * Migrates all player files
+     *
+     * @return The migration result
+     */
+    public @NotNull Result migrate() {
+        final File folder = new File(this.plugin.getDataFolder(), Config.PLAYERS_FOLDER);
+        final String extension = this.from.getExtension();
+        final File[] files = folder.listFiles(
+                (directory, name) -> name.endsWith(extension)
+        );
+        final Result result = new Result(this.from, this.to);
+
+        if (files == null) {
+            return result;
+        }
+
+        final File backupFolder = new File(folder, BACKUP_FOLDER);
+        final Cache cache = this.plugin.getCache();
+        final PlayerFileWriter writer = cache.isLoaded() ? cache.getPlayerFileWriter() : null;
+        final long start = System.nanoTime();
+
+        for (final var file : files) {
+            final String name = file.getName();
+            final File target = new File(
+                    folder,
+                    name.substring(0, name.length() - extension.length()) + this.to.getExtension()
+            );
+
+            if (
+                    writer != null
+                    && writer.isPending(target)
+            ) {
+                result.skipped++;
+                continue;
+            }
+
+            try {
+                if (
+                        target.exists()
+                        && target.lastModified() >= file.lastModified()
+                ) {
+                    // The target has been saved after the source, so the
+                    // source is stale and is only kept as a backup
+                    this.backup(file, backupFolder);
+
+                    result.skipped++;
+                    continue;
+                }
+
+                final byte[] source = Files.readAllBytes(file.toPath());
+
+                long time = System.nanoTime();
+                final YamlConfiguration config = this.from.decode(source);
+                result.fromLoadNanos += System.nanoTime() - time;
+
+                time = System.nanoTime();
+                this.from.encode(config);
+                result.fromSaveNanos += System.nanoTime() - time;
+
+                time = System.nanoTime();
+                final byte[] encoded = this.to.encode(config);
+                result.toSaveNanos += System.nanoTime() - time;
+
+                time = System.nanoTime();
+                this.to.decode(encoded);
+                result.toLoadNanos += System.nanoTime() - time;
+
+                FileUtils.writeAtomically(target, encoded);
+                this.backup(file, backupFolder);
+
+                result.migrated++;
+                result.fromBytes += source.length;
+                result.toBytes += encoded.length;
+            } catch (final IOException e) {
+                result.failed++;
+
+                this.plugin.getLogger().log(
+                        Level.SEVERE,
+                        "Failed to migrate player file : " + name,
+                        e
+                );
+            }
+        }
+
+        result.totalNanos = System.nanoTime() - start;
+
+        return result;
+    }
+
+    private void backup(
+            final @NotNull File file,
+            final @NotNull File backupFolder
+    ) throws IOException {
+        Files.createDirectories(backupFolder.toPath());
+        Files.move(
+                file.toPath(),
+                new File(backupFolder, file.getName()).toPath(),
+                StandardCopyOption.REPLACE_EXISTING
+        );
+    }
+
+    /**
+     * Result of a player file migration, including the total decoding and
+     * encoding times of the migrated files with both storages
+     */
+    public static final class Result {
+        private final PlayerFileStorage from;
+        private final PlayerFileStorage to;
+        private int migrated;
+        private int skipped;
+        private int failed;
+        private long fromBytes;
+        private long toBytes;
+        private long fromLoadNanos;
+        private long fromSaveNanos;
+        private long toLoadNanos;
+        private long toSaveNanos;
+        private long totalNanos;
+
+        Result(
+                final @NotNull PlayerFileStorage from,
+                final @NotNull PlayerFileStorage to
+        ) {
+            this.from = from;
+            this.to = to;
+        }
+
+        public @NotNull PlayerFileStorage getFrom() {
+            return this.from;
+        }
+
+        public @NotNull PlayerFileStorage getTo() {
+            return this.to;
+        }
+
+        public int getMigrated() {
+            return this.migrated;
+        }
+
+        public int getSkipped() {
+            return this.skipped;
+        }
+
+        public int getFailed() {
+            return this.failed;
+        }
+
+        public long getFromBytes() {
+            return this.fromBytes;
+        }
+
+        public long getToBytes() {
+            return this.toBytes;
+        }
+
+        public long getFromLoadNanos() {
+            return this.fromLoadNanos;
+        }
+
+        public long getFromSaveNanos() {
+            return this.fromSaveNanos;
+        }
+
+        public long getToLoadNanos() {
+            return this.toLoadNanos;
+        }
+
+        public long getToSaveNanos() {
+            return this.toSaveNanos;
+        }
+
+        public long getTotalNanos() {
+            return this.totalNanos;
+        }
+
+        @Override
+        public @NotNull String toString() {
+            return "Result{" +
+                    "from=" + this.from +
+                    ", to=" + this.to +
+                    ", migrated=" + this.migrated +
+                    ", skipped=" + this.skipped +
+                    ", failed=" + this.failed +
+                    ", fromBytes=" + this.fromBytes +
+                    ", toBytes=" + this.toBytes +
+                    ", fromLoadNanos=" + this.fromLoadNanos +
+                    ", fromSaveNanos=" + this.fromSaveNanos +
+                    ", toLoadNanos=" + this.toLoadNanos +
+                    ", toSaveNanos=" + this.toSaveNanos +
+                    ", totalNanos=" + this.totalNanos +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.minersstudios.whomine.player.storage;
+
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+/**
+ * Storage format of the {@link com.minersstudios.whomine.player.PlayerFile
+ * player files}.
+ * <br>
+ * The player data is always held in memory as a {@link YamlConfiguration},
+ * the storage only defines how it is encoded on disk. Every storage uses its
+ * own file extension, so the files of different storages can coexist in the
+ * players folder.
+ *
+ * @see YamlPlayerFileStorage
+ * @see BinaryPlayerFileStorage
+ * @see PlayerFileMigrator
+ */
+public interface PlayerFileStorage {
+    /** The default YAML storage, one human-readable file per player */
+    PlayerFileStorage YAML = new YamlPlayerFileStorage();
+
+    /** The compact binary storage, one tagged binary file per player */
+    PlayerFileStorage BINARY = new BinaryPlayerFileStorage();
+
+    /**
+     * @return The name of this storage used in the config
+     */
+    @NotNull String getName();
+
+    /**
+     * @return The file extension of this storage, including the leading dot
+     */
+    @NotNull String getExtension();
+
+    /**
+     * Encodes the player data
+     *
+     * @param config The player data
+     * @return The encoded player data
+     * @throws IOException If the player data cannot be encoded
+     */
+    byte @NotNull [] encode(final @NotNull YamlConfiguration config) throws IOException;
+
+    /**
+     * Decodes the player data
+     *
+     * @param data The encoded player data
+     * @return The decoded player data
+     * @throws IOException If the data is malformed
+     */
+    @NotNull YamlConfiguration decode(final byte @NotNull [] data) throws IOException;
+
+    /**
+     * Loads the player data from the given file
+     *
+     * @param file The file to load from
+     * @return The decoded player data, or an empty configuration if the file
+     *         does not exist
+     * @throws IOException If an I/O error occurs or the data is malformed
+     */
+    default @NotNull YamlConfiguration load(final @NotNull File file) throws IOException {
+        return file.exists()
+                ? this.decode(Files.readAllBytes(file.toPath()))
+                : new YamlConfiguration();
+    }
+
+    /**
+     * @return An unmodifiable list of all available storages
+     */
+    static @NotNull @Unmodifiable List<PlayerFileStorage> values() {
+        return List.of(YAML, BINARY);
+    }
+
+    /**
+     * @param name The name of the storage
+     * @return The storage with the given name, or null if there is no such
+     *         storage
+     */
+    @Contract("null -> null")
+    static @Nullable PlayerFileStorage fromName(final @Nullable String name) {
+        for (final var storage : values()) {
+            if (storage.getName().equalsIgnoreCase(name)) {
+                return storage;
+            }
+        }
+
+        return null;
+    }
+}
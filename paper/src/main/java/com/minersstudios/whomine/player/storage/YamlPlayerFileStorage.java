@@ -0,0 +1,52 @@
+package com.minersstudios.whomine.player.storage;
+
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * YAML player file storage, the original per-player {@code <uuid>.yml}
+ * format
+ */
+public final class YamlPlayerFileStorage implements PlayerFileStorage {
+    public static final String NAME = "yaml";
+    public static final String EXTENSION = ".yml";
+
+    YamlPlayerFileStorage() {}
+
+    @Override
+    public @NotNull String getName() {
+        return NAME;
+    }
+
+    @Override
+    public @NotNull String getExtension() {
+        return EXTENSION;
+    }
+
+    @Override
+    public byte @NotNull [] encode(final @NotNull YamlConfiguration config) {
+        return config.saveToString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public @NotNull YamlConfiguration decode(final byte @NotNull [] data) throws IOException {
+        final YamlConfiguration config = new YamlConfiguration();
+
+        try {
+            config.loadFromString(new String(data, StandardCharsets.UTF_8));
+        } catch (final InvalidConfigurationException e) {
+            throw new IOException("Invalid YAML player file", e);
+        }
+
+        return config;
+    }
+
+    @Override
+    public @NotNull String toString() {
+        return NAME;
+    }
+}
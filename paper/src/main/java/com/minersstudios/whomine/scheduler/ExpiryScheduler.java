@@ -0,0 +1,211 @@
+package com.minersstudios.whomine.scheduler;
+
+import com.minersstudios.whomine.WhoMine;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import org.bukkit.scheduler.BukkitTask;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * Scheduler of the expirations of keys, such as the mutes and the bans of
+ * the players.
+ * <br>
+ * The scheduled expirations are kept in a priority queue ordered by their
+ * expiration time, and only a single delayed task is scheduled for the
+ * earliest one, so scheduling an expiration takes O(log n) time and an idle
+ * scheduler does no work at all. When the task fires, the action is called on
+ * the main thread once for every expired key, and the task is rescheduled for
+ * the next expiration.
+ * <br>
+ * Rescheduling or cancelling an expiration only replaces or removes the
+ * current expiration of the key, the outdated queue entries are skipped when
+ * they reach the head of the queue.
+ *
+ * @param <K> The key type
+ */
+public final class ExpiryScheduler<K> {
+    private final WhoMine plugin;
+    private final Consumer<K> action;
+    private final PriorityQueue<Expiry<K>> queue;
+    private final Map<K, Expiry<K>> expiries;
+    private @Nullable BukkitTask task;
+    private long taskTime;
+
+    private static final long TICK_MILLIS = 50L;
+
+    /**
+     * @param plugin The plugin instance
+     * @param action The action called on the main thread for every expired
+     *               key
+     */
+    public ExpiryScheduler(
+            final @NotNull WhoMine plugin,
+            final @NotNull Consumer<K> action
+    ) {
+        this.plugin = plugin;
+        this.action = action;
+        this.queue = new PriorityQueue<>(Comparator.comparingLong(expiry -> expiry.time));
+        this.expiries = new HashMap<>();
+    }
+
+    /**
+     * Schedules the expiration of the key, replacing its previous expiration
+     *
+     * @param key        The key
+     * @param expiration The time, when the key expires
+     */
+    public synchronized void schedule(
+            final @NotNull K key,
+            final @NotNull Instant expiration
+    ) {
+        final var expiry = new Expiry<>(key, expiration.toEpochMilli());
+
+        this.expiries.put(key, expiry);
+        this.queue.add(expiry);
+
+        if (this.queue.size() > (this.expiries.size() << 1) + 16) {
+            this.queue.clear();
+            this.queue.addAll(this.expiries.values());
+        }
+
+        this.reschedule();
+    }
+
+    /**
+     * Cancels the expiration of the key
+     *
+     * @param key The key
+     */
+    public synchronized void cancel(final @NotNull K key) {
+        if (this.expiries.remove(key) != null) {
+            this.reschedule();
+        }
+    }
+
+    /**
+     * Cancels all scheduled expirations
+     */
+    public synchronized void clear() {
+        this.queue.clear();
+        this.expiries.clear();
+        this.reschedule();
+    }
+
+    /**
+     * @param key The key
+     * @return The scheduled expiration time of the key, or null if the key's
+     *         expiration is not scheduled
+     */
+    public synchronized @Nullable Instant getExpiration(final @NotNull K key) {
+        final Expiry<K> expiry = this.expiries.get(key);
+        return expiry == null ? null : Instant.ofEpochMilli(expiry.time);
+    }
+
+    /**
+     * @return The number of scheduled expirations
+     */
+    public synchronized int size() {
+        return this.expiries.size();
+    }
+
+    private void run() {
+        final var expired = new ObjectArrayList<K>();
+
+        synchronized (this) {
+            this.task = null;
+            final long now = System.currentTimeMillis();
+
+            for (
+                    Expiry<K> head = this.peek();
+                    head != null && head.time <= now;
+                    head = this.peek()
+            ) {
+                this.queue.poll();
+                this.expiries.remove(head.key);
+                expired.add(head.key);
+            }
+
+            this.reschedule();
+        }
+
+        for (final var key : expired) {
+            try {
+                this.action.accept(key);
+            } catch (final Throwable e) {
+                this.plugin.getLogger().log(Level.SEVERE, "Failed to handle the expiration of " + key, e);
+            }
+        }
+    }
+
+    /**
+     * Schedules the task for the earliest expiration, or cancels the task if
+     * there are no scheduled expirations. The task is kept if it already
+     * fires no later than the earliest expiration.
+     */
+    private void reschedule() {
+        final Expiry<K> head = this.peek();
+
+        if (head == null) {
+            if (this.task != null) {
+                this.task.cancel();
+                this.task = null;
+            }
+
+            return;
+        }
+
+        if (this.task != null) {
+            if (this.taskTime <= head.time) {
+                return;
+            }
+
+            this.task.cancel();
+        }
+
+        final long delay = Math.max(0L, head.time - System.currentTimeMillis());
+
+        this.taskTime = head.time;
+        this.task = this.plugin.runTaskLater(
+                this::run,
+                (delay + TICK_MILLIS - 1L) / TICK_MILLIS
+        );
+    }
+
+    /**
+     * @return The earliest current expiration, skipping the outdated queue
+     *         entries
+     */
+    private @Nullable Expiry<K> peek() {
+        Expiry<K> head;
+
+        while (
+                (head = this.queue.peek()) != null
+                && this.expiries.get(head.key) != head
+        ) {
+            this.queue.poll();
+        }
+
+        return head;
+    }
+
+    private static final class Expiry<K> {
+        final K key;
+        final long time;
+
+        Expiry(
+                final @NotNull K key,
+                final long time
+        ) {
+            this.key = key;
+            this.time = time;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.minersstudios.whomine.scheduler.task;
+
+import com.destroystokyo.paper.profile.PlayerProfile;
+import com.minersstudios.whomine.WhoMine;
+import com.minersstudios.whomine.player.PlayerInfo;
+import com.minersstudios.whomine.scheduler.ExpiryScheduler;
+import org.bukkit.BanEntry;
+import org.bukkit.BanList;
+import org.bukkit.ban.ProfileBanList;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Pardons the player, whose ban has expired.
+ * <br>
+ * Called by the ban {@link ExpiryScheduler} on the main thread, once for
+ * every expired ban. New bans are scheduled by {@link PlayerInfo#setBanned},
+ * the expirations of all bans in the profile ban list are scheduled with
+ * {@link #scheduleExpirations(WhoMine)} on startup and every
+ * {@link #RESYNC_INTERVAL} ticks, so the bans added by the vanilla commands
+ * or other plugins expire too.
+ */
+public final class BanExpiryHandler implements Consumer<UUID> {
+    private final WhoMine plugin;
+
+    /** The interval in ticks between the resyncs of the ban expirations */
+    public static final long RESYNC_INTERVAL = 6000L;
+
+    public BanExpiryHandler(final @NotNull WhoMine plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public void accept(final @NotNull UUID uuid) {
+        final BanEntry<PlayerProfile> banEntry = getBanEntry(this.plugin, uuid);
+
+        if (banEntry == null) {
+            return;
+        }
+
+        final Date expiration = banEntry.getExpiration();
+
+        if (expiration == null) {
+            return;
+        }
+
+        if (expiration.toInstant().isAfter(Instant.now())) {
+            this.plugin.getCache().getBanExpiryScheduler().schedule(uuid, expiration.toInstant());
+            return;
+        }
+
+        final String name = banEntry.getBanTarget().getName();
+
+        if (name == null) {
+            banEntry.remove();
+        } else {
+            this.plugin.getCache().getPlayerInfoMap().get(uuid, name).pardon(null);
+        }
+    }
+
+    /**
+     * Schedules the expirations of all bans in the profile ban list, that
+     * have an expiration date and a target with a known UUID, unless they are
+     * already scheduled
+     *
+     * @param plugin The plugin instance
+     */
+    public static void scheduleExpirations(final @NotNull WhoMine plugin) {
+        final ProfileBanList banList = plugin.getServer().getBanList(BanList.Type.PROFILE);
+        final ExpiryScheduler<UUID> scheduler = plugin.getCache().getBanExpiryScheduler();
+
+        for (final var banEntry : banList.getEntries()) {
+            final Date expiration = banEntry.getExpiration();
+            final UUID uuid = banEntry.getBanTarget().getId();
+
+            if (
+                    expiration != null
+                    && uuid != null
+                    && !expiration.toInstant().equals(scheduler.getExpiration(uuid))
+            ) {
+                scheduler.schedule(uuid, expiration.toInstant());
+            }
+        }
+    }
+
+    /**
+     * Finds the ban entry by the UUID of its target, as the entry can be
+     * looked up by the profile only if the name of the player is known
+     */
+    private static @Nullable BanEntry<PlayerProfile> getBanEntry(
+            final @NotNull WhoMine plugin,
+            final @NotNull UUID uuid
+    ) {
+        final ProfileBanList banList = plugin.getServer().getBanList(BanList.Type.PROFILE);
+
+        for (final var banEntry : banList.getEntries()) {
+            if (uuid.equals(banEntry.getBanTarget().getId())) {
+                return banEntry;
+            }
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,352 @@
+package com.minersstudios.whomine.scheduler.task;
+
+import com.minersstudios.whomine.collection.DiggingMap;
+import com.minersstudios.whomine.utility.PlayerUtils;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2IntMap;
+import it.unimi.dsi.fastutil.longs.Long2IntMaps;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2ObjectMap;
+import it.unimi.dsi.fastutil.objects.Object2ObjectMaps;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.level.Level;
+import org.bukkit.block.Block;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * The DiggingTask class is a single tick-driven engine that advances all
+ * active custom block digging processes in one pass.
+ * <br>
+ * Processes are indexed by the player's entity id, so each player can have
+ * only one active process at a time. Processes may be started from any
+ * thread, they are moved into the engine at the beginning of the next tick.
+ * Block destroy progress broadcasts made during the pass are batched and sent
+ * once at the end of the tick, one per block.
+ * <br>
+ * The target block ray traces are cached per process and repeated only when
+ * the player has moved or rotated, or every {@link #RAY_TRACE_INTERVAL} ticks.
+ */
+public final class DiggingTask implements Runnable {
+    private final Int2ObjectMap<Process> processes;
+    private final Queue<Process> pending;
+    private final Object2ObjectMap<Level, Long2IntMap> broadcasts;
+    private long tickCount;
+    private int rayTraces;
+    private int broadcastCount;
+
+    private volatile int lastActiveCount;
+    private volatile int lastRayTraces;
+    private volatile int lastBroadcasts;
+    private volatile long lastTickNanos;
+    private volatile long maxTickNanos;
+    private volatile long averageTickNanos;
+
+    /**
+     * The maximum number of ticks for which the cached ray trace result of a
+     * stationary player is reused
+     */
+    public static final int RAY_TRACE_INTERVAL = 4;
+
+    public DiggingTask() {
+        this.processes = new Int2ObjectOpenHashMap<>();
+        this.pending = new ConcurrentLinkedQueue<>();
+        this.broadcasts = new Object2ObjectOpenHashMap<>();
+    }
+
+    /**
+     * Starts the given digging process. If the player already has an active
+     * process, it will be replaced at the beginning of the next tick.
+     * <br>
+     * This method is thread-safe.
+     *
+     * @param process The digging process to start
+     */
+    public void start(final @NotNull Process process) {
+        this.pending.add(process);
+    }
+
+    /**
+     * Buffers the block destroy progress broadcast. All buffered broadcasts
+     * are sent at the end of the current tick, only the last stage for each
+     * block is sent.
+     * <br>
+     * This method must be called from the main thread.
+     *
+     * @param level The level of the block
+     * @param block The block to set the progress for
+     * @param stage The destroying stage of the block
+     */
+    public void broadcastStage(
+            final @NotNull Level level,
+            final @NotNull Block block,
+            final int stage
+    ) {
+        this.broadcasts
+        .computeIfAbsent(level, unused -> new Long2IntOpenHashMap())
+        .put(
+                BlockPos.asLong(block.getX(), block.getY(), block.getZ()),
+                stage
+        );
+    }
+
+    /**
+     * @return The number of active digging processes during the last tick
+     */
+    public int getActiveCount() {
+        return this.lastActiveCount;
+    }
+
+    /**
+     * @return The number of target block ray traces made during the last tick
+     */
+    public int getLastRayTraces() {
+        return this.lastRayTraces;
+    }
+
+    /**
+     * @return The number of block destroy progress broadcasts sent during the
+     *         last tick
+     */
+    public int getLastBroadcasts() {
+        return this.lastBroadcasts;
+    }
+
+    /**
+     * @return The time in nanoseconds spent on the last tick
+     */
+    public long getLastTickNanos() {
+        return this.lastTickNanos;
+    }
+
+    /**
+     * @return The maximum time in nanoseconds spent on a single tick since
+     *         the last {@link #resetMetrics()} call
+     */
+    public long getMaxTickNanos() {
+        return this.maxTickNanos;
+    }
+
+    /**
+     * @return The exponential moving average of the time in nanoseconds spent
+     *         on a single non-idle tick
+     */
+    public long getAverageTickNanos() {
+        return this.averageTickNanos;
+    }
+
+    /**
+     * Resets the maximum and average tick time metrics
+     */
+    public void resetMetrics() {
+        this.maxTickNanos = 0L;
+        this.averageTickNanos = 0L;
+    }
+
+    @Override
+    public void run() {
+        this.tickCount++;
+
+        if (
+                this.processes.isEmpty()
+                && this.pending.isEmpty()
+        ) {
+            this.lastActiveCount = 0;
+            this.lastRayTraces = 0;
+            this.lastBroadcasts = 0;
+            this.lastTickNanos = 0L;
+
+            return;
+        }
+
+        final long start = System.nanoTime();
+        Process process;
+
+        while ((process = this.pending.poll()) != null) {
+            this.processes.put(process.serverPlayer.getId(), process);
+        }
+
+        this.rayTraces = 0;
+        this.broadcastCount = 0;
+        final var iterator = this.processes.values().iterator();
+
+        while (iterator.hasNext()) {
+            process = iterator.next();
+
+            if (process.entry.isCancelled()) {
+                iterator.remove();
+                continue;
+            }
+
+            if (
+                    process.isAlreadyAborted
+                    || !this.isTargeting(process)
+            ) {
+                process.abort();
+            }
+
+            if (process.entry.isAborting()) {
+                process.isAlreadyAborted = true;
+                continue;
+            }
+
+            process.dig(this, ++process.ticks);
+        }
+
+        this.flushBroadcasts();
+
+        final long elapsed = System.nanoTime() - start;
+        final long average = this.averageTickNanos;
+
+        this.lastActiveCount = this.processes.size();
+        this.lastRayTraces = this.rayTraces;
+        this.lastBroadcasts = this.broadcastCount;
+        this.lastTickNanos = elapsed;
+        this.maxTickNanos = Math.max(this.maxTickNanos, elapsed);
+        this.averageTickNanos = average == 0L
+                ? elapsed
+                : average + ((elapsed - average) >> 4);
+    }
+
+    private boolean isTargeting(final @NotNull Process process) {
+        final ServerPlayer serverPlayer = process.serverPlayer;
+        final double x = serverPlayer.getX();
+        final double y = serverPlayer.getEyeY();
+        final double z = serverPlayer.getZ();
+        final float yaw = serverPlayer.getYRot();
+        final float pitch = serverPlayer.getXRot();
+
+        if (
+                process.lastTraceTick != 0L
+                && this.tickCount - process.lastTraceTick < RAY_TRACE_INTERVAL
+                && x == process.lastX
+                && y == process.lastY
+                && z == process.lastZ
+                && yaw == process.lastYaw
+                && pitch == process.lastPitch
+        ) {
+            return process.isTargeting;
+        }
+
+        final Player player = serverPlayer.getBukkitEntity();
+        final Block targetBlock = PlayerUtils.getTargetBlock(player);
+
+        process.isTargeting =
+                process.block.equals(targetBlock)
+                && PlayerUtils.getTargetEntity(player, targetBlock) == null;
+        process.lastTraceTick = this.tickCount;
+        process.lastX = x;
+        process.lastY = y;
+        process.lastZ = z;
+        process.lastYaw = yaw;
+        process.lastPitch = pitch;
+        this.rayTraces++;
+
+        return process.isTargeting;
+    }
+
+    private void flushBroadcasts() {
+        if (this.broadcasts.isEmpty()) {
+            return;
+        }
+
+        for (final var levelEntry : Object2ObjectMaps.fastIterable(this.broadcasts)) {
+            final Level level = levelEntry.getKey();
+            final Long2IntMap stages = levelEntry.getValue();
+
+            for (final var stageEntry : Long2IntMaps.fastIterable(stages)) {
+                final BlockPos blockPos = BlockPos.of(stageEntry.getLongKey());
+
+                level.destroyBlockProgress(
+                        blockPos.hashCode(),
+                        blockPos,
+                        stageEntry.getIntValue()
+                );
+                this.broadcastCount++;
+            }
+
+            stages.clear();
+        }
+    }
+
+    /**
+     * The Process class represents a single digging process of a player,
+     * advanced by the {@link DiggingTask} every tick
+     */
+    public abstract static class Process {
+        private final ServerPlayer serverPlayer;
+        private final Block block;
+        private final DiggingMap.Entry entry;
+        private int ticks;
+        private boolean isAlreadyAborted;
+        private boolean isTargeting;
+        private long lastTraceTick;
+        private double lastX;
+        private double lastY;
+        private double lastZ;
+        private float lastYaw;
+        private float lastPitch;
+
+        /**
+         * Constructs a new digging process
+         *
+         * @param serverPlayer The player who is digging the block
+         * @param block        The block being dug
+         * @param entry        The digging entry of the player
+         */
+        protected Process(
+                final @NotNull ServerPlayer serverPlayer,
+                final @NotNull Block block,
+                final @NotNull DiggingMap.Entry entry
+        ) {
+            this.serverPlayer = serverPlayer;
+            this.block = block;
+            this.entry = entry;
+        }
+
+        /**
+         * @return The player who is digging the block
+         */
+        public final @NotNull ServerPlayer getServerPlayer() {
+            return this.serverPlayer;
+        }
+
+        /**
+         * @return The block being dug
+         */
+        public final @NotNull Block getBlock() {
+            return this.block;
+        }
+
+        /**
+         * @return The digging entry of the player
+         */
+        public final @NotNull DiggingMap.Entry getEntry() {
+            return this.entry;
+        }
+
+        /**
+         * Called when the player is no longer targeting the block, or the
+         * process has already been aborted
+         */
+        protected abstract void abort();
+
+        /**
+         * Called every tick while the process is not aborting
+         *
+         * @param task  The digging task that advances this process
+         * @param ticks The number of ticks the player has been digging,
+         *              starting from 1
+         */
+        protected abstract void dig(
+                final @NotNull DiggingTask task,
+                final int ticks
+        );
+    }
+}
@@ -1,44 +1,51 @@
 package com.minersstudios.whomine.scheduler.task;
 
+import com.minersstudios.whomine.Cache;
 import com.minersstudios.whomine.WhoMine;
 import com.minersstudios.whomine.player.collection.MuteMap;
-import com.minersstudios.whomine.player.collection.PlayerInfoMap;
+import com.minersstudios.whomine.scheduler.ExpiryScheduler;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.Server;
 import org.jetbrains.annotations.NotNull;
 
 import java.time.Instant;
-
-public final class MuteMapTask implements Runnable {
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Unmutes the player, whose mute has expired.
+ * <br>
+ * Called by the {@link ExpiryScheduler} of the {@link MuteMap} on the main
+ * thread, once for every expired mute.
+ */
+public final class MuteMapTask implements Consumer<UUID> {
+    private final WhoMine plugin;
     private final Server server;
-    private final PlayerInfoMap playerInfoMap;
-    private final MuteMap muteMap;
 
     public MuteMapTask(final @NotNull WhoMine plugin) {
+        this.plugin = plugin;
         this.server = plugin.getServer();
-        this.playerInfoMap = plugin.getCache().getPlayerInfoMap();
-        this.muteMap = plugin.getCache().getMuteMap();
     }
 
     @Override
-    public void run() {
-        if (this.muteMap.isEmpty()) {
+    public void accept(final @NotNull UUID uuid) {
+        final Cache cache = this.plugin.getCache();
+        final MuteMap.Entry entry = cache.getMuteMap().getMuteEntry(uuid);
+
+        if (
+                entry == null
+                || entry.getExpiration().isAfter(Instant.now())
+        ) {
             return;
         }
 
-        final Instant currentInstant = Instant.now();
-
-        this.muteMap.entrySet().stream().parallel()
-        .filter(entry -> entry.getValue().getExpiration().isBefore(currentInstant))
-        .forEach(entry -> {
-            final OfflinePlayer player = this.server.getOfflinePlayer(entry.getKey());
-            final String name = player.getName();
+        final OfflinePlayer player = this.server.getOfflinePlayer(uuid);
+        final String name = player.getName();
 
-            if (name != null) {
-                this.playerInfoMap
-                .get(player.getUniqueId(), name)
-                .unmute(this.server.getConsoleSender());
-            }
-        });
+        if (name != null) {
+            cache.getPlayerInfoMap()
+            .get(uuid, name)
+            .unmute(this.server.getConsoleSender());
+        }
     }
 }
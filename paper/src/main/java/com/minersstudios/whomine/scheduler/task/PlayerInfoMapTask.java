@@ -0,0 +1,18 @@
+package com.minersstudios.whomine.scheduler.task;
+
+import com.minersstudios.whomine.Cache;
+import com.minersstudios.whomine.WhoMine;
+import org.jetbrains.annotations.NotNull;
+
+public final class PlayerInfoMapTask implements Runnable {
+    private final Cache cache;
+
+    public PlayerInfoMapTask(final @NotNull WhoMine plugin) {
+        this.cache = plugin.getCache();
+    }
+
+    @Override
+    public void run() {
+        this.cache.getPlayerInfoMap().evict();
+    }
+}
@@ -27,12 +27,10 @@ public final class PlayerListTask implements Runnable {
         final WorldDark worldDark = this.cache.getWorldDark();
         final PlayerInfoMap playerInfoMap = this.cache.getPlayerInfoMap();
 
-        onlinePlayers.stream().parallel()
-        .filter(player -> !worldDark.isInWorldDark(player))
-        .forEach(player ->
-                playerInfoMap
-                .get(player)
-                .savePlayerDataParams()
-        );
+        for (final var player : onlinePlayers) {
+            if (!worldDark.isInWorldDark(player)) {
+                playerInfoMap.get(player).savePlayerDataParams();
+            }
+        }
     }
 }
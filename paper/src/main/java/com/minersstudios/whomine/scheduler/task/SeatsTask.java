@@ -1,32 +1,109 @@
 package com.minersstudios.whomine.scheduler.task;
 
-import com.minersstudios.whomine.WhoMine;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import net.minecraft.util.Mth;
+import org.bukkit.craftbukkit.v1_20_R3.entity.CraftPlayer;
 import org.bukkit.entity.ArmorStand;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.Map;
-
+/**
+ * The SeatsTask class keeps the rotation of the seats in sync with the
+ * rotation of the players sitting on them.
+ * <br>
+ * Seats are indexed by the entity id of the seated player. Every tick, the
+ * yaw of each seated player is compared with the yaw last applied to the
+ * seat, and the seat is rotated only if the difference is at least
+ * {@link #YAW_THRESHOLD} degrees, so the server sends a rotation update to
+ * the players tracking the seat only when the player has actually turned.
+ * <br>
+ * All methods must be called from the main thread.
+ */
 public final class SeatsTask implements Runnable {
-    private final Map<Player, ArmorStand> seats;
+    private final Int2ObjectMap<Seat> seats;
+
+    /** The minimum yaw difference in degrees for the seat to be rotated */
+    public static final float YAW_THRESHOLD = 1.0f;
 
-    public SeatsTask(final @NotNull WhoMine plugin) {
-        this.seats = plugin.getCache().getSeats();
+    public SeatsTask() {
+        this.seats = new Int2ObjectOpenHashMap<>();
     }
 
     @Override
     public void run() {
-        this.seats.entrySet().parallelStream()
-        .forEach(
-                entry -> {
-                    final Player player = entry.getKey();
-                    final ArmorStand armorStand = entry.getValue();
-
-                    armorStand.setRotation(
-                            player.getLocation().getYaw(),
-                            0.0f
-                    );
-                }
-        );
+        for (final var seat : this.seats.values()) {
+            final float yaw = ((CraftPlayer) seat.player).getHandle().getYRot();
+
+            if (Math.abs(Mth.wrapDegrees(yaw - seat.yaw)) < YAW_THRESHOLD) {
+                continue;
+            }
+
+            seat.yaw = yaw;
+
+            seat.armorStand.setRotation(yaw, 0.0f);
+        }
+    }
+
+    /**
+     * Registers the armor stand as the seat of the player
+     *
+     * @param player     The seated player
+     * @param armorStand The seat
+     */
+    public void sit(
+            final @NotNull Player player,
+            final @NotNull ArmorStand armorStand
+    ) {
+        this.seats.put(player.getEntityId(), new Seat(player, armorStand));
+    }
+
+    /**
+     * Unregisters the seat of the player
+     *
+     * @param player The seated player
+     * @return The seat of the player, or null if the player is not sitting
+     */
+    public @Nullable ArmorStand unsit(final @NotNull Player player) {
+        final Seat seat = this.seats.remove(player.getEntityId());
+        return seat == null ? null : seat.armorStand;
+    }
+
+    /**
+     * @param player The player to check
+     * @return True if the player is sitting
+     */
+    public boolean isSitting(final @NotNull Player player) {
+        return this.seats.containsKey(player.getEntityId());
+    }
+
+    /**
+     * @return The number of seated players
+     */
+    public int size() {
+        return this.seats.size();
+    }
+
+    /**
+     * Unregisters all seats
+     */
+    public void clear() {
+        this.seats.clear();
+    }
+
+    private static final class Seat {
+        final Player player;
+        final ArmorStand armorStand;
+        float yaw;
+
+        Seat(
+                final @NotNull Player player,
+                final @NotNull ArmorStand armorStand
+        ) {
+            this.player = player;
+            this.armorStand = armorStand;
+            this.yaw = Float.NaN;
+        }
     }
 }
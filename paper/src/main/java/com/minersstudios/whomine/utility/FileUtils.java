@@ -0,0 +1,54 @@
+package com.minersstudios.whomine.utility;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Utility class for files
+ */
+public final class FileUtils {
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    @Contract(" -> fail")
+    private FileUtils() throws AssertionError {
+        throw new AssertionError("Utility class");
+    }
+
+    /**
+     * Writes the contents to a temporary file next to the given file and then
+     * atomically moves it over the given file, so a crash never leaves a
+     * partially written file
+     *
+     * @param file     The file to write
+     * @param contents The contents to write
+     * @throws IOException If an I/O error occurs
+     */
+    public static void writeAtomically(
+            final @NotNull File file,
+            final byte @NotNull [] contents
+    ) throws IOException {
+        final Path path = file.toPath();
+        final Path parent = path.toAbsolutePath().getParent();
+
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        final Path tempPath = path.resolveSibling(path.getFileName() + TEMP_SUFFIX);
+
+        Files.write(tempPath, contents);
+
+        try {
+            Files.move(tempPath, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (final AtomicMoveNotSupportedException e) {
+            Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -3,18 +3,15 @@ package com.minersstudios.whomine.utility;
 import com.minersstudios.whomine.api.annotation.Key;
 import com.minersstudios.whomine.api.annotation.Namespace;
 import com.minersstudios.whomine.api.annotation.ResourceKey;
+import com.minersstudios.whomine.custom.CustomItemClassifier;
 import com.minersstudios.whomine.custom.block.CustomBlockData;
 import com.minersstudios.whomine.custom.block.CustomBlockRegistry;
 import com.minersstudios.whomine.custom.decor.CustomDecorData;
 import com.minersstudios.whomine.custom.decor.CustomDecorType;
 import com.minersstudios.whomine.custom.item.CustomItem;
 import com.minersstudios.whomine.custom.item.CustomItemType;
-import com.minersstudios.whomine.custom.item.renameable.RenameableItemRegistry;
 import org.bukkit.NamespacedKey;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.inventory.meta.ItemMeta;
-import org.bukkit.persistence.PersistentDataContainer;
-import org.bukkit.persistence.PersistentDataType;
 import org.intellij.lang.annotations.Subst;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
@@ -122,31 +119,20 @@ public final class MSCustomUtils {
      * @param itemStack {@link ItemStack} of custom item / block / decor
      * @return Optional of {@link CustomBlockData}  or {@link CustomDecorData}
      *         or {@link CustomItem} or empty optional if not found
-     * @see #getCustom(NamespacedKey)
+     * @see CustomItemClassifier#classify(ItemStack)
      */
     public static @NotNull Optional<?> getCustom(final @Nullable ItemStack itemStack) {
-        if (itemStack == null) {
-            return Optional.empty();
-        }
-
-        final ItemMeta itemMeta = itemStack.getItemMeta();
+        final CustomItemClassifier.Classification classification = CustomItemClassifier.classify(itemStack);
 
-        if (itemMeta == null) {
-            return Optional.empty();
+        if (classification.getBlockKey() != null) {
+            return classification.getCustomBlockData();
         }
 
-        final PersistentDataContainer container = itemMeta.getPersistentDataContainer();
-
-        for (final var namespacedKey : container.getKeys()) {
-            if (!namespacedKey.equals(RenameableItemRegistry.RENAMEABLE_NAMESPACED_KEY)) {
-                @Subst("namespace") final String namespace = namespacedKey.getNamespace();
-                @Subst("key") final String key = container.get(namespacedKey, PersistentDataType.STRING);
-
-                return getCustom(namespace, key);
-            }
+        if (classification.getDecorKey() != null) {
+            return classification.getCustomDecorData();
         }
 
-        return Optional.empty();
+        return classification.getCustomItem();
     }
 
     /**
@@ -3,6 +3,7 @@ package com.minersstudios.whomine.utility;
 import com.minersstudios.whomine.api.annotation.Key;
 import com.minersstudios.whomine.world.location.MSBoundingBox;
 import com.minersstudios.whomine.world.location.MSPosition;
+import com.minersstudios.whomine.custom.decor.CustomDecor;
 import com.minersstudios.whomine.custom.decor.CustomDecorData;
 import com.minersstudios.whomine.custom.decor.DecorHitBox;
 import org.bukkit.Material;
@@ -155,12 +156,7 @@ public final class MSDecorUtils {
      */
     @Contract("null -> false")
     public static boolean isCustomDecor(final @Nullable Block block) {
-        return block != null
-                && MSBoundingBox.of(block)
-                .hasNMSEntity(
-                        ((CraftWorld) block.getWorld()).getHandle(),
-                        MSDecorUtils::isCustomDecor
-                );
+        return !CustomDecor.allFromBlock(block).isEmpty();
     }
 
     /**
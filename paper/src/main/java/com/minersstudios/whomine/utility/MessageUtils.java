@@ -5,6 +5,7 @@ import com.minersstudios.whomine.WhoMine;
 import com.minersstudios.whomine.locale.TranslationRegistry;
 import com.minersstudios.whomine.locale.Translations;
 import com.minersstudios.whomine.chat.ChatType;
+import com.minersstudios.whomine.chat.LocalChatIndex;
 import com.minersstudios.whomine.discord.DiscordManager;
 import com.minersstudios.whomine.player.PlayerInfo;
 import com.minersstudios.whomine.world.WorldDark;
@@ -47,7 +48,10 @@ public final class MessageUtils {
     }
 
     /**
-     * Sends a message to all players within the specified radius
+     * Sends a message to all players within the specified radius. The
+     * recipients are resolved from the {@link LocalChatIndex} on the calling
+     * thread, so the messages of one sender are delivered in the order they
+     * were sent. The message is rendered once per locale of the recipients.
      *
      * @param message  message
      * @param location center location
@@ -58,10 +62,8 @@ public final class MessageUtils {
             final @NotNull Location location,
             final double radius
     ) {
-        WhoMine.singleton().runTask(
-                () -> location.getWorld().getNearbyPlayers(location, radius)
-                        .forEach(player -> player.sendMessage(message))
-        );
+        WhoMine.singleton().getCache().getLocalChatIndex()
+        .sendMessage(message, location, radius);
     }
 
     /**
@@ -97,9 +99,7 @@ public final class MessageUtils {
                     );
 
             sendLocalMessage(localMessage, location, config.getLocalChatRadius());
-            plugin.runTaskAsync(
-                    () -> discordManager.sendMessage(ChatType.LOCAL, stringLocalMessage)
-            );
+            discordManager.sendMessage(ChatType.LOCAL, stringLocalMessage);
             MSLogger.info(null, localMessage);
             return;
         }
@@ -119,10 +119,8 @@ public final class MessageUtils {
                 );
 
         sendGlobalMessage(globalMessage);
-        plugin.runTaskAsync(() -> {
-            discordManager.sendMessage(ChatType.GLOBAL, stringGlobalMessage.replaceFirst("\\[WM]", ""));
-            discordManager.sendMessage(ChatType.LOCAL, stringGlobalMessage);
-        });
+        discordManager.sendMessage(ChatType.GLOBAL, stringGlobalMessage.replaceFirst("\\[WM]", ""));
+        discordManager.sendMessage(ChatType.LOCAL, stringGlobalMessage);
         MSLogger.info(null, globalMessage);
     }
 
@@ -176,9 +174,7 @@ public final class MessageUtils {
                     .clickEvent(ClickEvent.suggestCommand("/pm " + sender.getID() + " ")))
                     .append(message.color(CHAT_COLOR_SECONDARY))
             );
-            plugin.runTaskAsync(
-                    () -> discordManager.sendMessage(ChatType.LOCAL, privateMessageString)
-            );
+            discordManager.sendMessage(ChatType.LOCAL, privateMessageString);
             MSLogger.info(null, privateMessage);
             return true;
         }
@@ -240,11 +236,9 @@ public final class MessageUtils {
                 sender.getLocation(),
                 config.getLocalChatRadius()
         );
-        plugin.runTaskAsync(
-                () -> discordManager.sendMessage(
-                        ChatType.LOCAL,
-                        ChatUtils.serializePlainComponent(TranslationRegistry.renderComponent(fullMessage))
-                )
+        discordManager.sendMessage(
+                ChatType.LOCAL,
+                ChatUtils.serializePlainComponent(TranslationRegistry.renderComponent(fullMessage))
         );
         MSLogger.info(null, fullMessage);
     }